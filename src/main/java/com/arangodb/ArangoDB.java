@@ -43,7 +43,9 @@ import com.arangodb.internal.net.HostResolver;
 import com.arangodb.internal.util.ArangoDeserializerImpl;
 import com.arangodb.internal.util.ArangoSerializationFactory;
 import com.arangodb.internal.util.ArangoSerializerImpl;
+import com.arangodb.internal.util.ByteArrayPool;
 import com.arangodb.internal.util.DefaultArangoSerialization;
+import com.arangodb.internal.util.HashedWheelTimer;
 import com.arangodb.internal.velocystream.VstCommunicationSync;
 import com.arangodb.internal.velocystream.VstConnectionFactorySync;
 import com.arangodb.model.DBCreateOptions;
@@ -54,6 +56,7 @@ import com.arangodb.util.ArangoCursorInitializer;
 import com.arangodb.util.ArangoDeserializer;
 import com.arangodb.util.ArangoSerialization;
 import com.arangodb.util.ArangoSerializer;
+import com.arangodb.util.RetryPolicy;
 import com.arangodb.velocypack.VPack;
 import com.arangodb.velocypack.VPackAnnotationFieldFilter;
 import com.arangodb.velocypack.VPackAnnotationFieldNaming;
@@ -75,7 +78,6 @@ import javax.net.ssl.SSLContext;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.util.Collection;
-import java.util.Properties;
 
 /**
  * Central access point for applications to communicate with an ArangoDB server.
@@ -102,28 +104,12 @@ public interface ArangoDB extends ArangoSerializationAccessor {
      */
     class Builder extends InternalArangoDBBuilder {
 
-        private static final String PROPERTY_KEY_PROTOCOL = "arangodb.protocol";
-
-        protected Protocol protocol;
-
         public Builder() {
             super();
         }
 
-        @Override
-        protected void loadProperties(final Properties properties) {
-            super.loadProperties(properties);
-            protocol = loadProtocol(properties, protocol);
-        }
-
-        private static Protocol loadProtocol(final Properties properties, final Protocol currentValue) {
-            return Protocol.valueOf(
-                    getProperty(properties, PROPERTY_KEY_PROTOCOL, currentValue, ArangoDefaults.DEFAULT_NETWORK_PROTOCOL)
-                            .toUpperCase());
-        }
-
         public Builder useProtocol(final Protocol protocol) {
-            this.protocol = protocol;
+            setProtocol(protocol);
             return this;
         }
 
@@ -228,6 +214,86 @@ public interface ArangoDB extends ArangoSerializationAccessor {
             return this;
         }
 
+        /**
+         * Sets the maximum number of concurrent streams, i.e. requests in flight, of a connection when
+         * {@link Protocol#HTTP2_JSON} or {@link Protocol#HTTP2_VPACK} is used. The server may announce a lower limit.
+         * Further requests wait until a stream completes.
+         *
+         * @param http2MaxConcurrentStreams max number of concurrent streams per connection (default: 100)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder http2MaxConcurrentStreams(final Integer http2MaxConcurrentStreams) {
+            setHttp2MaxConcurrentStreams(http2MaxConcurrentStreams);
+            return this;
+        }
+
+        /**
+         * Sets the HTTP/2 flow control window of every stream, i.e. how many bytes of a response the server may send
+         * before the driver acknowledges them, when {@link Protocol#HTTP2_JSON} or {@link Protocol#HTTP2_VPACK} is
+         * used.
+         *
+         * @param http2InitialWindowSize receive window of a stream in bytes (default: 1 MiB)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder http2InitialWindowSize(final Integer http2InitialWindowSize) {
+            setHttp2InitialWindowSize(http2InitialWindowSize);
+            return this;
+        }
+
+        /**
+         * Sets the HTTP/2 flow control window of a whole connection, shared by all of its streams, when
+         * {@link Protocol#HTTP2_JSON} or {@link Protocol#HTTP2_VPACK} is used.
+         *
+         * @param http2ConnectionWindowSize receive window of a connection in bytes (default: 16 MiB)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder http2ConnectionWindowSize(final Integer http2ConnectionWindowSize) {
+            setHttp2ConnectionWindowSize(http2ConnectionWindowSize);
+            return this;
+        }
+
+        /**
+         * Sets whether all requests to a host share one HTTP client, whose connection manager keeps up to
+         * {@link #maxConnections(Integer)} connections to the host, when {@link Protocol#HTTP_JSON} or
+         * {@link Protocol#HTTP_VPACK} is used. Otherwise the driver opens up to {@code maxConnections} clients per
+         * host, each with a single connection.
+         * <p>
+         * A shared connection manager hands out any idle connection to the next request, so connections are reused
+         * more often and closed when idle for longer than {@link #httpIdleTimeout(Long)}.
+         *
+         * @param httpSharedConnectionManager whether to share one connection manager per host (default: false)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder httpSharedConnectionManager(final Boolean httpSharedConnectionManager) {
+            setHttpSharedConnectionManager(httpSharedConnectionManager);
+            return this;
+        }
+
+        /**
+         * Sets the time after which an idle HTTP connection is closed by a shared connection manager, see
+         * {@link #httpSharedConnectionManager(Boolean)}.
+         *
+         * @param httpIdleTimeout idle time in milliseconds, {@code 0} to keep idle connections open (default: 30000)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder httpIdleTimeout(final Long httpIdleTimeout) {
+            setHttpIdleTimeout(httpIdleTimeout);
+            return this;
+        }
+
+        /**
+         * Sets the time of inactivity after which a pooled HTTP connection is checked to be still open before it is
+         * reused for a request.
+         *
+         * @param httpValidateAfterInactivity time of inactivity in milliseconds, a negative value disables the check
+         *                                    (default: 2000)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder httpValidateAfterInactivity(final Integer httpValidateAfterInactivity) {
+            setHttpValidateAfterInactivity(httpValidateAfterInactivity);
+            return this;
+        }
+
         /**
          * Sets the chunk size when {@link Protocol#VST} is used.
          *
@@ -250,6 +316,8 @@ public interface ArangoDB extends ArangoSerializationAccessor {
          * {@link Protocol#VST} == 1
          * {@link Protocol#HTTP_JSON} == 20
          * {@link Protocol#HTTP_VPACK} == 20
+         * {@link Protocol#HTTP2_JSON} == 1
+         * {@link Protocol#HTTP2_VPACK} == 1
          * </pre>
          *
          * @param maxConnections max number of connections
@@ -312,6 +380,166 @@ public interface ArangoDB extends ArangoSerializationAccessor {
             return this;
         }
 
+        /**
+         * Whether or not VST connections should use non-blocking I/O. If set to {@code true}, the sockets of all
+         * VST connections are served by a small, fixed set of shared selector threads (see
+         * {@link #nioThreads(Integer)}) instead of a dedicated reader thread per connection. SSL connections always use
+         * blocking I/O.
+         *
+         * @param useNio whether or not use non-blocking I/O for VST connections (default: {@code false})
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder useNio(final Boolean useNio) {
+            setUseNio(useNio);
+            return this;
+        }
+
+        /**
+         * Whether or not VST responses should be read into buffers taken from a bounded pool shared by all
+         * connections, instead of a new buffer per response. The buffer of a response is given back to the pool once
+         * the response is deserialized, unless the result may still refer to it: after deserialization the result is
+         * walked, and if it is or contains a {@link com.arangodb.velocypack.VPackSlice} (or cannot be walked
+         * completely, e.g. a long list of entities) the buffer is left to the garbage collector. Results of
+         * {@link ArangoDB#execute(Request)} and cursors are never given back. Has no effect on protocols other than
+         * VST.
+         *
+         * @param poolResponseBuffers whether or not to pool the buffers of VST responses (default: {@code false})
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder poolResponseBuffers(final Boolean poolResponseBuffers) {
+            setPoolResponseBuffers(poolResponseBuffers);
+            return this;
+        }
+
+        /**
+         * Sets the number of selector threads shared by all VST connections when {@link #useNio(Boolean)} is enabled.
+         *
+         * @param nioThreads number of selector threads (default: number of available processors, at most 4)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder nioThreads(final Integer nioThreads) {
+            setNioThreads(nioThreads);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of bytes written to a VST connection in a single write. Requests sent concurrently
+         * over the same connection are coalesced into one write up to this size.
+         *
+         * @param writeBatchSize size in bytes (default: 65536)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder writeBatchSize(final Integer writeBatchSize) {
+            setWriteBatchSize(writeBatchSize);
+            return this;
+        }
+
+        /**
+         * Sets the time a VST connection waits for further requests before writing a batch which has not yet reached
+         * {@link #writeBatchSize(Integer)}. A small value can increase throughput under high concurrency at the cost of
+         * latency.
+         *
+         * @param writeLingerMicros time in microseconds (default: 0, write immediately)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder writeLingerMicros(final Integer writeLingerMicros) {
+            setWriteLingerMicros(writeLingerMicros);
+            return this;
+        }
+
+        /**
+         * Sets the backoff before reconnecting to a host after consecutive failed connection attempts. The first
+         * failed attempt is retried immediately, from the second one on the delay is doubled per failure up to
+         * {@link #reconnectMaxDelay(Integer)} and half of it is randomized. Only one thread at a time tries to
+         * reconnect a connection, other threads fail over to the next host meanwhile.
+         *
+         * @param reconnectDelay delay in milliseconds (default: 100, 0 disables the backoff)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder reconnectDelay(final Integer reconnectDelay) {
+            setReconnectDelay(reconnectDelay);
+            return this;
+        }
+
+        /**
+         * Sets the upper bound of the backoff before reconnecting to a host, see {@link #reconnectDelay(Integer)}.
+         *
+         * @param reconnectMaxDelay delay in milliseconds (default: 10000)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder reconnectMaxDelay(final Integer reconnectMaxDelay) {
+            setReconnectMaxDelay(reconnectMaxDelay);
+            return this;
+        }
+
+        /**
+         * Enables hedging of reads: a read (GET or dirty read) not answered within the given percentile of the recent
+         * response times is sent a second time, to another host if the load balancing strategy is
+         * {@link LoadBalancingStrategy#ROUND_ROBIN} or {@link LoadBalancingStrategy#PEAK_EWMA}. The first response
+         * wins. Reads of cursors and stream transactions are never hedged. Hedged reads are sent from a bounded
+         * thread pool of the driver instance.
+         *
+         * @param hedgingPercentile percentile between 0 and 1, e.g. 0.99 (default: {@code null}, hedging disabled)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder hedgingPercentile(final Double hedgingPercentile) {
+            setHedgingPercentile(hedgingPercentile);
+            return this;
+        }
+
+        /**
+         * Enables a circuit breaker per host. Once the given percentage of the requests to a host within the last 10
+         * seconds failed with an I/O error, a timeout or {@code 503 Service Unavailable} (at least 20 requests), the
+         * host is not used anymore for {@link #circuitBreakerOpenDuration(Integer)}, then a single request probes
+         * it. Requests fail over to the next host meanwhile, or fail fast if the breakers of all hosts are open.
+         *
+         * @param circuitBreakerFailureRate failure rate in percent, between 1 and 100 (default: {@code null},
+         *                                  circuit breaker disabled)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder circuitBreakerFailureRate(final Integer circuitBreakerFailureRate) {
+            setCircuitBreakerFailureRate(circuitBreakerFailureRate);
+            return this;
+        }
+
+        /**
+         * Sets the time an open circuit breaker rejects requests to its host before probing it again, see
+         * {@link #circuitBreakerFailureRate(Integer)}.
+         *
+         * @param circuitBreakerOpenDuration duration in milliseconds (default: 5000)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder circuitBreakerOpenDuration(final Integer circuitBreakerOpenDuration) {
+            setCircuitBreakerOpenDuration(circuitBreakerOpenDuration);
+            return this;
+        }
+
+        /**
+         * Sets the policy deciding whether and when failed requests are retried, e.g. a
+         * {@link com.arangodb.util.DefaultRetryPolicy} retrying idempotent requests failing with a transient error.
+         *
+         * @param retryPolicy retry policy (default: {@code null}, requests are not retried)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder retryPolicy(final RetryPolicy retryPolicy) {
+            setRetryPolicy(retryPolicy);
+            return this;
+        }
+
+        /**
+         * Enables an adaptive limit of the requests in flight to every host. The limit follows the round-trip times
+         * of the requests to the host: it grows while they are stable and shrinks as soon as they rise, i.e. the host
+         * starts queueing requests, or requests fail with a timeout, an I/O error or {@code 503 Service
+         * Unavailable}. Requests exceeding the current limit fail fast instead of being sent.
+         *
+         * @param concurrencyLimit upper bound of the limit of every host (default: {@code null}, no limit)
+         * @return {@link ArangoDB.Builder}
+         */
+        public Builder concurrencyLimit(final Integer concurrencyLimit) {
+            setConcurrencyLimit(concurrencyLimit);
+            return this;
+        }
+
         /**
          * Sets the load balancing strategy to be used in an ArangoDB cluster setup.
          * In case of Active-Failover deployment set to {@link LoadBalancingStrategy#NONE} or not set at all, since that
@@ -635,23 +863,37 @@ public interface ArangoDB extends ArangoSerializationAccessor {
 
             int protocolMaxConnections = protocol == Protocol.VST ?
                     ArangoDefaults.MAX_CONNECTIONS_VST_DEFAULT :
-                    ArangoDefaults.MAX_CONNECTIONS_HTTP_DEFAULT;
+                    protocol == Protocol.HTTP2_JSON || protocol == Protocol.HTTP2_VPACK ?
+                            ArangoDefaults.MAX_CONNECTIONS_HTTP2_DEFAULT :
+                            ArangoDefaults.MAX_CONNECTIONS_HTTP_DEFAULT;
             final int max = maxConnections != null ? Math.max(1, maxConnections) : protocolMaxConnections;
-
-            final ConnectionFactory connectionFactory = (protocol == null || Protocol.VST == protocol)
-                    ? new VstConnectionFactorySync(host, timeout, connectionTtl, keepAliveInterval, useSsl, sslContext)
+            final boolean sharedConnectionManager = Boolean.TRUE == httpSharedConnectionManager
+                    && (protocol == Protocol.HTTP_JSON || protocol == Protocol.HTTP_VPACK);
+            final int poolSize = sharedConnectionManager ? 1 : max;
+
+            final HashedWheelTimer timer = createTimer();
+            final boolean vst = protocol == null || Protocol.VST == protocol;
+            final ByteArrayPool bufferPool = vst ? createResponseBufferPool() : null;
+            final ConnectionFactory connectionFactory = vst
+                    ? new VstConnectionFactorySync(host, timeout, connectionTtl, keepAliveInterval, useSsl, sslContext,
+                    createEventLoopGroup(), writeBatchSize, writeLingerMicros, timer, reconnectDelay,
+                    reconnectMaxDelay, bufferPool)
                     : new HttpConnectionFactory(timeout, user, password, useSsl, sslContext, hostnameVerifier, custom,
-                    protocol, connectionTtl, httpCookieSpec, httpRequestRetryHandler);
+                    protocol, connectionTtl, httpCookieSpec, httpRequestRetryHandler, reconnectDelay,
+                    reconnectMaxDelay, http2MaxConcurrentStreams, http2InitialWindowSize, http2ConnectionWindowSize,
+                    sharedConnectionManager ? max : null, sharedConnectionManager ? httpIdleTimeout : null,
+                    httpValidateAfterInactivity);
 
-            final Collection<Host> hostList = createHostList(max, connectionFactory);
-            final HostResolver hostResolver = createHostResolver(hostList, max, connectionFactory);
+            final Collection<Host> hostList = createHostList(poolSize, connectionFactory);
+            final HostResolver hostResolver = createHostResolver(hostList, poolSize, connectionFactory);
             final HostHandler hostHandler = createHostHandler(hostResolver);
 
             return new ArangoDBImpl(
                     new VstCommunicationSync.Builder(hostHandler).timeout(timeout).user(user).password(password)
                             .useSsl(useSsl).sslContext(sslContext).chunksize(chunksize).maxConnections(maxConnections)
                             .connectionTtl(connectionTtl),
-                    new HttpCommunication.Builder(hostHandler), util, protocol, hostResolver, new ArangoContext());
+                    new HttpCommunication.Builder(hostHandler), util, protocol, hostResolver, createHedging(timer),
+                    createRetry(timer), bufferPool, new ArangoContext());
         }
 
     }
@@ -39,5 +39,15 @@ public enum Protocol {
      *
      * @see <a href="https://github.com/arangodb/velocypack">VelocyPack specification</a>
      */
-    HTTP_VPACK
+    HTTP_VPACK,
+    /**
+     * HTTP/2 with JSON body
+     */
+    HTTP2_JSON,
+    /**
+     * HTTP/2 with VelocyPack body
+     *
+     * @see <a href="https://github.com/arangodb/velocypack">VelocyPack specification</a>
+     */
+    HTTP2_VPACK
 }
@@ -24,6 +24,8 @@ import com.arangodb.ArangoDBException;
 import com.arangodb.ArangoSerializationAccessor;
 import com.arangodb.Protocol;
 import com.arangodb.async.internal.ArangoDBAsyncImpl;
+import com.arangodb.async.internal.http.HttpCommunicationAsync;
+import com.arangodb.async.internal.http.HttpConnectionFactoryAsync;
 import com.arangodb.async.internal.velocystream.VstCommunicationAsync;
 import com.arangodb.async.internal.velocystream.VstConnectionFactoryAsync;
 import com.arangodb.entity.ArangoDBVersion;
@@ -37,6 +39,8 @@ import com.arangodb.entity.UserEntity;
 import com.arangodb.internal.ArangoContext;
 import com.arangodb.internal.ArangoDefaults;
 import com.arangodb.internal.InternalArangoDBBuilder;
+import com.arangodb.internal.http.HttpCommunication;
+import com.arangodb.internal.http.HttpConnectionFactory;
 import com.arangodb.internal.net.ConnectionFactory;
 import com.arangodb.internal.net.HostHandler;
 import com.arangodb.internal.net.HostResolver;
@@ -44,8 +48,10 @@ import com.arangodb.internal.util.ArangoDeserializerImpl;
 import com.arangodb.internal.util.ArangoSerializationFactory;
 import com.arangodb.internal.util.ArangoSerializerImpl;
 import com.arangodb.internal.util.DefaultArangoSerialization;
+import com.arangodb.internal.util.HashedWheelTimer;
 import com.arangodb.internal.velocystream.VstCommunicationSync;
 import com.arangodb.internal.velocystream.VstConnectionFactorySync;
+import com.arangodb.internal.velocystream.internal.VstEventLoopGroup;
 import com.arangodb.model.DBCreateOptions;
 import com.arangodb.model.LogOptions;
 import com.arangodb.model.UserCreateOptions;
@@ -53,6 +59,7 @@ import com.arangodb.model.UserUpdateOptions;
 import com.arangodb.util.ArangoDeserializer;
 import com.arangodb.util.ArangoSerialization;
 import com.arangodb.util.ArangoSerializer;
+import com.arangodb.util.RetryPolicy;
 import com.arangodb.velocypack.VPack;
 import com.arangodb.velocypack.VPackAnnotationFieldFilter;
 import com.arangodb.velocypack.VPackAnnotationFieldNaming;
@@ -68,6 +75,7 @@ import com.arangodb.velocypack.ValueType;
 import com.arangodb.velocystream.Request;
 import com.arangodb.velocystream.Response;
 
+import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
@@ -337,6 +345,22 @@ public interface ArangoDBAsync extends ArangoSerializationAccessor {
             return this;
         }
 
+        /**
+         * Sets the protocol used to communicate with the server. With {@link Protocol#HTTP_JSON} or
+         * {@link Protocol#HTTP_VPACK} all connections use non-blocking I/O, served by a small, fixed set of shared
+         * selector threads (see {@link #nioThreads(Integer)}). Each connection sends one request at a time, further
+         * requests are queued until one of the {@link #maxConnections(Integer)} connections of a host is free. The
+         * HTTP/2 protocols are not supported.
+         *
+         * @param protocol {@link Protocol#VST}, {@link Protocol#HTTP_JSON} or {@link Protocol#HTTP_VPACK}
+         *                 (default: {@link Protocol#VST})
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder useProtocol(final Protocol protocol) {
+            setProtocol(protocol);
+            return this;
+        }
+
         /**
          * Adds a host to connect to. Multiple hosts can be added to provide fallbacks.
          *
@@ -350,7 +374,8 @@ public interface ArangoDBAsync extends ArangoSerializationAccessor {
         }
 
         /**
-         * Sets the timeout in milliseconds. It is used as socket timeout when opening a VecloyStream.
+         * Sets the timeout in milliseconds. It is used as socket timeout when opening a VecloyStream and as default
+         * time to wait for the response of a request (see {@link Request#setTimeout(Integer)}).
          *
          * @param timeout timeout in milliseconds
          * @return {@link ArangoDBAsync.Builder}
@@ -404,6 +429,17 @@ public interface ArangoDBAsync extends ArangoSerializationAccessor {
             return this;
         }
 
+        /**
+         * Sets the {@link javax.net.ssl.HostnameVerifier} to be used when using ssl with http protocol.
+         *
+         * @param hostnameVerifier HostnameVerifier to be used
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder hostnameVerifier(final HostnameVerifier hostnameVerifier) {
+            setHostnameVerifier(hostnameVerifier);
+            return this;
+        }
+
         /**
          * Sets the chunk size when {@link Protocol#VST} is used.
          *
@@ -423,7 +459,8 @@ public interface ArangoDBAsync extends ArangoSerializationAccessor {
          * least as high as the number of ArangoDB coordinators in the cluster.
          * </p>
          *
-         * @param maxConnections max number of connections (default: 1)
+         * @param maxConnections max number of connections (default: 1 for {@link Protocol#VST}, 20 for the HTTP
+         *                       protocols)
          * @return {@link ArangoDBAsync.Builder}
          */
         public Builder maxConnections(final Integer maxConnections) {
@@ -472,6 +509,149 @@ public interface ArangoDBAsync extends ArangoSerializationAccessor {
             return this;
         }
 
+        /**
+         * Whether or not VST connections should use non-blocking I/O. If set to {@code true}, the sockets of all
+         * VST connections are served by a small, fixed set of shared selector threads (see
+         * {@link #nioThreads(Integer)}) instead of a dedicated reader thread per connection. SSL connections always use
+         * blocking I/O.
+         *
+         * @param useNio whether or not use non-blocking I/O for VST connections (default: {@code false})
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder useNio(final Boolean useNio) {
+            setUseNio(useNio);
+            return this;
+        }
+
+        /**
+         * Sets the number of selector threads shared by all VST connections when {@link #useNio(Boolean)} is enabled,
+         * respectively by all connections of the HTTP protocols (see {@link #useProtocol(Protocol)}).
+         *
+         * @param nioThreads number of selector threads (default: number of available processors, at most 4)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder nioThreads(final Integer nioThreads) {
+            setNioThreads(nioThreads);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of bytes written to a VST connection in a single write. Requests sent concurrently
+         * over the same connection are coalesced into one write up to this size.
+         *
+         * @param writeBatchSize size in bytes (default: 65536)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder writeBatchSize(final Integer writeBatchSize) {
+            setWriteBatchSize(writeBatchSize);
+            return this;
+        }
+
+        /**
+         * Sets the time a VST connection waits for further requests before writing a batch which has not yet reached
+         * {@link #writeBatchSize(Integer)}. A small value can increase throughput under high concurrency at the cost of
+         * latency.
+         *
+         * @param writeLingerMicros time in microseconds (default: 0, write immediately)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder writeLingerMicros(final Integer writeLingerMicros) {
+            setWriteLingerMicros(writeLingerMicros);
+            return this;
+        }
+
+        /**
+         * Sets the backoff before reconnecting to a host after consecutive failed connection attempts. The first
+         * failed attempt is retried immediately, from the second one on the delay is doubled per failure up to
+         * {@link #reconnectMaxDelay(Integer)} and half of it is randomized. Only one thread at a time tries to
+         * reconnect a connection, other threads fail over to the next host meanwhile.
+         *
+         * @param reconnectDelay delay in milliseconds (default: 100, 0 disables the backoff)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder reconnectDelay(final Integer reconnectDelay) {
+            setReconnectDelay(reconnectDelay);
+            return this;
+        }
+
+        /**
+         * Sets the upper bound of the backoff before reconnecting to a host, see {@link #reconnectDelay(Integer)}.
+         *
+         * @param reconnectMaxDelay delay in milliseconds (default: 10000)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder reconnectMaxDelay(final Integer reconnectMaxDelay) {
+            setReconnectMaxDelay(reconnectMaxDelay);
+            return this;
+        }
+
+        /**
+         * Enables hedging of reads: a read (GET or dirty read) not answered within the given percentile of the recent
+         * response times is sent a second time, to another host if the load balancing strategy is
+         * {@link LoadBalancingStrategy#ROUND_ROBIN} or {@link LoadBalancingStrategy#PEAK_EWMA}. The first response
+         * wins. Reads of cursors and stream transactions are never hedged.
+         *
+         * @param hedgingPercentile percentile between 0 and 1, e.g. 0.99 (default: {@code null}, hedging disabled)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder hedgingPercentile(final Double hedgingPercentile) {
+            setHedgingPercentile(hedgingPercentile);
+            return this;
+        }
+
+        /**
+         * Enables a circuit breaker per host. Once the given percentage of the requests to a host within the last 10
+         * seconds failed with an I/O error, a timeout or {@code 503 Service Unavailable} (at least 20 requests), the
+         * host is not used anymore for {@link #circuitBreakerOpenDuration(Integer)}, then a single request probes
+         * it. Requests fail over to the next host meanwhile, or fail fast if the breakers of all hosts are open.
+         *
+         * @param circuitBreakerFailureRate failure rate in percent, between 1 and 100 (default: {@code null},
+         *                                  circuit breaker disabled)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder circuitBreakerFailureRate(final Integer circuitBreakerFailureRate) {
+            setCircuitBreakerFailureRate(circuitBreakerFailureRate);
+            return this;
+        }
+
+        /**
+         * Sets the time an open circuit breaker rejects requests to its host before probing it again, see
+         * {@link #circuitBreakerFailureRate(Integer)}.
+         *
+         * @param circuitBreakerOpenDuration duration in milliseconds (default: 5000)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder circuitBreakerOpenDuration(final Integer circuitBreakerOpenDuration) {
+            setCircuitBreakerOpenDuration(circuitBreakerOpenDuration);
+            return this;
+        }
+
+        /**
+         * Sets the policy deciding whether and when failed requests are retried, e.g. a
+         * {@link com.arangodb.util.DefaultRetryPolicy} retrying idempotent requests failing with a transient error.
+         *
+         * @param retryPolicy retry policy (default: {@code null}, requests are not retried)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder retryPolicy(final RetryPolicy retryPolicy) {
+            setRetryPolicy(retryPolicy);
+            return this;
+        }
+
+        /**
+         * Enables an adaptive limit of the requests in flight to every host. The limit follows the round-trip times
+         * of the requests to the host: it grows while they are stable and shrinks as soon as they rise, i.e. the host
+         * starts queueing requests, or requests fail with a timeout, an I/O error or {@code 503 Service
+         * Unavailable}. Requests exceeding the current limit fail fast instead of being sent.
+         *
+         * @param concurrencyLimit upper bound of the limit of every host (default: {@code null}, no limit)
+         * @return {@link ArangoDBAsync.Builder}
+         */
+        public Builder concurrencyLimit(final Integer concurrencyLimit) {
+            setConcurrencyLimit(concurrencyLimit);
+            return this;
+        }
+
         /**
          * Sets the load balancing strategy to be used in an ArangoDB cluster setup.
          * In case of Active-Failover deployment set to {@link LoadBalancingStrategy#NONE} or not set at all, since that
@@ -793,12 +973,32 @@ public interface ArangoDBAsync extends ArangoSerializationAccessor {
             final ArangoSerialization custom = customSerializer != null ? customSerializer : internal;
             final ArangoSerializationFactory util = new ArangoSerializationFactory(internal, custom);
 
+            if (protocol == Protocol.HTTP2_JSON || protocol == Protocol.HTTP2_VPACK) {
+                throw new ArangoDBException("Protocol " + protocol + " is not supported by ArangoDBAsync");
+            }
+            final boolean http = protocol == Protocol.HTTP_JSON || protocol == Protocol.HTTP_VPACK;
+
             final int max = maxConnections != null ? Math.max(1, maxConnections)
-                    : ArangoDefaults.MAX_CONNECTIONS_VST_DEFAULT;
-            final ConnectionFactory syncConnectionFactory = new VstConnectionFactorySync(host, timeout, connectionTtl,
-                    keepAliveInterval, useSsl, sslContext);
-            final ConnectionFactory asyncConnectionFactory = new VstConnectionFactoryAsync(host, timeout, connectionTtl,
-                    keepAliveInterval, useSsl, sslContext);
+                    : http ? ArangoDefaults.MAX_CONNECTIONS_HTTP_DEFAULT : ArangoDefaults.MAX_CONNECTIONS_VST_DEFAULT;
+            final HashedWheelTimer timer = createTimer();
+            final ConnectionFactory syncConnectionFactory;
+            final ConnectionFactory asyncConnectionFactory;
+            if (http) {
+                syncConnectionFactory = new HttpConnectionFactory(timeout, user, password, useSsl, sslContext,
+                        hostnameVerifier, custom, protocol, connectionTtl, httpCookieSpec, httpRequestRetryHandler,
+                        reconnectDelay, reconnectMaxDelay, null, null, null, null, null, httpValidateAfterInactivity);
+                asyncConnectionFactory = new HttpConnectionFactoryAsync(timeout, user, password, useSsl, sslContext,
+                        hostnameVerifier, custom, protocol, connectionTtl, reconnectDelay, reconnectMaxDelay,
+                        new VstEventLoopGroup(nioThreads, "arangodb-http-"));
+            } else {
+                final VstEventLoopGroup eventLoopGroup = createEventLoopGroup();
+                syncConnectionFactory = new VstConnectionFactorySync(host, timeout, connectionTtl,
+                        keepAliveInterval, useSsl, sslContext, eventLoopGroup, writeBatchSize, writeLingerMicros, timer,
+                        reconnectDelay, reconnectMaxDelay, null);
+                asyncConnectionFactory = new VstConnectionFactoryAsync(host, timeout, connectionTtl,
+                        keepAliveInterval, useSsl, sslContext, eventLoopGroup, writeBatchSize, writeLingerMicros, timer,
+                        reconnectDelay, reconnectMaxDelay);
+            }
             final HostResolver syncHostResolver = createHostResolver(createHostList(max, syncConnectionFactory), max,
                     syncConnectionFactory);
             final HostResolver asyncHostResolver = createHostResolver(createHostList(max, asyncConnectionFactory), max,
@@ -807,10 +1007,15 @@ public interface ArangoDBAsync extends ArangoSerializationAccessor {
             final HostHandler asyncHostHandler = createHostHandler(asyncHostResolver);
             return new ArangoDBAsyncImpl(
                     asyncBuilder(asyncHostHandler),
+                    new HttpCommunicationAsync.Builder(asyncHostHandler),
                     util,
                     syncBuilder(syncHostHandler),
+                    new HttpCommunication.Builder(syncHostHandler),
+                    protocol,
                     asyncHostResolver,
                     syncHostResolver,
+                    createHedging(timer),
+                    createRetry(timer),
                     new ArangoContext());
         }
 
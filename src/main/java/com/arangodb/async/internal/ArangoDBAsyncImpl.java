@@ -21,19 +21,23 @@
 package com.arangodb.async.internal;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.async.ArangoDBAsync;
 import com.arangodb.async.ArangoDatabaseAsync;
+import com.arangodb.async.internal.http.HttpCommunicationAsync;
 import com.arangodb.async.internal.velocystream.VstCommunicationAsync;
 import com.arangodb.entity.*;
 import com.arangodb.internal.*;
+import com.arangodb.internal.http.HttpCommunication;
+import com.arangodb.internal.http.HttpProtocol;
 import com.arangodb.internal.net.CommunicationProtocol;
 import com.arangodb.internal.net.HostResolver;
+import com.arangodb.internal.net.RequestHedging;
+import com.arangodb.internal.net.RequestRetry;
 import com.arangodb.internal.util.ArangoSerializationFactory;
 import com.arangodb.internal.util.ArangoSerializationFactory.Serializer;
-import com.arangodb.internal.velocystream.VstCommunication;
 import com.arangodb.internal.velocystream.VstCommunicationSync;
 import com.arangodb.internal.velocystream.VstProtocol;
-import com.arangodb.internal.velocystream.internal.VstConnectionSync;
 import com.arangodb.model.DBCreateOptions;
 import com.arangodb.model.LogOptions;
 import com.arangodb.model.UserCreateOptions;
@@ -54,18 +58,26 @@ public class ArangoDBAsyncImpl extends InternalArangoDB<ArangoExecutorAsync> imp
 
     public ArangoDBAsyncImpl(
             final VstCommunicationAsync.Builder asyncCommBuilder,
+            final HttpCommunicationAsync.Builder asyncHttpCommBuilder,
             final ArangoSerializationFactory util,
             final VstCommunicationSync.Builder syncCommBuilder,
+            final HttpCommunication.Builder syncHttpCommBuilder,
+            final Protocol protocol,
             final HostResolver asyncHostResolver,
             final HostResolver syncHostResolver,
+            final RequestHedging hedging,
+            final RequestRetry retry,
             final ArangoContext context
     ) {
 
-        super(new ArangoExecutorAsync(asyncCommBuilder.build(util.get(Serializer.INTERNAL)), util, new DocumentCache()), util, context);
+        super(new ArangoExecutorAsync(isHttp(protocol)
+                ? asyncHttpCommBuilder.build(util.get(Serializer.INTERNAL))
+                : asyncCommBuilder.build(util.get(Serializer.INTERNAL)), util, new DocumentCache(),
+                hedging, retry), util, context);
 
-        final VstCommunication<Response, VstConnectionSync> cacheCom = syncCommBuilder.build(util.get(Serializer.INTERNAL));
-
-        cp = new VstProtocol(cacheCom);
+        cp = isHttp(protocol)
+                ? new HttpProtocol(syncHttpCommBuilder.build(util.get(Serializer.INTERNAL)))
+                : new VstProtocol(syncCommBuilder.build(util.get(Serializer.INTERNAL)));
 
         ArangoExecutorSync arangoExecutorSync = new ArangoExecutorSync(cp, util, new DocumentCache());
         asyncHostResolver.init(arangoExecutorSync, util.get(Serializer.INTERNAL));
@@ -73,6 +85,10 @@ public class ArangoDBAsyncImpl extends InternalArangoDB<ArangoExecutorAsync> imp
 
     }
 
+    private static boolean isHttp(final Protocol protocol) {
+        return protocol == Protocol.HTTP_JSON || protocol == Protocol.HTTP_VPACK;
+    }
+
     @Override
     protected ArangoExecutorAsync executor() {
         return executor;
@@ -20,12 +20,14 @@
 
 package com.arangodb.async.internal;
 
-import com.arangodb.async.internal.velocystream.VstCommunicationAsync;
 import com.arangodb.internal.ArangoExecutor;
 import com.arangodb.internal.DocumentCache;
 import com.arangodb.internal.net.HostHandle;
+import com.arangodb.internal.net.RequestHedging;
+import com.arangodb.internal.net.RequestRetry;
 import com.arangodb.internal.util.ArangoSerializationFactory;
 import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.Response;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
@@ -39,13 +41,27 @@ import java.util.concurrent.Executors;
  */
 public class ArangoExecutorAsync extends ArangoExecutor {
 
-    private final VstCommunicationAsync communication;
+    private final CommunicationAsync communication;
     private final ExecutorService outgoingExecutor = Executors.newSingleThreadExecutor();
+    private final RequestHedging hedging;
+    private final RequestRetry retry;
 
-    public ArangoExecutorAsync(final VstCommunicationAsync communication, final ArangoSerializationFactory util,
+    public ArangoExecutorAsync(final CommunicationAsync communication, final ArangoSerializationFactory util,
                                final DocumentCache documentCache) {
+        this(communication, util, documentCache, null, null);
+    }
+
+    /**
+     * @param hedging hedging of reads, {@code null} to disable it
+     * @param retry   retry of failed requests, {@code null} to disable it
+     */
+    public ArangoExecutorAsync(final CommunicationAsync communication, final ArangoSerializationFactory util,
+                               final DocumentCache documentCache, final RequestHedging hedging,
+                               final RequestRetry retry) {
         super(util, documentCache);
         this.communication = communication;
+        this.hedging = hedging;
+        this.retry = retry;
     }
 
     public <T> CompletableFuture<T> execute(final Request request, final Type type) {
@@ -65,9 +81,21 @@ public class ArangoExecutorAsync extends ArangoExecutor {
             final ResponseDeserializer<T> responseDeserializer,
             final HostHandle hostHandle) {
 
+        final CompletableFuture<Response> response = retry != null
+                ? retry.executeAsync(request, () -> sendHedged(request, hostHandle))
+                : sendHedged(request, hostHandle);
+        return response.thenApplyAsync(responseDeserializer::deserialize);
+    }
+
+    private CompletableFuture<Response> sendHedged(final Request request, final HostHandle hostHandle) {
+        return hedging != null && hedging.isHedgeable(request, hostHandle)
+                ? hedging.execute(handle -> send(request, handle))
+                : send(request, hostHandle);
+    }
+
+    private CompletableFuture<Response> send(final Request request, final HostHandle hostHandle) {
         return CompletableFuture.completedFuture(null)
-                .thenComposeAsync((it) -> communication.execute(request, hostHandle), outgoingExecutor)
-                .thenApplyAsync(responseDeserializer::deserialize);
+                .thenComposeAsync((it) -> communication.execute(request, hostHandle), outgoingExecutor);
     }
 
     public void disconnect() throws IOException {
@@ -0,0 +1,152 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.http;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.async.internal.CommunicationAsync;
+import com.arangodb.internal.net.AccessType;
+import com.arangodb.internal.net.ArangoDBRedirectException;
+import com.arangodb.internal.net.Host;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.net.HostHandle;
+import com.arangodb.internal.net.HostHandler;
+import com.arangodb.internal.util.HostUtils;
+import com.arangodb.internal.util.RequestUtils;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link com.arangodb.internal.http.HttpCommunication}, with the same handling of
+ * redirects, dirty reads and host failover, but without blocking any thread while a request is in flight.
+ */
+public class HttpCommunicationAsync implements CommunicationAsync {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpCommunicationAsync.class);
+
+    public static class Builder {
+
+        private final HostHandler hostHandler;
+
+        public Builder(final HostHandler hostHandler) {
+            super();
+            this.hostHandler = hostHandler;
+        }
+
+        public HttpCommunicationAsync build(final ArangoSerialization util) {
+            return new HttpCommunicationAsync(hostHandler);
+        }
+    }
+
+    private final HostHandler hostHandler;
+
+    private HttpCommunicationAsync(final HostHandler hostHandler) {
+        super();
+        this.hostHandler = hostHandler;
+    }
+
+    @Override
+    public void close() throws IOException {
+        hostHandler.close();
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(final Request request, final HostHandle hostHandle) {
+        final CompletableFuture<Response> rfuture = new CompletableFuture<>();
+        final AccessType accessType = RequestUtils.determineAccessType(request);
+        try {
+            execute(request, hostHandle, hostHandler.get(hostHandle, accessType), accessType, rfuture);
+        } catch (final RuntimeException e) {
+            rfuture.completeExceptionally(e);
+        }
+        return rfuture;
+    }
+
+    private void execute(final Request request, final HostHandle hostHandle, final Host host,
+                         final AccessType accessType, final CompletableFuture<Response> rfuture) {
+        if (host == null) {
+            hostHandler.reset(accessType);
+            rfuture.completeExceptionally(new ArangoDBException("Was not able to connect to any host"));
+            return;
+        }
+        final HttpConnectionAsync connection = (HttpConnectionAsync) host.connection();
+        hostHandler.started(host, accessType);
+        final long start = System.nanoTime();
+        connection.execute(request).whenComplete((response, error) -> {
+            try {
+                hostHandler.finished(host, accessType, System.nanoTime() - start, error);
+                if (error == null) {
+                    hostHandler.success(host, accessType);
+                    hostHandler.confirm(accessType);
+                    rfuture.complete(response);
+                } else if (error instanceof SocketException) {
+                    failover(request, hostHandle, host, accessType, (SocketException) error, rfuture);
+                } else if (error instanceof ArangoDBRedirectException) {
+                    redirect(request, host, accessType, (ArangoDBRedirectException) error, rfuture);
+                } else if (error instanceof ArangoDBException) {
+                    rfuture.completeExceptionally(error);
+                } else {
+                    rfuture.completeExceptionally(new ArangoDBException(error));
+                }
+            } catch (final RuntimeException e) {
+                rfuture.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void failover(final Request request, final HostHandle hostHandle, final Host failedHost,
+                          final AccessType accessType, final SocketException se,
+                          final CompletableFuture<Response> rfuture) {
+        hostHandler.fail(failedHost, accessType);
+        if (hostHandle != null && hostHandle.getHost() != null) {
+            hostHandle.setHost(null);
+        }
+        final Host host = hostHandler.get(hostHandle, accessType);
+        if (host == null) {
+            rfuture.completeExceptionally(new ArangoDBException(se));
+            return;
+        }
+        LOGGER.warn(String.format("Could not connect to %s", failedHost.getDescription()), se);
+        LOGGER.warn(String.format("Could not connect to %s. Try connecting to %s", failedHost.getDescription(),
+                host.getDescription()));
+        execute(request, hostHandle, host, accessType, rfuture);
+    }
+
+    private void redirect(final Request request, final Host host, final AccessType accessType,
+                          final ArangoDBRedirectException e, final CompletableFuture<Response> rfuture) {
+        final HostDescription redirectHost = HostUtils.createFromLocation(e.getLocation());
+        hostHandler.redirect(host, redirectHost, accessType);
+        execute(request, new HostHandle().setHost(redirectHost)).whenComplete((response, error) -> {
+            if (error != null) {
+                rfuture.completeExceptionally(error);
+            } else {
+                rfuture.complete(response);
+            }
+        });
+    }
+
+}
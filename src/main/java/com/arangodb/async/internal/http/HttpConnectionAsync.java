@@ -0,0 +1,693 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.http;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
+import com.arangodb.internal.http.HttpConnection;
+import com.arangodb.internal.http.VPackJsonWriter;
+import com.arangodb.internal.net.ConnectGate;
+import com.arangodb.internal.net.Connection;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.util.ResponseUtils;
+import com.arangodb.internal.velocystream.internal.EventLoopHandler;
+import com.arangodb.internal.velocystream.internal.VstEventLoop;
+import com.arangodb.internal.velocystream.internal.VstEventLoopGroup;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.util.ArangoSerializer.Options;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking HTTP/1.1 connection served by a {@link VstEventLoop}.
+ * <p>
+ * Requests may be submitted by any thread. They are queued and sent one at a time over a persistent connection,
+ * which is opened on demand and reopened after it was closed. Connecting, writing requests and reading responses
+ * happen on the event loop thread, which also completes the returned futures, so no thread waits for a response.
+ */
+public class HttpConnectionAsync implements Connection, EventLoopHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpConnectionAsync.class);
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; ArangoDB-JavaDriver/1.1; +http://mt.orz.at/)";
+    private static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+    private static final String CONTENT_TYPE_VPACK = "application/x-velocypack";
+    private static final long DEFAULT_KEEP_ALIVE = TimeUnit.SECONDS.toNanos(30L);
+    private static final int MAX_READS_PER_EVENT = 16;
+    private static final int MAX_ATTEMPTS = 2;
+
+    public static class Builder {
+        private String user;
+        private String password;
+        private ArangoSerialization util;
+        private Boolean useSsl;
+        private Protocol contentType;
+        private HostDescription host;
+        private Long ttl;
+        private SSLContext sslContext;
+        private HostnameVerifier hostnameVerifier;
+        private Integer timeout;
+        private Integer reconnectDelay;
+        private Integer reconnectMaxDelay;
+        private VstEventLoopGroup eventLoopGroup;
+
+        public Builder user(final String user) {
+            this.user = user;
+            return this;
+        }
+
+        public Builder password(final String password) {
+            this.password = password;
+            return this;
+        }
+
+        public Builder serializationUtil(final ArangoSerialization util) {
+            this.util = util;
+            return this;
+        }
+
+        public Builder useSsl(final Boolean useSsl) {
+            this.useSsl = useSsl;
+            return this;
+        }
+
+        public Builder contentType(final Protocol contentType) {
+            this.contentType = contentType;
+            return this;
+        }
+
+        public Builder host(final HostDescription host) {
+            this.host = host;
+            return this;
+        }
+
+        public Builder ttl(final Long ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder sslContext(final SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        public Builder hostnameVerifier(final HostnameVerifier hostnameVerifier) {
+            this.hostnameVerifier = hostnameVerifier;
+            return this;
+        }
+
+        public Builder timeout(final Integer timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder reconnectDelay(final Integer reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+            return this;
+        }
+
+        public Builder reconnectMaxDelay(final Integer reconnectMaxDelay) {
+            this.reconnectMaxDelay = reconnectMaxDelay;
+            return this;
+        }
+
+        public Builder eventLoopGroup(final VstEventLoopGroup eventLoopGroup) {
+            this.eventLoopGroup = eventLoopGroup;
+            return this;
+        }
+
+        public HttpConnectionAsync build() {
+            return new HttpConnectionAsync(host, timeout, user, password, useSsl, sslContext, hostnameVerifier, util,
+                    contentType, ttl, reconnectDelay, reconnectMaxDelay, eventLoopGroup.next());
+        }
+    }
+
+    private final HostDescription host;
+    private final String connectionName;
+    private final Integer timeout;
+    private final Boolean useSsl;
+    private final SSLContext sslContext;
+    private final HostnameVerifier hostnameVerifier;
+    private final ArangoSerialization util;
+    private final boolean vpack;
+    private final Long ttl;
+    private final String authorization;
+    private final VstEventLoop loop;
+    private final ConnectGate connectGate;
+    private final Queue<Exchange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // state below is only accessed on the event loop thread
+    private final HttpResponseDecoder decoder = new HttpResponseDecoder();
+    private SocketChannel channel;
+    private TlsSession tls;
+    private boolean established;
+    private long openedAt;
+    private long idleSince;
+    private long keepAlive;
+    private int requestsOnChannel;
+    private Exchange current;
+    private ByteBuffer[] writeBuffers;
+
+    private HttpConnectionAsync(final HostDescription host, final Integer timeout, final String user,
+                                final String password, final Boolean useSsl, final SSLContext sslContext,
+                                final HostnameVerifier hostnameVerifier, final ArangoSerialization util,
+                                final Protocol contentType, final Long ttl, final Integer reconnectDelay,
+                                final Integer reconnectMaxDelay, final VstEventLoop loop) {
+        super();
+        this.host = host;
+        this.timeout = timeout;
+        this.useSsl = useSsl;
+        this.sslContext = sslContext;
+        this.hostnameVerifier = hostnameVerifier;
+        this.util = util;
+        this.ttl = ttl;
+        this.loop = loop;
+        vpack = contentType == Protocol.HTTP_VPACK;
+        connectionName = "connection_" + System.currentTimeMillis() + "_" + Math.random();
+        authorization = user != null ? "Basic " + Base64.getEncoder().encodeToString(
+                (user + ":" + (password != null ? password : "")).getBytes(StandardCharsets.UTF_8)) : null;
+        connectGate = new ConnectGate(reconnectDelay, reconnectMaxDelay);
+    }
+
+    /**
+     * Sends the given request as soon as the connection is free.
+     *
+     * @return future completed on the event loop thread with the response, or exceptionally with an
+     * {@link ArangoDBException} for an error response, a {@link SocketException} if the host could not be reached or
+     * the connection broke, or another {@link IOException}, e.g. a {@link SocketTimeoutException}
+     */
+    public CompletableFuture<Response> execute(final Request request) {
+        final Exchange exchange;
+        try {
+            final ByteBuffer body = encodeBody(request);
+            exchange = new Exchange(request, encodeHead(request, body), body);
+        } catch (final RuntimeException e) {
+            final CompletableFuture<Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        inFlight.incrementAndGet();
+        pending.add(exchange);
+        final int requestTimeout = request.getTimeout() != null ? request.getTimeout()
+                : timeout != null ? timeout : 0;
+        if (requestTimeout > 0) {
+            loop.schedule(() -> timeout(exchange), TimeUnit.MILLISECONDS.toNanos(requestTimeout));
+        }
+        loop.execute(this::dispatch);
+        return exchange.future;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public ConnectGate getConnectGate() {
+        return connectGate;
+    }
+
+    @Override
+    public void close() {
+        loop.execute(() -> {
+            closeChannel();
+            failAll(new SocketException("Connection closed"));
+        });
+    }
+
+    private byte[] encodeHead(final Request request, final ByteBuffer body) {
+        final RequestType requestType = request.getRequestType();
+        final StringBuilder head = new StringBuilder(256)
+                .append(requestType.name()).append(' ')
+                .append(HttpConnection.buildUrl("", request)).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(host.getHost()).append(':').append(host.getPort()).append("\r\n")
+                .append("User-Agent: ").append(USER_AGENT).append("\r\n");
+        if (vpack) {
+            head.append("Accept: ").append(CONTENT_TYPE_VPACK).append("\r\n");
+        }
+        for (final Entry<String, String> header : request.getHeaderParam().entrySet()) {
+            if (header.getValue() != null) {
+                head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+            }
+        }
+        if (authorization != null) {
+            head.append("Authorization: ").append(authorization).append("\r\n");
+        }
+        if (body != null) {
+            if (body.hasRemaining()) {
+                head.append("Content-Type: ").append(vpack ? CONTENT_TYPE_VPACK : CONTENT_TYPE_JSON).append("\r\n");
+            }
+            head.append("Content-Length: ").append(body.remaining()).append("\r\n");
+        }
+        head.append("\r\n");
+        return head.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer encodeBody(final Request request) {
+        final RequestType requestType = request.getRequestType();
+        final boolean withBody = requestType == RequestType.POST || requestType == RequestType.PUT
+                || requestType == RequestType.PATCH || requestType == RequestType.DELETE;
+        final VPackSlice body = request.getBody();
+        if (!withBody || body == null) {
+            return withBody ? ByteBuffer.allocate(0) : null;
+        }
+        if (vpack) {
+            return ByteBuffer.wrap(body.getBuffer(), body.getStart(), body.getByteSize());
+        }
+        return ByteBuffer.wrap(VPackJsonWriter.toByteArray(body));
+    }
+
+    private void dispatch() {
+        if (current != null) {
+            return;
+        }
+        Exchange next;
+        do {
+            next = pending.poll();
+        } while (next != null && next.future.isDone());
+        if (next == null) {
+            return;
+        }
+        current = next;
+        if (established && channel.isOpen() && !isExpired()) {
+            send();
+        } else {
+            closeChannel();
+            connect();
+        }
+    }
+
+    private boolean isExpired() {
+        final long now = System.nanoTime();
+        return now - idleSince > keepAlive || (ttl != null && now - openedAt > TimeUnit.MILLISECONDS.toNanos(ttl));
+    }
+
+    private void connect() {
+        if (connectGate.isFailing()) {
+            try {
+                connectGate.checkAttempt(connectGate.getFailedAttempts());
+            } catch (final ConnectException e) {
+                failAll(e);
+                return;
+            }
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(String.format("[%s]: Open connection to %s", connectionName, host));
+        }
+        try {
+            final SocketChannel c = SocketChannel.open();
+            channel = c;
+            openedAt = System.nanoTime();
+            c.configureBlocking(false);
+            c.socket().setTcpNoDelay(true);
+            c.socket().setKeepAlive(true);
+            if (c.connect(new InetSocketAddress(host.getHost(), host.getPort()))) {
+                loop.register(c, this, SelectionKey.OP_READ);
+                connected();
+                return;
+            }
+            loop.register(c, this, SelectionKey.OP_CONNECT);
+            if (timeout != null && timeout > 0) {
+                loop.schedule(() -> {
+                    if (channel == c && !established) {
+                        connectFailed(new SocketTimeoutException("Connect timed out"));
+                    }
+                }, TimeUnit.MILLISECONDS.toNanos(timeout));
+            }
+        } catch (final IOException e) {
+            connectFailed(e);
+        }
+    }
+
+    @Override
+    public void onConnectable() {
+        try {
+            if (channel.finishConnect()) {
+                loop.interestOps(channel, SelectionKey.OP_READ);
+                connected();
+            }
+        } catch (final IOException e) {
+            connectFailed(e);
+        }
+    }
+
+    private void connected() throws IOException {
+        if (Boolean.TRUE != useSsl) {
+            established();
+            return;
+        }
+        final SSLEngine engine;
+        try {
+            engine = (sslContext != null ? sslContext : SSLContext.getDefault())
+                    .createSSLEngine(host.getHost(), host.getPort());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new SSLException("No default SSL context available", e);
+        }
+        engine.setUseClientMode(true);
+        tls = new TlsSession(engine);
+        engine.beginHandshake();
+        handshake();
+    }
+
+    private void handshake() {
+        try {
+            if (!tls.handshake(channel)) {
+                loop.interestOps(channel, tls.wantsWrite() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                        : SelectionKey.OP_READ);
+                return;
+            }
+            final HostnameVerifier verifier = hostnameVerifier != null ? hostnameVerifier
+                    : SSLConnectionSocketFactory.getDefaultHostnameVerifier();
+            if (!verifier.verify(host.getHost(), tls.getEngine().getSession())) {
+                throw new SSLPeerUnverifiedException("Certificate for <" + host.getHost()
+                        + "> doesn't match any of the subject alternative names");
+            }
+            loop.interestOps(channel, SelectionKey.OP_READ);
+            established();
+        } catch (final IOException e) {
+            connectFailed(e);
+        }
+    }
+
+    private void established() {
+        established = true;
+        connectGate.success();
+        idleSince = System.nanoTime();
+        keepAlive = DEFAULT_KEEP_ALIVE;
+        send();
+    }
+
+    private void connectFailed(final IOException e) {
+        connectGate.failure();
+        LOGGER.debug(String.format("[%s]: Could not connect to %s", connectionName, host), e);
+        closeChannel();
+        failAll(e);
+    }
+
+    private void send() {
+        final Exchange exchange = current;
+        exchange.attempts++;
+        exchange.sent = false;
+        exchange.reused = requestsOnChannel++ > 0;
+        decoder.reset(exchange.isHead());
+        writeBuffers = exchange.buffers();
+        flush();
+    }
+
+    private void flush() {
+        try {
+            final boolean written;
+            if (tls != null) {
+                written = tls.write(channel, writeBuffers);
+            } else {
+                channel.write(writeBuffers);
+                written = !writeBuffers[writeBuffers.length - 1].hasRemaining();
+            }
+            if (written) {
+                writeBuffers = null;
+                current.sent = true;
+                loop.interestOps(channel, SelectionKey.OP_READ);
+            } else {
+                loop.interestOps(channel, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (final IOException e) {
+            broken(e);
+        }
+    }
+
+    @Override
+    public void onWritable() {
+        if (!established) {
+            if (tls != null) {
+                handshake();
+            }
+        } else if (writeBuffers != null) {
+            flush();
+        } else {
+            loop.interestOps(channel, SelectionKey.OP_READ);
+        }
+    }
+
+    @Override
+    public void onReadable() {
+        if (!established) {
+            if (tls != null) {
+                handshake();
+            }
+            return;
+        }
+        try {
+            for (int i = 0; i < MAX_READS_PER_EVENT; i++) {
+                final ByteBuffer data;
+                if (tls != null) {
+                    data = tls.read(channel);
+                } else {
+                    data = loop.readBuffer();
+                    data.clear();
+                    if (channel.read(data) < 0) {
+                        endOfStream();
+                        return;
+                    }
+                    data.flip();
+                }
+                if (data == null) {
+                    endOfStream();
+                    return;
+                }
+                if (!data.hasRemaining()) {
+                    return;
+                }
+                if (current == null) {
+                    throw new SocketException("Received data without a pending request");
+                }
+                if (decoder.decode(data)) {
+                    responseComplete(data.hasRemaining());
+                    return;
+                }
+            }
+        } catch (final IOException e) {
+            broken(e);
+        } catch (final RuntimeException e) {
+            broken(new IOException(e));
+        }
+    }
+
+    private void endOfStream() {
+        if (current != null && decoder.endOfStream()) {
+            responseComplete(false);
+            return;
+        }
+        broken(decoder.isStarted() ? new EOFException("Connection closed before the response was complete")
+                : new EOFException("The target server failed to respond"));
+    }
+
+    /**
+     * Handles a broken connection. A request which was sent over a reused connection and not answered at all is
+     * resent once over a new connection if it is idempotent or was not completely written, since the server may
+     * have closed the idle connection in the meantime.
+     */
+    private void broken(final IOException e) {
+        final Exchange exchange = current;
+        final boolean started = decoder.isStarted();
+        closeChannel();
+        if (exchange == null) {
+            LOGGER.debug(String.format("[%s]: Connection to %s closed", connectionName, host), e);
+            dispatch();
+            return;
+        }
+        if (!started && exchange.reused && exchange.attempts < MAX_ATTEMPTS
+                && (exchange.isIdempotent() || !exchange.sent)) {
+            LOGGER.debug(String.format("[%s]: Resending request to %s on a new connection", connectionName, host), e);
+            connect();
+            return;
+        }
+        current = null;
+        fail(exchange, e instanceof SocketException || e.getClass() != IOException.class ? e
+                : (IOException) new SocketException(e.getMessage()).initCause(e));
+        dispatch();
+    }
+
+    private void responseComplete(final boolean trailingData) {
+        final Exchange exchange = current;
+        current = null;
+        idleSince = System.nanoTime();
+        final long timeout = decoder.getKeepAliveTimeout();
+        keepAlive = timeout >= 0L ? timeout : DEFAULT_KEEP_ALIVE;
+        // a response received before the request was completely written ends the connection as well
+        if (!decoder.isKeepAlive() || trailingData || writeBuffers != null) {
+            closeChannel();
+        }
+        final Response response;
+        try {
+            response = buildResponse();
+            ResponseUtils.checkError(util, response);
+        } catch (final RuntimeException e) {
+            fail(exchange, e);
+            dispatch();
+            return;
+        }
+        if (exchange.future.complete(response)) {
+            inFlight.decrementAndGet();
+        }
+        dispatch();
+    }
+
+    private Response buildResponse() {
+        final Response response = new Response();
+        response.setResponseCode(decoder.getStatus());
+        final int length = decoder.getBodyLength();
+        if (length > 0) {
+            if (vpack) {
+                response.setBody(new VPackSlice(decoder.getBody()));
+            } else {
+                response.setBody(util.serialize(new String(decoder.getBody(), 0, length, StandardCharsets.UTF_8),
+                        new Options().stringAsJson(true).serializeNullValues(true)));
+            }
+        }
+        final Map<String, String> meta = response.getMeta();
+        meta.putAll(decoder.getHeaders());
+        return response;
+    }
+
+    private void timeout(final Exchange exchange) {
+        if (exchange.future.isDone()) {
+            return;
+        }
+        if (exchange == current) {
+            // the response can not be told apart from the next one anymore
+            current = null;
+            closeChannel();
+            fail(exchange, new SocketTimeoutException("Read timed out"));
+            dispatch();
+        } else {
+            fail(exchange, new SocketTimeoutException("Timeout waiting for connection"));
+        }
+    }
+
+    private void fail(final Exchange exchange, final Exception e) {
+        if (exchange.future.completeExceptionally(e)) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void failAll(final Exception e) {
+        final Exchange exchange = current;
+        current = null;
+        if (exchange != null) {
+            fail(exchange, e);
+        }
+        Exchange next;
+        while ((next = pending.poll()) != null) {
+            fail(next, e);
+        }
+    }
+
+    private void closeChannel() {
+        final SocketChannel c = channel;
+        if (c == null) {
+            return;
+        }
+        if (tls != null && established) {
+            tls.close(c);
+        }
+        try {
+            c.close();
+        } catch (final IOException e) {
+            LOGGER.debug(String.format("[%s]: Error closing connection to %s", connectionName, host), e);
+        }
+        channel = null;
+        tls = null;
+        established = false;
+        requestsOnChannel = 0;
+        writeBuffers = null;
+    }
+
+    @Override
+    public void fail(final IOException e) {
+        if (established) {
+            broken(e);
+        } else {
+            connectFailed(e);
+        }
+    }
+
+    private static class Exchange {
+
+        private final CompletableFuture<Response> future = new CompletableFuture<>();
+        private final RequestType requestType;
+        private final byte[] head;
+        private final ByteBuffer body;
+        private int attempts;
+        private boolean sent;
+        private boolean reused;
+
+        private Exchange(final Request request, final byte[] head, final ByteBuffer body) {
+            super();
+            requestType = request.getRequestType();
+            this.head = head;
+            this.body = body;
+        }
+
+        private boolean isHead() {
+            return requestType == RequestType.HEAD;
+        }
+
+        private boolean isIdempotent() {
+            return requestType == RequestType.GET || requestType == RequestType.HEAD;
+        }
+
+        private ByteBuffer[] buffers() {
+            return body != null ? new ByteBuffer[]{ByteBuffer.wrap(head), body.duplicate()}
+                    : new ByteBuffer[]{ByteBuffer.wrap(head)};
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.http;
+
+import com.arangodb.Protocol;
+import com.arangodb.internal.net.Connection;
+import com.arangodb.internal.net.ConnectionFactory;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.velocystream.internal.VstEventLoopGroup;
+import com.arangodb.util.ArangoSerialization;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+public class HttpConnectionFactoryAsync implements ConnectionFactory {
+
+    private final HttpConnectionAsync.Builder builder;
+
+    public HttpConnectionFactoryAsync(final Integer timeout, final String user, final String password,
+                                      final Boolean useSsl, final SSLContext sslContext,
+                                      final HostnameVerifier hostnameVerifier, final ArangoSerialization util,
+                                      final Protocol protocol, final Long connectionTtl, final Integer reconnectDelay,
+                                      final Integer reconnectMaxDelay, final VstEventLoopGroup eventLoopGroup) {
+        super();
+        builder = new HttpConnectionAsync.Builder().timeout(timeout).user(user).password(password).useSsl(useSsl)
+                .sslContext(sslContext).hostnameVerifier(hostnameVerifier).serializationUtil(util)
+                .contentType(protocol).ttl(connectionTtl).reconnectDelay(reconnectDelay)
+                .reconnectMaxDelay(reconnectMaxDelay).eventLoopGroup(eventLoopGroup);
+    }
+
+    @Override
+    public Connection create(final HostDescription host) {
+        return builder.host(host).build();
+    }
+
+}
@@ -0,0 +1,374 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.http;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental decoder of a single HTTP/1.1 response. The bytes of the response may be passed in any number of
+ * fragments, the body is collected into an array presized from the {@code Content-Length} header if there is one.
+ */
+class HttpResponseDecoder {
+
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final int MAX_BODY_LENGTH = Integer.MAX_VALUE - 8;
+    private static final int INITIAL_CHUNKED_BODY_SIZE = 8 * 1024;
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private enum State {
+        STATUS_LINE, HEADER, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILER, UNTIL_CLOSE, DONE
+    }
+
+    private State state = State.DONE;
+    private boolean headRequest;
+    private boolean started;
+    private byte[] line = new byte[256];
+    private int lineLength;
+
+    private int status;
+    private boolean keepAlive;
+    private long keepAliveTimeout;
+    private Map<String, String> headers;
+    private long contentLength;
+    private boolean chunked;
+    private byte[] body;
+    private int bodyLength;
+    private long remaining;
+
+    /**
+     * Prepares the decoder for the response of the next request.
+     *
+     * @param headRequest whether the request was a {@code HEAD} request, whose response never has a body
+     */
+    void reset(final boolean headRequest) {
+        this.headRequest = headRequest;
+        state = State.STATUS_LINE;
+        started = false;
+        lineLength = 0;
+        resetHead();
+    }
+
+    private void resetHead() {
+        status = 0;
+        keepAlive = true;
+        keepAliveTimeout = -1L;
+        headers = new LinkedHashMap<>();
+        contentLength = -1L;
+        chunked = false;
+        body = null;
+        bodyLength = 0;
+    }
+
+    /**
+     * @return whether any byte of the response has been received
+     */
+    boolean isStarted() {
+        return started;
+    }
+
+    boolean isDone() {
+        return state == State.DONE;
+    }
+
+    /**
+     * Consumes bytes of the given buffer until the response is complete or the buffer is exhausted. Bytes following
+     * the response are left in the buffer.
+     *
+     * @return whether the response is complete
+     */
+    boolean decode(final ByteBuffer buffer) throws ProtocolException {
+        if (buffer.hasRemaining()) {
+            started = true;
+        }
+        while (state != State.DONE && buffer.hasRemaining()) {
+            switch (state) {
+                case STATUS_LINE:
+                    if (readLine(buffer)) {
+                        statusLine();
+                    }
+                    break;
+                case HEADER:
+                    if (readLine(buffer)) {
+                        header();
+                    }
+                    break;
+                case CHUNK_SIZE:
+                    if (readLine(buffer)) {
+                        chunkSize();
+                    }
+                    break;
+                case CHUNK_END:
+                    if (readLine(buffer)) {
+                        if (lineLength != 0) {
+                            throw new ProtocolException("Missing CRLF after chunk data");
+                        }
+                        state = State.CHUNK_SIZE;
+                    }
+                    break;
+                case TRAILER:
+                    if (readLine(buffer)) {
+                        if (lineLength == 0) {
+                            state = State.DONE;
+                        } else {
+                            takeLine();
+                        }
+                    }
+                    break;
+                case BODY:
+                case CHUNK_DATA:
+                    readBody(buffer);
+                    break;
+                case UNTIL_CLOSE:
+                    ensureBodyCapacity(buffer.remaining());
+                    readBody(buffer);
+                    break;
+                default:
+                    throw new IllegalStateException(String.valueOf(state));
+            }
+        }
+        return state == State.DONE;
+    }
+
+    /**
+     * Signals that the server closed the connection.
+     *
+     * @return whether the response is complete, because its body is delimited by the end of the stream
+     */
+    boolean endOfStream() {
+        if (state == State.UNTIL_CLOSE) {
+            state = State.DONE;
+            keepAlive = false;
+        }
+        return state == State.DONE;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return response headers in the order and spelling they were received, the last value of repeated headers
+     */
+    Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return array holding the body in its first {@link #getBodyLength()} bytes, {@code null} if there is no body
+     */
+    byte[] getBody() {
+        return body;
+    }
+
+    int getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * @return whether the connection may be reused for another request
+     */
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @return time the server keeps the idle connection open in nanoseconds, as announced in the {@code Keep-Alive}
+     * header, or {@code -1} if it did not announce one
+     */
+    long getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    private boolean readLine(final ByteBuffer buffer) throws ProtocolException {
+        while (buffer.hasRemaining()) {
+            final byte b = buffer.get();
+            if (b == LF) {
+                if (lineLength > 0 && line[lineLength - 1] == CR) {
+                    lineLength--;
+                }
+                return true;
+            }
+            if (lineLength == line.length) {
+                if (lineLength >= MAX_LINE_LENGTH) {
+                    throw new ProtocolException("Response line exceeds " + MAX_LINE_LENGTH + " bytes");
+                }
+                line = Arrays.copyOf(line, Math.min(lineLength * 2, MAX_LINE_LENGTH));
+            }
+            line[lineLength++] = b;
+        }
+        return false;
+    }
+
+    private String takeLine() {
+        final String value = new String(line, 0, lineLength, StandardCharsets.ISO_8859_1);
+        lineLength = 0;
+        return value;
+    }
+
+    private void statusLine() throws ProtocolException {
+        final String statusLine = takeLine();
+        if (statusLine.isEmpty()) {
+            // tolerate empty lines before the status line
+            return;
+        }
+        final int first = statusLine.indexOf(' ');
+        if (!statusLine.startsWith("HTTP/") || first < 0 || statusLine.length() < first + 4) {
+            throw new ProtocolException("Invalid status line: " + statusLine);
+        }
+        try {
+            status = Integer.parseInt(statusLine.substring(first + 1, first + 4));
+        } catch (final NumberFormatException e) {
+            throw new ProtocolException("Invalid status line: " + statusLine);
+        }
+        keepAlive = !statusLine.startsWith("HTTP/1.0");
+        state = State.HEADER;
+    }
+
+    private void header() throws ProtocolException {
+        if (lineLength == 0) {
+            headersComplete();
+            return;
+        }
+        final String header = takeLine();
+        final int colon = header.indexOf(':');
+        if (colon <= 0) {
+            throw new ProtocolException("Invalid header: " + header);
+        }
+        final String name = header.substring(0, colon).trim();
+        final String value = header.substring(colon + 1).trim();
+        headers.put(name, value);
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            try {
+                contentLength = Long.parseLong(value);
+            } catch (final NumberFormatException e) {
+                throw new ProtocolException("Invalid Content-Length: " + value);
+            }
+            if (contentLength < 0L || contentLength > MAX_BODY_LENGTH) {
+                throw new ProtocolException("Invalid Content-Length: " + value);
+            }
+        } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+            chunked = value.toLowerCase().endsWith("chunked");
+        } else if ("Connection".equalsIgnoreCase(name)) {
+            final String connection = value.toLowerCase();
+            if (connection.contains("close")) {
+                keepAlive = false;
+            } else if (connection.contains("keep-alive")) {
+                keepAlive = true;
+            }
+        } else if ("Keep-Alive".equalsIgnoreCase(name)) {
+            keepAliveTimeout = parseKeepAliveTimeout(value);
+        }
+    }
+
+    private static long parseKeepAliveTimeout(final String value) {
+        for (final String param : value.split(",")) {
+            final int eq = param.indexOf('=');
+            if (eq > 0 && "timeout".equalsIgnoreCase(param.substring(0, eq).trim())) {
+                try {
+                    return TimeUnit.SECONDS.toNanos(Long.parseLong(param.substring(eq + 1).trim()));
+                } catch (final NumberFormatException ignore) {
+                }
+            }
+        }
+        return -1L;
+    }
+
+    private void headersComplete() {
+        if (status >= 100 && status < 200) {
+            // interim response, the final one follows
+            resetHead();
+            state = State.STATUS_LINE;
+            return;
+        }
+        if (headRequest || status == 204 || status == 304) {
+            state = State.DONE;
+        } else if (chunked) {
+            state = State.CHUNK_SIZE;
+        } else if (contentLength >= 0L) {
+            body = new byte[(int) contentLength];
+            remaining = contentLength;
+            state = contentLength > 0L ? State.BODY : State.DONE;
+        } else {
+            body = new byte[INITIAL_CHUNKED_BODY_SIZE];
+            keepAlive = false;
+            state = State.UNTIL_CLOSE;
+        }
+    }
+
+    private void chunkSize() throws ProtocolException {
+        String size = takeLine();
+        final int extension = size.indexOf(';');
+        if (extension >= 0) {
+            size = size.substring(0, extension);
+        }
+        final long length;
+        try {
+            length = Long.parseLong(size.trim(), 16);
+        } catch (final NumberFormatException e) {
+            throw new ProtocolException("Invalid chunk size: " + size);
+        }
+        if (length < 0L || bodyLength + length > MAX_BODY_LENGTH) {
+            throw new ProtocolException("Invalid chunk size: " + size);
+        }
+        if (length == 0L) {
+            state = State.TRAILER;
+            return;
+        }
+        if (body == null) {
+            body = new byte[Math.max((int) length, INITIAL_CHUNKED_BODY_SIZE)];
+        }
+        ensureBodyCapacity((int) length);
+        remaining = length;
+        state = State.CHUNK_DATA;
+    }
+
+    private void ensureBodyCapacity(final int length) {
+        if (bodyLength + length > body.length) {
+            final long capacity = Math.max((long) body.length * 2, (long) bodyLength + length);
+            body = Arrays.copyOf(body, (int) Math.min(capacity, MAX_BODY_LENGTH));
+        }
+    }
+
+    private void readBody(final ByteBuffer buffer) throws ProtocolException {
+        final int length = state == State.UNTIL_CLOSE ? buffer.remaining()
+                : (int) Math.min(remaining, buffer.remaining());
+        if (bodyLength + length > body.length) {
+            throw new ProtocolException("Response body exceeds " + MAX_BODY_LENGTH + " bytes");
+        }
+        buffer.get(body, bodyLength, length);
+        bodyLength += length;
+        if (state == State.UNTIL_CLOSE) {
+            return;
+        }
+        remaining -= length;
+        if (remaining == 0L) {
+            state = state == State.BODY ? State.DONE : State.CHUNK_END;
+        }
+    }
+
+}
@@ -0,0 +1,281 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.http;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * TLS on top of a non-blocking {@link SocketChannel}, driven by an {@link SSLEngine}. None of the methods block: they
+ * return as soon as the channel cannot take or provide more bytes, and are invoked again once it is writable or
+ * readable. Delegated tasks of the engine are run on the calling thread.
+ */
+class TlsSession {
+
+    private static final ByteBuffer[] EMPTY = {ByteBuffer.allocate(0)};
+
+    private final SSLEngine engine;
+    private ByteBuffer netIn;
+    private ByteBuffer netOut;
+    private ByteBuffer appIn;
+
+    TlsSession(final SSLEngine engine) {
+        super();
+        this.engine = engine;
+        netIn = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        netOut = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        netOut.flip();
+        appIn = ByteBuffer.allocate(engine.getSession().getApplicationBufferSize());
+    }
+
+    SSLEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return whether encrypted bytes are waiting for the channel to become writable
+     */
+    boolean wantsWrite() {
+        return netOut.hasRemaining();
+    }
+
+    /**
+     * Advances the handshake as far as possible without blocking.
+     *
+     * @return whether the handshake is finished
+     */
+    boolean handshake(final SocketChannel channel) throws IOException {
+        while (true) {
+            if (!flush(channel)) {
+                return false;
+            }
+            switch (engine.getHandshakeStatus()) {
+                case NEED_WRAP:
+                    wrap(EMPTY);
+                    break;
+                case NEED_TASK:
+                    runDelegatedTasks();
+                    break;
+                case NEED_UNWRAP:
+                    if (!unwrap(channel, true)) {
+                        if (engine.isInboundDone()) {
+                            throw new SSLException("The TLS session was closed during the handshake");
+                        }
+                        return false;
+                    }
+                    break;
+                case FINISHED:
+                case NOT_HANDSHAKING:
+                    return true;
+                default:
+                    throw new SSLException("Unexpected handshake status " + engine.getHandshakeStatus());
+            }
+        }
+    }
+
+    /**
+     * Reads and decrypts the bytes available on the channel.
+     *
+     * @return buffer of decrypted bytes, empty if no complete record is available yet, or {@code null} at the end
+     * of the stream. It is only valid until the next invocation.
+     */
+    ByteBuffer read(final SocketChannel channel) throws IOException {
+        appIn.clear();
+        final boolean open;
+        try {
+            open = unwrap(channel, false);
+        } catch (final EOFException e) {
+            if (appIn.position() == 0) {
+                return null;
+            }
+            appIn.flip();
+            return appIn;
+        }
+        if (!open && appIn.position() == 0 && engine.isInboundDone()) {
+            return null;
+        }
+        appIn.flip();
+        return appIn;
+    }
+
+    /**
+     * Encrypts and writes as many bytes of the given buffers as the channel takes.
+     *
+     * @return whether all bytes have been written
+     */
+    boolean write(final SocketChannel channel, final ByteBuffer[] src) throws IOException {
+        while (true) {
+            if (!flush(channel)) {
+                return false;
+            }
+            if (!hasRemaining(src)) {
+                return true;
+            }
+            wrap(src);
+        }
+    }
+
+    /**
+     * Sends the close notification, as far as this is possible without blocking.
+     */
+    void close(final SocketChannel channel) {
+        engine.closeOutbound();
+        try {
+            if (flush(channel) && !engine.isOutboundDone()) {
+                wrap(EMPTY);
+                flush(channel);
+            }
+        } catch (final IOException ignore) {
+            // the connection is closed anyway
+        }
+    }
+
+    private boolean flush(final SocketChannel channel) throws IOException {
+        while (netOut.hasRemaining()) {
+            if (channel.write(netOut) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void wrap(final ByteBuffer[] src) throws IOException {
+        while (true) {
+            netOut.clear();
+            final SSLEngineResult result = engine.wrap(src, netOut);
+            netOut.flip();
+            switch (result.getStatus()) {
+                case OK:
+                    if (result.getHandshakeStatus() == HandshakeStatus.NEED_TASK) {
+                        runDelegatedTasks();
+                    }
+                    return;
+                case BUFFER_OVERFLOW:
+                    netOut = ByteBuffer.allocate(Math.max(netOut.capacity() * 2,
+                            engine.getSession().getPacketBufferSize()));
+                    break;
+                case CLOSED:
+                    if (engine.isOutboundDone() && src == EMPTY) {
+                        return;
+                    }
+                    throw new SSLException("The TLS session is closed");
+                default:
+                    throw new SSLException("Unexpected wrap status " + result.getStatus());
+            }
+        }
+    }
+
+    /**
+     * Decrypts into {@link #appIn}, reading from the channel whenever the buffered bytes do not form a complete
+     * record. During the handshake it returns as soon as a record has been consumed, otherwise as soon as decrypted
+     * bytes are available and no further complete record is buffered.
+     *
+     * @return whether progress was made, {@code false} if the channel has no more bytes or the peer closed the TLS
+     * session
+     */
+    private boolean unwrap(final SocketChannel channel, final boolean handshake) throws IOException {
+        boolean readFromChannel = false;
+        while (true) {
+            netIn.flip();
+            final SSLEngineResult result;
+            try {
+                result = engine.unwrap(netIn, appIn);
+            } finally {
+                netIn.compact();
+            }
+            switch (result.getStatus()) {
+                case OK:
+                    final HandshakeStatus handshakeStatus = result.getHandshakeStatus();
+                    if (handshakeStatus == HandshakeStatus.NEED_TASK) {
+                        runDelegatedTasks();
+                    }
+                    if (handshake) {
+                        return true;
+                    }
+                    if (handshakeStatus == HandshakeStatus.NEED_WRAP) {
+                        // post-handshake message, e.g. a key update
+                        wrap(EMPTY);
+                        flush(channel);
+                    }
+                    break;
+                case BUFFER_UNDERFLOW:
+                    if (!handshake && appIn.position() > 0 && readFromChannel) {
+                        return true;
+                    }
+                    if (netIn.remaining() < engine.getSession().getPacketBufferSize()) {
+                        final ByteBuffer larger = ByteBuffer.allocate(netIn.position()
+                                + engine.getSession().getPacketBufferSize());
+                        netIn.flip();
+                        larger.put(netIn);
+                        netIn = larger;
+                    }
+                    final int read = channel.read(netIn);
+                    if (read < 0) {
+                        try {
+                            engine.closeInbound();
+                        } catch (final SSLException ignore) {
+                            // the peer closed the connection without a close notification
+                        }
+                        throw new EOFException("Reached the end of the stream.");
+                    }
+                    if (read == 0) {
+                        return !handshake && appIn.position() > 0;
+                    }
+                    readFromChannel = true;
+                    break;
+                case BUFFER_OVERFLOW:
+                    if (appIn.position() > 0) {
+                        return true;
+                    }
+                    appIn = ByteBuffer.allocate(Math.max(appIn.capacity() * 2,
+                            engine.getSession().getApplicationBufferSize()));
+                    break;
+                case CLOSED:
+                    return false;
+                default:
+                    throw new SSLException("Unexpected unwrap status " + result.getStatus());
+            }
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private static boolean hasRemaining(final ByteBuffer[] buffers) {
+        for (final ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
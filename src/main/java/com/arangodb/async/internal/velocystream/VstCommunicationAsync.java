@@ -21,11 +21,15 @@
 package com.arangodb.async.internal.velocystream;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.async.internal.CommunicationAsync;
+import com.arangodb.internal.net.AccessType;
 import com.arangodb.internal.net.ArangoDBRedirectException;
+import com.arangodb.internal.net.Host;
 import com.arangodb.internal.net.HostDescription;
 import com.arangodb.internal.net.HostHandle;
 import com.arangodb.internal.net.HostHandler;
 import com.arangodb.internal.util.HostUtils;
+import com.arangodb.internal.util.RequestUtils;
 import com.arangodb.internal.velocystream.VstCommunication;
 import com.arangodb.internal.velocystream.internal.AuthenticationRequest;
 import com.arangodb.internal.velocystream.internal.Message;
@@ -44,7 +48,8 @@ import java.util.concurrent.ExecutionException;
 /**
  * @author Mark Vollmary
  */
-public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Response>, VstConnectionAsync> {
+public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Response>, VstConnectionAsync>
+        implements CommunicationAsync {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(VstCommunicationAsync.class);
 
@@ -55,16 +60,30 @@ public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Re
     }
 
     @Override
-    protected CompletableFuture<Response> execute(final Request request, final VstConnectionAsync connection) {
+    protected CompletableFuture<Response> execute(final Request request, final Host host,
+                                                  final VstConnectionAsync connection) {
         final CompletableFuture<Response> rfuture = new CompletableFuture<>();
+        final AccessType accessType = RequestUtils.determineAccessType(request);
+        final Message message;
         try {
-            final Message message = createMessage(request);
-            send(message, connection).whenComplete((m, ex) -> {
+            message = createMessage(request);
+        } catch (final VPackException e) {
+            LOGGER.error(e.getMessage(), e);
+            rfuture.completeExceptionally(e);
+            return rfuture;
+        }
+        final Integer requestTimeout = request.getTimeout() != null ? request.getTimeout() : timeout;
+        hostHandler.started(host, accessType);
+        final long start = System.nanoTime();
+        try {
+            send(message, connection, requestTimeout).whenComplete((m, ex) -> {
+                final long latency = System.nanoTime() - start;
                 if (m != null) {
                     final Response response;
                     try {
                         response = createResponse(m);
                     } catch (final VPackParserException e) {
+                        hostHandler.finished(host, accessType, latency, null);
                         LOGGER.error(e.getMessage(), e);
                         rfuture.completeExceptionally(e);
                         return;
@@ -72,12 +91,15 @@ public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Re
 
                     try {
                         checkError(response);
+                        hostHandler.finished(host, accessType, latency, null);
                     } catch (final ArangoDBRedirectException e) {
+                        hostHandler.finished(host, accessType, latency, e);
                         final String location = e.getLocation();
                         final HostDescription redirectHost = HostUtils.createFromLocation(location);
-                        hostHandler.closeCurrentOnError();
-                        hostHandler.fail();
-                        execute(request, new HostHandle().setHost(redirectHost))
+                        hostHandler.redirect(host, redirectHost, accessType);
+                        // leave the I/O thread, since connecting to the redirect host may block
+                        CompletableFuture.completedFuture(null)
+                                .thenComposeAsync(it -> execute(request, new HostHandle().setHost(redirectHost)))
                                 .whenComplete((v, err) -> {
                                     if (v != null) {
                                         rfuture.complete(v);
@@ -89,37 +111,44 @@ public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Re
                                 });
                         return;
                     } catch (ArangoDBException e) {
+                        hostHandler.finished(host, accessType, latency, e);
                         rfuture.completeExceptionally(e);
                     }
                     rfuture.complete(response);
-                } else if (ex != null) {
+                    return;
+                }
+                hostHandler.finished(host, accessType, latency, ex);
+                if (ex != null) {
                     LOGGER.error(ex.getMessage(), ex);
                     rfuture.completeExceptionally(ex);
                 } else {
                     rfuture.cancel(true);
                 }
             });
-        } catch (final VPackException e) {
+        } catch (final RuntimeException e) {
+            // the message could not be written, so no response will ever complete the request
+            hostHandler.finished(host, accessType, System.nanoTime() - start, e);
             LOGGER.error(e.getMessage(), e);
             rfuture.completeExceptionally(e);
         }
         return rfuture;
     }
 
-    private CompletableFuture<Message> send(final Message message, final VstConnectionAsync connection) {
+    private CompletableFuture<Message> send(final Message message, final VstConnectionAsync connection,
+                                            final Integer timeout) {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug(String.format("Send Message (id=%s, head=%s, body=%s)", message.getId(), message.getHead(),
                     message.getBody() != null ? message.getBody() : "{}"));
         }
-        return connection.write(message, buildChunks(message));
+        return connection.write(message, buildChunks(message), timeout);
     }
 
     @Override
-    protected void authenticate(final VstConnectionAsync connection) {
+    protected void authenticate(final Host host, final VstConnectionAsync connection) {
         Response response;
         try {
             response = execute(new AuthenticationRequest(user, password != null ? password : "", ENCRYPTION_PLAIN),
-                    connection).get();
+                    host, connection).get();
         } catch (final InterruptedException | ExecutionException e) {
             throw new ArangoDBException(e);
         }
@@ -20,16 +20,20 @@
 
 package com.arangodb.async.internal.velocystream;
 
+import com.arangodb.ArangoDBException;
 import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.util.HashedWheelTimer;
 import com.arangodb.internal.velocystream.internal.Chunk;
 import com.arangodb.internal.velocystream.internal.Message;
 import com.arangodb.internal.velocystream.internal.MessageStore;
 import com.arangodb.internal.velocystream.internal.VstConnection;
+import com.arangodb.internal.velocystream.internal.VstEventLoopGroup;
 
 import javax.net.ssl.SSLContext;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author Mark Vollmary
@@ -37,29 +41,42 @@ import java.util.concurrent.FutureTask;
 public class VstConnectionAsync extends VstConnection<CompletableFuture<Message>> {
 
     private VstConnectionAsync(final HostDescription host, final Integer timeout, final Long ttl, final Integer keepAliveInterval,
-                               final Boolean useSsl, final SSLContext sslContext, final MessageStore messageStore) {
-        super(host, timeout, ttl, keepAliveInterval, useSsl, sslContext, messageStore);
+                               final Boolean useSsl, final SSLContext sslContext, final MessageStore messageStore,
+                               final VstEventLoopGroup eventLoopGroup, final Integer writeBatchSize,
+                               final Integer writeLingerMicros, final HashedWheelTimer timer,
+                               final Integer reconnectDelay, final Integer reconnectMaxDelay) {
+        super(host, timeout, ttl, keepAliveInterval, useSsl, sslContext, messageStore, eventLoopGroup, writeBatchSize,
+                writeLingerMicros, timer, reconnectDelay, reconnectMaxDelay, null);
     }
 
     @Override
-    public synchronized CompletableFuture<Message> write(final Message message, final Collection<Chunk> chunks) {
-        final CompletableFuture<Message> future = new CompletableFuture<>();
-        final FutureTask<Message> task = new FutureTask<>(() -> {
-            try {
-                future.complete(messageStore.get(message.getId()));
-            } catch (final Exception e) {
-                future.completeExceptionally(e);
-            }
-            return null;
-        });
-        messageStore.storeMessage(message.getId(), task);
-        super.writeIntern(message, chunks);
-        return future;
+    public CompletableFuture<Message> write(final Message message, final Collection<Chunk> chunks) {
+        return write(message, chunks, timeout);
     }
 
-    @Override
-    protected void doKeepAlive() {
-        sendKeepAlive().join();
+    /**
+     * @param requestTimeout time in milliseconds after which the returned future is completed exceptionally with a
+     *                       {@link TimeoutException}, {@code null} or {@code 0} to wait forever
+     */
+    public CompletableFuture<Message> write(final Message message, final Collection<Chunk> chunks,
+                                            final Integer requestTimeout) {
+        final long id = message.getId();
+        final CompletableFuture<Message> future = messageStore.storeMessage(id);
+        if (timer != null && requestTimeout != null && requestTimeout > 0) {
+            final HashedWheelTimer.Timeout t = timer.newTimeout(() -> {
+                messageStore.release(id);
+                future.completeExceptionally(new ArangoDBException(new TimeoutException(
+                        String.format("No response for message %s within %s ms", id, requestTimeout))));
+            }, requestTimeout, TimeUnit.MILLISECONDS);
+            future.whenComplete((m, e) -> t.cancel());
+        }
+        try {
+            super.writeIntern(message, chunks);
+        } catch (final ArangoDBException e) {
+            messageStore.release(id);
+            throw e;
+        }
+        return future;
     }
 
     public static class Builder {
@@ -71,6 +88,12 @@ public class VstConnectionAsync extends VstConnection<CompletableFuture<Message>
         private Integer keepAliveInterval;
         private Boolean useSsl;
         private SSLContext sslContext;
+        private VstEventLoopGroup eventLoopGroup;
+        private Integer writeBatchSize;
+        private Integer writeLingerMicros;
+        private HashedWheelTimer timer;
+        private Integer reconnectDelay;
+        private Integer reconnectMaxDelay;
 
         public Builder() {
             super();
@@ -111,8 +134,40 @@ public class VstConnectionAsync extends VstConnection<CompletableFuture<Message>
             return this;
         }
 
+        public Builder eventLoopGroup(final VstEventLoopGroup eventLoopGroup) {
+            this.eventLoopGroup = eventLoopGroup;
+            return this;
+        }
+
+        public Builder writeBatchSize(final Integer writeBatchSize) {
+            this.writeBatchSize = writeBatchSize;
+            return this;
+        }
+
+        public Builder writeLingerMicros(final Integer writeLingerMicros) {
+            this.writeLingerMicros = writeLingerMicros;
+            return this;
+        }
+
+        public Builder timer(final HashedWheelTimer timer) {
+            this.timer = timer;
+            return this;
+        }
+
+        public Builder reconnectDelay(final Integer reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+            return this;
+        }
+
+        public Builder reconnectMaxDelay(final Integer reconnectMaxDelay) {
+            this.reconnectMaxDelay = reconnectMaxDelay;
+            return this;
+        }
+
         public VstConnectionAsync build() {
-            return new VstConnectionAsync(host, timeout, ttl, keepAliveInterval, useSsl, sslContext, messageStore);
+            return new VstConnectionAsync(host, timeout, ttl, keepAliveInterval, useSsl, sslContext, messageStore,
+                    eventLoopGroup, writeBatchSize, writeLingerMicros, timer, reconnectDelay,
+                    reconnectMaxDelay);
         }
     }
 
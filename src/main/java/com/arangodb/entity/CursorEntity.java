@@ -90,6 +90,30 @@ public class CursorEntity implements Entity, MetaAware {
         return meta;
     }
 
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public void setCount(final Integer count) {
+        this.count = count;
+    }
+
+    public void setExtra(final Extras extra) {
+        this.extra = extra;
+    }
+
+    public void setCached(final Boolean cached) {
+        this.cached = cached;
+    }
+
+    public void setHasMore(final Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public void setResult(final VPackSlice result) {
+        this.result = result;
+    }
+
     /**
      * @return remove not allowed (valid storable) meta information
      */
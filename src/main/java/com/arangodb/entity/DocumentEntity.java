@@ -50,4 +50,16 @@ public class DocumentEntity implements Entity {
         return rev;
     }
 
+    public void setKey(final String key) {
+        this.key = key;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public void setRev(final String rev) {
+        this.rev = rev;
+    }
+
 }
@@ -46,6 +46,10 @@ public class DocumentUpdateEntity<T> extends DocumentEntity {
         return oldRev;
     }
 
+    public void setOldRev(final String oldRev) {
+        this.oldRev = oldRev;
+    }
+
     /**
      * @return If the query parameter returnNew is true, then the complete new document is returned.
      */
@@ -66,4 +66,20 @@ public class ErrorEntity implements Serializable, Entity {
         return errorNum;
     }
 
+    public void setErrorMessage(final String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public void setException(final String exception) {
+        this.exception = exception;
+    }
+
+    public void setCode(final int code) {
+        this.code = code;
+    }
+
+    public void setErrorNum(final int errorNum) {
+        this.errorNum = errorNum;
+    }
+
 }
@@ -24,5 +24,5 @@ package com.arangodb.entity;
  * @author Mark Vollmary
  */
 public enum LoadBalancingStrategy {
-    NONE, ROUND_ROBIN, ONE_RANDOM
+    NONE, ROUND_ROBIN, ONE_RANDOM, PEAK_EWMA
 }
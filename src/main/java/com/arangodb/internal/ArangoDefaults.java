@@ -46,9 +46,26 @@ public final class ArangoDefaults {
     public static final int MAX_CONNECTIONS_VST_DEFAULT = 1;
     public static final Integer CONNECTION_TTL_VST_DEFAULT = null;
     public static final int MAX_CONNECTIONS_HTTP_DEFAULT = 20;
+    public static final int MAX_CONNECTIONS_HTTP2_DEFAULT = 1;
+    public static final int DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS = 100;
+    public static final int DEFAULT_HTTP2_INITIAL_WINDOW_SIZE = 1024 * 1024;
+    public static final int DEFAULT_HTTP2_CONNECTION_WINDOW_SIZE = 16 * 1024 * 1024;
+    public static final boolean DEFAULT_HTTP_SHARED_CONNECTION_MANAGER = false;
+    public static final long DEFAULT_HTTP_IDLE_TIMEOUT = 30L * 1000L;
+    public static final int DEFAULT_HTTP_VALIDATE_AFTER_INACTIVITY = 2000;
     public static final Protocol DEFAULT_NETWORK_PROTOCOL = Protocol.VST;
     public static final boolean DEFAULT_ACQUIRE_HOST_LIST = false;
     public static final int DEFAULT_ACQUIRE_HOST_LIST_INTERVAL = 60 * 60 * 1000; // hour
     public static final LoadBalancingStrategy DEFAULT_LOAD_BALANCING_STRATEGY = LoadBalancingStrategy.NONE;
+    public static final boolean DEFAULT_USE_NIO = false;
+    public static final int DEFAULT_NIO_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 64 * 1024;
+    public static final int DEFAULT_WRITE_LINGER = 0;
+    public static final boolean DEFAULT_POOL_RESPONSE_BUFFERS = false;
+    public static final int DEFAULT_RECONNECT_DELAY = 100;
+    public static final int DEFAULT_RECONNECT_MAX_DELAY = 10000;
+    public static final int DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 5000;
+    public static final long TIMER_TICK_DURATION = 10L;
+    public static final int TIMER_TICKS_PER_WHEEL = 512;
 
 }
@@ -24,7 +24,12 @@ import com.arangodb.ArangoDBException;
 import com.arangodb.entity.MetaAware;
 import com.arangodb.internal.net.CommunicationProtocol;
 import com.arangodb.internal.net.HostHandle;
+import com.arangodb.internal.net.RequestHedging;
+import com.arangodb.internal.net.RequestRetry;
 import com.arangodb.internal.util.ArangoSerializationFactory;
+import com.arangodb.internal.util.ByteArrayPool;
+import com.arangodb.internal.util.VPackSliceReferences;
+import com.arangodb.velocypack.VPackSlice;
 import com.arangodb.velocypack.exception.VPackException;
 import com.arangodb.velocystream.Request;
 import com.arangodb.velocystream.Response;
@@ -33,6 +38,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Mark Vollmary
@@ -41,12 +53,50 @@ public class ArangoExecutorSync extends ArangoExecutor {
 
     private static final Logger LOG = LoggerFactory.getLogger(ArangoExecutorSync.class);
 
+    private static final int MAX_HEDGING_THREADS = 64;
+
     private final CommunicationProtocol protocol;
+    private final RequestHedging hedging;
+    private final RequestRetry retry;
+    private final ExecutorService hedgingExecutor;
+    private final ByteArrayPool bufferPool;
 
     public ArangoExecutorSync(final CommunicationProtocol protocol, final ArangoSerializationFactory util,
                               final DocumentCache documentCache) {
+        this(protocol, util, documentCache, null, null);
+    }
+
+    /**
+     * @param hedging hedging of reads, {@code null} to disable it
+     * @param retry   retry of failed requests, {@code null} to disable it
+     */
+    public ArangoExecutorSync(final CommunicationProtocol protocol, final ArangoSerializationFactory util,
+                              final DocumentCache documentCache, final RequestHedging hedging,
+                              final RequestRetry retry) {
+        this(protocol, util, documentCache, hedging, retry, null);
+    }
+
+    /**
+     * @param bufferPool pool the buffers of responses are given back to once they are deserialized, {@code null} if
+     *                   the protocol does not take its buffers from a pool
+     */
+    public ArangoExecutorSync(final CommunicationProtocol protocol, final ArangoSerializationFactory util,
+                              final DocumentCache documentCache, final RequestHedging hedging,
+                              final RequestRetry retry, final ByteArrayPool bufferPool) {
         super(util, documentCache);
         this.protocol = protocol;
+        this.hedging = hedging;
+        this.retry = retry;
+        this.bufferPool = bufferPool;
+        hedgingExecutor = hedging != null ? createHedgingExecutor() : null;
+    }
+
+    private static ExecutorService createHedgingExecutor() {
+        return new ThreadPoolExecutor(0, MAX_HEDGING_THREADS, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            final Thread thread = new Thread(r, "arangodb-hedging");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public <T> T execute(final Request request, final Type type) throws ArangoDBException {
@@ -68,7 +118,9 @@ public class ArangoExecutorSync extends ArangoExecutor {
 
         try {
 
-            final Response response = protocol.execute(request, hostHandle);
+            final Response response = retry != null
+                    ? retry.execute(request, () -> send(request, hostHandle))
+                    : send(request, hostHandle);
             T deserialize = responseDeserializer.deserialize(response);
 
             if (deserialize instanceof MetaAware) {
@@ -76,6 +128,10 @@ public class ArangoExecutorSync extends ArangoExecutor {
                 ((MetaAware) deserialize).setMeta(response.getMeta());
             }
 
+            if (bufferPool != null) {
+                release(response, deserialize);
+            }
+
             return deserialize;
 
         } catch (final VPackException e) {
@@ -83,7 +139,59 @@ public class ArangoExecutorSync extends ArangoExecutor {
         }
     }
 
+    /**
+     * Gives the buffer of the response back to the pool, unless the deserialized result may still refer to it.
+     */
+    private void release(final Response response, final Object result) {
+        final VPackSlice body = response.getBody();
+        if (body != null && !VPackSliceReferences.mayReference(result)) {
+            bufferPool.release(body.getBuffer());
+        }
+    }
+
+    private Response send(final Request request, final HostHandle hostHandle) {
+        return hedging != null && hedging.isHedgeable(request, hostHandle)
+                ? executeHedged(request)
+                : protocol.execute(request, hostHandle);
+    }
+
+    /**
+     * Hedged requests are sent from a bounded pool, so that the calling thread can wait for whichever attempt
+     * answers first. As long as no hedging delay is known yet, or once all threads of the pool are busy, the request
+     * is executed directly.
+     */
+    private Response executeHedged(final Request request) {
+        if (hedging.getDelay() < 0) {
+            final long start = System.nanoTime();
+            final Response response = protocol.execute(request, null);
+            hedging.record(System.nanoTime() - start);
+            return response;
+        }
+        final CompletableFuture<Response> response;
+        try {
+            response = hedging.execute(hostHandle -> CompletableFuture
+                    .supplyAsync(() -> protocol.execute(request, hostHandle), hedgingExecutor));
+        } catch (final RejectedExecutionException e) {
+            return protocol.execute(request, null);
+        }
+        try {
+            return response.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArangoDBException(e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ArangoDBException) {
+                throw (ArangoDBException) cause;
+            }
+            throw new ArangoDBException(cause);
+        }
+    }
+
     public void disconnect() {
+        if (hedgingExecutor != null) {
+            hedgingExecutor.shutdown();
+        }
         try {
             protocol.close();
         } catch (final IOException e) {
@@ -22,7 +22,10 @@ package com.arangodb.internal;
 
 import com.arangodb.ArangoDB;
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.entity.LoadBalancingStrategy;
+import com.arangodb.internal.net.CircuitBreakerHostHandler;
+import com.arangodb.internal.net.ConcurrencyLimitHostHandler;
 import com.arangodb.internal.net.Connection;
 import com.arangodb.internal.net.ConnectionFactory;
 import com.arangodb.internal.net.DirtyReadHostHandler;
@@ -32,14 +35,22 @@ import com.arangodb.internal.net.Host;
 import com.arangodb.internal.net.HostDescription;
 import com.arangodb.internal.net.HostHandler;
 import com.arangodb.internal.net.HostResolver;
+import com.arangodb.internal.net.LeaderHostHandler;
+import com.arangodb.internal.net.PeakEwmaHostHandler;
 import com.arangodb.internal.net.RandomHostHandler;
+import com.arangodb.internal.net.RequestHedging;
+import com.arangodb.internal.net.RequestRetry;
 import com.arangodb.internal.net.RoundRobinHostHandler;
 import com.arangodb.internal.net.SimpleHostResolver;
+import com.arangodb.internal.util.ByteArrayPool;
+import com.arangodb.internal.util.HashedWheelTimer;
 import com.arangodb.internal.util.HostUtils;
 import com.arangodb.internal.velocypack.VPackDriverModule;
+import com.arangodb.internal.velocystream.internal.VstEventLoopGroup;
 import com.arangodb.util.ArangoDeserializer;
 import com.arangodb.util.ArangoSerialization;
 import com.arangodb.util.ArangoSerializer;
+import com.arangodb.util.RetryPolicy;
 import com.arangodb.velocypack.VPack;
 import com.arangodb.velocypack.VPackParser;
 import org.apache.http.client.HttpRequestRetryHandler;
@@ -54,6 +65,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -63,6 +75,7 @@ public abstract class InternalArangoDBBuilder {
 
     private static final Logger LOG = LoggerFactory.getLogger(InternalArangoDBBuilder.class);
 
+    private static final String PROPERTY_KEY_PROTOCOL = "arangodb.protocol";
     private static final String PROPERTY_KEY_HOSTS = "arangodb.hosts";
     private static final String PROPERTY_KEY_HOST = "arangodb.host";
     private static final String PROPERTY_KEY_PORT = "arangodb.port";
@@ -78,8 +91,26 @@ public abstract class InternalArangoDBBuilder {
     private static final String PROPERTY_KEY_ACQUIRE_HOST_LIST = "arangodb.acquireHostList";
     private static final String PROPERTY_KEY_ACQUIRE_HOST_LIST_INTERVAL = "arangodb.acquireHostList.interval";
     private static final String PROPERTY_KEY_LOAD_BALANCING_STRATEGY = "arangodb.loadBalancingStrategy";
+    private static final String PROPERTY_KEY_USE_NIO = "arangodb.connections.nio";
+    private static final String PROPERTY_KEY_NIO_THREADS = "arangodb.connections.nio.threads";
+    private static final String PROPERTY_KEY_WRITE_BATCH_SIZE = "arangodb.connections.writeBatchSize";
+    private static final String PROPERTY_KEY_WRITE_LINGER = "arangodb.connections.writeLinger";
+    private static final String PROPERTY_KEY_POOL_RESPONSE_BUFFERS = "arangodb.connections.poolResponseBuffers";
+    private static final String PROPERTY_KEY_RECONNECT_DELAY = "arangodb.connections.reconnectDelay";
+    private static final String PROPERTY_KEY_RECONNECT_MAX_DELAY = "arangodb.connections.reconnectMaxDelay";
+    private static final String PROPERTY_KEY_HEDGING_PERCENTILE = "arangodb.hedging.percentile";
+    private static final String PROPERTY_KEY_CIRCUIT_BREAKER_FAILURE_RATE = "arangodb.circuitBreaker.failureRate";
+    private static final String PROPERTY_KEY_CIRCUIT_BREAKER_OPEN_DURATION = "arangodb.circuitBreaker.openDuration";
+    private static final String PROPERTY_KEY_CONCURRENCY_LIMIT = "arangodb.concurrencyLimit";
+    private static final String PROPERTY_KEY_HTTP2_MAX_CONCURRENT_STREAMS = "arangodb.http2.maxConcurrentStreams";
+    private static final String PROPERTY_KEY_HTTP2_INITIAL_WINDOW_SIZE = "arangodb.http2.initialWindowSize";
+    private static final String PROPERTY_KEY_HTTP2_CONNECTION_WINDOW_SIZE = "arangodb.http2.connectionWindowSize";
+    private static final String PROPERTY_KEY_HTTP_SHARED_CONNECTION_MANAGER = "arangodb.http.sharedConnectionManager";
+    private static final String PROPERTY_KEY_HTTP_IDLE_TIMEOUT = "arangodb.http.idleTimeout";
+    private static final String PROPERTY_KEY_HTTP_VALIDATE_AFTER_INACTIVITY = "arangodb.http.validateAfterInactivity";
     private static final String DEFAULT_PROPERTY_FILE = "/arangodb.properties";
 
+    protected Protocol protocol;
     protected final List<HostDescription> hosts;
     protected HostDescription host;
     protected Integer timeout;
@@ -102,6 +133,24 @@ public abstract class InternalArangoDBBuilder {
     protected Integer acquireHostListInterval;
     protected LoadBalancingStrategy loadBalancingStrategy;
     protected ArangoSerialization customSerializer;
+    protected Boolean useNio;
+    protected Integer nioThreads;
+    protected Integer writeBatchSize;
+    protected Integer writeLingerMicros;
+    protected Boolean poolResponseBuffers;
+    protected Integer reconnectDelay;
+    protected Integer reconnectMaxDelay;
+    protected Double hedgingPercentile;
+    protected Integer circuitBreakerFailureRate;
+    protected Integer circuitBreakerOpenDuration;
+    protected RetryPolicy retryPolicy;
+    protected Integer concurrencyLimit;
+    protected Integer http2MaxConcurrentStreams;
+    protected Integer http2InitialWindowSize;
+    protected Integer http2ConnectionWindowSize;
+    protected Boolean httpSharedConnectionManager;
+    protected Long httpIdleTimeout;
+    protected Integer httpValidateAfterInactivity;
 
 
     public InternalArangoDBBuilder() {
@@ -136,6 +185,7 @@ public abstract class InternalArangoDBBuilder {
     }
 
     protected void loadProperties(final Properties properties) {
+        protocol = loadProtocol(properties, protocol);
         loadHosts(properties, this.hosts);
         final String host = loadHost(properties, this.host.getHost());
         final int port = loadPort(properties, this.host.getPort());
@@ -152,6 +202,27 @@ public abstract class InternalArangoDBBuilder {
         acquireHostList = loadAcquireHostList(properties, acquireHostList);
         acquireHostListInterval = loadAcquireHostListInterval(properties, acquireHostListInterval);
         loadBalancingStrategy = loadLoadBalancingStrategy(properties, loadBalancingStrategy);
+        useNio = loadUseNio(properties, useNio);
+        nioThreads = loadNioThreads(properties, nioThreads);
+        writeBatchSize = loadWriteBatchSize(properties, writeBatchSize);
+        writeLingerMicros = loadWriteLinger(properties, writeLingerMicros);
+        poolResponseBuffers = loadPoolResponseBuffers(properties, poolResponseBuffers);
+        reconnectDelay = loadReconnectDelay(properties, reconnectDelay);
+        reconnectMaxDelay = loadReconnectMaxDelay(properties, reconnectMaxDelay);
+        hedgingPercentile = loadHedgingPercentile(properties, hedgingPercentile);
+        circuitBreakerFailureRate = loadCircuitBreakerFailureRate(properties, circuitBreakerFailureRate);
+        circuitBreakerOpenDuration = loadCircuitBreakerOpenDuration(properties, circuitBreakerOpenDuration);
+        concurrencyLimit = loadConcurrencyLimit(properties, concurrencyLimit);
+        http2MaxConcurrentStreams = loadHttp2MaxConcurrentStreams(properties, http2MaxConcurrentStreams);
+        http2InitialWindowSize = loadHttp2InitialWindowSize(properties, http2InitialWindowSize);
+        http2ConnectionWindowSize = loadHttp2ConnectionWindowSize(properties, http2ConnectionWindowSize);
+        httpSharedConnectionManager = loadHttpSharedConnectionManager(properties, httpSharedConnectionManager);
+        httpIdleTimeout = loadHttpIdleTimeout(properties, httpIdleTimeout);
+        httpValidateAfterInactivity = loadHttpValidateAfterInactivity(properties, httpValidateAfterInactivity);
+    }
+
+    protected void setProtocol(final Protocol protocol) {
+        this.protocol = protocol;
     }
 
     protected void setHost(final String host, final int port) {
@@ -214,6 +285,78 @@ public abstract class InternalArangoDBBuilder {
         this.loadBalancingStrategy = loadBalancingStrategy;
     }
 
+    protected void setUseNio(final Boolean useNio) {
+        this.useNio = useNio;
+    }
+
+    protected void setNioThreads(final Integer nioThreads) {
+        this.nioThreads = nioThreads;
+    }
+
+    protected void setPoolResponseBuffers(final Boolean poolResponseBuffers) {
+        this.poolResponseBuffers = poolResponseBuffers;
+    }
+
+    protected void setWriteBatchSize(final Integer writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    protected void setWriteLingerMicros(final Integer writeLingerMicros) {
+        this.writeLingerMicros = writeLingerMicros;
+    }
+
+    protected void setReconnectDelay(final Integer reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    protected void setReconnectMaxDelay(final Integer reconnectMaxDelay) {
+        this.reconnectMaxDelay = reconnectMaxDelay;
+    }
+
+    protected void setHedgingPercentile(final Double hedgingPercentile) {
+        this.hedgingPercentile = hedgingPercentile;
+    }
+
+    protected void setCircuitBreakerFailureRate(final Integer circuitBreakerFailureRate) {
+        this.circuitBreakerFailureRate = circuitBreakerFailureRate;
+    }
+
+    protected void setCircuitBreakerOpenDuration(final Integer circuitBreakerOpenDuration) {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+
+    protected void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    protected void setConcurrencyLimit(final Integer concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    protected void setHttp2MaxConcurrentStreams(final Integer http2MaxConcurrentStreams) {
+        this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+    }
+
+    protected void setHttp2InitialWindowSize(final Integer http2InitialWindowSize) {
+        this.http2InitialWindowSize = http2InitialWindowSize;
+    }
+
+    protected void setHttp2ConnectionWindowSize(final Integer http2ConnectionWindowSize) {
+        this.http2ConnectionWindowSize = http2ConnectionWindowSize;
+    }
+
+    protected void setHttpSharedConnectionManager(final Boolean httpSharedConnectionManager) {
+        this.httpSharedConnectionManager = httpSharedConnectionManager;
+    }
+
+    protected void setHttpIdleTimeout(final Long httpIdleTimeout) {
+        this.httpIdleTimeout = httpIdleTimeout;
+    }
+
+    protected void setHttpValidateAfterInactivity(final Integer httpValidateAfterInactivity) {
+        this.httpValidateAfterInactivity = httpValidateAfterInactivity;
+    }
+
     protected void serializer(final ArangoSerializer serializer) {
         this.serializer = serializer;
     }
@@ -255,6 +398,9 @@ public abstract class InternalArangoDBBuilder {
                 case ROUND_ROBIN:
                     hostHandler = new RoundRobinHostHandler(hostResolver);
                     break;
+                case PEAK_EWMA:
+                    hostHandler = new PeakEwmaHostHandler(hostResolver);
+                    break;
                 case NONE:
                 default:
                     hostHandler = new FallbackHostHandler(hostResolver);
@@ -266,7 +412,15 @@ public abstract class InternalArangoDBBuilder {
 
         LOG.debug("HostHandler is " + hostHandler.getClass().getSimpleName());
 
-        return new DirtyReadHostHandler(hostHandler, new RoundRobinHostHandler(hostResolver));
+        final HostHandler dirtyReadHostHandler = new DirtyReadHostHandler(
+                new LeaderHostHandler(hostResolver, hostHandler), new RoundRobinHostHandler(hostResolver));
+        final HostHandler circuitBreakerHostHandler = circuitBreakerFailureRate != null
+                ? new CircuitBreakerHostHandler(dirtyReadHostHandler, circuitBreakerFailureRate,
+                circuitBreakerOpenDuration)
+                : dirtyReadHostHandler;
+        return concurrencyLimit != null
+                ? new ConcurrencyLimitHostHandler(circuitBreakerHostHandler, concurrencyLimit)
+                : circuitBreakerHostHandler;
     }
 
     protected HostResolver createHostResolver(final Collection<Host> hosts, final int maxConnections, final ConnectionFactory connectionFactory) {
@@ -281,6 +435,12 @@ public abstract class InternalArangoDBBuilder {
 
     }
 
+    private static Protocol loadProtocol(final Properties properties, final Protocol currentValue) {
+        return Protocol.valueOf(
+                getProperty(properties, PROPERTY_KEY_PROTOCOL, currentValue, ArangoDefaults.DEFAULT_NETWORK_PROTOCOL)
+                        .toUpperCase());
+    }
+
     private static String loadHost(final Properties properties, final String currentValue) {
         final String host = getProperty(properties, PROPERTY_KEY_HOST, currentValue, ArangoDefaults.DEFAULT_HOST);
         if (host.contains(":")) {
@@ -356,6 +516,113 @@ public abstract class InternalArangoDBBuilder {
                 ArangoDefaults.DEFAULT_LOAD_BALANCING_STRATEGY).toUpperCase());
     }
 
+    private static Boolean loadUseNio(final Properties properties, final Boolean currentValue) {
+        return Boolean.parseBoolean(getProperty(properties, PROPERTY_KEY_USE_NIO, currentValue,
+                ArangoDefaults.DEFAULT_USE_NIO));
+    }
+
+    private static Boolean loadPoolResponseBuffers(final Properties properties, final Boolean currentValue) {
+        return Boolean.parseBoolean(getProperty(properties, PROPERTY_KEY_POOL_RESPONSE_BUFFERS, currentValue,
+                ArangoDefaults.DEFAULT_POOL_RESPONSE_BUFFERS));
+    }
+
+    private static Integer loadNioThreads(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_NIO_THREADS, currentValue,
+                ArangoDefaults.DEFAULT_NIO_THREADS));
+    }
+
+    private static Integer loadWriteBatchSize(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_WRITE_BATCH_SIZE, currentValue,
+                ArangoDefaults.DEFAULT_WRITE_BATCH_SIZE));
+    }
+
+    private static Integer loadWriteLinger(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_WRITE_LINGER, currentValue,
+                ArangoDefaults.DEFAULT_WRITE_LINGER));
+    }
+
+    private static Integer loadReconnectDelay(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_RECONNECT_DELAY, currentValue,
+                ArangoDefaults.DEFAULT_RECONNECT_DELAY));
+    }
+
+    private static Integer loadReconnectMaxDelay(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_RECONNECT_MAX_DELAY, currentValue,
+                ArangoDefaults.DEFAULT_RECONNECT_MAX_DELAY));
+    }
+
+    private static Double loadHedgingPercentile(final Properties properties, final Double currentValue) {
+        final String hedgingPercentile = getProperty(properties, PROPERTY_KEY_HEDGING_PERCENTILE, currentValue, null);
+        return hedgingPercentile != null ? Double.parseDouble(hedgingPercentile) : null;
+    }
+
+    private static Integer loadCircuitBreakerFailureRate(final Properties properties, final Integer currentValue) {
+        final String failureRate = getProperty(properties, PROPERTY_KEY_CIRCUIT_BREAKER_FAILURE_RATE, currentValue,
+                null);
+        return failureRate != null ? Integer.parseInt(failureRate) : null;
+    }
+
+    private static Integer loadCircuitBreakerOpenDuration(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_CIRCUIT_BREAKER_OPEN_DURATION, currentValue,
+                ArangoDefaults.DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION));
+    }
+
+    private static Integer loadConcurrencyLimit(final Properties properties, final Integer currentValue) {
+        final String limit = getProperty(properties, PROPERTY_KEY_CONCURRENCY_LIMIT, currentValue, null);
+        return limit != null ? Integer.parseInt(limit) : null;
+    }
+
+    private static Integer loadHttp2MaxConcurrentStreams(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_HTTP2_MAX_CONCURRENT_STREAMS, currentValue,
+                ArangoDefaults.DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS));
+    }
+
+    private static Integer loadHttp2InitialWindowSize(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_HTTP2_INITIAL_WINDOW_SIZE, currentValue,
+                ArangoDefaults.DEFAULT_HTTP2_INITIAL_WINDOW_SIZE));
+    }
+
+    private static Integer loadHttp2ConnectionWindowSize(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_HTTP2_CONNECTION_WINDOW_SIZE, currentValue,
+                ArangoDefaults.DEFAULT_HTTP2_CONNECTION_WINDOW_SIZE));
+    }
+
+    private static Boolean loadHttpSharedConnectionManager(final Properties properties, final Boolean currentValue) {
+        return Boolean.parseBoolean(getProperty(properties, PROPERTY_KEY_HTTP_SHARED_CONNECTION_MANAGER, currentValue,
+                ArangoDefaults.DEFAULT_HTTP_SHARED_CONNECTION_MANAGER));
+    }
+
+    private static Long loadHttpIdleTimeout(final Properties properties, final Long currentValue) {
+        return Long.parseLong(getProperty(properties, PROPERTY_KEY_HTTP_IDLE_TIMEOUT, currentValue,
+                ArangoDefaults.DEFAULT_HTTP_IDLE_TIMEOUT));
+    }
+
+    private static Integer loadHttpValidateAfterInactivity(final Properties properties, final Integer currentValue) {
+        return Integer.parseInt(getProperty(properties, PROPERTY_KEY_HTTP_VALIDATE_AFTER_INACTIVITY, currentValue,
+                ArangoDefaults.DEFAULT_HTTP_VALIDATE_AFTER_INACTIVITY));
+    }
+
+    protected VstEventLoopGroup createEventLoopGroup() {
+        return Boolean.TRUE == useNio ? new VstEventLoopGroup(nioThreads) : null;
+    }
+
+    protected ByteArrayPool createResponseBufferPool() {
+        return Boolean.TRUE == poolResponseBuffers ? new ByteArrayPool() : null;
+    }
+
+    protected HashedWheelTimer createTimer() {
+        return new HashedWheelTimer("arangodb-timer", ArangoDefaults.TIMER_TICK_DURATION, TimeUnit.MILLISECONDS,
+                ArangoDefaults.TIMER_TICKS_PER_WHEEL);
+    }
+
+    protected RequestHedging createHedging(final HashedWheelTimer timer) {
+        return hedgingPercentile != null ? new RequestHedging(hedgingPercentile, timer) : null;
+    }
+
+    protected RequestRetry createRetry(final HashedWheelTimer timer) {
+        return retryPolicy != null ? new RequestRetry(retryPolicy, timer) : null;
+    }
+
     protected static <T> String getProperty(
             final Properties properties,
             final String key,
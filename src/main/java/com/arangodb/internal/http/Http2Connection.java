@@ -0,0 +1,448 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
+import com.arangodb.internal.ArangoDefaults;
+import com.arangodb.internal.http.http2.HpackEncoder;
+import com.arangodb.internal.http.http2.Http2Session;
+import com.arangodb.internal.http.http2.Http2Stream;
+import com.arangodb.internal.net.ConnectGate;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.util.ResponseUtils;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.util.ArangoSerializer.Options;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.Response;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/2 connection to a host, multiplexing all requests as concurrent streams over a single TCP connection. The
+ * connection is established lazily with prior knowledge, respectively with ALPN if SSL is used, and re-established
+ * after it was lost, closed by the server or has exceeded its time to live.
+ */
+public class Http2Connection implements HttpTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Http2Connection.class);
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; ArangoDB-JavaDriver/1.1; +http://mt.orz.at/)";
+    private static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+    private static final String CONTENT_TYPE_VPACK = "application/x-velocypack";
+    private static final int MAX_ATTEMPTS = 3;
+
+    public static class Builder {
+        private String user;
+        private String password;
+        private ArangoSerialization util;
+        private Boolean useSsl;
+        private Protocol contentType;
+        private HostDescription host;
+        private Long ttl;
+        private SSLContext sslContext;
+        private HostnameVerifier hostnameVerifier;
+        private Integer timeout;
+        private Integer reconnectDelay;
+        private Integer reconnectMaxDelay;
+        private Integer maxConcurrentStreams;
+        private Integer initialWindowSize;
+        private Integer connectionWindowSize;
+
+        public Builder user(final String user) {
+            this.user = user;
+            return this;
+        }
+
+        public Builder password(final String password) {
+            this.password = password;
+            return this;
+        }
+
+        public Builder serializationUtil(final ArangoSerialization util) {
+            this.util = util;
+            return this;
+        }
+
+        public Builder useSsl(final Boolean useSsl) {
+            this.useSsl = useSsl;
+            return this;
+        }
+
+        public Builder contentType(final Protocol contentType) {
+            this.contentType = contentType;
+            return this;
+        }
+
+        public Builder host(final HostDescription host) {
+            this.host = host;
+            return this;
+        }
+
+        public Builder ttl(final Long ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder sslContext(final SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        public Builder hostnameVerifier(final HostnameVerifier hostnameVerifier) {
+            this.hostnameVerifier = hostnameVerifier;
+            return this;
+        }
+
+        public Builder timeout(final Integer timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder reconnectDelay(final Integer reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+            return this;
+        }
+
+        public Builder reconnectMaxDelay(final Integer reconnectMaxDelay) {
+            this.reconnectMaxDelay = reconnectMaxDelay;
+            return this;
+        }
+
+        public Builder maxConcurrentStreams(final Integer maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        public Builder initialWindowSize(final Integer initialWindowSize) {
+            this.initialWindowSize = initialWindowSize;
+            return this;
+        }
+
+        public Builder connectionWindowSize(final Integer connectionWindowSize) {
+            this.connectionWindowSize = connectionWindowSize;
+            return this;
+        }
+
+        public Http2Connection build() {
+            return new Http2Connection(host, timeout, user, password, useSsl, sslContext, hostnameVerifier, util,
+                    contentType, ttl, reconnectDelay, reconnectMaxDelay, maxConcurrentStreams, initialWindowSize,
+                    connectionWindowSize);
+        }
+    }
+
+    private final HostDescription host;
+    private final Integer timeout;
+    private final String authorization;
+    private final Boolean useSsl;
+    private final SSLContext sslContext;
+    private final HostnameVerifier hostnameVerifier;
+    private final ArangoSerialization util;
+    private final boolean vpack;
+    private final Long ttl;
+    private final int maxConcurrentStreams;
+    private final int initialWindowSize;
+    private final int connectionWindowSize;
+    private final String authority;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConnectGate connectGate;
+    private final Object lock = new Object();
+    private volatile Http2Session session;
+
+    private Http2Connection(final HostDescription host, final Integer timeout, final String user,
+                            final String password, final Boolean useSsl, final SSLContext sslContext,
+                            final HostnameVerifier hostnameVerifier, final ArangoSerialization util,
+                            final Protocol contentType, final Long ttl, final Integer reconnectDelay,
+                            final Integer reconnectMaxDelay, final Integer maxConcurrentStreams,
+                            final Integer initialWindowSize, final Integer connectionWindowSize) {
+        super();
+        this.host = host;
+        this.timeout = timeout;
+        this.useSsl = useSsl;
+        this.sslContext = sslContext;
+        this.hostnameVerifier = hostnameVerifier;
+        this.util = util;
+        this.ttl = ttl;
+        this.maxConcurrentStreams = maxConcurrentStreams != null ? Math.max(1, maxConcurrentStreams)
+                : ArangoDefaults.DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS;
+        this.initialWindowSize = initialWindowSize != null ? Math.max(1, initialWindowSize)
+                : ArangoDefaults.DEFAULT_HTTP2_INITIAL_WINDOW_SIZE;
+        this.connectionWindowSize = connectionWindowSize != null ? Math.max(1, connectionWindowSize)
+                : ArangoDefaults.DEFAULT_HTTP2_CONNECTION_WINDOW_SIZE;
+        vpack = contentType == Protocol.HTTP2_VPACK;
+        authority = host.getHost() + ":" + host.getPort();
+        authorization = user != null ? "Basic " + Base64.getEncoder().encodeToString(
+                (user + ":" + (password != null ? password : "")).getBytes(StandardCharsets.UTF_8)) : null;
+        connectGate = new ConnectGate(reconnectDelay, reconnectMaxDelay);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (session != null) {
+                session.close();
+                session = null;
+            }
+        }
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public ConnectGate getConnectGate() {
+        return connectGate;
+    }
+
+    @Override
+    public Response execute(final Request request) throws ArangoDBException, IOException {
+        final HpackEncoder headers = buildHeaders(request);
+        final VPackSlice body = request.getBody();
+        final byte[] content;
+        final int offset;
+        final int length;
+        if (body == null) {
+            content = null;
+            offset = 0;
+            length = 0;
+        } else if (vpack) {
+            content = body.getBuffer();
+            offset = body.getStart();
+            length = body.getByteSize();
+        } else {
+            content = VPackJsonWriter.toByteArray(body);
+            offset = 0;
+            length = content.length;
+        }
+        final int requestTimeout = request.getTimeout() != null ? request.getTimeout()
+                : timeout != null ? timeout : 0;
+        final long deadline = requestTimeout > 0 ? deadline(requestTimeout) : 0L;
+
+        final Response response;
+        inFlight.incrementAndGet();
+        try {
+            Http2Stream stream = null;
+            for (int attempt = 1; stream == null; attempt++) {
+                try {
+                    stream = exchange(headers, content, offset, length, deadline);
+                } catch (final Http2Session.NotProcessedException e) {
+                    // the server stopped accepting streams on this connection, e.g. after a GOAWAY
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    LOGGER.debug("Resending request on a new connection to " + host, e);
+                }
+            }
+            response = buildResponse(stream);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        ResponseUtils.checkError(util, response);
+        return response;
+    }
+
+    private Http2Stream exchange(final HpackEncoder headers, final byte[] content, final int offset,
+                                 final int length, final long deadline) throws IOException {
+        final Http2Session current = session();
+        return await(current, current.send(headers.getBytes(), headers.size(), content, offset, length, deadline),
+                deadline);
+    }
+
+    private HpackEncoder buildHeaders(final Request request) {
+        final HpackEncoder headers = new HpackEncoder()
+                .header(":method", method(request))
+                .header(":scheme", Boolean.TRUE == useSsl ? "https" : "http")
+                .header(":authority", authority)
+                .header(":path", HttpConnection.buildUrl("", request))
+                .header("user-agent", USER_AGENT);
+        if (vpack) {
+            headers.header("accept", CONTENT_TYPE_VPACK);
+        }
+        if (request.getBody() != null) {
+            headers.header("content-type", vpack ? CONTENT_TYPE_VPACK : CONTENT_TYPE_JSON);
+        }
+        for (final Entry<String, String> header : request.getHeaderParam().entrySet()) {
+            headers.header(header.getKey(), header.getValue());
+        }
+        if (authorization != null) {
+            headers.header("authorization", authorization);
+        }
+        return headers;
+    }
+
+    private static String method(final Request request) {
+        switch (request.getRequestType()) {
+            case POST:
+            case PUT:
+            case PATCH:
+            case DELETE:
+            case HEAD:
+                return request.getRequestType().name();
+            case GET:
+            default:
+                return "GET";
+        }
+    }
+
+    private Http2Session session() throws IOException {
+        Http2Session current = session;
+        if (current != null && isUsable(current)) {
+            return current;
+        }
+        synchronized (lock) {
+            current = session;
+            if (current != null && isUsable(current)) {
+                return current;
+            }
+            if (current != null) {
+                current.shutdown();
+            }
+            current = Http2Session.open(authority, connect(), maxConcurrentStreams, initialWindowSize,
+                    connectionWindowSize);
+            session = current;
+            return current;
+        }
+    }
+
+    private boolean isUsable(final Http2Session current) {
+        return current.isAvailable()
+                && (ttl == null || System.nanoTime() - current.getCreated() < TimeUnit.MILLISECONDS.toNanos(ttl));
+    }
+
+    private Socket connect() throws IOException {
+        final int connectTimeout = timeout != null ? Math.max(0, timeout) : 0;
+        final Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(host.getHost(), host.getPort()), connectTimeout);
+            if (Boolean.TRUE != useSsl) {
+                return socket;
+            }
+            final SSLContext context = sslContext != null ? sslContext : SSLContext.getDefault();
+            final SSLSocket sslSocket = (SSLSocket) context.getSocketFactory()
+                    .createSocket(socket, host.getHost(), host.getPort(), true);
+            final SSLParameters parameters = sslSocket.getSSLParameters();
+            boolean alpn = true;
+            try {
+                parameters.setApplicationProtocols(new String[]{"h2"});
+            } catch (final NoSuchMethodError e) {
+                alpn = false;
+                LOGGER.debug("ALPN is not supported by this JVM, connecting to " + host + " with prior knowledge");
+            }
+            sslSocket.setSSLParameters(parameters);
+            sslSocket.setSoTimeout(connectTimeout);
+            sslSocket.startHandshake();
+            sslSocket.setSoTimeout(0);
+            if (alpn) {
+                final String protocol = sslSocket.getApplicationProtocol();
+                if (protocol != null && !"h2".equals(protocol)) {
+                    throw new SSLHandshakeException(String.format(
+                            "Server %s did not negotiate HTTP/2 (ALPN protocol: '%s')", host, protocol));
+                }
+            }
+            final HostnameVerifier verifier = hostnameVerifier != null ? hostnameVerifier
+                    : SSLConnectionSocketFactory.getDefaultHostnameVerifier();
+            if (!verifier.verify(host.getHost(), sslSocket.getSession())) {
+                throw new SSLPeerUnverifiedException("Certificate of " + host + " does not match its host name");
+            }
+            return sslSocket;
+        } catch (final IOException e) {
+            socket.close();
+            throw e;
+        } catch (final NoSuchAlgorithmException e) {
+            socket.close();
+            throw new ArangoDBException(e);
+        }
+    }
+
+    private static long deadline(final int timeoutMillis) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return deadline != 0L ? deadline : 1L;
+    }
+
+    private static Http2Stream await(final Http2Session session, final Http2Stream stream, final long deadline)
+            throws IOException {
+        try {
+            if (deadline == 0L) {
+                return stream.response().get();
+            }
+            return stream.response().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            session.cancel(stream);
+            throw new SocketTimeoutException("Read timed out");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            session.cancel(stream);
+            throw new IOException("Interrupted waiting for the response", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new ArangoDBException(cause);
+        }
+    }
+
+    private Response buildResponse(final Http2Stream stream) {
+        final Response response = new Response();
+        response.setResponseCode(stream.getStatus());
+        final int length = stream.getBodyLength();
+        if (length > 0) {
+            if (vpack) {
+                response.setBody(new VPackSlice(stream.getBody()));
+            } else {
+                response.setBody(util.serialize(new String(stream.getBody(), 0, length, StandardCharsets.UTF_8),
+                        new Options().stringAsJson(true).serializeNullValues(true)));
+            }
+        }
+        // HTTP/2 header names are lower-case, whereas callers look up headers the way HTTP/1.1 servers spell them
+        final Map<String, String> meta = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        meta.putAll(stream.getHeaders());
+        response.setMeta(meta);
+        return response;
+    }
+
+}
@@ -77,13 +77,24 @@ public class HttpCommunication implements Closeable {
         try {
             while (true) {
                 try {
-                    final HttpConnection connection = (HttpConnection) host.connection();
-                    final Response response = connection.execute(request);
-                    hostHandler.success();
-                    hostHandler.confirm();
+                    final HttpTransport connection = (HttpTransport) host.connection();
+                    hostHandler.started(host, accessType);
+                    final long start = System.nanoTime();
+                    final Response response;
+                    Exception error = null;
+                    try {
+                        response = execute(connection, request);
+                    } catch (final IOException | RuntimeException e) {
+                        error = e;
+                        throw e;
+                    } finally {
+                        hostHandler.finished(host, accessType, System.nanoTime() - start, error);
+                    }
+                    hostHandler.success(host, accessType);
+                    hostHandler.confirm(accessType);
                     return response;
                 } catch (final SocketException se) {
-                    hostHandler.fail();
+                    hostHandler.fail(host, accessType);
                     if (hostHandle != null && hostHandle.getHost() != null) {
                         hostHandle.setHost(null);
                     }
@@ -102,8 +113,7 @@ public class HttpCommunication implements Closeable {
             if (e instanceof ArangoDBRedirectException) {
                 final String location = ((ArangoDBRedirectException) e).getLocation();
                 final HostDescription redirectHost = HostUtils.createFromLocation(location);
-                hostHandler.closeCurrentOnError();
-                hostHandler.fail();
+                hostHandler.redirect(host, redirectHost, accessType);
                 return execute(request, new HostHandle().setHost(redirectHost));
             } else {
                 throw e;
@@ -111,4 +121,39 @@ public class HttpCommunication implements Closeable {
         }
     }
 
+    /**
+     * Executes the request directly as long as the connection works. After a failure only one thread at a time
+     * probes the connection, others waiting for a failing probe or arriving during the backoff fail over without
+     * dialing.
+     */
+    private static Response execute(final HttpTransport connection, final Request request) throws IOException {
+        final ConnectGate gate = connection.getConnectGate();
+        if (gate.isFailing()) {
+            final long failedAttempts = gate.getFailedAttempts();
+            synchronized (gate) {
+                if (gate.isFailing()) {
+                    gate.checkAttempt(failedAttempts);
+                    return attempt(connection, gate, request);
+                }
+            }
+        }
+        return attempt(connection, gate, request);
+    }
+
+    private static Response attempt(final HttpTransport connection, final ConnectGate gate, final Request request)
+            throws IOException {
+        final Response response;
+        try {
+            response = connection.execute(request);
+        } catch (final SocketException e) {
+            gate.failure();
+            throw e;
+        } catch (final ArangoDBException e) {
+            gate.success();
+            throw e;
+        }
+        gate.success();
+        return response;
+    }
+
 }
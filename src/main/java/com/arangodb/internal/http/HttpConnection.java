@@ -22,7 +22,7 @@ package com.arangodb.internal.http;
 
 import com.arangodb.ArangoDBException;
 import com.arangodb.Protocol;
-import com.arangodb.internal.net.Connection;
+import com.arangodb.internal.net.ConnectGate;
 import com.arangodb.internal.net.HostDescription;
 import com.arangodb.internal.util.IOUtils;
 import com.arangodb.internal.util.ResponseUtils;
@@ -46,7 +46,6 @@ import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.auth.BasicScheme;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
@@ -62,17 +61,19 @@ import org.slf4j.LoggerFactory;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Mark Vollmary
  */
-public class HttpConnection implements Connection {
+public class HttpConnection implements HttpTransport {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpCommunication.class);
     private static final ContentType CONTENT_TYPE_APPLICATION_JSON_UTF8 = ContentType.create("application/json",
@@ -92,6 +93,11 @@ public class HttpConnection implements Connection {
         private HostnameVerifier hostnameVerifier;
         private Integer timeout;
         private HttpRequestRetryHandler httpRequestRetryHandler;
+        private Integer reconnectDelay;
+        private Integer reconnectMaxDelay;
+        private Integer maxConnections;
+        private Long idleTimeout;
+        private Integer validateAfterInactivity;
 
         public Builder user(final String user) {
             this.user = user;
@@ -153,9 +159,35 @@ public class HttpConnection implements Connection {
             return this;
         }
 
+        public Builder reconnectDelay(final Integer reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+            return this;
+        }
+
+        public Builder reconnectMaxDelay(final Integer reconnectMaxDelay) {
+            this.reconnectMaxDelay = reconnectMaxDelay;
+            return this;
+        }
+
+        public Builder maxConnections(final Integer maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder idleTimeout(final Long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder validateAfterInactivity(final Integer validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+            return this;
+        }
+
         public HttpConnection build() {
             return new HttpConnection(host, timeout, user, password, useSsl, sslContext, hostnameVerifier, util,
-                    contentType, ttl, httpCookieSpec, httpRequestRetryHandler);
+                    contentType, ttl, httpCookieSpec, httpRequestRetryHandler, reconnectDelay, reconnectMaxDelay,
+                    maxConnections, idleTimeout, validateAfterInactivity);
         }
     }
 
@@ -167,10 +199,15 @@ public class HttpConnection implements Connection {
     private final Boolean useSsl;
     private final Protocol contentType;
     private final HostDescription host;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConnectGate connectGate;
 
     private HttpConnection(final HostDescription host, final Integer timeout, final String user, final String password,
                            final Boolean useSsl, final SSLContext sslContext, final HostnameVerifier hostnameVerifier, final ArangoSerialization util, final Protocol contentType,
-                           final Long ttl, final String httpCookieSpec, final HttpRequestRetryHandler httpRequestRetryHandler) {
+                           final Long ttl, final String httpCookieSpec, final HttpRequestRetryHandler httpRequestRetryHandler,
+                           final Integer reconnectDelay, final Integer reconnectMaxDelay,
+                           final Integer maxConnections, final Long idleTimeout,
+                           final Integer validateAfterInactivity) {
         super();
         this.host = host;
         this.user = user;
@@ -178,6 +215,7 @@ public class HttpConnection implements Connection {
         this.useSsl = useSsl;
         this.util = util;
         this.contentType = contentType;
+        connectGate = new ConnectGate(reconnectDelay, reconnectMaxDelay);
         final RegistryBuilder<ConnectionSocketFactory> registryBuilder = RegistryBuilder
                 .create();
         if (Boolean.TRUE == useSsl) {
@@ -189,8 +227,12 @@ public class HttpConnection implements Connection {
             registryBuilder.register("http", new PlainConnectionSocketFactory());
         }
         cm = new PoolingHttpClientConnectionManager(registryBuilder.build());
-        cm.setDefaultMaxPerRoute(1);
-        cm.setMaxTotal(1);
+        final int max = maxConnections != null ? Math.max(1, maxConnections) : 1;
+        cm.setDefaultMaxPerRoute(max);
+        cm.setMaxTotal(max);
+        if (validateAfterInactivity != null) {
+            cm.setValidateAfterInactivity(validateAfterInactivity);
+        }
         final RequestConfig.Builder requestConfig = RequestConfig.custom();
         if (timeout != null && timeout >= 0) {
             requestConfig.setConnectTimeout(timeout);
@@ -209,6 +251,9 @@ public class HttpConnection implements Connection {
         if (ttl != null) {
             builder.setConnectionTimeToLive(ttl, TimeUnit.MILLISECONDS);
         }
+        if (idleTimeout != null && idleTimeout > 0) {
+            builder.evictIdleConnections(idleTimeout.longValue(), TimeUnit.MILLISECONDS);
+        }
         client = builder.build();
     }
 
@@ -234,7 +279,7 @@ public class HttpConnection implements Connection {
         client.close();
     }
 
-    private static String buildUrl(final String baseUrl, final Request request) {
+    public static String buildUrl(final String baseUrl, final Request request) {
         final StringBuilder sb = new StringBuilder().append(baseUrl);
         final String database = request.getDatabase();
         if (database != null && !database.isEmpty()) {
@@ -283,11 +328,10 @@ public class HttpConnection implements Connection {
         final VPackSlice body = request.getBody();
         if (body != null) {
             if (contentType == Protocol.HTTP_VPACK) {
-                httpRequest.setEntity(new ByteArrayEntity(
-                        Arrays.copyOfRange(body.getBuffer(), body.getStart(), body.getStart() + body.getByteSize()),
+                httpRequest.setEntity(new ByteArrayEntity(body.getBuffer(), body.getStart(), body.getByteSize(),
                         CONTENT_TYPE_VPACK));
             } else {
-                httpRequest.setEntity(new StringEntity(body.toString(), CONTENT_TYPE_APPLICATION_JSON_UTF8));
+                httpRequest.setEntity(new VPackJsonEntity(body, CONTENT_TYPE_APPLICATION_JSON_UTF8));
             }
         }
         return httpRequest;
@@ -307,6 +351,7 @@ public class HttpConnection implements Connection {
         return paramList;
     }
 
+    @Override
     public Response execute(final Request request) throws ArangoDBException, IOException {
         final String url = buildUrl(buildBaseUrl(host), request);
         final HttpRequestBase httpRequest = buildHttpRequestBase(request, url);
@@ -320,11 +365,26 @@ public class HttpConnection implements Connection {
             CURLLogger.log(url, request, credentials, util);
         }
         Response response;
-        response = buildResponse(client.execute(httpRequest));
+        inFlight.incrementAndGet();
+        try {
+            response = buildResponse(client.execute(httpRequest));
+        } finally {
+            inFlight.decrementAndGet();
+        }
         checkError(response);
         return response;
     }
 
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public ConnectGate getConnectGate() {
+        return connectGate;
+    }
+
     private static void addHeader(final Request request, final HttpRequestBase httpRequest) {
         for (final Entry<String, String> header : request.getHeaderParam().entrySet()) {
             httpRequest.addHeader(header.getKey(), header.getValue());
@@ -349,18 +409,23 @@ public class HttpConnection implements Connection {
         final Response response = new Response();
         response.setResponseCode(httpResponse.getStatusLine().getStatusCode());
         final HttpEntity entity = httpResponse.getEntity();
-        if (entity != null && entity.getContent() != null) {
-            if (contentType == Protocol.HTTP_VPACK) {
-                final byte[] content = IOUtils.toByteArray(entity.getContent());
-                if (content.length > 0) {
-                    response.setBody(new VPackSlice(content));
-                }
-            } else {
-                final String content = IOUtils.toString(entity.getContent());
-                if (!content.isEmpty()) {
-                    response.setBody(
-                            util.serialize(content, new Options().stringAsJson(true).serializeNullValues(true)));
+        final InputStream content = entity != null ? entity.getContent() : null;
+        if (content != null) {
+            try {
+                if (contentType == Protocol.HTTP_VPACK) {
+                    final ByteBuffer body = IOUtils.readFully(content, entity.getContentLength());
+                    if (body.hasRemaining()) {
+                        response.setBody(new VPackSlice(body.array()));
+                    }
+                } else {
+                    final String body = IOUtils.toUtf8String(content, entity.getContentLength());
+                    if (!body.isEmpty()) {
+                        response.setBody(
+                                util.serialize(body, new Options().stringAsJson(true).serializeNullValues(true)));
+                    }
                 }
+            } finally {
+                content.close();
             }
         }
         final Header[] headers = httpResponse.getAllHeaders();
@@ -36,21 +36,34 @@ import javax.net.ssl.SSLContext;
 public class HttpConnectionFactory implements ConnectionFactory {
 
     private final HttpConnection.Builder builder;
+    private final Http2Connection.Builder http2Builder;
 
     public HttpConnectionFactory(final Integer timeout, final String user, final String password, final Boolean useSsl,
                                  final SSLContext sslContext, final HostnameVerifier hostnameVerifier,
                                  final ArangoSerialization util, final Protocol protocol, final Long connectionTtl,
-                                 final String httpCookieSpec, final HttpRequestRetryHandler httpRequestRetryHandler) {
+                                 final String httpCookieSpec, final HttpRequestRetryHandler httpRequestRetryHandler,
+                                 final Integer reconnectDelay, final Integer reconnectMaxDelay,
+                                 final Integer http2MaxConcurrentStreams, final Integer http2InitialWindowSize,
+                                 final Integer http2ConnectionWindowSize, final Integer httpMaxConnections,
+                                 final Long httpIdleTimeout, final Integer httpValidateAfterInactivity) {
         super();
         builder = new HttpConnection.Builder().timeout(timeout).user(user).password(password).useSsl(useSsl)
                 .sslContext(sslContext).hostnameVerifier(hostnameVerifier).serializationUtil(util).contentType(protocol)
-                .ttl(connectionTtl).httpCookieSpec(httpCookieSpec).httpRequestRetryHandler(httpRequestRetryHandler);
-
+                .ttl(connectionTtl).httpCookieSpec(httpCookieSpec).httpRequestRetryHandler(httpRequestRetryHandler)
+                .reconnectDelay(reconnectDelay).reconnectMaxDelay(reconnectMaxDelay).maxConnections(httpMaxConnections)
+                .idleTimeout(httpIdleTimeout).validateAfterInactivity(httpValidateAfterInactivity);
+        http2Builder = protocol == Protocol.HTTP2_JSON || protocol == Protocol.HTTP2_VPACK
+                ? new Http2Connection.Builder().timeout(timeout).user(user).password(password).useSsl(useSsl)
+                .sslContext(sslContext).hostnameVerifier(hostnameVerifier).serializationUtil(util)
+                .contentType(protocol).ttl(connectionTtl).reconnectDelay(reconnectDelay)
+                .reconnectMaxDelay(reconnectMaxDelay).maxConcurrentStreams(http2MaxConcurrentStreams)
+                .initialWindowSize(http2InitialWindowSize).connectionWindowSize(http2ConnectionWindowSize)
+                : null;
     }
 
     @Override
     public Connection create(final HostDescription host) {
-        return builder.host(host).build();
+        return http2Builder != null ? http2Builder.host(host).build() : builder.host(host).build();
     }
 
 }
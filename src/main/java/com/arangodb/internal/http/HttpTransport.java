@@ -0,0 +1,42 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.net.ConnectGate;
+import com.arangodb.internal.net.Connection;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.Response;
+
+import java.io.IOException;
+
+/**
+ * Connection to a host executing requests over HTTP, used by {@link HttpCommunication}. A
+ * {@link java.net.SocketException} thrown by {@link #execute(Request)} means that the host could not be reached and
+ * lets the communication fail over to another host.
+ */
+public interface HttpTransport extends Connection {
+
+    Response execute(Request request) throws ArangoDBException, IOException;
+
+    ConnectGate getConnectGate();
+
+}
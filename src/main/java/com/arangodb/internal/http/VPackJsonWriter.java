@@ -0,0 +1,293 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.internal.util.DateUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Writes a VelocyPack value as UTF-8 encoded JSON, with the same output as {@link VPackSlice#toString()}, but without
+ * building the JSON as a {@link String}. String values are copied from the VelocyPack buffer as they are, since they
+ * are already UTF-8 encoded, escaping only quotes, backslashes and control characters.
+ */
+public final class VPackJsonWriter {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int SHORT_STRING = 0x40;
+    private static final int LONG_STRING = 0xbf;
+    private static final byte QUOTE = '"';
+    private static final byte BACKSLASH = '\\';
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] NON_REPRESENTABLE = ascii("\"(non-representable type)\"");
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long count;
+
+    private VPackJsonWriter(final OutputStream out, final byte[] buffer) {
+        super();
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return number of bytes of the JSON representation of the given value
+     */
+    public static long length(final VPackSlice value) {
+        final VPackJsonWriter writer = new VPackJsonWriter(null, null);
+        try {
+            writer.value(value);
+        } catch (final IOException e) {
+            throw new ArangoDBException(e);
+        }
+        return writer.count;
+    }
+
+    /**
+     * Writes the JSON representation of the given value to the given stream, through a buffer of fixed size.
+     */
+    public static void write(final VPackSlice value, final OutputStream out) throws IOException {
+        final VPackJsonWriter writer = new VPackJsonWriter(out, new byte[BUFFER_SIZE]);
+        writer.value(value);
+        writer.flush();
+    }
+
+    /**
+     * @return the JSON representation of the given value, in an array of exactly its length
+     */
+    public static byte[] toByteArray(final VPackSlice value) {
+        final long length = length(value);
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new ArangoDBException("JSON representation of the request body is too large: " + length + " bytes");
+        }
+        final VPackJsonWriter writer = new VPackJsonWriter(null, new byte[(int) length]);
+        try {
+            writer.value(value);
+        } catch (final IOException e) {
+            throw new ArangoDBException(e);
+        }
+        return writer.buffer;
+    }
+
+    private void value(final VPackSlice value) throws IOException {
+        if (value.isObject()) {
+            object(value);
+        } else if (value.isArray()) {
+            array(value);
+        } else if (value.isBoolean()) {
+            put(value.getAsBoolean() ? TRUE : FALSE);
+        } else if (value.isString()) {
+            string(value);
+        } else if (value.isDouble()) {
+            putAscii(String.valueOf(value.getAsDouble()));
+        } else if (value.isInt()) {
+            putAscii(String.valueOf(value.getAsLong()));
+        } else if (value.isNumber()) {
+            putAscii(String.valueOf(value.getAsNumber()));
+        } else if (value.isDate()) {
+            string(DateUtil.format(value.getAsDate()));
+        } else if (value.isNull()) {
+            put(NULL);
+        } else {
+            put(NON_REPRESENTABLE);
+        }
+    }
+
+    private void object(final VPackSlice value) throws IOException {
+        put((byte) '{');
+        boolean first = true;
+        for (final Iterator<Entry<String, VPackSlice>> it = value.objectIterator(); it.hasNext(); ) {
+            final Entry<String, VPackSlice> entry = it.next();
+            if (!first) {
+                put((byte) ',');
+            }
+            first = false;
+            string(entry.getKey());
+            put((byte) ':');
+            value(entry.getValue());
+        }
+        put((byte) '}');
+    }
+
+    private void array(final VPackSlice value) throws IOException {
+        put((byte) '[');
+        boolean first = true;
+        for (final Iterator<VPackSlice> it = value.arrayIterator(); it.hasNext(); ) {
+            if (!first) {
+                put((byte) ',');
+            }
+            first = false;
+            value(it.next());
+        }
+        put((byte) ']');
+    }
+
+    private void string(final VPackSlice value) throws IOException {
+        final int head = value.head() & 0xff;
+        if (head < SHORT_STRING || head > LONG_STRING) {
+            // tagged string
+            string(value.getAsString());
+            return;
+        }
+        final byte[] bytes = value.getBuffer();
+        final int start = value.getStart() + (head == LONG_STRING ? 9 : 1);
+        final int end = start + value.getLength();
+        put(QUOTE);
+        int run = start;
+        for (int i = start; i < end; i++) {
+            final byte b = bytes[i];
+            if ((b >= 0 && b < 0x20) || b == QUOTE || b == BACKSLASH) {
+                put(bytes, run, i - run);
+                escape(b);
+                run = i + 1;
+            }
+        }
+        put(bytes, run, end - run);
+        put(QUOTE);
+    }
+
+    private void string(final String value) throws IOException {
+        put(QUOTE);
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c < 0x20 || c == QUOTE || c == BACKSLASH) {
+                    escape((byte) c);
+                } else {
+                    put((byte) c);
+                }
+            } else if (c < 0x800) {
+                put((byte) (0xc0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, value.charAt(++i));
+                put((byte) (0xf0 | (cp >> 18)));
+                put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                put((byte) (0x80 | (cp & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, replaced like String#getBytes does
+                put((byte) '?');
+            } else {
+                put((byte) (0xe0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+        put(QUOTE);
+    }
+
+    private void escape(final byte b) throws IOException {
+        put(BACKSLASH);
+        switch (b) {
+            case '\b':
+                put((byte) 'b');
+                break;
+            case '\t':
+                put((byte) 't');
+                break;
+            case '\n':
+                put((byte) 'n');
+                break;
+            case '\f':
+                put((byte) 'f');
+                break;
+            case '\r':
+                put((byte) 'r');
+                break;
+            case QUOTE:
+            case BACKSLASH:
+                put(b);
+                break;
+            default:
+                put((byte) 'u');
+                put((byte) '0');
+                put((byte) '0');
+                put(HEX[(b >> 4) & 0xf]);
+                put(HEX[b & 0xf]);
+                break;
+        }
+    }
+
+    private void putAscii(final String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            put((byte) value.charAt(i));
+        }
+    }
+
+    private void put(final byte b) throws IOException {
+        if (buffer == null) {
+            count++;
+            return;
+        }
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = b;
+    }
+
+    private void put(final byte[] b) throws IOException {
+        put(b, 0, b.length);
+    }
+
+    private void put(final byte[] b, final int offset, final int length) throws IOException {
+        if (buffer == null) {
+            count += length;
+            return;
+        }
+        int off = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            if (position == buffer.length) {
+                flush();
+            }
+            final int n = Math.min(remaining, buffer.length - position);
+            System.arraycopy(b, off, buffer, position, n);
+            position += n;
+            off += n;
+            remaining -= n;
+        }
+    }
+
+    private void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
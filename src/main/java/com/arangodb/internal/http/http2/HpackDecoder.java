@@ -0,0 +1,185 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Decoder of HPACK header blocks (RFC 7541). An instance keeps the dynamic table of one HTTP/2 connection, so header
+ * blocks have to be decoded in the order they were received.
+ */
+public class HpackDecoder {
+
+    static final int ENTRY_OVERHEAD = 32;
+
+    private final int maxTableSize;
+    private final List<String[]> table = new ArrayList<>();
+    private int tableSize;
+    private int capacity;
+
+    /**
+     * @param maxTableSize maximum size of the dynamic table, as announced in {@code SETTINGS_HEADER_TABLE_SIZE}
+     */
+    public HpackDecoder(final int maxTableSize) {
+        super();
+        this.maxTableSize = maxTableSize;
+        capacity = maxTableSize;
+    }
+
+    public void decode(final byte[] block, final int offset, final int length, final BiConsumer<String, String> sink)
+            throws ProtocolException {
+        final Reader reader = new Reader(block, offset, offset + length);
+        boolean headerSeen = false;
+        while (reader.hasRemaining()) {
+            final int b = reader.peek();
+            if ((b & 0x80) != 0) {
+                final String[] field = field(reader.readInt(7));
+                sink.accept(field[0], field[1]);
+                headerSeen = true;
+            } else if ((b & 0x40) != 0) {
+                final String[] field = literal(reader, 6);
+                add(field);
+                sink.accept(field[0], field[1]);
+                headerSeen = true;
+            } else if ((b & 0x20) != 0) {
+                if (headerSeen) {
+                    throw new ProtocolException("HPACK: dynamic table size update after header field");
+                }
+                final int size = reader.readInt(5);
+                if (size > maxTableSize) {
+                    throw new ProtocolException("HPACK: dynamic table size " + size + " exceeds " + maxTableSize);
+                }
+                capacity = size;
+                evict(0);
+            } else {
+                final String[] field = literal(reader, 4);
+                sink.accept(field[0], field[1]);
+                headerSeen = true;
+            }
+        }
+    }
+
+    int getTableSize() {
+        return tableSize;
+    }
+
+    private String[] literal(final Reader reader, final int prefix) throws ProtocolException {
+        final int index = reader.readInt(prefix);
+        final String name = index == 0 ? reader.readString() : field(index)[0];
+        return new String[]{name, reader.readString()};
+    }
+
+    private String[] field(final int index) throws ProtocolException {
+        if (index >= 1 && index <= HpackStaticTable.SIZE) {
+            return HpackStaticTable.get(index);
+        }
+        final int dynamicIndex = index - HpackStaticTable.SIZE;
+        if (index < 1 || dynamicIndex > table.size()) {
+            throw new ProtocolException("HPACK: invalid index " + index);
+        }
+        return table.get(table.size() - dynamicIndex);
+    }
+
+    private void add(final String[] field) {
+        final int size = field[0].length() + field[1].length() + ENTRY_OVERHEAD;
+        evict(size);
+        if (size <= capacity) {
+            table.add(field);
+            tableSize += size;
+        }
+    }
+
+    private void evict(final int required) {
+        int evicted = 0;
+        while (tableSize + required > capacity && evicted < table.size()) {
+            final String[] field = table.get(evicted++);
+            tableSize -= field[0].length() + field[1].length() + ENTRY_OVERHEAD;
+        }
+        table.subList(0, evicted).clear();
+    }
+
+    private static class Reader {
+
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+
+        private Reader(final byte[] bytes, final int offset, final int limit) {
+            this.bytes = bytes;
+            this.limit = limit;
+            position = offset;
+        }
+
+        private boolean hasRemaining() {
+            return position < limit;
+        }
+
+        private int peek() {
+            return bytes[position] & 0xff;
+        }
+
+        private int read() throws ProtocolException {
+            if (position >= limit) {
+                throw new ProtocolException("HPACK: truncated header block");
+            }
+            return bytes[position++] & 0xff;
+        }
+
+        private int readInt(final int prefix) throws ProtocolException {
+            final int max = (1 << prefix) - 1;
+            int value = read() & max;
+            if (value < max) {
+                return value;
+            }
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 21) {
+                    throw new ProtocolException("HPACK: integer overflow");
+                }
+                final int b = read();
+                value += (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private String readString() throws ProtocolException {
+            if (!hasRemaining()) {
+                throw new ProtocolException("HPACK: truncated header block");
+            }
+            final boolean huffman = (peek() & 0x80) != 0;
+            final int length = readInt(7);
+            if (length > limit - position) {
+                throw new ProtocolException("HPACK: truncated header block");
+            }
+            final String value = huffman ? Huffman.decode(bytes, position, length)
+                    : new String(bytes, position, length, StandardCharsets.ISO_8859_1);
+            position += length;
+            return value;
+        }
+
+    }
+
+}
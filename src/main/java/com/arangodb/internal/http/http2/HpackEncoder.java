@@ -0,0 +1,97 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Encoder of a single HPACK header block (RFC 7541). Fields are never added to the dynamic table, so that blocks do
+ * not depend on each other and can be encoded concurrently and in any order. Fields are referenced by the static
+ * table where possible, names are lower-cased as required by HTTP/2.
+ */
+public class HpackEncoder {
+
+    private byte[] bytes;
+    private int size;
+
+    public HpackEncoder() {
+        super();
+        bytes = new byte[256];
+    }
+
+    public HpackEncoder header(final String name, final String value) {
+        final String lowerCaseName = name.toLowerCase(Locale.ROOT);
+        final int fieldIndex = HpackStaticTable.indexOfField(lowerCaseName, value);
+        if (fieldIndex > 0) {
+            putInt(0x80, 7, fieldIndex);
+            return this;
+        }
+        final int nameIndex = HpackStaticTable.indexOfName(lowerCaseName);
+        // literal header field without indexing
+        putInt(0x00, 4, nameIndex);
+        if (nameIndex == 0) {
+            putString(lowerCaseName);
+        }
+        putString(value);
+        return this;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void putInt(final int mask, final int prefix, final int value) {
+        ensureCapacity(6);
+        final int max = (1 << prefix) - 1;
+        if (value < max) {
+            bytes[size++] = (byte) (mask | value);
+            return;
+        }
+        bytes[size++] = (byte) (mask | max);
+        int remaining = value - max;
+        while (remaining >= 0x80) {
+            bytes[size++] = (byte) ((remaining & 0x7f) | 0x80);
+            remaining >>>= 7;
+        }
+        bytes[size++] = (byte) remaining;
+    }
+
+    private void putString(final String value) {
+        final byte[] raw = value.getBytes(StandardCharsets.ISO_8859_1);
+        putInt(0x00, 7, raw.length);
+        ensureCapacity(raw.length);
+        System.arraycopy(raw, 0, bytes, size, raw.length);
+        size += raw.length;
+    }
+
+    private void ensureCapacity(final int length) {
+        if (size + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Static table of HPACK (RFC 7541, Appendix A).
+ */
+final class HpackStaticTable {
+
+    private static final String[][] ENTRIES = {
+            {":authority", ""},
+            {":method", "GET"},
+            {":method", "POST"},
+            {":path", "/"},
+            {":path", "/index.html"},
+            {":scheme", "http"},
+            {":scheme", "https"},
+            {":status", "200"},
+            {":status", "204"},
+            {":status", "206"},
+            {":status", "304"},
+            {":status", "400"},
+            {":status", "404"},
+            {":status", "500"},
+            {"accept-charset", ""},
+            {"accept-encoding", "gzip, deflate"},
+            {"accept-language", ""},
+            {"accept-ranges", ""},
+            {"accept", ""},
+            {"access-control-allow-origin", ""},
+            {"age", ""},
+            {"allow", ""},
+            {"authorization", ""},
+            {"cache-control", ""},
+            {"content-disposition", ""},
+            {"content-encoding", ""},
+            {"content-language", ""},
+            {"content-length", ""},
+            {"content-location", ""},
+            {"content-range", ""},
+            {"content-type", ""},
+            {"cookie", ""},
+            {"date", ""},
+            {"etag", ""},
+            {"expect", ""},
+            {"expires", ""},
+            {"from", ""},
+            {"host", ""},
+            {"if-match", ""},
+            {"if-modified-since", ""},
+            {"if-none-match", ""},
+            {"if-range", ""},
+            {"if-unmodified-since", ""},
+            {"last-modified", ""},
+            {"link", ""},
+            {"location", ""},
+            {"max-forwards", ""},
+            {"proxy-authenticate", ""},
+            {"proxy-authorization", ""},
+            {"range", ""},
+            {"referer", ""},
+            {"refresh", ""},
+            {"retry-after", ""},
+            {"server", ""},
+            {"set-cookie", ""},
+            {"strict-transport-security", ""},
+            {"transfer-encoding", ""},
+            {"user-agent", ""},
+            {"vary", ""},
+            {"via", ""},
+            {"www-authenticate", ""}
+    };
+
+    static final int SIZE = ENTRIES.length;
+
+    private static final Map<String, Integer> NAMES = new HashMap<>();
+    private static final Map<String, Integer> FIELDS = new HashMap<>();
+
+    static {
+        for (int i = SIZE - 1; i >= 0; i--) {
+            NAMES.put(ENTRIES[i][0], i + 1);
+            if (!ENTRIES[i][1].isEmpty()) {
+                FIELDS.put(ENTRIES[i][0] + ':' + ENTRIES[i][1], i + 1);
+            }
+        }
+    }
+
+    private HpackStaticTable() {
+        super();
+    }
+
+    /**
+     * @param index 1-based index
+     */
+    static String[] get(final int index) {
+        return ENTRIES[index - 1];
+    }
+
+    /**
+     * @return index of the entry with the given name, or {@code 0}
+     */
+    static int indexOfName(final String name) {
+        final Integer index = NAMES.get(name);
+        return index != null ? index : 0;
+    }
+
+    /**
+     * @return index of the entry with the given name and value, or {@code 0}
+     */
+    static int indexOfField(final String name, final String value) {
+        final Integer index = FIELDS.get(name + ':' + value);
+        return index != null ? index : 0;
+    }
+
+}
@@ -0,0 +1,902 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A single HTTP/2 connection (RFC 7540) multiplexing concurrent request streams.
+ * <p>
+ * Any number of threads may {@link #send} requests. Frames are queued and written by whichever thread acquires the
+ * write lock first, so that no thread waits for the writes of another one. Responses are read by one reader thread
+ * per session, which also answers {@code SETTINGS} and {@code PING} frames and replenishes the receive windows.
+ * Senders block while the number of open streams reaches the limit announced by either side, or while the flow
+ * control windows of the server are exhausted.
+ */
+public class Http2Session implements Runnable, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Http2Session.class);
+
+    static final int DATA = 0x0;
+    static final int HEADERS = 0x1;
+    static final int RST_STREAM = 0x3;
+    static final int SETTINGS = 0x4;
+    static final int PUSH_PROMISE = 0x5;
+    static final int PING = 0x6;
+    static final int GOAWAY = 0x7;
+    static final int WINDOW_UPDATE = 0x8;
+    static final int CONTINUATION = 0x9;
+
+    static final int FLAG_END_STREAM = 0x1;
+    static final int FLAG_ACK = 0x1;
+    static final int FLAG_END_HEADERS = 0x4;
+    static final int FLAG_PADDED = 0x8;
+    static final int FLAG_PRIORITY = 0x20;
+
+    static final int SETTINGS_HEADER_TABLE_SIZE = 0x1;
+    static final int SETTINGS_ENABLE_PUSH = 0x2;
+    static final int SETTINGS_MAX_CONCURRENT_STREAMS = 0x3;
+    static final int SETTINGS_INITIAL_WINDOW_SIZE = 0x4;
+    static final int SETTINGS_MAX_FRAME_SIZE = 0x5;
+
+    static final int NO_ERROR = 0x0;
+    static final int PROTOCOL_ERROR = 0x1;
+    static final int FLOW_CONTROL_ERROR = 0x3;
+    static final int FRAME_SIZE_ERROR = 0x6;
+    static final int REFUSED_STREAM = 0x7;
+    static final int CANCEL = 0x8;
+    static final int COMPRESSION_ERROR = 0x9;
+
+    static final int FRAME_HEADER_SIZE = 9;
+    static final int DEFAULT_WINDOW_SIZE = 65535;
+    static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+    static final int DEFAULT_MAX_FRAME_SIZE = 16384;
+    static final int MAX_FRAME_SIZE = 16777215;
+    static final int HEADER_TABLE_SIZE = 4096;
+
+    private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+    private final Socket socket;
+    private final DataInputStream in;
+    private final OutputStream out;
+    private final int maxConcurrentStreams;
+    private final int initialWindowSize;
+    private final int connectionWindowSize;
+    private final long created = System.nanoTime();
+
+    private final Map<Integer, Http2Stream> streams = new ConcurrentHashMap<>();
+    private final Queue<Frame> writeQueue = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // accessed by the reader thread only
+    private final HpackDecoder decoder = new HpackDecoder(HEADER_TABLE_SIZE);
+    private final byte[] frameHeader = new byte[FRAME_HEADER_SIZE];
+    private int connectionReceivedUnacknowledged;
+    private boolean settingsAcknowledged;
+    private int continuationStreamId;
+    private boolean continuationEndStream;
+    private byte[] headerBlock;
+
+    // guarded by this
+    private boolean settingsReceived;
+    private int nextStreamId = 1;
+    private int activeStreams;
+    private long remoteMaxConcurrentStreams = Integer.MAX_VALUE;
+    private long remoteInitialWindowSize = DEFAULT_WINDOW_SIZE;
+    private int remoteMaxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+    private long connectionSendWindow = DEFAULT_WINDOW_SIZE;
+    private boolean goAway;
+    private boolean draining;
+    private IOException failure;
+
+    private Http2Session(final String name, final Socket socket, final int maxConcurrentStreams,
+                         final int initialWindowSize, final int connectionWindowSize) throws IOException {
+        super();
+        this.name = name;
+        this.socket = socket;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.initialWindowSize = initialWindowSize;
+        this.connectionWindowSize = connectionWindowSize;
+        in = new DataInputStream(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream(), WRITE_BUFFER_SIZE);
+    }
+
+    /**
+     * Starts a session on a connected socket by sending the connection preface and the client settings.
+     *
+     * @param maxConcurrentStreams maximum number of concurrently open streams, further capped by the server
+     * @param initialWindowSize    receive window of every stream in bytes
+     * @param connectionWindowSize receive window of the whole connection in bytes
+     */
+    public static Http2Session open(final String name, final Socket socket, final int maxConcurrentStreams,
+                                    final int initialWindowSize, final int connectionWindowSize) throws IOException {
+        final Http2Session session = new Http2Session(name, socket, maxConcurrentStreams, initialWindowSize,
+                connectionWindowSize);
+        final byte[] settings = new byte[3 * 6];
+        putSetting(settings, 0, SETTINGS_ENABLE_PUSH, 0);
+        putSetting(settings, 6, SETTINGS_MAX_CONCURRENT_STREAMS, 0);
+        putSetting(settings, 12, SETTINGS_INITIAL_WINDOW_SIZE, initialWindowSize);
+        session.writeQueue.add(new Frame(PREFACE));
+        session.writeQueue.add(new Frame(SETTINGS, 0, 0, settings));
+        if (connectionWindowSize > DEFAULT_WINDOW_SIZE) {
+            session.writeQueue.add(windowUpdate(0, connectionWindowSize - DEFAULT_WINDOW_SIZE));
+        }
+        session.flush();
+        final Thread reader = new Thread(session, "arangodb-http2-" + name);
+        reader.setDaemon(true);
+        reader.start();
+        return session;
+    }
+
+    /**
+     * @return whether new streams can be opened on this session
+     */
+    public synchronized boolean isAvailable() {
+        return failure == null && !goAway && !draining && nextStreamId > 0;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public synchronized int getActiveStreams() {
+        return activeStreams;
+    }
+
+    /**
+     * Opens a new stream and sends the request.
+     *
+     * @param headerBlock   HPACK encoded request headers
+     * @param headerLength  length of the header block
+     * @param body          buffer holding the request body, if any
+     * @param offset        offset of the body in the buffer
+     * @param length        length of the body, {@code 0} if the request has no body
+     * @param deadline      {@link System#nanoTime()} by which the request has to be sent, {@code 0} for no deadline
+     * @return the stream, whose {@link Http2Stream#response()} completes with the response
+     * @throws NotProcessedException if the request was not sent because the session can not open further streams
+     * @throws SocketTimeoutException if the deadline passed while waiting for a stream or for flow control credit
+     */
+    public Http2Stream send(final byte[] headerBlock, final int headerLength, final byte[] body, final int offset,
+                            final int length, final long deadline) throws IOException {
+        final Http2Stream stream;
+        synchronized (this) {
+            while (true) {
+                checkAvailable();
+                // the first stream waits for the settings of the server, which may limit the concurrent streams
+                if (settingsReceived && activeStreams < Math.min(maxConcurrentStreams, remoteMaxConcurrentStreams)) {
+                    break;
+                }
+                await(deadline);
+            }
+            stream = new Http2Stream(nextStreamId, remoteInitialWindowSize);
+            nextStreamId += 2;
+            activeStreams++;
+            streams.put(stream.getId(), stream);
+            stream.localClosed = length == 0;
+            addHeaders(stream.getId(), headerBlock, headerLength, length == 0);
+        }
+        try {
+            flush();
+            int position = offset;
+            final int end = offset + length;
+            while (position < end) {
+                final int n = addData(stream, body, position, end - position, deadline);
+                if (n < 0) {
+                    // the server has already answered or reset the stream
+                    break;
+                }
+                position += n;
+                flush();
+            }
+        } catch (final IOException e) {
+            cancel(stream);
+            throw e;
+        }
+        return stream;
+    }
+
+    /**
+     * Cancels a stream whose response is not awaited anymore, e.g. after a timeout.
+     */
+    public void cancel(final Http2Stream stream) {
+        final boolean open;
+        synchronized (this) {
+            open = !stream.closed && failure == null;
+            release(stream);
+        }
+        if (open) {
+            writeQueue.add(rstStream(stream.getId(), CANCEL));
+            flushQuietly();
+        }
+        closeIfDrained();
+    }
+
+    /**
+     * Closes the session as soon as all open streams are completed. No new streams are accepted anymore.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            draining = true;
+        }
+        closeIfDrained();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (failure != null) {
+                return;
+            }
+        }
+        writeQueue.add(goAway(NO_ERROR));
+        flushQuietly();
+        fail(new SocketException("Connection closed"));
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                readFrame();
+            }
+        } catch (final Http2Exception e) {
+            writeQueue.add(goAway(e.errorCode));
+            flushQuietly();
+            fail(e);
+        } catch (final IOException e) {
+            fail(e);
+        } catch (final RuntimeException e) {
+            fail(new IOException(e));
+        }
+    }
+
+    private void checkAvailable() throws NotProcessedException {
+        if (failure != null) {
+            final NotProcessedException e = new NotProcessedException("Connection " + name + " is closed");
+            e.initCause(failure);
+            throw e;
+        }
+        if (goAway || draining) {
+            throw new NotProcessedException("Connection " + name + " does not accept new streams");
+        }
+        if (nextStreamId < 0) {
+            throw new NotProcessedException("Connection " + name + " has exhausted its stream ids");
+        }
+    }
+
+    private void checkOpen() throws SocketException {
+        if (failure != null) {
+            throw socketException(failure);
+        }
+    }
+
+    private void await(final long deadline) throws IOException {
+        long millis = 0L;
+        if (deadline != 0L) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                throw new SocketTimeoutException("Timeout waiting for connection " + name);
+            }
+            millis = TimeUnit.NANOSECONDS.toMillis(remaining) + 1L;
+        }
+        try {
+            wait(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SocketTimeoutException("Interrupted waiting for connection " + name);
+        }
+    }
+
+    /**
+     * Waits for flow control credit and queues a {@code DATA} frame with the next part of the body.
+     *
+     * @return number of queued body bytes, or {@code -1} if the stream is already closed
+     */
+    private synchronized int addData(final Http2Stream stream, final byte[] body, final int position,
+                                     final int remaining, final long deadline) throws IOException {
+        while (true) {
+            if (stream.closed) {
+                return -1;
+            }
+            checkOpen();
+            final long window = Math.min(connectionSendWindow, stream.sendWindow);
+            if (window > 0) {
+                final int n = (int) Math.min(Math.min(window, remoteMaxFrameSize), remaining);
+                connectionSendWindow -= n;
+                stream.sendWindow -= n;
+                stream.localClosed = n == remaining;
+                writeQueue.add(new Frame(DATA, stream.localClosed ? FLAG_END_STREAM : 0, stream.getId(), body,
+                        position, n));
+                return n;
+            }
+            await(deadline);
+        }
+    }
+
+    /**
+     * Queues the {@code HEADERS} frame and its {@code CONTINUATION} frames as a single entry, since no other frame
+     * must be written in between, e.g. by the reader thread.
+     */
+    private void addHeaders(final int streamId, final byte[] block, final int length, final boolean endStream) {
+        Frame first = null;
+        Frame last = null;
+        int position = 0;
+        int type = HEADERS;
+        do {
+            final int n = Math.min(length - position, remoteMaxFrameSize);
+            int flags = position + n == length ? FLAG_END_HEADERS : 0;
+            if (type == HEADERS && endStream) {
+                flags |= FLAG_END_STREAM;
+            }
+            final Frame frame = new Frame(type, flags, streamId, block, position, n);
+            if (first == null) {
+                first = frame;
+            } else {
+                last.next = frame;
+            }
+            last = frame;
+            position += n;
+            type = CONTINUATION;
+        } while (position < length);
+        writeQueue.add(first);
+    }
+
+    /**
+     * Writes the queued frames, unless another thread is currently writing. That thread then writes the frames queued
+     * in the meantime as well.
+     */
+    void flush() throws SocketException {
+        while (!writeQueue.isEmpty() && writeLock.tryLock()) {
+            try {
+                Frame frame;
+                while ((frame = writeQueue.poll()) != null) {
+                    frame.writeTo(out);
+                }
+                out.flush();
+            } catch (final IOException e) {
+                fail(e);
+                throw socketException(e);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (final SocketException e) {
+            LOGGER.debug("[" + name + "]: Error writing frames", e);
+        }
+    }
+
+    private void release(final Http2Stream stream) {
+        if (stream.closed) {
+            return;
+        }
+        stream.closed = true;
+        streams.remove(stream.getId());
+        activeStreams--;
+        notifyAll();
+    }
+
+    /**
+     * Closes the session once the last stream completed after a {@link #shutdown()} or a {@code GOAWAY} frame.
+     */
+    private void closeIfDrained() {
+        final boolean drained;
+        synchronized (this) {
+            drained = (draining || goAway) && activeStreams == 0 && failure == null;
+        }
+        if (drained) {
+            close();
+        }
+    }
+
+    private void fail(final IOException cause) {
+        final List<Http2Stream> failed;
+        synchronized (this) {
+            if (failure != null) {
+                return;
+            }
+            failure = cause;
+            failed = new ArrayList<>(streams.values());
+            for (final Http2Stream stream : failed) {
+                stream.closed = true;
+            }
+            streams.clear();
+            activeStreams = 0;
+            notifyAll();
+        }
+        writeQueue.clear();
+        try {
+            socket.close();
+        } catch (final IOException e) {
+            LOGGER.debug("[" + name + "]: Error closing socket", e);
+        }
+        if (!failed.isEmpty()) {
+            LOGGER.error("Error on Connection " + name, cause);
+        } else {
+            LOGGER.debug("[" + name + "]: Connection closed", cause);
+        }
+        for (final Http2Stream stream : failed) {
+            stream.fail(socketException(cause));
+        }
+    }
+
+    private static SocketException socketException(final IOException cause) {
+        if (cause instanceof SocketException) {
+            return (SocketException) cause;
+        }
+        final SocketException e = new SocketException(cause.getMessage());
+        e.initCause(cause);
+        return e;
+    }
+
+    private void readFrame() throws IOException {
+        in.readFully(frameHeader);
+        final int length = ((frameHeader[0] & 0xff) << 16) | ((frameHeader[1] & 0xff) << 8)
+                | (frameHeader[2] & 0xff);
+        final int type = frameHeader[3] & 0xff;
+        final int flags = frameHeader[4] & 0xff;
+        final int streamId = getInt(frameHeader, 5) & 0x7fffffff;
+        if (length > DEFAULT_MAX_FRAME_SIZE) {
+            throw new Http2Exception(FRAME_SIZE_ERROR, "Frame of " + length + " bytes exceeds the maximum size");
+        }
+        if (continuationStreamId != 0 && (type != CONTINUATION || streamId != continuationStreamId)) {
+            throw new Http2Exception(PROTOCOL_ERROR, "Expected CONTINUATION frame of stream " + continuationStreamId);
+        }
+        if (type == DATA) {
+            onData(flags, streamId, length);
+            return;
+        }
+        final byte[] payload = new byte[length];
+        in.readFully(payload);
+        switch (type) {
+            case HEADERS:
+                onHeaders(flags, streamId, payload);
+                break;
+            case CONTINUATION:
+                onContinuation(flags, streamId, payload);
+                break;
+            case RST_STREAM:
+                onRstStream(streamId, payload);
+                break;
+            case SETTINGS:
+                onSettings(flags, payload);
+                break;
+            case PUSH_PROMISE:
+                throw new Http2Exception(PROTOCOL_ERROR, "Server push is disabled");
+            case PING:
+                if ((flags & FLAG_ACK) == 0) {
+                    writeQueue.add(new Frame(PING, FLAG_ACK, 0, payload));
+                    flush();
+                }
+                break;
+            case GOAWAY:
+                onGoAway(payload);
+                break;
+            case WINDOW_UPDATE:
+                onWindowUpdate(streamId, payload);
+                break;
+            default:
+                // PRIORITY and unknown frame types are ignored
+                break;
+        }
+    }
+
+    private void onData(final int flags, final int streamId, final int length) throws IOException {
+        int dataLength = length;
+        int padding = 0;
+        if ((flags & FLAG_PADDED) != 0) {
+            padding = in.readUnsignedByte();
+            dataLength -= 1 + padding;
+            if (dataLength < 0) {
+                throw new Http2Exception(PROTOCOL_ERROR, "Padding exceeds DATA frame");
+            }
+        }
+        final Http2Stream stream = streams.get(streamId);
+        if (stream != null && !stream.isDone()) {
+            stream.read(in, dataLength);
+        } else {
+            skip(dataLength);
+        }
+        skip(padding);
+
+        // the peer may use the default window until it has acknowledged our SETTINGS
+        final int streamWindowSize = settingsAcknowledged ? initialWindowSize
+                : Math.max(initialWindowSize, DEFAULT_WINDOW_SIZE);
+        if (connectionReceivedUnacknowledged + (long) length > connectionWindowSize
+                || stream != null && stream.receivedUnacknowledged + (long) length > streamWindowSize) {
+            throw new Http2Exception(FLOW_CONTROL_ERROR, "DATA frame exceeds receive window");
+        }
+        final boolean endStream = (flags & FLAG_END_STREAM) != 0;
+        connectionReceivedUnacknowledged += length;
+        if (connectionReceivedUnacknowledged >= connectionWindowSize / 2) {
+            writeQueue.add(windowUpdate(0, connectionReceivedUnacknowledged));
+            connectionReceivedUnacknowledged = 0;
+        }
+        if (stream != null && !endStream) {
+            stream.receivedUnacknowledged += length;
+            if (stream.receivedUnacknowledged >= initialWindowSize / 2) {
+                writeQueue.add(windowUpdate(streamId, stream.receivedUnacknowledged));
+                stream.receivedUnacknowledged = 0;
+            }
+        }
+        if (stream != null && endStream) {
+            complete(stream);
+        }
+        flush();
+    }
+
+    private void onHeaders(final int flags, final int streamId, final byte[] payload) throws IOException {
+        int position = 0;
+        int end = payload.length;
+        if ((flags & FLAG_PADDED) != 0) {
+            end -= 1 + (payload.length > 0 ? payload[0] & 0xff : 0);
+            position++;
+        }
+        if ((flags & FLAG_PRIORITY) != 0) {
+            position += 5;
+        }
+        if (end < position) {
+            throw new Http2Exception(PROTOCOL_ERROR, "Invalid HEADERS frame");
+        }
+        final boolean endStream = (flags & FLAG_END_STREAM) != 0;
+        if ((flags & FLAG_END_HEADERS) != 0) {
+            onHeaderBlock(streamId, payload, position, end - position, endStream);
+        } else {
+            headerBlock = Arrays.copyOfRange(payload, position, end);
+            continuationStreamId = streamId;
+            continuationEndStream = endStream;
+        }
+    }
+
+    private void onContinuation(final int flags, final int streamId, final byte[] payload) throws IOException {
+        if (continuationStreamId == 0) {
+            throw new Http2Exception(PROTOCOL_ERROR, "Unexpected CONTINUATION frame");
+        }
+        final int length = headerBlock.length;
+        headerBlock = Arrays.copyOf(headerBlock, length + payload.length);
+        System.arraycopy(payload, 0, headerBlock, length, payload.length);
+        if ((flags & FLAG_END_HEADERS) != 0) {
+            final byte[] block = headerBlock;
+            headerBlock = null;
+            continuationStreamId = 0;
+            onHeaderBlock(streamId, block, 0, block.length, continuationEndStream);
+        }
+    }
+
+    private void onHeaderBlock(final int streamId, final byte[] block, final int offset, final int length,
+                               final boolean endStream) throws IOException {
+        final Http2Stream stream = streams.get(streamId);
+        final boolean active = stream != null && !stream.isDone();
+        try {
+            decoder.decode(block, offset, length, active ? stream::header : (n, v) -> {
+            });
+        } catch (final ProtocolException e) {
+            throw new Http2Exception(COMPRESSION_ERROR, e.getMessage());
+        }
+        if (active) {
+            stream.headersComplete();
+            if (endStream) {
+                complete(stream);
+                flush();
+            }
+        }
+    }
+
+    private void onRstStream(final int streamId, final byte[] payload) throws IOException {
+        if (payload.length != 4) {
+            throw new Http2Exception(FRAME_SIZE_ERROR, "Invalid RST_STREAM frame");
+        }
+        final Http2Stream stream = streams.get(streamId);
+        if (stream == null) {
+            return;
+        }
+        synchronized (this) {
+            release(stream);
+        }
+        final int errorCode = getInt(payload, 0);
+        stream.fail(errorCode == REFUSED_STREAM
+                ? new NotProcessedException("Stream " + streamId + " refused by the server")
+                : new IOException("Stream " + streamId + " reset by the server with error code " + errorCode));
+        closeIfDrained();
+    }
+
+    private void onSettings(final int flags, final byte[] payload) throws IOException {
+        if ((flags & FLAG_ACK) != 0) {
+            settingsAcknowledged = true;
+            return;
+        }
+        if (payload.length % 6 != 0) {
+            throw new Http2Exception(FRAME_SIZE_ERROR, "Invalid SETTINGS frame");
+        }
+        synchronized (this) {
+            for (int i = 0; i < payload.length; i += 6) {
+                final int id = ((payload[i] & 0xff) << 8) | (payload[i + 1] & 0xff);
+                final long value = getInt(payload, i + 2) & 0xffffffffL;
+                switch (id) {
+                    case SETTINGS_MAX_CONCURRENT_STREAMS:
+                        remoteMaxConcurrentStreams = value;
+                        break;
+                    case SETTINGS_INITIAL_WINDOW_SIZE:
+                        if (value > Integer.MAX_VALUE) {
+                            throw new Http2Exception(FLOW_CONTROL_ERROR, "Invalid initial window size " + value);
+                        }
+                        final long delta = value - remoteInitialWindowSize;
+                        for (final Http2Stream stream : streams.values()) {
+                            if (stream.sendWindow + delta > MAX_WINDOW_SIZE) {
+                                throw new Http2Exception(FLOW_CONTROL_ERROR,
+                                        "Initial window size " + value + " overflows window of stream "
+                                                + stream.getId());
+                            }
+                        }
+                        for (final Http2Stream stream : streams.values()) {
+                            stream.sendWindow += delta;
+                        }
+                        remoteInitialWindowSize = value;
+                        break;
+                    case SETTINGS_MAX_FRAME_SIZE:
+                        if (value < DEFAULT_MAX_FRAME_SIZE || value > MAX_FRAME_SIZE) {
+                            throw new Http2Exception(PROTOCOL_ERROR, "Invalid maximum frame size " + value);
+                        }
+                        remoteMaxFrameSize = (int) value;
+                        break;
+                    default:
+                        // the header table of the encoder is not used and push is disabled anyway
+                        break;
+                }
+            }
+            settingsReceived = true;
+            notifyAll();
+        }
+        writeQueue.add(new Frame(SETTINGS, FLAG_ACK, 0, new byte[0]));
+        flush();
+    }
+
+    private void onGoAway(final byte[] payload) throws IOException {
+        if (payload.length < 8) {
+            throw new Http2Exception(FRAME_SIZE_ERROR, "Invalid GOAWAY frame");
+        }
+        final int lastStreamId = getInt(payload, 0) & 0x7fffffff;
+        final int errorCode = getInt(payload, 4);
+        LOGGER.debug(String.format("[%s]: Received GOAWAY with last stream %s and error code %s", name,
+                lastStreamId, errorCode));
+        final List<Http2Stream> refused = new ArrayList<>();
+        synchronized (this) {
+            goAway = true;
+            for (final Http2Stream stream : streams.values()) {
+                if (stream.getId() > lastStreamId) {
+                    refused.add(stream);
+                }
+            }
+            for (final Http2Stream stream : refused) {
+                release(stream);
+            }
+        }
+        for (final Http2Stream stream : refused) {
+            stream.fail(new NotProcessedException("Stream " + stream.getId() + " not processed by the server"));
+        }
+        closeIfDrained();
+    }
+
+    private void onWindowUpdate(final int streamId, final byte[] payload) throws IOException {
+        if (payload.length != 4) {
+            throw new Http2Exception(FRAME_SIZE_ERROR, "Invalid WINDOW_UPDATE frame");
+        }
+        final int increment = getInt(payload, 0) & 0x7fffffff;
+        if (streamId == 0) {
+            if (increment == 0) {
+                throw new Http2Exception(PROTOCOL_ERROR, "WINDOW_UPDATE with zero increment");
+            }
+            synchronized (this) {
+                if (connectionSendWindow + increment > MAX_WINDOW_SIZE) {
+                    throw new Http2Exception(FLOW_CONTROL_ERROR, "WINDOW_UPDATE overflows connection window");
+                }
+                connectionSendWindow += increment;
+                notifyAll();
+            }
+            return;
+        }
+        final Http2Stream stream = streams.get(streamId);
+        if (stream == null) {
+            return;
+        }
+        final int errorCode;
+        synchronized (this) {
+            if (increment == 0) {
+                errorCode = PROTOCOL_ERROR;
+            } else if (stream.sendWindow + increment > MAX_WINDOW_SIZE) {
+                errorCode = FLOW_CONTROL_ERROR;
+            } else {
+                stream.sendWindow += increment;
+                notifyAll();
+                return;
+            }
+            release(stream);
+        }
+        // errors of a single stream's window only reset that stream
+        writeQueue.add(rstStream(streamId, errorCode));
+        stream.fail(new IOException("Invalid WINDOW_UPDATE on stream " + streamId + ", reset with error code "
+                + errorCode));
+        flush();
+        closeIfDrained();
+    }
+
+    private void complete(final Http2Stream stream) {
+        final boolean reset;
+        synchronized (this) {
+            reset = !stream.localClosed;
+            release(stream);
+        }
+        if (reset) {
+            // the server answered before the whole request was sent
+            writeQueue.add(rstStream(stream.getId(), CANCEL));
+        }
+        stream.complete();
+        closeIfDrained();
+    }
+
+    private void skip(final int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            final int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                in.readByte();
+                remaining--;
+            } else {
+                remaining -= skipped;
+            }
+        }
+    }
+
+    private static Frame goAway(final int errorCode) {
+        final byte[] payload = new byte[8];
+        putInt(payload, 4, errorCode);
+        return new Frame(GOAWAY, 0, 0, payload);
+    }
+
+    private static Frame rstStream(final int streamId, final int errorCode) {
+        final byte[] payload = new byte[4];
+        putInt(payload, 0, errorCode);
+        return new Frame(RST_STREAM, 0, streamId, payload);
+    }
+
+    private static Frame windowUpdate(final int streamId, final int increment) {
+        final byte[] payload = new byte[4];
+        putInt(payload, 0, increment);
+        return new Frame(WINDOW_UPDATE, 0, streamId, payload);
+    }
+
+    private static void putSetting(final byte[] bytes, final int offset, final int id, final int value) {
+        bytes[offset] = (byte) (id >>> 8);
+        bytes[offset + 1] = (byte) id;
+        putInt(bytes, offset + 2, value);
+    }
+
+    static int getInt(final byte[] bytes, final int offset) {
+        return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16)
+                | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+    }
+
+    static void putInt(final byte[] bytes, final int offset, final int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Thrown if a request was not processed by the server, so that it can safely be sent again on another connection.
+     */
+    public static class NotProcessedException extends SocketException {
+
+        private static final long serialVersionUID = 1L;
+
+        public NotProcessedException(final String message) {
+            super(message);
+        }
+
+    }
+
+    private static class Http2Exception extends ProtocolException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int errorCode;
+
+        private Http2Exception(final int errorCode, final String message) {
+            super(message);
+            this.errorCode = errorCode;
+        }
+
+    }
+
+    private static class Frame {
+
+        private final byte[] head;
+        private final byte[] payload;
+        private final int offset;
+        private final int length;
+        // further frames to be written together with this one
+        private Frame next;
+
+        private Frame(final byte[] bytes) {
+            head = bytes;
+            payload = null;
+            offset = 0;
+            length = 0;
+        }
+
+        private Frame(final int type, final int flags, final int streamId, final byte[] payload) {
+            this(type, flags, streamId, payload, 0, payload.length);
+        }
+
+        private Frame(final int type, final int flags, final int streamId, final byte[] payload, final int offset,
+                      final int length) {
+            head = new byte[FRAME_HEADER_SIZE];
+            head[0] = (byte) (length >>> 16);
+            head[1] = (byte) (length >>> 8);
+            head[2] = (byte) length;
+            head[3] = (byte) type;
+            head[4] = (byte) flags;
+            putInt(head, 5, streamId);
+            this.payload = payload;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private void writeTo(final OutputStream out) throws IOException {
+            for (Frame frame = this; frame != null; frame = frame.next) {
+                out.write(frame.head);
+                if (frame.length > 0) {
+                    out.write(frame.payload, frame.offset, frame.length);
+                }
+            }
+        }
+
+    }
+
+}
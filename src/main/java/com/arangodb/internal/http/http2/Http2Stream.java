@@ -0,0 +1,143 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A request/response exchange on an {@link Http2Session}. The response is received by the reader thread of the
+ * session and handed over by completing {@link #response()}.
+ */
+public class Http2Stream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int id;
+    private final CompletableFuture<Http2Stream> response = new CompletableFuture<>();
+
+    // guarded by the session
+    long sendWindow;
+    boolean localClosed;
+    boolean closed;
+
+    // accessed by the reader thread of the session only, until the response is completed
+    int receivedUnacknowledged;
+    private int status;
+    private final Map<String, String> headers = new HashMap<>();
+    private byte[] body = EMPTY;
+    private int bodyLength;
+
+    Http2Stream(final int id, final long sendWindow) {
+        super();
+        this.id = id;
+        this.sendWindow = sendWindow;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public CompletableFuture<Http2Stream> response() {
+        return response;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return response headers, with lower-case names
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return buffer holding the response body in its first {@link #getBodyLength()} bytes
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public int getBodyLength() {
+        return bodyLength;
+    }
+
+    void header(final String name, final String value) {
+        if (":status".equals(name)) {
+            try {
+                status = Integer.parseInt(value);
+            } catch (final NumberFormatException e) {
+                status = 0;
+            }
+        } else if (!name.startsWith(":")) {
+            headers.put(name, value);
+        }
+    }
+
+    /**
+     * Called after a complete header block has been received. Informational (1xx) responses are discarded, the body
+     * buffer is sized according to {@code content-length}, if present.
+     */
+    void headersComplete() {
+        if (status >= 100 && status < 200) {
+            status = 0;
+            headers.clear();
+            return;
+        }
+        final String contentLength = headers.get("content-length");
+        if (contentLength != null && bodyLength == 0) {
+            try {
+                final long length = Long.parseLong(contentLength);
+                if (length > 0 && length < Integer.MAX_VALUE) {
+                    body = new byte[(int) length];
+                }
+            } catch (final NumberFormatException ignore) {
+            }
+        }
+    }
+
+    void read(final DataInputStream in, final int length) throws IOException {
+        if (bodyLength + length > body.length) {
+            body = Arrays.copyOf(body, Math.max(body.length * 2, bodyLength + length));
+        }
+        in.readFully(body, bodyLength, length);
+        bodyLength += length;
+    }
+
+    boolean isDone() {
+        return response.isDone();
+    }
+
+    void complete() {
+        response.complete(this);
+    }
+
+    void fail(final Throwable cause) {
+        response.completeExceptionally(cause);
+    }
+
+}
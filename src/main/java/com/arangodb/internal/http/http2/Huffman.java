@@ -0,0 +1,125 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import java.net.ProtocolException;
+
+/**
+ * Decoder of the static Huffman code of HPACK (RFC 7541, Appendix B). The code is canonical, so it is fully
+ * determined by the code length of every symbol.
+ */
+final class Huffman {
+
+    private static final int EOS = 256;
+    private static final int MAX_LENGTH = 30;
+
+    private static final byte[] LENGTHS = {
+            13, 23, 28, 28, 28, 28, 28, 28, 28, 24, 30, 28, 28, 30, 28, 28,
+            28, 28, 28, 28, 28, 28, 30, 28, 28, 28, 28, 28, 28, 28, 28, 28,
+            6, 10, 10, 12, 13, 6, 8, 11, 10, 10, 8, 11, 8, 6, 6, 6,
+            5, 5, 5, 6, 6, 6, 6, 6, 6, 6, 7, 8, 15, 6, 12, 10,
+            13, 6, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
+            7, 7, 7, 7, 7, 7, 7, 7, 8, 7, 8, 13, 19, 13, 14, 6,
+            15, 5, 6, 5, 6, 5, 6, 6, 6, 5, 7, 7, 6, 6, 6, 5,
+            6, 7, 6, 5, 5, 6, 7, 7, 7, 7, 7, 15, 11, 14, 13, 28,
+            20, 22, 20, 20, 22, 22, 22, 23, 22, 23, 23, 23, 23, 23, 24, 23,
+            24, 24, 22, 23, 24, 23, 23, 23, 23, 21, 22, 23, 22, 23, 23, 24,
+            22, 21, 20, 22, 22, 23, 23, 21, 23, 22, 22, 24, 21, 22, 23, 23,
+            21, 21, 22, 21, 23, 22, 23, 23, 20, 22, 22, 22, 23, 22, 22, 23,
+            26, 26, 20, 19, 22, 23, 22, 25, 26, 26, 26, 27, 27, 26, 24, 25,
+            19, 21, 26, 27, 27, 26, 27, 24, 21, 21, 26, 26, 28, 27, 27, 27,
+            20, 24, 20, 21, 22, 21, 21, 23, 22, 22, 25, 25, 24, 24, 26, 23,
+            26, 27, 26, 26, 27, 27, 27, 27, 27, 28, 27, 27, 27, 27, 27, 26,
+            30
+    };
+
+    // first code, number of codes and index of the first symbol in SYMBOLS of every code length
+    private static final int[] FIRST = new int[MAX_LENGTH + 1];
+    private static final int[] COUNT = new int[MAX_LENGTH + 1];
+    private static final int[] INDEX = new int[MAX_LENGTH + 1];
+    private static final int[] SYMBOLS = new int[LENGTHS.length];
+
+    static {
+        for (final byte length : LENGTHS) {
+            COUNT[length]++;
+        }
+        int code = 0;
+        int index = 0;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            FIRST[length] = code;
+            INDEX[length] = index;
+            index += COUNT[length];
+            code = (code + COUNT[length]) << 1;
+        }
+        final int[] next = INDEX.clone();
+        for (int symbol = 0; symbol < LENGTHS.length; symbol++) {
+            SYMBOLS[next[LENGTHS[symbol]]++] = symbol;
+        }
+    }
+
+    private Huffman() {
+        super();
+    }
+
+    /**
+     * @return the canonical code of the given symbol, right-aligned
+     */
+    static int code(final int symbol) {
+        final int length = LENGTHS[symbol];
+        int offset = 0;
+        for (int i = INDEX[length]; SYMBOLS[i] != symbol; i++) {
+            offset++;
+        }
+        return FIRST[length] + offset;
+    }
+
+    static String decode(final byte[] src, final int offset, final int length) throws ProtocolException {
+        final char[] result = new char[length * 8 / 5];
+        int size = 0;
+        int code = 0;
+        int codeLength = 0;
+        for (int i = offset; i < offset + length; i++) {
+            final int b = src[i] & 0xff;
+            for (int bit = 7; bit >= 0; bit--) {
+                code = (code << 1) | ((b >>> bit) & 1);
+                codeLength++;
+                final int n = code - FIRST[codeLength];
+                if (n >= 0 && n < COUNT[codeLength]) {
+                    final int symbol = SYMBOLS[INDEX[codeLength] + n];
+                    if (symbol == EOS) {
+                        throw new ProtocolException("HPACK: Huffman encoded string contains EOS");
+                    }
+                    result[size++] = (char) symbol;
+                    code = 0;
+                    codeLength = 0;
+                } else if (codeLength == MAX_LENGTH) {
+                    throw new ProtocolException("HPACK: invalid Huffman code");
+                }
+            }
+        }
+        // the padding has to be a prefix of EOS, i.e. at most 7 one bits
+        if (codeLength > 7 || code != (1 << codeLength) - 1) {
+            throw new ProtocolException("HPACK: invalid Huffman padding");
+        }
+        return new String(result, 0, size);
+    }
+
+}
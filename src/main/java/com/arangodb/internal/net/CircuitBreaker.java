@@ -0,0 +1,201 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker of a single host.
+ * <p>
+ * While {@link State#CLOSED closed}, the outcomes of the requests are counted in a sliding window of
+ * {@link #WINDOW_BUCKETS} one-second buckets. Once at least {@link #MIN_REQUESTS} requests in the window failed at the
+ * configured rate, the breaker {@link State#OPEN opens} and rejects all requests. After the open duration, a single
+ * request is let through to probe the host ({@link State#HALF_OPEN half-open}): its success closes the breaker, its
+ * failure opens it again. The counting is lock-free and therefore approximate under contention.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    static final int WINDOW_BUCKETS = 10;
+    static final int MIN_REQUESTS = 20;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final long BUCKET_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final HostDescription host;
+    private final int failureRate;
+    private final long openDuration;
+    private final AtomicReference<Status> status;
+    private final AtomicLongArray epochs;
+    private final AtomicIntegerArray successes;
+    private final AtomicIntegerArray failures;
+
+    /**
+     * @param failureRate  percentage of failed requests opening the breaker
+     * @param openDuration time in milliseconds to reject requests before probing the host again
+     */
+    public CircuitBreaker(final HostDescription host, final int failureRate, final int openDuration) {
+        super();
+        this.host = host;
+        this.failureRate = failureRate;
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(openDuration);
+        status = new AtomicReference<>(new Status(State.CLOSED, 0L));
+        epochs = new AtomicLongArray(WINDOW_BUCKETS);
+        successes = new AtomicIntegerArray(WINDOW_BUCKETS);
+        failures = new AtomicIntegerArray(WINDOW_BUCKETS);
+        clearWindow();
+    }
+
+    /**
+     * Whether the outcome of a request indicates an unhealthy host: I/O errors, timeouts and
+     * {@code 503 Service Unavailable}.
+     */
+    public static boolean isFailure(final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof IOException || e instanceof TimeoutException) {
+                return true;
+            }
+            if (e instanceof ArangoDBException) {
+                final Integer responseCode = ((ArangoDBException) e).getResponseCode();
+                if (responseCode != null && responseCode == SERVICE_UNAVAILABLE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public State getState() {
+        return status.get().state;
+    }
+
+    /**
+     * @return whether a request may be sent to the host
+     */
+    public boolean tryAcquire() {
+        final Status current = status.get();
+        if (current.state == State.CLOSED) {
+            return true;
+        }
+        final long now = System.nanoTime();
+        // probe after the open duration, or again if the last probe did not report back within that time
+        return now - current.since >= openDuration && transition(current, State.HALF_OPEN, now);
+    }
+
+    public void onSuccess() {
+        final long now = System.nanoTime();
+        record(successes, now);
+        final Status current = status.get();
+        if (current.state == State.HALF_OPEN && transition(current, State.CLOSED, now)) {
+            clearWindow();
+        }
+    }
+
+    public void onFailure() {
+        final long now = System.nanoTime();
+        record(failures, now);
+        final Status current = status.get();
+        if (current.state == State.HALF_OPEN || (current.state == State.CLOSED && isTripped(now))) {
+            transition(current, State.OPEN, now);
+        }
+    }
+
+    private boolean transition(final Status current, final State state, final long now) {
+        if (!status.compareAndSet(current, new Status(state, now))) {
+            return false;
+        }
+        if (state != current.state) {
+            if (state == State.OPEN) {
+                LOGGER.warn(String.format("Circuit breaker for %s is open", host));
+            } else {
+                LOGGER.info(String.format("Circuit breaker for %s is %s", host, state.name().toLowerCase()));
+            }
+        }
+        return true;
+    }
+
+    private void record(final AtomicIntegerArray counts, final long now) {
+        final long epoch = Math.floorDiv(now, BUCKET_NANOS);
+        final int index = (int) Math.floorMod(epoch, (long) WINDOW_BUCKETS);
+        final long bucketEpoch = epochs.get(index);
+        if (bucketEpoch != epoch && epochs.compareAndSet(index, bucketEpoch, epoch)) {
+            successes.set(index, 0);
+            failures.set(index, 0);
+        }
+        counts.incrementAndGet(index);
+    }
+
+    private boolean isTripped(final long now) {
+        final int[] counts = countWindow(now);
+        final int total = counts[0] + counts[1];
+        return total >= MIN_REQUESTS && counts[1] * 100L >= (long) failureRate * total;
+    }
+
+    /**
+     * @return the numbers of succeeded and failed requests in the current window
+     */
+    int[] countWindow(final long now) {
+        final long epoch = Math.floorDiv(now, BUCKET_NANOS);
+        final int[] counts = new int[2];
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            final long bucketEpoch = epochs.get(i);
+            if (bucketEpoch > epoch - WINDOW_BUCKETS && bucketEpoch <= epoch) {
+                counts[0] += successes.get(i);
+                counts[1] += failures.get(i);
+            }
+        }
+        return counts;
+    }
+
+    private void clearWindow() {
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+            successes.set(i, 0);
+            failures.set(i, 0);
+        }
+    }
+
+    private static class Status {
+
+        private final State state;
+        private final long since;
+
+        private Status(final State state, final long since) {
+            this.state = state;
+            this.since = since;
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guards the hosts chosen by another {@link HostHandler} with a {@link CircuitBreaker} per host. A host whose breaker
+ * rejects requests is treated as failed, so that the request fails over to the next host of the underlying handler,
+ * and fails fast once all hosts are rejected. Requests bound to a host by their {@link HostHandle} fail fast at once.
+ */
+public class CircuitBreakerHostHandler implements HostHandler {
+
+    private final HostHandler delegate;
+    private final int failureRate;
+    private final int openDuration;
+    private final Map<HostDescription, CircuitBreaker> breakers;
+
+    /**
+     * @param failureRate  percentage of failed requests opening the breaker of a host
+     * @param openDuration time in milliseconds to reject requests to a host before probing it again
+     */
+    public CircuitBreakerHostHandler(final HostHandler delegate, final int failureRate, final int openDuration) {
+        super();
+        if (failureRate < 1 || failureRate > 100) {
+            throw new ArangoDBException(
+                    String.format("Circuit breaker failure rate must be between 1 and 100, was %s", failureRate));
+        }
+        this.delegate = delegate;
+        this.failureRate = failureRate;
+        this.openDuration = openDuration;
+        breakers = new ConcurrentHashMap<>();
+    }
+
+    CircuitBreaker breaker(final Host host) {
+        return breakers.computeIfAbsent(host.getDescription(),
+                description -> new CircuitBreaker(description, failureRate, openDuration));
+    }
+
+    /**
+     * @return the current breaker state of every host requests have been sent to
+     */
+    public Map<HostDescription, CircuitBreaker.State> getStates() {
+        final Map<HostDescription, CircuitBreaker.State> states = new HashMap<>();
+        breakers.forEach((host, breaker) -> states.put(host, breaker.getState()));
+        return states;
+    }
+
+    @Override
+    public Host get(final HostHandle hostHandle, final AccessType accessType) {
+        final boolean pinned = hostHandle != null && hostHandle.getHost() != null;
+        Host host = delegate.get(hostHandle, accessType);
+        Set<HostDescription> rejected = null;
+        while (host != null && !breaker(host).tryAcquire()) {
+            if (pinned) {
+                // e.g. a cursor, which must not fail over to another host
+                throw new ArangoDBException(String.format("Circuit breaker is open for %s", host.getDescription()));
+            }
+            if (rejected == null) {
+                rejected = new HashSet<>();
+            }
+            if (!rejected.add(host.getDescription())) {
+                delegate.reset(accessType);
+                throw new ArangoDBException("Circuit breaker is open for all hosts!");
+            }
+            delegate.fail(host, accessType);
+            if (hostHandle != null) {
+                hostHandle.setHost(null);
+            }
+            host = delegate.get(hostHandle, accessType);
+        }
+        if (rejected != null) {
+            // skipping hosts with an open breaker must not count as failed connection attempts
+            delegate.reset(accessType);
+        }
+        return host;
+    }
+
+    @Override
+    public void success(final Host host, final AccessType accessType) {
+        delegate.success(host, accessType);
+    }
+
+    @Override
+    public void fail(final Host host, final AccessType accessType) {
+        if (host != null) {
+            breaker(host).onFailure();
+        }
+        delegate.fail(host, accessType);
+    }
+
+    @Override
+    public void redirect(final Host host, final HostDescription location, final AccessType accessType) {
+        delegate.redirect(host, location, accessType);
+    }
+
+    @Override
+    public void reset(final AccessType accessType) {
+        delegate.reset(accessType);
+    }
+
+    @Override
+    public void confirm(final AccessType accessType) {
+        delegate.confirm(accessType);
+    }
+
+    @Override
+    public void started(final Host host, final AccessType accessType) {
+        delegate.started(host, accessType);
+    }
+
+    @Override
+    public void finished(final Host host, final AccessType accessType, final long latency, final Throwable error) {
+        if (CircuitBreaker.isFailure(error)) {
+            // socket errors make the communication fail over to the next host, which counts them in fail()
+            if (!(error instanceof SocketException)) {
+                breaker(host).onFailure();
+            }
+        } else {
+            breaker(host).onSuccess();
+        }
+        delegate.finished(host, accessType, latency, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
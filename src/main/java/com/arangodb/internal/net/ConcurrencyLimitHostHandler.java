@@ -0,0 +1,122 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits the requests in flight to every host by an adaptive {@link ConcurrencyLimiter}. A request exceeding the
+ * current limit of its host is rejected before it is sent, so that a saturated host sheds load instead of queueing
+ * requests until they time out.
+ */
+public class ConcurrencyLimitHostHandler implements HostHandler {
+
+    private final HostHandler delegate;
+    private final int maxLimit;
+    private final Map<HostDescription, ConcurrencyLimiter> limiters;
+
+    /**
+     * @param maxLimit upper bound of the limit of every host
+     */
+    public ConcurrencyLimitHostHandler(final HostHandler delegate, final int maxLimit) {
+        super();
+        if (maxLimit < 1) {
+            throw new ArangoDBException(String.format("Concurrency limit must be at least 1, was %s", maxLimit));
+        }
+        this.delegate = delegate;
+        this.maxLimit = maxLimit;
+        limiters = new ConcurrentHashMap<>();
+    }
+
+    private ConcurrencyLimiter limiter(final Host host) {
+        return limiters.computeIfAbsent(host.getDescription(),
+                description -> new ConcurrencyLimiter(description, maxLimit));
+    }
+
+    /**
+     * @return the current limit of every host requests have been sent to
+     */
+    public Map<HostDescription, Integer> getLimits() {
+        final Map<HostDescription, Integer> result = new HashMap<>();
+        limiters.forEach((host, limiter) -> result.put(host, limiter.getLimit()));
+        return result;
+    }
+
+    @Override
+    public Host get(final HostHandle hostHandle, final AccessType accessType) {
+        return delegate.get(hostHandle, accessType);
+    }
+
+    @Override
+    public void success(final Host host, final AccessType accessType) {
+        delegate.success(host, accessType);
+    }
+
+    @Override
+    public void fail(final Host host, final AccessType accessType) {
+        delegate.fail(host, accessType);
+    }
+
+    @Override
+    public void redirect(final Host host, final HostDescription location, final AccessType accessType) {
+        delegate.redirect(host, location, accessType);
+    }
+
+    @Override
+    public void reset(final AccessType accessType) {
+        delegate.reset(accessType);
+    }
+
+    @Override
+    public void confirm(final AccessType accessType) {
+        delegate.confirm(accessType);
+    }
+
+    /**
+     * @throws ArangoDBException if the limit of the host is reached
+     */
+    @Override
+    public void started(final Host host, final AccessType accessType) {
+        final ConcurrencyLimiter limiter = limiter(host);
+        if (!limiter.tryAcquire()) {
+            throw new ArangoDBException(String.format("Concurrency limit of %s reached for %s",
+                    limiter.getLimit(), host.getDescription()));
+        }
+        delegate.started(host, accessType);
+    }
+
+    @Override
+    public void finished(final Host host, final AccessType accessType, final long latency, final Throwable error) {
+        limiter(host).release(latency, CircuitBreaker.isFailure(error));
+        delegate.finished(host, accessType, latency, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
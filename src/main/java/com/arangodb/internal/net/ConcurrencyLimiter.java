@@ -0,0 +1,152 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Adaptive limit of the requests in flight to a single host, derived from the round-trip times of its requests in
+ * the style of TCP Vegas.
+ * <p>
+ * Samples are aggregated into windows of about one limit worth of requests. At the end of every window the limit
+ * is scaled by the gradient between the lowest average round-trip time of a window seen, i.e. the host not queueing
+ * requests, and the average of the window, tolerating twice the lowest one. While the limit is used, the square root
+ * of the limit is added as headroom to probe for more capacity. Timeouts, I/O errors and {@code 503 Service
+ * Unavailable} decrease the limit multiplicatively. The lowest average is re-learned every
+ * {@link #MIN_RTT_RESET_WINDOWS} windows, so that the limit follows lasting changes of the latency.
+ */
+public class ConcurrencyLimiter {
+
+    static final int INITIAL_LIMIT = 20;
+    static final int MIN_WINDOW = 10;
+    static final int MIN_RTT_RESET_WINDOWS = 100;
+
+    private static final double TOLERANCE = 2.0;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BACKOFF = 0.9;
+
+    private final HostDescription host;
+    private final int maxLimit;
+    private final AtomicInteger inFlight;
+    private final AtomicReference<Window> window;
+    private volatile int limit;
+    private volatile long minAvgRtt;
+    private volatile long windows;
+
+    /**
+     * @param maxLimit upper bound of the limit
+     */
+    public ConcurrencyLimiter(final HostDescription host, final int maxLimit) {
+        super();
+        this.host = host;
+        this.maxLimit = maxLimit;
+        inFlight = new AtomicInteger();
+        limit = Math.min(INITIAL_LIMIT, maxLimit);
+        window = new AtomicReference<>(new Window(limit));
+        minAvgRtt = Long.MAX_VALUE;
+    }
+
+    public HostDescription getHost() {
+        return host;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return whether a request may be sent to the host, in which case it has to be {@link #release(long, boolean)
+     * released} after it completed
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * @param rtt     round-trip time of the request in nanoseconds
+     * @param dropped whether the request failed with an error indicating an overloaded host
+     */
+    public void release(final long rtt, final boolean dropped) {
+        final int current = inFlight.getAndDecrement();
+        final Window w = window.get();
+        w.add(rtt, dropped, current);
+        if (w.count.incrementAndGet() == w.size) {
+            update(w);
+            window.set(new Window(limit));
+        }
+    }
+
+    private void update(final Window w) {
+        final long avgRtt = w.rttSum.get() / w.size;
+        final long n = ++windows;
+        if (avgRtt < minAvgRtt || n % MIN_RTT_RESET_WINDOWS == 0) {
+            minAvgRtt = avgRtt;
+        }
+        final int current = limit;
+        final double newLimit;
+        if (w.drops.get() > 0) {
+            newLimit = current * BACKOFF;
+        } else {
+            final double gradient = avgRtt > 0
+                    ? Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * minAvgRtt / avgRtt))
+                    : 1.0;
+            // do not grow the limit if the requests do not even use half of it
+            newLimit = current * gradient + (w.maxInFlight.get() * 2 >= current ? Math.sqrt(current) : 0.0);
+        }
+        limit = Math.max(1, Math.min(maxLimit, (int) newLimit));
+    }
+
+    private static class Window {
+
+        private final int size;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong rttSum = new AtomicLong();
+        private final AtomicInteger drops = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private Window(final int limit) {
+            size = Math.max(MIN_WINDOW, limit);
+        }
+
+        private void add(final long rtt, final boolean dropped, final int inFlight) {
+            rttSum.addAndGet(rtt);
+            if (dropped) {
+                drops.incrementAndGet();
+            }
+            maxInFlight.accumulateAndGet(inFlight, Math::max);
+        }
+
+    }
+
+}
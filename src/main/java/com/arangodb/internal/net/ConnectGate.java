@@ -0,0 +1,123 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.internal.ArangoDefaults;
+
+import java.net.ConnectException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates the attempts to (re)connect a single connection.
+ * <p>
+ * Callers synchronize on the gate while connecting, so that only one thread dials at a time. Threads which waited
+ * for a failing attempt of another thread fail over immediately instead of dialing again (see
+ * {@link #checkAttempt(long)}). After consecutive failures further attempts are delayed with exponential backoff
+ * and jitter, starting with the second failure.
+ */
+public class ConnectGate {
+
+    private static final int MAX_SHIFT = 30;
+
+    private final long delayNanos;
+    private final long maxDelayNanos;
+
+    private volatile int consecutiveFailures;
+    private volatile long failedAttempts;
+    private volatile long retryAt;
+
+    /**
+     * @param delay    backoff after the second consecutive failure in milliseconds, doubled for every further one
+     * @param maxDelay upper bound of the backoff in milliseconds
+     */
+    public ConnectGate(final Integer delay, final Integer maxDelay) {
+        super();
+        delayNanos = TimeUnit.MILLISECONDS.toNanos(
+                delay != null && delay >= 0 ? delay : ArangoDefaults.DEFAULT_RECONNECT_DELAY);
+        maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(
+                maxDelay != null && maxDelay >= 0 ? maxDelay : ArangoDefaults.DEFAULT_RECONNECT_MAX_DELAY);
+    }
+
+    /**
+     * @return whether the last attempt failed
+     */
+    public boolean isFailing() {
+        return consecutiveFailures > 0;
+    }
+
+    /**
+     * @return number of failed attempts so far, to be read before synchronizing on the gate and passed to
+     * {@link #checkAttempt(long)}
+     */
+    public long getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    /**
+     * Checks, while holding the monitor of this gate, whether the caller may dial.
+     *
+     * @param failedAttempts value of {@link #getFailedAttempts()} before the caller synchronized on the gate
+     * @throws ConnectException if another thread failed to connect in the meantime or the backoff after the last
+     *                          failure has not elapsed yet
+     */
+    public void checkAttempt(final long failedAttempts) throws ConnectException {
+        if (this.failedAttempts != failedAttempts) {
+            throw new ConnectException("Concurrent connection attempt failed");
+        }
+        final long remaining = retryAt - System.nanoTime();
+        if (consecutiveFailures > 0 && remaining > 0) {
+            throw new ConnectException(String.format("Reconnect is backing off for another %s ms",
+                    TimeUnit.NANOSECONDS.toMillis(remaining)));
+        }
+    }
+
+    public void success() {
+        if (consecutiveFailures != 0) {
+            synchronized (this) {
+                consecutiveFailures = 0;
+                retryAt = 0L;
+            }
+        }
+    }
+
+    public synchronized void failure() {
+        final int failures = consecutiveFailures + 1;
+        consecutiveFailures = failures;
+        failedAttempts++;
+        retryAt = System.nanoTime() + backoff(failures);
+    }
+
+    /**
+     * @return delay before the next attempt after the given number of consecutive failures, in nanoseconds. Half of
+     * the delay is randomized, so that connections failing at the same time do not reconnect at the same time.
+     */
+    long backoff(final int failures) {
+        if (failures < 2 || delayNanos == 0L) {
+            return 0L;
+        }
+        final int shift = Math.min(failures - 2, MAX_SHIFT);
+        final long delay = delayNanos > (maxDelayNanos >> shift) ? maxDelayNanos : delayNanos << shift;
+        final long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+}
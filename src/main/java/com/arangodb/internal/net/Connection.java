@@ -27,4 +27,17 @@ import java.io.Closeable;
  */
 public interface Connection extends Closeable {
 
+    /**
+     * @return number of requests sent over this connection and not yet answered
+     */
+    int getInFlight();
+
+    /**
+     * @return round-trip time in nanoseconds of the last answered keep-alive probe, {@code -1} if the connection does
+     * not send probes or none has been answered yet
+     */
+    default long getKeepAliveLatency() {
+        return -1L;
+    }
+
 }
@@ -31,4 +31,15 @@ public interface ConnectionPool extends Closeable {
 
     Connection connection();
 
+    /**
+     * @return number of in-flight requests of every pooled connection
+     */
+    int[] getOccupancy();
+
+    /**
+     * @return highest {@link Connection#getKeepAliveLatency() keep-alive latency} of the pooled connections,
+     * {@code -1} if none has been measured
+     */
+    long getKeepAliveLatency();
+
 }
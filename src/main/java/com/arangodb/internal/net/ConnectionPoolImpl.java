@@ -26,20 +26,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
+ * Pool of connections to a single host.
+ * <p>
+ * Every request is assigned to the less loaded of two randomly chosen connections, measured by their number of
+ * in-flight requests, so that a connection busy with a long running request does not get further requests while
+ * others are idle. A new connection is created, up to {@code maxConnections}, only if the chosen one is busy.
+ * Selecting a connection does not take any lock.
+ *
  * @author Mark Vollmary
  */
 public class ConnectionPoolImpl implements ConnectionPool {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolImpl.class);
+    private static final Connection[] EMPTY = new Connection[0];
 
     private final HostDescription host;
     private final int maxConnections;
-    private final List<Connection> connections;
-    private int current;
+    private volatile Connection[] connections;
     private final ConnectionFactory factory;
 
     public ConnectionPoolImpl(final HostDescription host, final Integer maxConnections,
@@ -48,8 +55,7 @@ public class ConnectionPoolImpl implements ConnectionPool {
         this.host = host;
         this.maxConnections = maxConnections;
         this.factory = factory;
-        connections = new ArrayList<>();
-        current = 0;
+        connections = EMPTY;
     }
 
     @Override
@@ -58,17 +64,11 @@ public class ConnectionPoolImpl implements ConnectionPool {
     }
 
     @Override
-    public synchronized Connection connection() {
-
-        final Connection connection;
-
-        if (connections.size() < maxConnections) {
-            connection = createConnection(host);
-            connections.add(connection);
-            current++;
-        } else {
-            final int index = Math.floorMod(current++, connections.size());
-            connection = connections.get(index);
+    public Connection connection() {
+        final Connection[] snapshot = connections;
+        Connection connection = leastLoaded(snapshot);
+        if (snapshot.length < maxConnections && (connection == null || connection.getInFlight() > 0)) {
+            connection = grow();
         }
 
         if (connection instanceof VstConnectionSync) {
@@ -78,18 +78,64 @@ public class ConnectionPoolImpl implements ConnectionPool {
         return connection;
     }
 
+    /**
+     * Power-of-two-choices: picks two distinct random connections and returns the one with less in-flight requests.
+     */
+    private static Connection leastLoaded(final Connection[] snapshot) {
+        final int size = snapshot.length;
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return snapshot[0];
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int a = random.nextInt(size);
+        int b = random.nextInt(size - 1);
+        if (b >= a) {
+            b++;
+        }
+        final Connection first = snapshot[a];
+        final Connection second = snapshot[b];
+        return second.getInFlight() < first.getInFlight() ? second : first;
+    }
+
+    private synchronized Connection grow() {
+        final Connection[] current = connections;
+        if (current.length >= maxConnections) {
+            return leastLoaded(current);
+        }
+        final Connection connection = createConnection(host);
+        final Connection[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = connection;
+        connections = grown;
+        return connection;
+    }
+
+    @Override
+    public int[] getOccupancy() {
+        return Arrays.stream(connections).mapToInt(Connection::getInFlight).toArray();
+    }
+
+    @Override
+    public long getKeepAliveLatency() {
+        return Arrays.stream(connections).mapToLong(Connection::getKeepAliveLatency).max().orElse(-1L);
+    }
+
     @Override
     public synchronized void close() throws IOException {
-        for (final Connection connection : connections) {
+        final Connection[] current = connections;
+        connections = EMPTY;
+        for (final Connection connection : current) {
             connection.close();
         }
-        connections.clear();
     }
 
     @Override
     public String toString() {
         return "ConnectionPoolImpl [host=" + host + ", maxConnections=" + maxConnections + ", connections="
-                + connections.size() + ", current=" + current + ", factory=" + factory.getClass().getSimpleName() + "]";
+                + connections.length + ", occupancy=" + Arrays.toString(getOccupancy()) + ", factory="
+                + factory.getClass().getSimpleName() + "]";
     }
 
 }
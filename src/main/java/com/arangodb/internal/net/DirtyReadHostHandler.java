@@ -23,13 +23,15 @@ package com.arangodb.internal.net;
 import java.io.IOException;
 
 /**
+ * Routes dirty reads to the follower handler and all other requests to the master handler, based on the access type
+ * passed with every call.
+ *
  * @author Mark Vollmary
  */
 public class DirtyReadHostHandler implements HostHandler {
 
     private final HostHandler master;
     private final HostHandler follower;
-    private AccessType currentAccessType;
 
     public DirtyReadHostHandler(final HostHandler master, final HostHandler follower) {
         super();
@@ -37,8 +39,8 @@ public class DirtyReadHostHandler implements HostHandler {
         this.follower = follower;
     }
 
-    private HostHandler determineHostHandler() {
-        if (currentAccessType == AccessType.DIRTY_READ) {
+    private HostHandler determineHostHandler(final AccessType accessType) {
+        if (accessType == AccessType.DIRTY_READ) {
             return follower;
         }
         return master;
@@ -46,39 +48,48 @@ public class DirtyReadHostHandler implements HostHandler {
 
     @Override
     public Host get(final HostHandle hostHandle, final AccessType accessType) {
-        this.currentAccessType = accessType;
-        return determineHostHandler().get(hostHandle, accessType);
+        return determineHostHandler(accessType).get(hostHandle, accessType);
     }
 
     @Override
-    public void success() {
-        determineHostHandler().success();
+    public void success(final Host host, final AccessType accessType) {
+        determineHostHandler(accessType).success(host, accessType);
     }
 
     @Override
-    public void fail() {
-        determineHostHandler().fail();
+    public void fail(final Host host, final AccessType accessType) {
+        determineHostHandler(accessType).fail(host, accessType);
     }
 
     @Override
-    public void reset() {
-        determineHostHandler().reset();
+    public void redirect(final Host host, final HostDescription location, final AccessType accessType) {
+        determineHostHandler(accessType).redirect(host, location, accessType);
     }
 
     @Override
-    public void confirm() {
-        determineHostHandler().confirm();
+    public void reset(final AccessType accessType) {
+        determineHostHandler(accessType).reset(accessType);
     }
 
     @Override
-    public void close() throws IOException {
-        master.close();
-        follower.close();
+    public void confirm(final AccessType accessType) {
+        determineHostHandler(accessType).confirm(accessType);
+    }
+
+    @Override
+    public void started(final Host host, final AccessType accessType) {
+        determineHostHandler(accessType).started(host, accessType);
     }
 
     @Override
-    public void closeCurrentOnError() {
-        determineHostHandler().closeCurrentOnError();
+    public void finished(final Host host, final AccessType accessType, final long latency, final Throwable error) {
+        determineHostHandler(accessType).finished(host, accessType, latency, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        master.close();
+        follower.close();
     }
 
 }
@@ -37,21 +37,35 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Resolves the hosts of a cluster from {@code /_api/cluster/endpoints}.
+ * <p>
+ * {@link #resolve(boolean, boolean)} never waits for the server: once the host list expired, it schedules a refresh
+ * on a background thread shared by all resolvers and returns the current hosts. The refreshed hosts are published
+ * into the copy-on-write {@link HostSet} at once.
+ *
  * @author Mark Vollmary
  */
 public class ExtendedHostResolver implements HostResolver {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ExtendedHostResolver.class);
 
+    private static final Executor REFRESH_EXECUTOR = createRefreshExecutor();
+
     private final HostSet hosts;
 
     private final Integer maxConnections;
     private final ConnectionFactory connectionFactory;
 
-    private long lastUpdate;
+    private volatile long lastUpdate;
     private final Integer acquireHostListInterval;
+    private final AtomicBoolean refreshing;
 
     private ArangoExecutorSync executor;
     private ArangoSerialization arangoSerialization;
@@ -66,6 +80,16 @@ public class ExtendedHostResolver implements HostResolver {
         this.connectionFactory = connectionFactory;
 
         lastUpdate = 0;
+        refreshing = new AtomicBoolean(false);
+    }
+
+    private static Executor createRefreshExecutor() {
+        // a single thread, started on demand and terminated after being idle
+        return new ThreadPoolExecutor(0, 1, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(r, "arangodb-host-resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -75,21 +99,23 @@ public class ExtendedHostResolver implements HostResolver {
     }
 
     @Override
-
     public HostSet resolve(boolean initial, boolean closeConnections) {
 
-        if (!initial && isExpired()) {
-
+        if (!initial && isExpired() && refreshing.compareAndSet(false, true)) {
             lastUpdate = System.currentTimeMillis();
+            REFRESH_EXECUTOR.execute(this::refresh);
+        }
 
+        return hosts;
+    }
+
+    private void refresh() {
+        try {
             final Collection<String> endpoints = resolveFromServer();
             LOGGER.debug("Resolve " + endpoints.size() + " Endpoints");
             LOGGER.debug("Endpoints " + Arrays.deepToString(endpoints.toArray()));
 
-            if (!endpoints.isEmpty()) {
-                hosts.markAllForDeletion();
-            }
-
+            final List<Host> resolved = new ArrayList<>(endpoints.size());
             for (final String endpoint : endpoints) {
                 LOGGER.debug("Create HOST from " + endpoint);
 
@@ -98,12 +124,12 @@ public class ExtendedHostResolver implements HostResolver {
                     final String[] s = endpoint.replaceAll(".*://", "").split(":");
                     if (s.length == 2) {
                         final HostDescription description = new HostDescription(s[0], Integer.parseInt(s[1]));
-                        hosts.addHost(HostUtils.createHost(description, maxConnections, connectionFactory));
+                        resolved.add(HostUtils.createHost(description, maxConnections, connectionFactory));
                     } else if (s.length == 4) {
                         // IPV6 Address - TODO: we need a proper function to resolve AND support IPV4 & IPV6 functions
                         // globally
                         final HostDescription description = new HostDescription("127.0.0.1", Integer.parseInt(s[3]));
-                        hosts.addHost(HostUtils.createHost(description, maxConnections, connectionFactory));
+                        resolved.add(HostUtils.createHost(description, maxConnections, connectionFactory));
                     } else {
                         LOGGER.warn("Skip Endpoint (Missing Port)" + endpoint);
                     }
@@ -112,10 +138,15 @@ public class ExtendedHostResolver implements HostResolver {
                     LOGGER.warn("Skip Endpoint (Format)" + endpoint);
                 }
             }
-            hosts.clearAllMarkedForDeletion();
-        }
 
-        return hosts;
+            if (!resolved.isEmpty()) {
+                hosts.update(resolved);
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Could not acquire the host list, keep the current hosts", e);
+        } finally {
+            refreshing.set(false);
+        }
     }
 
     private Collection<String> resolveFromServer() throws ArangoDBException {
@@ -23,6 +23,9 @@ package com.arangodb.internal.net;
 import com.arangodb.ArangoDBException;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Mark Vollmary
@@ -30,55 +33,61 @@ import java.util.List;
 public class FallbackHostHandler implements HostHandler {
 
     private final HostResolver resolver;
-    private Host current;
-    private Host lastSuccess;
-    private int iterations;
-    private boolean firstOpened;
+    private final AtomicReference<Host> current;
+    private volatile Host lastSuccess;
+    private final AtomicInteger iterations;
+    private final AtomicBoolean firstOpened;
 
     public FallbackHostHandler(final HostResolver resolver) {
         this.resolver = resolver;
-        iterations = 0;
-        current = lastSuccess = resolver.resolve(true, false).getHostsList().get(0);
-        firstOpened = true;
+        iterations = new AtomicInteger();
+        lastSuccess = resolver.resolve(true, false).getHostsList().get(0);
+        current = new AtomicReference<>(lastSuccess);
+        firstOpened = new AtomicBoolean(true);
     }
 
     @Override
     public Host get(final HostHandle hostHandle, AccessType accessType) {
-        if (current != lastSuccess || iterations < 3) {
-            return current;
+        final Host host = current.get();
+        if (host != lastSuccess || iterations.get() < 3) {
+            return host;
         } else {
-            reset();
+            reset(accessType);
             throw new ArangoDBException("Cannot contact any host!");
         }
     }
 
     @Override
-    public void success() {
-        lastSuccess = current;
+    public void success(final Host host, final AccessType accessType) {
+        lastSuccess = host != null ? host : current.get();
     }
 
+    /**
+     * Switches to the next host, unless another request already switched away from the failed one.
+     *
+     * @param host failed host, {@code null} for the current one
+     */
     @Override
-    public void fail() {
+    public void fail(final Host host, final AccessType accessType) {
+        final Host failed = host != null ? host : current.get();
         final List<Host> hosts = resolver.resolve(false, false).getHostsList();
-        final int index = hosts.indexOf(current) + 1;
+        final int index = hosts.indexOf(failed) + 1;
         final boolean inBound = index < hosts.size();
-        current = hosts.get(inBound ? index : 0);
-        if (!inBound) {
-            iterations++;
+        if (current.compareAndSet(failed, hosts.get(inBound ? index : 0)) && !inBound) {
+            iterations.incrementAndGet();
         }
     }
 
     @Override
-    public void reset() {
-        iterations = 0;
+    public void reset(final AccessType accessType) {
+        iterations.set(0);
     }
 
     @Override
-    public void confirm() {
-        if (firstOpened) {
+    public void confirm(final AccessType accessType) {
+        if (firstOpened.compareAndSet(true, false)) {
             // after first successful established connection, update host list
             resolver.resolve(false, false);
-            firstOpened = false;
         }
     }
 
@@ -88,9 +97,4 @@ public class FallbackHostHandler implements HostHandler {
         hosts.close();
     }
 
-    @Override
-    public void closeCurrentOnError() {
-        current.closeOnError();
-    }
-
 }
@@ -31,6 +31,12 @@ public interface Host {
 
     Connection connection();
 
+    /**
+     * @return highest round-trip time in nanoseconds of the last keep-alive probes of the connections to this host,
+     * {@code -1} if none has been answered yet
+     */
+    long getKeepAliveLatency();
+
     void closeOnError();
 
     void close() throws IOException;
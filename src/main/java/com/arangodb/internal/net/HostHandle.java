@@ -26,6 +26,7 @@ package com.arangodb.internal.net;
 public class HostHandle {
 
     private HostDescription host;
+    private HostDescription excluded;
 
     public HostHandle() {
         super();
@@ -40,4 +41,16 @@ public class HostHandle {
         return this;
     }
 
+    /**
+     * @return host to avoid when choosing a host for this handle, if possible
+     */
+    public HostDescription getExcluded() {
+        return excluded;
+    }
+
+    public HostHandle setExcluded(final HostDescription excluded) {
+        this.excluded = excluded;
+        return this;
+    }
+
 }
@@ -23,21 +23,52 @@ package com.arangodb.internal.net;
 import java.io.IOException;
 
 /**
+ * Selects the host for a request and keeps track of failing hosts.
+ * <p>
+ * Implementations are used concurrently by all requests. They therefore do not keep any state of a single request;
+ * the host returned by {@link #get(HostHandle, AccessType)} and the access type of the request are passed back on
+ * every subsequent call for the same request instead.
+ *
  * @author Mark Vollmary
  */
 public interface HostHandler {
 
     Host get(HostHandle hostHandle, AccessType accessType);
 
-    void success();
+    void success(Host host, AccessType accessType);
+
+    void fail(Host host, AccessType accessType);
+
+    void reset(AccessType accessType);
+
+    void confirm(AccessType accessType);
 
-    void fail();
+    /**
+     * Invoked if the given host redirected a request to another one, e.g. a follower of an active failover
+     * deployment to its leader. The request is sent again with a {@link HostHandle} for the location afterwards.
+     *
+     * @param location the host the request was redirected to, {@code null} if unknown
+     */
+    default void redirect(Host host, HostDescription location, AccessType accessType) {
+        fail(host, accessType);
+    }
 
-    void reset();
+    /**
+     * Invoked before a request is sent to the given host.
+     */
+    default void started(Host host, AccessType accessType) {
+    }
 
-    void confirm();
+    /**
+     * Invoked after a request {@link #started(Host, AccessType) started} on the given host completed, successfully
+     * or not.
+     *
+     * @param latency elapsed time in nanoseconds
+     * @param error   the error the request failed with, {@code null} if a response was received and is no error
+     */
+    default void finished(Host host, AccessType accessType, long latency, Throwable error) {
+    }
 
     void close() throws IOException;
 
-    void closeCurrentOnError();
 }
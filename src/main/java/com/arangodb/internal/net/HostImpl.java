@@ -31,7 +31,7 @@ public class HostImpl implements Host {
 
     private final ConnectionPool connectionPool;
     private final HostDescription description;
-    private boolean markforDeletion = false;
+    private volatile boolean markforDeletion = false;
 
     public HostImpl(final ConnectionPool connectionPool, final HostDescription description) {
         super();
@@ -54,6 +54,11 @@ public class HostImpl implements Host {
         return connectionPool.connection();
     }
 
+    @Override
+    public long getKeepAliveLatency() {
+        return connectionPool.getKeepAliveLatency();
+    }
+
     @Override
     public void closeOnError() {
         try {
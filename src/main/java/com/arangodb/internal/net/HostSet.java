@@ -5,14 +5,18 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
+/**
+ * Hosts of a {@link HostResolver}. The list is copy-on-write: readers get an immutable snapshot without locking,
+ * changes publish a new list.
+ */
 public class HostSet {
     private static final Logger LOGGER = LoggerFactory.getLogger(HostSet.class);
 
-    private final ArrayList<Host> hosts = new ArrayList<>();
+    private volatile List<Host> hosts = Collections.emptyList();
 
     public HostSet() {
         super();
@@ -28,10 +32,10 @@ public class HostSet {
     }
 
     public List<Host> getHostsList() {
-        return Collections.unmodifiableList(hosts);
+        return hosts;
     }
 
-    public void addHost(Host newHost) {
+    public synchronized void addHost(Host newHost) {
 
         if (hosts.contains(newHost)) {
             LOGGER.debug("Host" + newHost + " already in Set");
@@ -43,60 +47,62 @@ public class HostSet {
             }
 
         } else {
-            hosts.add(newHost);
-            LOGGER.debug("Added Host " + newHost + " - now " + hosts.size() + " Hosts in List");
+            final List<Host> copy = new ArrayList<>(hosts);
+            copy.add(newHost);
+            hosts = Collections.unmodifiableList(copy);
+            LOGGER.debug("Added Host " + newHost + " - now " + copy.size() + " Hosts in List");
         }
 
     }
 
-    public void close() {
-        LOGGER.debug("Close all Hosts in Set");
-
-        for (Host host : hosts) {
-            try {
-
-                LOGGER.debug("Try to close Host " + host);
-                host.close();
+    /**
+     * Replaces the hosts with the given ones in a single step. Hosts already in the set are kept together with their
+     * connections, hosts not contained in {@code newHosts} anymore are closed after the new list is published.
+     */
+    public synchronized void update(Collection<Host> newHosts) {
+        final List<Host> current = hosts;
+        final List<Host> updated = new ArrayList<>(newHosts.size());
+        for (Host newHost : newHosts) {
+            final int index = current.indexOf(newHost);
+            final Host host = index >= 0 ? current.get(index) : newHost;
+            if (!updated.contains(host)) {
+                updated.add(host);
+            }
+        }
+        hosts = Collections.unmodifiableList(updated);
+        LOGGER.debug("Updated Hosts - now " + updated.size() + " Hosts in List");
 
-            } catch (IOException e) {
-                LOGGER.warn("Error during closing the Host " + host, e);
+        for (Host host : current) {
+            if (!updated.contains(host)) {
+                host.setMarkforDeletion(true);
+                closeHost(host);
             }
         }
     }
 
-    public void markAllForDeletion() {
+    public void close() {
+        LOGGER.debug("Close all Hosts in Set");
 
         for (Host host : hosts) {
-            host.setMarkforDeletion(true);
+            closeHost(host);
         }
-
     }
 
-    public void clearAllMarkedForDeletion() {
-
-        LOGGER.debug("Clear all Hosts in Set with markForDeletion");
-
-        Iterator<Host> iterable = hosts.iterator();
-        while (iterable.hasNext()){
-            Host host = iterable.next();
-            if (host.isMarkforDeletion()) {
-                try {
-                    LOGGER.debug("Try to close Host " + host);
-                    host.close();
-                } catch (IOException e) {
-                    LOGGER.warn("Error during closing the Host " + host, e);
-                } finally {
-                    iterable.remove();
-                }
-            }
-        }
+    private static void closeHost(Host host) {
+        try {
+
+            LOGGER.debug("Try to close Host " + host);
+            host.close();
 
+        } catch (IOException e) {
+            LOGGER.warn("Error during closing the Host " + host, e);
+        }
     }
 
-    public void clear() {
+    public synchronized void clear() {
         LOGGER.debug("Clear all Hosts in Set");
 
         close();
-        hosts.clear();
+        hosts = Collections.emptyList();
     }
 }
@@ -0,0 +1,151 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Remembers the leader of an active failover deployment. Once a follower redirected a request to the leader, all
+ * further requests are sent to the leader directly, until the next redirect or a failure of the leader. Without a
+ * known leader, e.g. in a cluster, requests are routed by the delegate.
+ * <p>
+ * Connections to followers are kept open, so that they can still serve dirty reads.
+ */
+public class LeaderHostHandler implements HostHandler {
+
+    private final HostResolver resolver;
+    private final HostHandler delegate;
+    private final AtomicReference<Host> leader;
+    private final AtomicInteger leaderChanges;
+
+    public LeaderHostHandler(final HostResolver resolver, final HostHandler delegate) {
+        super();
+        this.resolver = resolver;
+        this.delegate = delegate;
+        leader = new AtomicReference<>();
+        leaderChanges = new AtomicInteger();
+    }
+
+    /**
+     * @return the current leader, {@code null} if not known
+     */
+    public Host getLeader() {
+        return leader.get();
+    }
+
+    @Override
+    public Host get(final HostHandle hostHandle, final AccessType accessType) {
+        final Host host = leader.get();
+        if (host != null && !host.isMarkforDeletion()) {
+            if (hostHandle == null) {
+                return host;
+            }
+            final HostDescription description = host.getDescription();
+            if (hostHandle.getHost() == null && !description.equals(hostHandle.getExcluded())) {
+                hostHandle.setHost(description);
+                return host;
+            }
+            if (description.equals(hostHandle.getHost())) {
+                return host;
+            }
+        }
+        return delegate.get(hostHandle, accessType);
+    }
+
+    /**
+     * Sends further requests to the given location, if it is one of the known hosts. The leader changing more often
+     * than there are hosts without any request to the leader succeeding in between indicates a redirect loop, in which
+     * case the redirect is left to the delegate, which eventually gives up.
+     */
+    @Override
+    public void redirect(final Host host, final HostDescription location, final AccessType accessType) {
+        final Host target = find(location);
+        final int hosts = resolver.resolve(false, false).getHostsList().size();
+        if (target == null || leaderChanges.get() > hosts) {
+            leader.set(null);
+            delegate.redirect(host, location, accessType);
+            return;
+        }
+        if (leader.getAndSet(target) != target) {
+            leaderChanges.incrementAndGet();
+        }
+    }
+
+    private Host find(final HostDescription description) {
+        if (description != null) {
+            for (final Host host : resolver.resolve(false, false).getHostsList()) {
+                if (description.equals(host.getDescription())) {
+                    return host;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void success(final Host host, final AccessType accessType) {
+        if (leaderChanges.get() != 0) {
+            leaderChanges.set(0);
+        }
+        delegate.success(host, accessType);
+    }
+
+    @Override
+    public void fail(final Host host, final AccessType accessType) {
+        final Host current = leader.get();
+        if (current != null && (host == null || host.equals(current))) {
+            leader.compareAndSet(current, null);
+        }
+        delegate.fail(host, accessType);
+    }
+
+    @Override
+    public void reset(final AccessType accessType) {
+        delegate.reset(accessType);
+    }
+
+    @Override
+    public void confirm(final AccessType accessType) {
+        delegate.confirm(accessType);
+    }
+
+    @Override
+    public void started(final Host host, final AccessType accessType) {
+        delegate.started(host, accessType);
+    }
+
+    @Override
+    public void finished(final Host host, final AccessType accessType, final long latency, final Throwable error) {
+        // a redirect is reported as error, so this is a response of the leader itself
+        if (error == null && leaderChanges.get() != 0 && host != null && host.equals(leader.get())) {
+            leaderChanges.set(0);
+        }
+        delegate.finished(host, accessType, latency, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routes every request to the less loaded of two randomly chosen hosts (power of two choices).
+ * <p>
+ * The load of a host is its peak EWMA latency multiplied by the number of its requests in flight. The average rises
+ * immediately to a higher latency and decays towards lower latencies and over time, so that a slow host is avoided at
+ * once and probed again after some time. A host failing to connect is penalized like a very slow one. The statistics
+ * of hosts removed from the resolved host list are dropped whenever the list changes.
+ */
+public class PeakEwmaHostHandler implements HostHandler {
+
+    static final long DECAY_TIME = TimeUnit.SECONDS.toNanos(10);
+    static final long FAILURE_PENALTY = TimeUnit.SECONDS.toNanos(10);
+
+    private final HostResolver resolver;
+    private final Map<Host, Stats> stats;
+    private final AtomicInteger fails;
+    private volatile List<Host> known;
+
+    public PeakEwmaHostHandler(final HostResolver resolver) {
+        super();
+        this.resolver = resolver;
+        resolver.resolve(true, false);
+        stats = new ConcurrentHashMap<>();
+        fails = new AtomicInteger();
+    }
+
+    @Override
+    public Host get(final HostHandle hostHandle, final AccessType accessType) {
+        final List<Host> hosts = resolver.resolve(false, false).getHostsList();
+        if (hosts != known) {
+            prune(hosts);
+        }
+        final int size = hosts.size();
+        if (fails.get() > size) {
+            reset(accessType);
+            throw new ArangoDBException("Cannot contact any host!");
+        }
+        if (hostHandle != null && hostHandle.getHost() != null) {
+            for (final Host host : hosts) {
+                if (hostHandle.getHost().equals(host.getDescription())) {
+                    return host;
+                }
+            }
+        }
+        final Host host = size == 1 ? hosts.get(0)
+                : choose(hosts, size, hostHandle != null ? hostHandle.getExcluded() : null);
+        if (hostHandle != null && hostHandle.getHost() == null) {
+            hostHandle.setHost(host.getDescription());
+        }
+        return host;
+    }
+
+    private Host choose(final List<Host> hosts, final int size, final HostDescription excluded) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int a = random.nextInt(size);
+        int b = random.nextInt(size - 1);
+        if (b >= a) {
+            b++;
+        }
+        final Host hostA = hosts.get(a);
+        final Host hostB = hosts.get(b);
+        if (hostA.getDescription().equals(excluded)) {
+            return hostB;
+        }
+        if (hostB.getDescription().equals(excluded)) {
+            return hostA;
+        }
+        final long now = System.nanoTime();
+        return stats(hostA).load(now) <= stats(hostB).load(now) ? hostA : hostB;
+    }
+
+    private void prune(final List<Host> hosts) {
+        known = hosts;
+        stats.keySet().retainAll(hosts);
+    }
+
+    private Stats stats(final Host host) {
+        return stats.computeIfAbsent(host, h -> new Stats());
+    }
+
+    @Override
+    public void started(final Host host, final AccessType accessType) {
+        stats(host).pending.incrementAndGet();
+    }
+
+    @Override
+    public void finished(final Host host, final AccessType accessType, final long latency, final Throwable error) {
+        final Stats s = stats.get(host);
+        if (s != null) {
+            s.pending.decrementAndGet();
+            s.observe(latency, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void success(final Host host, final AccessType accessType) {
+        fails.set(0);
+    }
+
+    @Override
+    public void fail(final Host host, final AccessType accessType) {
+        fails.incrementAndGet();
+        if (host != null) {
+            stats(host).observe(FAILURE_PENALTY, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void reset(final AccessType accessType) {
+        fails.set(0);
+        prune(resolver.resolve(false, false).getHostsList());
+    }
+
+    @Override
+    public void confirm(final AccessType accessType) {
+    }
+
+    @Override
+    public void close() {
+        final HostSet hosts = resolver.resolve(false, false);
+        hosts.close();
+    }
+
+    private static class Stats {
+
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicReference<Ewma> ewma = new AtomicReference<>(new Ewma(0.0, System.nanoTime()));
+
+        private void observe(final long latency, final long now) {
+            Ewma current;
+            do {
+                current = ewma.get();
+            } while (!ewma.compareAndSet(current, current.next(latency, now)));
+        }
+
+        /**
+         * The decayed average, weighted with the requests in flight. The constant added to the average lets the
+         * requests in flight count for hosts without any latency observed yet.
+         */
+        private double load(final long now) {
+            return (ewma.get().decayed(now) + 1.0) * (pending.get() + 1);
+        }
+
+    }
+
+    private static class Ewma {
+
+        private final double cost;
+        private final long stamp;
+
+        private Ewma(final double cost, final long stamp) {
+            this.cost = cost;
+            this.stamp = stamp;
+        }
+
+        private double decayed(final long now) {
+            return cost * weight(now);
+        }
+
+        private Ewma next(final long latency, final long now) {
+            if (latency > cost) {
+                return new Ewma(latency, now);
+            }
+            final double w = weight(now);
+            return new Ewma(cost * w + latency * (1.0 - w), now);
+        }
+
+        private double weight(final long now) {
+            return Math.exp(-Math.max(now - stamp, 0L) / (double) DECAY_TIME);
+        }
+
+    }
+
+}
@@ -22,6 +22,7 @@ package com.arangodb.internal.net;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Mark Vollmary
@@ -30,49 +31,65 @@ public class RandomHostHandler implements HostHandler {
 
     private final HostResolver resolver;
     private final HostHandler fallback;
-    private Host origin;
-    private Host current;
+    private volatile Host origin;
+    private final AtomicReference<Host> current;
 
     public RandomHostHandler(final HostResolver resolver, final HostHandler fallback) {
         super();
         this.resolver = resolver;
         this.fallback = fallback;
-        origin = current = getRandomHost(true, false);
+        origin = getRandomHost(true, false);
+        current = new AtomicReference<>(origin);
     }
 
     @Override
     public Host get(final HostHandle hostHandle, AccessType accessType) {
-        if (current == null) {
-            origin = current = getRandomHost(false, true);
+        final Host host = current.get();
+        if (host != null) {
+            return host;
         }
-        return current;
+        final Host random = getRandomHost(false, true);
+        if (current.compareAndSet(null, random)) {
+            origin = random;
+            return random;
+        }
+        return current.get();
     }
 
     @Override
-    public void success() {
-        current = origin;
+    public void success(final Host host, final AccessType accessType) {
+        current.set(origin);
     }
 
+    /**
+     * Switches to the next host of the fallback handler, unless another request already switched away from the
+     * failed one.
+     *
+     * @param host failed host, {@code null} for the current one
+     */
     @Override
-    public void fail() {
-        fallback.fail();
-        current = fallback.get(null, null);
+    public void fail(final Host host, final AccessType accessType) {
+        final Host failed = host != null ? host : current.get();
+        if (current.get() != failed) {
+            return;
+        }
+        fallback.fail(null, accessType);
+        current.compareAndSet(failed, fallback.get(null, accessType));
     }
 
     private Host getRandomHost(final boolean initial, final boolean closeConnections) {
-
         final ArrayList<Host> hosts = new ArrayList<>(resolver.resolve(initial, closeConnections).getHostsList());
         Collections.shuffle(hosts);
         return hosts.get(0);
     }
 
     @Override
-    public void reset() {
-        fallback.reset();
+    public void reset(final AccessType accessType) {
+        fallback.reset(accessType);
     }
 
     @Override
-    public void confirm() {
+    public void confirm(final AccessType accessType) {
     }
 
     @Override
@@ -81,9 +98,4 @@ public class RandomHostHandler implements HostHandler {
         hosts.close();
     }
 
-    @Override
-    public void closeCurrentOnError() {
-        current.closeOnError();
-    }
-
 }
@@ -0,0 +1,180 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.util.HashedWheelTimer;
+import com.arangodb.internal.util.RequestUtils;
+import com.arangodb.velocystream.Request;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Hedges idempotent reads: if a read has not been answered within a percentile of the recent response times, the
+ * same request is sent a second time, preferably to another host. The first successful response wins, the other
+ * one is cancelled.
+ * <p>
+ * The percentile is computed from a ring of the most recent response times of first attempts. Until enough of them
+ * are known, requests are not hedged at all.
+ */
+public class RequestHedging {
+
+    static final int SAMPLES = 1024;
+    static final int MIN_SAMPLES = 100;
+    static final int RECOMPUTE_INTERVAL = 64;
+
+    private static final String TRANSACTION_ID = "x-arango-trx-id";
+
+    private final double percentile;
+    private final HashedWheelTimer timer;
+    private final AtomicLongArray samples;
+    private final AtomicLong count;
+    private volatile long delay;
+
+    /**
+     * @param percentile percentile of the recent response times after which a read is hedged, between 0 and 1
+     *                   (exclusive)
+     */
+    public RequestHedging(final double percentile, final HashedWheelTimer timer) {
+        super();
+        if (!(percentile > 0.0 && percentile < 1.0)) {
+            throw new ArangoDBException(
+                    String.format("Hedging percentile must be between 0 and 1 (exclusive), was %s", percentile));
+        }
+        this.percentile = percentile;
+        this.timer = timer;
+        samples = new AtomicLongArray(SAMPLES);
+        count = new AtomicLong();
+        delay = -1L;
+    }
+
+    /**
+     * Only reads not bound to a host, e.g. by a cursor, and not part of a stream transaction are hedged.
+     */
+    public boolean isHedgeable(final Request request, final HostHandle hostHandle) {
+        return hostHandle == null && RequestUtils.determineAccessType(request) != AccessType.WRITE
+                && !request.getHeaderParam().containsKey(TRANSACTION_ID);
+    }
+
+    /**
+     * @return the current hedging delay in nanoseconds, {@code -1} as long as not enough response times are known
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Records the response time of a request, in nanoseconds.
+     */
+    public void record(final long latency) {
+        final long n = count.getAndIncrement();
+        samples.set((int) (n % SAMPLES), latency);
+        final long recorded = n + 1;
+        if (recorded >= MIN_SAMPLES && (recorded == MIN_SAMPLES || recorded % RECOMPUTE_INTERVAL == 0)) {
+            delay = computeDelay((int) Math.min(recorded, SAMPLES));
+        }
+    }
+
+    private long computeDelay(final int size) {
+        final long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.min(size - 1, (int) (size * percentile))];
+    }
+
+    /**
+     * Executes a request by means of the given attempt, which is invoked a second time with a host handle excluding
+     * the host of the first attempt, if the first one did not complete within the current delay. If the second
+     * invocation throws, the request is not hedged.
+     *
+     * @param attempt sends the request using the given host handle
+     */
+    public <T> CompletableFuture<T> execute(final Function<HostHandle, CompletableFuture<T>> attempt) {
+        final long hedgeDelay = delay;
+        final HostHandle primaryHandle = new HostHandle();
+        final long start = System.nanoTime();
+        final CompletableFuture<T> primary = attempt.apply(primaryHandle);
+        if (hedgeDelay < 0) {
+            return primary.whenComplete((r, e) -> {
+                if (e == null) {
+                    record(System.nanoTime() - start);
+                }
+            });
+        }
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final AtomicReference<CompletableFuture<T>> hedge = new AtomicReference<>();
+        final HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> {
+            if (primary.isDone()) {
+                return;
+            }
+            pending.incrementAndGet();
+            final CompletableFuture<T> h;
+            try {
+                h = attempt.apply(new HostHandle().setExcluded(primaryHandle.getHost()));
+            } catch (final RuntimeException e) {
+                // e.g. no thread left to send the hedge, so the first attempt decides alone
+                if (pending.decrementAndGet() == 0) {
+                    primary.whenComplete((r, x) -> result.completeExceptionally(x));
+                }
+                return;
+            }
+            hedge.set(h);
+            h.whenComplete((r, e) -> {
+                if (e == null) {
+                    primary.cancel(true);
+                    if (result.complete(r)) {
+                        // the first attempt took at least that long
+                        record(System.nanoTime() - start);
+                    }
+                } else if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }, hedgeDelay, TimeUnit.NANOSECONDS);
+
+        primary.whenComplete((r, e) -> {
+            timeout.cancel();
+            if (e == null) {
+                final CompletableFuture<T> h = hedge.get();
+                if (h != null) {
+                    h.cancel(true);
+                }
+                result.complete(r);
+                record(System.nanoTime() - start);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.util.HashedWheelTimer;
+import com.arangodb.util.RetryPolicy;
+import com.arangodb.velocystream.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executes requests according to a {@link RetryPolicy}. Synchronous requests wait for a retry in the calling thread,
+ * asynchronous ones are retried by the timer of the driver without blocking any thread.
+ */
+public class RequestRetry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestRetry.class);
+
+    private final RetryPolicy policy;
+    private final HashedWheelTimer timer;
+
+    public RequestRetry(final RetryPolicy policy, final HashedWheelTimer timer) {
+        super();
+        this.policy = policy;
+        this.timer = timer;
+    }
+
+    /**
+     * @param attempt sends the request, invoked once per attempt
+     */
+    public <T> T execute(final Request request, final Supplier<T> attempt) {
+        policy.onRequest(request);
+        for (int n = 1; ; n++) {
+            try {
+                return attempt.get();
+            } catch (final ArangoDBException e) {
+                final long delay = policy.retryDelay(request, e, n);
+                if (delay < 0) {
+                    throw e;
+                }
+                logRetry(request, e, n, delay);
+                sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * @param attempt sends the request, invoked once per attempt
+     */
+    public <T> CompletableFuture<T> executeAsync(final Request request,
+                                                 final Supplier<CompletableFuture<T>> attempt) {
+        policy.onRequest(request);
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        executeAsync(request, attempt, 1, result);
+        return result;
+    }
+
+    private <T> void executeAsync(final Request request, final Supplier<CompletableFuture<T>> attempt, final int n,
+                                  final CompletableFuture<T> result) {
+        final CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        future.whenComplete((r, e) -> {
+            if (e == null) {
+                result.complete(r);
+                return;
+            }
+            final Throwable error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            final long delay = result.isDone() ? -1L : policy.retryDelay(request, error, n);
+            if (delay < 0) {
+                result.completeExceptionally(error);
+                return;
+            }
+            logRetry(request, error, n, delay);
+            timer.newTimeout(() -> executeAsync(request, attempt, n + 1, result), delay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private static void logRetry(final Request request, final Throwable error, final int attempt, final long delay) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(String.format("Retrying %s %s in %s ms after attempt %s failed: %s",
+                    request.getRequestType(), request.getRequest(), delay, attempt, error.getMessage()));
+        }
+    }
+
+    private static void sleep(final long delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArangoDBException(e);
+        }
+    }
+
+}
@@ -22,72 +22,72 @@ package com.arangodb.internal.net;
 
 import com.arangodb.ArangoDBException;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Mark Vollmary
  */
 public class RoundRobinHostHandler implements HostHandler {
 
     private final HostResolver resolver;
-
-    private int current;
-    private int fails;
-    private Host currentHost;
+    private final AtomicInteger current;
+    private final AtomicInteger fails;
 
     public RoundRobinHostHandler(final HostResolver resolver) {
         super();
         this.resolver = resolver;
         resolver.resolve(true, false);
-        current = 0;
-        fails = 0;
+        current = new AtomicInteger();
+        fails = new AtomicInteger();
     }
 
     @Override
     public Host get(final HostHandle hostHandle, AccessType accessType) {
-
-        final HostSet hosts = resolver.resolve(false, false);
-        final int size = hosts.getHostsList().size();
-
-        if (fails > size) {
-            reset();
+        final List<Host> hosts = resolver.resolve(false, false).getHostsList();
+        final int size = hosts.size();
+        if (fails.get() > size) {
+            reset(accessType);
             throw new ArangoDBException("Cannot contact any host!");
         }
-
-        final int index = (current++) % size;
-        Host host = hosts.getHostsList().get(index);
+        final int index = Math.floorMod(current.getAndIncrement(), size);
+        Host host = hosts.get(index);
         if (hostHandle != null) {
             final HostDescription hostDescription = hostHandle.getHost();
             if (hostDescription != null) {
                 for (int i = index; i < index + size; i++) {
-                    host = hosts.getHostsList().get(i % size);
+                    host = hosts.get(i % size);
                     if (hostDescription.equals(host.getDescription())) {
                         break;
                     }
                 }
             } else {
+                if (size > 1 && host.getDescription().equals(hostHandle.getExcluded())) {
+                    host = hosts.get((index + 1) % size);
+                }
                 hostHandle.setHost(host.getDescription());
             }
         }
-        currentHost = host;
         return host;
     }
 
     @Override
-    public void success() {
-        fails = 0;
+    public void success(final Host host, final AccessType accessType) {
+        fails.set(0);
     }
 
     @Override
-    public void fail() {
-        fails++;
+    public void fail(final Host host, final AccessType accessType) {
+        fails.incrementAndGet();
     }
 
     @Override
-    public void reset() {
-        fails = 0;
+    public void reset(final AccessType accessType) {
+        fails.set(0);
     }
 
     @Override
-    public void confirm() {
+    public void confirm(final AccessType accessType) {
     }
 
     @Override
@@ -96,9 +96,4 @@ public class RoundRobinHostHandler implements HostHandler {
         hosts.close();
     }
 
-    @Override
-    public void closeCurrentOnError() {
-        currentHost.closeOnError();
-    }
-
 }
@@ -0,0 +1,78 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of byte arrays in power-of-two size classes from 1 KiB to 1 MiB. Each class keeps at most 1 MiB of
+ * arrays (but at least one array), so that the pool as a whole never holds more than about 11 MiB. Arrays longer
+ * than the largest class are neither pooled nor taken back.
+ *
+ * @author Mark Vollmary
+ */
+public class ByteArrayPool {
+
+    private static final int MIN_SHIFT = 10;
+    private static final int MAX_SHIFT = 20;
+    private static final int BYTES_PER_CLASS = 1 << MAX_SHIFT;
+
+    private final BlockingQueue<byte[]>[] classes;
+
+    @SuppressWarnings("unchecked")
+    public ByteArrayPool() {
+        super();
+        classes = new BlockingQueue[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ArrayBlockingQueue<>(Math.max(1, BYTES_PER_CLASS >> (MIN_SHIFT + i)));
+        }
+    }
+
+    /**
+     * @return an array of at least the given length, rounded up to the next size class; not cleared
+     */
+    public byte[] acquire(final int length) {
+        if (length > BYTES_PER_CLASS) {
+            return new byte[length];
+        }
+        final int shift = shift(length);
+        final byte[] array = classes[shift - MIN_SHIFT].poll();
+        return array != null ? array : new byte[1 << shift];
+    }
+
+    /**
+     * Takes the array back, unless it does not belong to a size class or its class is full. The array must not be
+     * used anymore afterwards.
+     */
+    public void release(final byte[] array) {
+        final int length = array.length;
+        if (length < 1 << MIN_SHIFT || length > BYTES_PER_CLASS || Integer.bitCount(length) != 1) {
+            return;
+        }
+        classes[Integer.numberOfTrailingZeros(length) - MIN_SHIFT].offer(array);
+    }
+
+    private static int shift(final int length) {
+        return Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(0, length - 1)));
+    }
+
+}
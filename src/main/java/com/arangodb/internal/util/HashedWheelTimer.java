@@ -0,0 +1,255 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer for a large number of short-lived timeouts, which are usually cancelled before they expire.
+ * <p>
+ * Timeouts are hashed into the buckets of a wheel, which is advanced by a single thread once per tick, so that
+ * scheduling and cancelling a timeout costs O(1) and no task per timeout is kept in a {@code ScheduledExecutorService}.
+ * Timeouts expire with an accuracy of one tick. The thread is started lazily and terminates after being idle for a
+ * second, so that an unused timer does not keep any thread alive.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+    private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // accessed by the timer thread only
+    private long startTime;
+    private long tick;
+    private int scheduled;
+
+    public HashedWheelTimer(final String name, final long tickDuration, final TimeUnit unit, final int ticksPerWheel) {
+        super();
+        this.name = name;
+        tickNanos = Math.max(1L, unit.toNanos(tickDuration));
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Schedules the given task to be executed on the timer thread after the given delay, unless the returned
+     * {@link Timeout} is cancelled before.
+     */
+    public Timeout newTimeout(final Runnable task, final long delay, final TimeUnit unit) {
+        final Timeout timeout = new Timeout(this, task, System.nanoTime() + unit.toNanos(delay));
+        added.add(timeout);
+        if (!running.get() && running.compareAndSet(false, true)) {
+            final Thread thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return timeout;
+    }
+
+    private void run() {
+        LOGGER.debug("[" + name + "]: Start timer");
+        startTime = System.nanoTime();
+        tick = 0L;
+        long idleSince = startTime;
+        while (true) {
+            final long now = waitForNextTick();
+            processCancelled();
+            transferAdded();
+            expire(wheel[(int) (tick & mask)], now);
+            tick++;
+            if (scheduled > 0 || !added.isEmpty()) {
+                idleSince = now;
+            } else if (now - idleSince > IDLE_TIMEOUT && tryStop()) {
+                break;
+            }
+        }
+        LOGGER.debug("[" + name + "]: Stop timer");
+    }
+
+    private boolean tryStop() {
+        running.set(false);
+        // a timeout added concurrently may have seen the timer still running
+        return added.isEmpty() || !running.compareAndSet(false, true);
+    }
+
+    private long waitForNextTick() {
+        final long deadline = startTime + tickNanos * (tick + 1);
+        while (true) {
+            final long now = System.nanoTime();
+            if (now - deadline >= 0) {
+                return now;
+            }
+            LockSupport.parkNanos(deadline - now);
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+                scheduled--;
+            }
+        }
+    }
+
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                continue;
+            }
+            final long calculated = Math.max(0L, (timeout.deadline - startTime) / tickNanos);
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            wheel[(int) (Math.max(calculated, tick) & mask)].add(timeout);
+            scheduled++;
+        }
+    }
+
+    private void expire(final Bucket bucket, final long now) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            if (timeout.remainingRounds <= 0L) {
+                bucket.remove(timeout);
+                scheduled--;
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // accessed by the timer thread only
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(final HashedWheelTimer timer, final Runnable task, final long deadline) {
+            super();
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task, if it has not been executed yet.
+         *
+         * @return {@code true} if the task was cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (final Exception e) {
+                LOGGER.error("[" + timer.name + "]: Error executing timeout task", e);
+            }
+        }
+
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(final Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+    }
+
+}
@@ -24,6 +24,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * @author Mark Vollmary
@@ -31,6 +35,11 @@ import java.io.*;
 public final class IOUtils {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(IOUtils.class);
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final BlockingQueue<byte[]> BUFFERS = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
 
     private IOUtils() {
     }
@@ -73,4 +82,75 @@ public final class IOUtils {
         return buffer.toByteArray();
     }
 
+    /**
+     * Reads the stream to its end into a new array. If the length of the content is known in advance, the array
+     * has exactly this length and the content is read into it without any intermediate copy.
+     *
+     * @param expectedLength length of the content, e.g. from the {@code Content-Length} header, or {@code -1}
+     * @return buffer wrapping the array, holding the content from position {@code 0} up to its limit
+     */
+    public static ByteBuffer readFully(final InputStream input, final long expectedLength) throws IOException {
+        return read(input, new byte[initialSize(expectedLength)]);
+    }
+
+    /**
+     * Reads the stream to its end and decodes it as UTF-8. Contents of up to 64 KiB are read into a buffer borrowed
+     * from a small pool shared by all threads, so that only the resulting string is allocated. Larger contents are
+     * read into a new array, which is not kept afterwards.
+     *
+     * @param expectedLength length of the content, e.g. from the {@code Content-Length} header, or {@code -1}
+     */
+    public static String toUtf8String(final InputStream input, final long expectedLength) throws IOException {
+        byte[] pooled = BUFFERS.poll();
+        if (pooled == null) {
+            pooled = new byte[BUFFER_SIZE];
+        }
+        final ByteBuffer content = read(input,
+                expectedLength > pooled.length ? new byte[initialSize(expectedLength)] : pooled);
+        final byte[] array = content.array();
+        final String result = new String(array, 0, content.limit(), StandardCharsets.UTF_8);
+        // keep the grown buffer if it is small enough, otherwise return the borrowed one unchanged
+        BUFFERS.offer(array.length <= MAX_POOLED_BUFFER_SIZE ? array : pooled);
+        return result;
+    }
+
+    private static int initialSize(final long expectedLength) throws IOException {
+        if (expectedLength > MAX_ARRAY_SIZE) {
+            throw new IOException("Content too large: " + expectedLength + " bytes");
+        }
+        return expectedLength >= 0 ? (int) expectedLength : BUFFER_SIZE;
+    }
+
+    private static ByteBuffer read(final InputStream input, final byte[] initial) throws IOException {
+        byte[] buffer = initial;
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                // the buffer is full, which is expected at the end of a presized content
+                final int b = input.read();
+                if (b == -1) {
+                    break;
+                }
+                buffer = grow(buffer, length + 1);
+                buffer[length++] = (byte) b;
+            }
+            final int read = input.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                break;
+            }
+            length += read;
+        }
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+
+    private static byte[] grow(final byte[] buffer, final int minLength) throws IOException {
+        if (minLength > MAX_ARRAY_SIZE) {
+            throw new IOException("Content too large: more than " + MAX_ARRAY_SIZE + " bytes");
+        }
+        final int length = (int) Math.min(MAX_ARRAY_SIZE, Math.max((long) buffer.length * 2, BUFFER_SIZE));
+        final byte[] grown = new byte[Math.max(length, minLength)];
+        System.arraycopy(buffer, 0, grown, 0, buffer.length);
+        return grown;
+    }
+
 }
@@ -0,0 +1,141 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.util;
+
+import com.arangodb.velocypack.VPackSlice;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells whether a deserialized result may still refer to the buffer of the response it was read from, which is the
+ * case if it is or contains a {@link VPackSlice}. The result is walked through collections, maps, arrays and the
+ * fields of its classes. The answer errs on the safe side: types of the JDK other than values and collections as
+ * well as their subclasses, fields which cannot be read, and results nested too deeply or having too many elements count as referring to the buffer.
+ *
+ * @author Mark Vollmary
+ */
+public final class VPackSliceReferences {
+
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_OBJECTS = 1024;
+
+    // null for classes whose fields cannot or should not be walked
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(final Class<?> type) {
+            return fields(type);
+        }
+    };
+
+    private VPackSliceReferences() {
+    }
+
+    public static boolean mayReference(final Object result) {
+        return mayReference(result, 0, new int[]{MAX_OBJECTS});
+    }
+
+    private static boolean mayReference(final Object value, final int depth, final int[] budget) {
+        if (value == null || isValue(value)) {
+            return false;
+        }
+        if (value instanceof VPackSlice || depth >= MAX_DEPTH || --budget[0] < 0) {
+            return true;
+        }
+        final boolean jdk = isJdk(value.getClass());
+        if (jdk && value instanceof Collection) {
+            for (final Object element : (Collection<?>) value) {
+                if (mayReference(element, depth + 1, budget)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (jdk && value instanceof Map) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (mayReference(entry.getKey(), depth + 1, budget)
+                        || mayReference(entry.getValue(), depth + 1, budget)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (value instanceof Object[]) {
+            for (final Object element : (Object[]) value) {
+                if (mayReference(element, depth + 1, budget)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        final Field[] fields = FIELDS.get(value.getClass());
+        if (fields == null) {
+            return true;
+        }
+        try {
+            for (final Field field : fields) {
+                if (mayReference(field.get(value), depth + 1, budget)) {
+                    return true;
+                }
+            }
+        } catch (final IllegalAccessException e) {
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isValue(final Object value) {
+        return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || value instanceof Date
+                || value.getClass().isArray() && value.getClass().getComponentType().isPrimitive();
+    }
+
+    private static boolean isJdk(final Class<?> type) {
+        return type.getName().startsWith("java.");
+    }
+
+    private static Field[] fields(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+        try {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                if (isJdk(c)) {
+                    return null;
+                }
+                for (final Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+        } catch (final RuntimeException e) {
+            // e.g. fields of a module not open to the driver
+            return null;
+        }
+        return fields.toArray(new Field[0]);
+    }
+
+}
@@ -24,6 +24,13 @@ import com.arangodb.entity.BaseDocument;
 import com.arangodb.entity.BaseEdgeDocument;
 import com.arangodb.entity.CollectionStatus;
 import com.arangodb.entity.CollectionType;
+import com.arangodb.entity.CursorEntity;
+import com.arangodb.entity.DocumentCreateEntity;
+import com.arangodb.entity.DocumentDeleteEntity;
+import com.arangodb.entity.DocumentEntity;
+import com.arangodb.entity.DocumentField;
+import com.arangodb.entity.DocumentUpdateEntity;
+import com.arangodb.entity.ErrorEntity;
 import com.arangodb.entity.License;
 import com.arangodb.entity.LogLevel;
 import com.arangodb.entity.MinReplicationFactor;
@@ -59,6 +66,9 @@ import com.arangodb.model.CollectionSchema;
 import com.arangodb.velocypack.VPackDeserializer;
 import com.arangodb.velocypack.VPackParser;
 import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import com.arangodb.velocypack.exception.VPackParserException;
+import com.arangodb.velocypack.exception.VPackValueTypeException;
 import com.arangodb.velocystream.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +77,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -80,17 +91,105 @@ public class VPackDeserializers {
     private static final Logger LOGGER = LoggerFactory.getLogger(VPackDeserializers.class);
     private static final String DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
 
-    public static final VPackDeserializer<Response> RESPONSE = (parent, vpack, context) -> {
+    public static final VPackDeserializer<Response> RESPONSE = (parent, vpack, context) -> deserializeResponse(vpack);
+
+    /**
+     * Decodes a VST response header {@code [version, type, responseCode, {meta}]} without going through the mapper.
+     */
+    public static Response deserializeResponse(final VPackSlice vpack) {
         final Response response = new Response();
         response.setVersion(vpack.get(0).getAsInt());
         response.setType(vpack.get(1).getAsInt());
         response.setResponseCode(vpack.get(2).getAsInt());
         if (vpack.size() > 3) {
-            response.setMeta(context.deserialize(vpack.get(3), Map.class));
+            final VPackSlice meta = vpack.get(3);
+            final Map<String, String> values = new HashMap<>();
+            for (final Iterator<Entry<String, VPackSlice>> iterator = meta.objectIterator(); iterator.hasNext(); ) {
+                final Entry<String, VPackSlice> entry = iterator.next();
+                final VPackSlice value = entry.getValue();
+                values.put(entry.getKey(), value.isString() ? value.getAsString() : value.toString());
+            }
+            response.setMeta(values);
         }
         return response;
+    }
+
+    public static final VPackDeserializer<ErrorEntity> ERROR_ENTITY = (parent, vpack, context) -> {
+        checkObject(vpack);
+        final ErrorEntity entity = new ErrorEntity();
+        entity.setErrorMessage(getString(vpack, "errorMessage"));
+        entity.setException(getString(vpack, "exception"));
+        final VPackSlice code = vpack.get("code");
+        if (code.isInteger()) {
+            entity.setCode(code.getAsInt());
+        }
+        final VPackSlice errorNum = vpack.get("errorNum");
+        if (errorNum.isInteger()) {
+            entity.setErrorNum(errorNum.getAsInt());
+        }
+        return entity;
+    };
+
+    @SuppressWarnings("rawtypes")
+    public static final VPackDeserializer<DocumentCreateEntity> DOCUMENT_CREATE_ENTITY = (parent, vpack, context) ->
+            deserializeDocumentEntity(vpack, new DocumentCreateEntity<>());
+
+    @SuppressWarnings("rawtypes")
+    public static final VPackDeserializer<DocumentUpdateEntity> DOCUMENT_UPDATE_ENTITY = (parent, vpack, context) -> {
+        final DocumentUpdateEntity<?> entity = deserializeDocumentEntity(vpack, new DocumentUpdateEntity<>());
+        entity.setOldRev(getString(vpack, "_oldRev"));
+        return entity;
+    };
+
+    @SuppressWarnings("rawtypes")
+    public static final VPackDeserializer<DocumentDeleteEntity> DOCUMENT_DELETE_ENTITY = (parent, vpack, context) ->
+            deserializeDocumentEntity(vpack, new DocumentDeleteEntity<>());
+
+    public static final VPackDeserializer<CursorEntity> CURSOR_ENTITY = (parent, vpack, context) -> {
+        checkObject(vpack);
+        final CursorEntity entity = new CursorEntity();
+        entity.setId(getString(vpack, "id"));
+        final VPackSlice count = vpack.get("count");
+        if (count.isInteger()) {
+            entity.setCount(count.getAsInt());
+        }
+        final VPackSlice extra = vpack.get("extra");
+        if (extra.isObject()) {
+            entity.setExtra(context.deserialize(extra, CursorEntity.Extras.class));
+        }
+        entity.setCached(getBoolean(vpack, "cached"));
+        entity.setHasMore(getBoolean(vpack, "hasMore"));
+        final VPackSlice result = vpack.get("result");
+        if (!result.isNone() && !result.isNull()) {
+            entity.setResult(result);
+        }
+        return entity;
     };
 
+    private static <T extends DocumentEntity> T deserializeDocumentEntity(final VPackSlice vpack, final T entity) {
+        checkObject(vpack);
+        entity.setKey(getString(vpack, DocumentField.Type.KEY.getSerializeName()));
+        entity.setId(getString(vpack, DocumentField.Type.ID.getSerializeName()));
+        entity.setRev(getString(vpack, DocumentField.Type.REV.getSerializeName()));
+        return entity;
+    }
+
+    private static void checkObject(final VPackSlice vpack) {
+        if (!vpack.isObject()) {
+            throw new VPackParserException(new VPackValueTypeException(ValueType.OBJECT));
+        }
+    }
+
+    private static String getString(final VPackSlice vpack, final String attribute) {
+        final VPackSlice value = vpack.get(attribute);
+        return value.isString() ? value.getAsString() : null;
+    }
+
+    private static Boolean getBoolean(final VPackSlice vpack, final String attribute) {
+        final VPackSlice value = vpack.get(attribute);
+        return value.isBoolean() ? value.getAsBoolean() : null;
+    }
+
     public static final VPackDeserializer<CollectionType> COLLECTION_TYPE = (parent, vpack, context) -> CollectionType.fromType(vpack.getAsInt());
 
     public static final VPackDeserializer<CollectionStatus> COLLECTION_STATUS = (parent, vpack, context) -> CollectionStatus.fromStatus(vpack.getAsInt());
@@ -70,6 +70,11 @@ public class VPackDriverModule implements VPackModule, VPackParserModule {
         context.registerSerializer(CollectionSchema.class, VPackSerializers.COLLECTION_VALIDATION);
 
         context.registerDeserializer(Response.class, VPackDeserializers.RESPONSE);
+        context.registerDeserializer(ErrorEntity.class, VPackDeserializers.ERROR_ENTITY);
+        context.registerDeserializer(DocumentCreateEntity.class, VPackDeserializers.DOCUMENT_CREATE_ENTITY);
+        context.registerDeserializer(DocumentUpdateEntity.class, VPackDeserializers.DOCUMENT_UPDATE_ENTITY);
+        context.registerDeserializer(DocumentDeleteEntity.class, VPackDeserializers.DOCUMENT_DELETE_ENTITY);
+        context.registerDeserializer(CursorEntity.class, VPackDeserializers.CURSOR_ENTITY);
         context.registerDeserializer(CollectionType.class, VPackDeserializers.COLLECTION_TYPE);
         context.registerDeserializer(CollectionStatus.class, VPackDeserializers.COLLECTION_STATUS);
         context.registerDeserializer(BaseDocument.class, VPackDeserializers.BASE_DOCUMENT);
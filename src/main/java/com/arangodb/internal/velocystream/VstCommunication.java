@@ -23,16 +23,20 @@ package com.arangodb.internal.velocystream;
 import com.arangodb.ArangoDBException;
 import com.arangodb.internal.ArangoDefaults;
 import com.arangodb.internal.net.AccessType;
+import com.arangodb.internal.net.ConnectGate;
 import com.arangodb.internal.net.Host;
 import com.arangodb.internal.net.HostHandle;
 import com.arangodb.internal.net.HostHandler;
 import com.arangodb.internal.util.RequestUtils;
 import com.arangodb.internal.util.ResponseUtils;
+import com.arangodb.internal.velocypack.VPackDeserializers;
 import com.arangodb.internal.velocystream.internal.Chunk;
 import com.arangodb.internal.velocystream.internal.Message;
+import com.arangodb.internal.velocystream.internal.RequestHeadEncoder;
 import com.arangodb.internal.velocystream.internal.VstConnection;
 import com.arangodb.util.ArangoSerialization;
 import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.exception.VPackException;
 import com.arangodb.velocypack.exception.VPackParserException;
 import com.arangodb.velocystream.Request;
 import com.arangodb.velocystream.Response;
@@ -57,15 +61,18 @@ public abstract class VstCommunication<R, C extends VstConnection> implements Cl
     protected static final AtomicLong mId = new AtomicLong(0L);
     protected final ArangoSerialization util;
 
+    protected final Integer timeout;
     protected final String user;
     protected final String password;
 
     protected final Integer chunksize;
     protected final HostHandler hostHandler;
+    private final RequestHeadEncoder headEncoder = new RequestHeadEncoder();
 
     protected VstCommunication(final Integer timeout, final String user, final String password, final Boolean useSsl,
                                final SSLContext sslContext, final ArangoSerialization util, final Integer chunksize,
                                final HostHandler hostHandler) {
+        this.timeout = timeout;
         this.user = user;
         this.password = password;
         this.util = util;
@@ -73,76 +80,111 @@ public abstract class VstCommunication<R, C extends VstConnection> implements Cl
         this.chunksize = chunksize != null ? chunksize : ArangoDefaults.CHUNK_DEFAULT_CONTENT_SIZE;
     }
 
-    @SuppressWarnings("unchecked")
-    protected synchronized C connect(final HostHandle hostHandle, final AccessType accessType) {
-        Host host = hostHandler.get(hostHandle, accessType);
-        while (true) {
-            if (host == null) {
-                hostHandler.reset();
-                throw new ArangoDBException("Was not able to connect to any host");
+    /**
+     * Returns without locking if the connection is ready. Otherwise only this connection is locked while it is opened
+     * and authenticated. Callers which waited for a failed attempt of another thread, or arrive while the connection
+     * backs off after repeated failures, fail without dialing.
+     */
+    private void connect(final Host host, final C connection, final AccessType accessType) throws IOException {
+        if (connection.isReady()) {
+            return;
+        }
+        final ConnectGate gate = connection.getConnectGate();
+        final long failedAttempts = gate.getFailedAttempts();
+        synchronized (gate) {
+            if (connection.isReady()) {
+                return;
             }
-            final C connection = (C) host.connection();
-            if (connection.isOpen()) {
-                return connection;
-            } else {
-                try {
-                    connection.open();
-                    hostHandler.success();
-                    if (user != null) {
-                        tryAuthenticate(connection);
-                    }
-                    hostHandler.confirm();
-                    return connection;
-                } catch (final IOException e) {
-                    hostHandler.fail();
-                    if (hostHandle != null && hostHandle.getHost() != null) {
-                        hostHandle.setHost(null);
-                    }
-                    final Host failedHost = host;
-                    host = hostHandler.get(hostHandle, accessType);
-                    if (host != null) {
-                        LOGGER.warn(String.format("Could not connect to %s", failedHost.getDescription()), e);
-                        LOGGER.warn(
-                                String.format("Could not connect to %s or SSL Handshake failed. Try connecting to %s",
-                                        failedHost.getDescription(), host.getDescription()));
-                    } else {
-                        LOGGER.error(e.getMessage(), e);
-                        throw new ArangoDBException(e);
-                    }
-                }
+            gate.checkAttempt(failedAttempts);
+            try {
+                connection.open();
+            } catch (final IOException e) {
+                gate.failure();
+                throw e;
+            }
+            gate.success();
+            hostHandler.success(host, accessType);
+            if (user != null) {
+                tryAuthenticate(host, connection);
             }
+            connection.setReady();
+            hostHandler.confirm(accessType);
         }
     }
 
-    private void tryAuthenticate(final C connection) {
+    @SuppressWarnings("unchecked")
+    private C connection(final Host host) {
+        return (C) host.connection();
+    }
+
+    private void tryAuthenticate(final Host host, final C connection) {
         try {
-            authenticate(connection);
+            authenticate(host, connection);
         } catch (final ArangoDBException authException) {
             connection.close();
             throw authException;
         }
     }
 
-    protected abstract void authenticate(final C connection);
+    protected abstract void authenticate(final Host host, final C connection);
 
     @Override
     public void close() throws IOException {
         hostHandler.close();
     }
 
+    /**
+     * Sends the request over a connection of the host chosen by the host handler, failing over to the next host if
+     * the connection cannot be opened. The request is sent over the very connection made ready, since the pool may
+     * hand out another one on the next call.
+     */
     public R execute(final Request request, final HostHandle hostHandle) throws ArangoDBException {
-        final C connection = connect(hostHandle, RequestUtils.determineAccessType(request));
-        return execute(request, connection);
+        final AccessType accessType = RequestUtils.determineAccessType(request);
+        Host host = hostHandler.get(hostHandle, accessType);
+        while (true) {
+            if (host == null) {
+                hostHandler.reset(accessType);
+                throw new ArangoDBException("Was not able to connect to any host");
+            }
+            final C connection = connection(host);
+            try {
+                connect(host, connection, accessType);
+            } catch (final IOException e) {
+                hostHandler.fail(host, accessType);
+                if (hostHandle != null && hostHandle.getHost() != null) {
+                    hostHandle.setHost(null);
+                }
+                final Host failedHost = host;
+                host = hostHandler.get(hostHandle, accessType);
+                if (host != null) {
+                    LOGGER.warn(String.format("Could not connect to %s", failedHost.getDescription()), e);
+                    LOGGER.warn(String.format("Could not connect to %s or SSL Handshake failed. Try connecting to %s",
+                            failedHost.getDescription(), host.getDescription()));
+                    continue;
+                }
+                LOGGER.error(e.getMessage(), e);
+                throw new ArangoDBException(e);
+            }
+            return execute(request, host, connection);
+        }
     }
 
-    protected abstract R execute(final Request request, C connection) throws ArangoDBException;
+    /**
+     * @param host host of the connection, reported to the host handler if the request is redirected
+     */
+    protected abstract R execute(final Request request, Host host, C connection) throws ArangoDBException;
 
     protected void checkError(final Response response) throws ArangoDBException {
         ResponseUtils.checkError(util, response);
     }
 
     protected Response createResponse(final Message message) throws VPackParserException {
-        final Response response = util.deserialize(message.getHead(), Response.class);
+        final Response response;
+        try {
+            response = VPackDeserializers.deserializeResponse(message.getHead());
+        } catch (final VPackException e) {
+            throw new VPackParserException(e);
+        }
         if (message.getBody() != null) {
             response.setBody(message.getBody());
         }
@@ -150,10 +192,14 @@ public abstract class VstCommunication<R, C extends VstConnection> implements Cl
     }
 
     protected final Message createMessage(final Request request) throws VPackParserException {
-        request.putHeaderParam("accept", "application/x-velocypack");
-        request.putHeaderParam("content-type", "application/x-velocypack");
         final long id = mId.incrementAndGet();
-        return new Message(id, util.serialize(request), request.getBody());
+        if (request.getClass() != Request.class) {
+            // subclasses like AuthenticationRequest have their own serializer
+            request.putHeaderParam("accept", "application/x-velocypack");
+            request.putHeaderParam("content-type", "application/x-velocypack");
+            return new Message(id, util.serialize(request), request.getBody());
+        }
+        return new Message(id, headEncoder.encode(request), request.getBody());
     }
 
     protected Collection<Chunk> buildChunks(final Message message) {
@@ -21,11 +21,14 @@
 package com.arangodb.internal.velocystream;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.internal.net.AccessType;
 import com.arangodb.internal.net.ArangoDBRedirectException;
+import com.arangodb.internal.net.Host;
 import com.arangodb.internal.net.HostDescription;
 import com.arangodb.internal.net.HostHandle;
 import com.arangodb.internal.net.HostHandler;
 import com.arangodb.internal.util.HostUtils;
+import com.arangodb.internal.util.RequestUtils;
 import com.arangodb.internal.velocystream.internal.AuthenticationRequest;
 import com.arangodb.internal.velocystream.internal.Message;
 import com.arangodb.internal.velocystream.internal.VstConnectionSync;
@@ -122,36 +125,49 @@ public class VstCommunicationSync extends VstCommunication<Response, VstConnecti
     }
 
     @Override
-    protected Response execute(final Request request, final VstConnectionSync connection) throws ArangoDBException {
+    protected Response execute(final Request request, final Host host, final VstConnectionSync connection)
+            throws ArangoDBException {
+        final AccessType accessType = RequestUtils.determineAccessType(request);
         try {
             final Message requestMessage = createMessage(request);
-            final Message responseMessage = send(requestMessage, connection);
-            final Response response = createResponse(responseMessage);
-            checkError(response);
-            return response;
+            hostHandler.started(host, accessType);
+            final long start = System.nanoTime();
+            ArangoDBException error = null;
+            try {
+                final Message responseMessage = send(requestMessage, connection,
+                        request.getTimeout() != null ? request.getTimeout() : timeout);
+                final Response response = createResponse(responseMessage);
+                checkError(response);
+                return response;
+            } catch (final ArangoDBException e) {
+                error = e;
+                throw e;
+            } finally {
+                hostHandler.finished(host, accessType, System.nanoTime() - start, error);
+            }
         } catch (final VPackParserException e) {
             throw new ArangoDBException(e);
         } catch (final ArangoDBRedirectException e) {
             final String location = e.getLocation();
             final HostDescription redirectHost = HostUtils.createFromLocation(location);
-            hostHandler.closeCurrentOnError();
-            hostHandler.fail();
+            hostHandler.redirect(host, redirectHost, accessType);
             return execute(request, new HostHandle().setHost(redirectHost));
         }
     }
 
-    private Message send(final Message message, final VstConnectionSync connection) throws ArangoDBException {
+    private Message send(final Message message, final VstConnectionSync connection, final Integer timeout)
+            throws ArangoDBException {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug(String.format("Send Message (id=%s, head=%s, body=%s)", message.getId(), message.getHead(),
                     message.getBody() != null ? message.getBody() : "{}"));
         }
-        return connection.write(message, buildChunks(message));
+        return connection.write(message, buildChunks(message), timeout);
     }
 
     @Override
-    protected void authenticate(final VstConnectionSync connection) {
+    protected void authenticate(final Host host, final VstConnectionSync connection) {
         final Response response = execute(
-                new AuthenticationRequest(user, password != null ? password : "", ENCRYPTION_PLAIN), connection);
+                new AuthenticationRequest(user, password != null ? password : "", ENCRYPTION_PLAIN), host, connection);
         checkError(response);
     }
 
@@ -23,8 +23,11 @@ package com.arangodb.internal.velocystream;
 import com.arangodb.internal.net.Connection;
 import com.arangodb.internal.net.ConnectionFactory;
 import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.util.ByteArrayPool;
+import com.arangodb.internal.util.HashedWheelTimer;
 import com.arangodb.internal.velocystream.internal.MessageStore;
 import com.arangodb.internal.velocystream.internal.VstConnectionSync;
+import com.arangodb.internal.velocystream.internal.VstEventLoopGroup;
 
 import javax.net.ssl.SSLContext;
 
@@ -36,11 +39,18 @@ public class VstConnectionFactorySync implements ConnectionFactory {
     private final VstConnectionSync.Builder builder;
 
     public VstConnectionFactorySync(final HostDescription host, final Integer timeout, final Long connectionTtl,
-                                    final Integer keepAliveInterval, final Boolean useSsl, final SSLContext sslContext) {
+                                    final Integer keepAliveInterval, final Boolean useSsl, final SSLContext sslContext,
+                                    final VstEventLoopGroup eventLoopGroup, final Integer writeBatchSize,
+                                    final Integer writeLingerMicros, final HashedWheelTimer timer,
+                                    final Integer reconnectDelay, final Integer reconnectMaxDelay,
+                                    final ByteArrayPool bufferPool) {
         super();
         builder = new VstConnectionSync.Builder().timeout(timeout).ttl(connectionTtl)
                 .keepAliveInterval(keepAliveInterval).useSsl(useSsl)
-                .sslContext(sslContext);
+                .sslContext(sslContext).eventLoopGroup(eventLoopGroup)
+                .writeBatchSize(writeBatchSize).writeLingerMicros(writeLingerMicros).timer(timer)
+                .reconnectDelay(reconnectDelay).reconnectMaxDelay(reconnectMaxDelay)
+                .bufferPool(bufferPool);
     }
 
     @Override
@@ -20,6 +20,8 @@
 
 package com.arangodb.internal.velocystream.internal;
 
+import com.arangodb.internal.util.ByteArrayPool;
+
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
@@ -31,16 +33,36 @@ import java.util.Map;
 public class ChunkStore {
 
     private final MessageStore messageStore;
+    private final ByteArrayPool bufferPool;
     private final Map<Long, ByteBuffer> data;
 
+    // single-chunk messages are completed right after their only chunk, without going through the map
+    private long singleMessageId;
+    private ByteBuffer single;
+
     public ChunkStore(final MessageStore messageStore) {
+        this(messageStore, null);
+    }
+
+    /**
+     * @param bufferPool pool the buffers of messages are taken from, {@code null} to allocate a new buffer for every
+     *                   message. A pooled buffer may be longer than its message and is given back by the consumer of
+     *                   the message once nothing refers to it anymore.
+     */
+    public ChunkStore(final MessageStore messageStore, final ByteArrayPool bufferPool) {
         super();
         this.messageStore = messageStore;
+        this.bufferPool = bufferPool;
         data = new HashMap<>();
     }
 
     public ByteBuffer storeChunk(final Chunk chunk) throws BufferUnderflowException, IndexOutOfBoundsException {
         final long messageId = chunk.getMessageId();
+        if (chunk.isFirstChunk() && chunk.getChunk() == 1) {
+            singleMessageId = messageId;
+            single = allocate(chunk.getContentLength());
+            return single;
+        }
         ByteBuffer chunkBuffer = data.get(messageId);
         if (chunkBuffer == null) {
             if (!chunk.isFirstChunk()) {
@@ -49,20 +71,32 @@ public class ChunkStore {
             }
             final int length = (int) (chunk.getMessageLength() > 0 ? chunk.getMessageLength()
                     : chunk.getContentLength());
-            chunkBuffer = ByteBuffer.allocate(length);
+            chunkBuffer = allocate(length);
             data.put(messageId, chunkBuffer);
         }
         return chunkBuffer;
     }
 
+    private ByteBuffer allocate(final int length) {
+        return bufferPool != null ? ByteBuffer.wrap(bufferPool.acquire(length), 0, length) : ByteBuffer.allocate(length);
+    }
+
     public void checkCompleteness(final long messageId) {
+        if (single != null && singleMessageId == messageId) {
+            final ByteBuffer chunkBuffer = single;
+            single = null;
+            if (chunkBuffer.position() == chunkBuffer.limit()) {
+                messageStore.consume(new Message(messageId, chunkBuffer.array(), chunkBuffer.limit()));
+            }
+            return;
+        }
         checkCompleteness(messageId, data.get(messageId));
     }
 
     private void checkCompleteness(final long messageId, final ByteBuffer chunkBuffer)
             throws BufferUnderflowException, IndexOutOfBoundsException {
         if (chunkBuffer.position() == chunkBuffer.limit()) {
-            messageStore.consume(new Message(messageId, chunkBuffer.array()));
+            messageStore.consume(new Message(messageId, chunkBuffer.array(), chunkBuffer.limit()));
             data.remove(messageId);
         }
     }
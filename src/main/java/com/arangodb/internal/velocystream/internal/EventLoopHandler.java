@@ -0,0 +1,42 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import java.io.IOException;
+
+/**
+ * Non-blocking channel registered on a {@link VstEventLoop}. All methods are invoked on the event loop thread.
+ */
+public interface EventLoopHandler {
+
+    /**
+     * Invoked when a pending connect of the channel can be finished.
+     */
+    default void onConnectable() {
+    }
+
+    void onReadable();
+
+    void onWritable();
+
+    void fail(IOException e);
+
+}
@@ -34,11 +34,19 @@ public class Message {
     private final VPackSlice body;
 
     public Message(final long id, final byte[] chunkBuffer) throws BufferUnderflowException, IndexOutOfBoundsException {
+        this(id, chunkBuffer, chunkBuffer.length);
+    }
+
+    /**
+     * @param length length of the message, which may be shorter than the buffer holding it
+     */
+    public Message(final long id, final byte[] chunkBuffer, final int length)
+            throws BufferUnderflowException, IndexOutOfBoundsException {
         super();
         this.id = id;
         head = new VPackSlice(chunkBuffer);
         final int headSize = head.getByteSize();
-        if (chunkBuffer.length > headSize) {
+        if (length > headSize) {
             body = new VPackSlice(chunkBuffer, headSize);
         } else {
             body = null;
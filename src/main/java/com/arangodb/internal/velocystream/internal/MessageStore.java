@@ -24,89 +24,205 @@ import com.arangodb.ArangoDBException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.CompletableFuture;
 
 /**
+ * In-flight requests of a connection, keyed by message id.
+ * <p>
+ * Every request is represented by a single future, which is completed directly with the response or the error. The
+ * futures are kept in an open-addressing table with primitive keys, so that a round-trip neither boxes the message
+ * id nor allocates map entries.
+ *
  * @author Mark Vollmary
  */
 public class MessageStore {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MessageStore.class);
+    private static final int INITIAL_CAPACITY = 16;
 
-    private final Map<Long, FutureTask<Message>> task;
-    private final Map<Long, Message> response;
-    private final Map<Long, Exception> error;
+    private long[] ids;
+    private CompletableFuture<Message>[] futures;
+    private volatile int size;
 
     public MessageStore() {
         super();
-        task = new ConcurrentHashMap<>();
-        response = new ConcurrentHashMap<>();
-        error = new ConcurrentHashMap<>();
+        init(INITIAL_CAPACITY);
     }
 
-    public void storeMessage(final long messageId, final FutureTask<Message> future) {
-        task.put(messageId, future);
+    @SuppressWarnings("unchecked")
+    private void init(final int capacity) {
+        ids = new long[capacity];
+        futures = new CompletableFuture[capacity];
+        size = 0;
+    }
+
+    /**
+     * Registers a new in-flight request.
+     *
+     * @return future completed with the response of the request
+     */
+    public CompletableFuture<Message> storeMessage(final long messageId) {
+        final CompletableFuture<Message> future = new CompletableFuture<>();
+        synchronized (this) {
+            put(messageId, future);
+        }
+        return future;
     }
 
     public void consume(final Message message) {
-        final FutureTask<Message> future = task.remove(message.getId());
+        final CompletableFuture<Message> future;
+        synchronized (this) {
+            future = remove(message.getId());
+        }
         if (future != null) {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug(String.format("Received Message (id=%s, head=%s, body=%s)", message.getId(),
                         message.getHead(), message.getBody() != null ? message.getBody() : "{}"));
             }
-            response.put(message.getId(), message);
-            future.run();
+            future.complete(message);
         }
     }
 
-    public Message get(final long messageId) throws ArangoDBException {
-        final Message result = response.remove(messageId);
-        if (result == null) {
-            final Exception e = error.remove(messageId);
-            if (e != null) {
-                throw new ArangoDBException(e);
-            }
+    /**
+     * Removes the given request without completing it, e.g. after the caller gave up waiting for its response.
+     */
+    public void release(final long messageId) {
+        synchronized (this) {
+            remove(messageId);
         }
-        return result;
     }
 
     public void cancel(final long messageId) {
-        final FutureTask<Message> future = task.remove(messageId);
+        final CompletableFuture<Message> future;
+        synchronized (this) {
+            future = remove(messageId);
+        }
         if (future != null) {
             LOGGER.error(String.format("Cancel Message unexpected (id=%s).", messageId));
             future.cancel(true);
         }
     }
 
-    public synchronized void clear(final Exception e) {
-        if (!task.isEmpty()) {
-            LOGGER.error(e.getMessage(), e);
+    public void clear(final Exception e) {
+        final long[] pendingIds;
+        final CompletableFuture<Message>[] pending;
+        synchronized (this) {
+            if (size == 0) {
+                return;
+            }
+            pendingIds = ids;
+            pending = futures;
+            init(INITIAL_CAPACITY);
         }
-        for (final Entry<Long, FutureTask<Message>> entry : task.entrySet()) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(String.format("Exceptionally complete Message (id=%s).", entry.getKey()));
+        LOGGER.error(e.getMessage(), e);
+        final ArangoDBException error = new ArangoDBException(e);
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i] != null) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug(String.format("Exceptionally complete Message (id=%s).", pendingIds[i]));
+                }
+                pending[i].completeExceptionally(error);
             }
-            error.put(entry.getKey(), e);
-            entry.getValue().run();
         }
-        task.clear();
     }
 
-    public synchronized void clear() {
-        for (final Entry<Long, FutureTask<Message>> entry : task.entrySet()) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(String.format("Cancel Message (id=%s).", entry.getKey()));
+    public void clear() {
+        final long[] pendingIds;
+        final CompletableFuture<Message>[] pending;
+        synchronized (this) {
+            pendingIds = ids;
+            pending = futures;
+            init(INITIAL_CAPACITY);
+        }
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i] != null) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug(String.format("Cancel Message (id=%s).", pendingIds[i]));
+                }
+                pending[i].cancel(true);
             }
-            entry.getValue().cancel(true);
         }
-        task.clear();
     }
 
     public boolean isEmpty() {
-        return task.isEmpty();
+        return size == 0;
+    }
+
+    /**
+     * @return number of in-flight requests
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int hash(final long id) {
+        final long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void put(final long id, final CompletableFuture<Message> future) {
+        if ((size + 1) * 2 > futures.length) {
+            resize();
+        }
+        final int mask = futures.length - 1;
+        int i = hash(id) & mask;
+        while (futures[i] != null) {
+            if (ids[i] == id) {
+                futures[i] = future;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        ids[i] = id;
+        futures[i] = future;
+        size++;
     }
+
+    private CompletableFuture<Message> remove(final long id) {
+        final int mask = futures.length - 1;
+        int i = hash(id) & mask;
+        while (futures[i] != null) {
+            if (ids[i] == id) {
+                final CompletableFuture<Message> future = futures[i];
+                shiftBack(i, mask);
+                size--;
+                return future;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Closes the gap at slot {@code gap} left by a removal, moving back entries of the following probe sequence.
+     */
+    private void shiftBack(int gap, final int mask) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (futures[i] == null) {
+                break;
+            }
+            final int home = hash(ids[i]) & mask;
+            // move the entry only if its home slot is not between the gap and its current slot (cyclically)
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                ids[gap] = ids[i];
+                futures[gap] = futures[i];
+                gap = i;
+            }
+        }
+        futures[gap] = null;
+    }
+
+    private void resize() {
+        final long[] oldIds = ids;
+        final CompletableFuture<Message>[] oldFutures = futures;
+        init(oldFutures.length * 2);
+        for (int i = 0; i < oldFutures.length; i++) {
+            if (oldFutures[i] != null) {
+                put(oldIds[i], oldFutures[i]);
+            }
+        }
+    }
+
 }
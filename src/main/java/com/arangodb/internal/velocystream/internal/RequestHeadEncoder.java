@@ -0,0 +1,297 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes the head of a VST request as a compact VelocyPack array
+ * {@code [version, type, database, requestType, path, {query}, {header}]}.
+ * <p>
+ * The leading values only depend on the database and the request type of a request and are encoded once per pair
+ * into a cached template. The {@code accept} and {@code content-type} headers are the same for every request and
+ * are pre-encoded as well, so only the path and the query and header parameters are encoded per request, into a
+ * per-thread buffer.
+ */
+public class RequestHeadEncoder {
+
+    static final int MAX_TEMPLATES = 1024;
+
+    private static final String ACCEPT = "accept";
+    private static final String CONTENT_TYPE = "content-type";
+    private static final String VELOCYPACK = "application/x-velocypack";
+    private static final int DEFAULT_VERSION = 1;
+    private static final int DEFAULT_TYPE = 1;
+
+    private static final byte NULL = 0x18;
+    private static final byte EMPTY_OBJECT = 0x0a;
+    private static final byte COMPACT_ARRAY = 0x13;
+    private static final byte COMPACT_OBJECT = 0x14;
+    private static final int MAX_SHORT_STRING = 126;
+
+    private static final byte[] DEFAULT_HEADERS = defaultHeaders();
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final Map<String, byte[][]> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Encodes the head of the given request. The {@code accept} and {@code content-type} headers are always set to
+     * VelocyPack and replace any value present in the request.
+     */
+    public VPackSlice encode(final Request request) {
+        final Buffers buffers = BUFFERS.get();
+        final Buffer head = buffers.head.reset();
+        head.put(template(request));
+        head.putString(request.getRequest());
+
+        final Buffer params = buffers.params.reset();
+        int count = 0;
+        for (final Entry<String, String> entry : request.getQueryParam().entrySet()) {
+            params.putString(entry.getKey());
+            params.putString(entry.getValue());
+            count++;
+        }
+        head.putObject(params, count);
+
+        params.reset().put(DEFAULT_HEADERS);
+        count = 2;
+        for (final Entry<String, String> entry : request.getHeaderParam().entrySet()) {
+            final String key = entry.getKey();
+            if (!ACCEPT.equals(key) && !CONTENT_TYPE.equals(key)) {
+                params.putString(key);
+                params.putString(entry.getValue());
+                count++;
+            }
+        }
+        head.putObject(params, count);
+
+        return new VPackSlice(Buffer.compound(COMPACT_ARRAY, head, 7));
+    }
+
+    private byte[] template(final Request request) {
+        final int version = request.getVersion();
+        final int type = request.getType();
+        final String database = request.getDatabase();
+        final RequestType requestType = request.getRequestType();
+        if (version != DEFAULT_VERSION || type != DEFAULT_TYPE || database == null) {
+            return encodeTemplate(version, type, database, requestType);
+        }
+        byte[][] byRequestType = templates.get(database);
+        if (byRequestType == null) {
+            if (templates.size() >= MAX_TEMPLATES) {
+                return encodeTemplate(version, type, database, requestType);
+            }
+            byRequestType = templates.computeIfAbsent(database, RequestHeadEncoder::encodeTemplates);
+        }
+        return byRequestType[requestType.ordinal()];
+    }
+
+    private static byte[][] encodeTemplates(final String database) {
+        final RequestType[] requestTypes = RequestType.values();
+        final byte[][] result = new byte[requestTypes.length][];
+        for (final RequestType requestType : requestTypes) {
+            result[requestType.ordinal()] = encodeTemplate(DEFAULT_VERSION, DEFAULT_TYPE, database, requestType);
+        }
+        return result;
+    }
+
+    private static byte[] encodeTemplate(final int version, final int type, final String database,
+                                         final RequestType requestType) {
+        final Buffer buffer = new Buffer();
+        buffer.putInt(version);
+        buffer.putInt(type);
+        buffer.putString(database);
+        buffer.putInt(requestType.getType());
+        return buffer.toByteArray();
+    }
+
+    private static byte[] defaultHeaders() {
+        final Buffer buffer = new Buffer();
+        buffer.putString(ACCEPT);
+        buffer.putString(VELOCYPACK);
+        buffer.putString(CONTENT_TYPE);
+        buffer.putString(VELOCYPACK);
+        return buffer.toByteArray();
+    }
+
+    private static class Buffers {
+        private final Buffer head = new Buffer();
+        private final Buffer params = new Buffer();
+    }
+
+    private static class Buffer {
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        private Buffer reset() {
+            size = 0;
+            return this;
+        }
+
+        private void ensureCapacity(final int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+
+        private void put(final byte b) {
+            ensureCapacity(1);
+            bytes[size++] = b;
+        }
+
+        private void put(final byte[] b) {
+            ensureCapacity(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+
+        private void putInt(final int value) {
+            if (value >= 0 && value <= 9) {
+                put((byte) (0x30 + value));
+            } else if (value < 0 && value >= -6) {
+                put((byte) (0x40 + value));
+            } else {
+                put((byte) 0x23);
+                for (int i = 0; i < 4; i++) {
+                    put((byte) (value >> (i * 8)));
+                }
+            }
+        }
+
+        private void putString(final String value) {
+            if (value == null) {
+                put(NULL);
+                return;
+            }
+            final int length = value.length();
+            if (length <= MAX_SHORT_STRING && isAscii(value)) {
+                ensureCapacity(length + 1);
+                bytes[size++] = (byte) (0x40 + length);
+                for (int i = 0; i < length; i++) {
+                    bytes[size++] = (byte) value.charAt(i);
+                }
+                return;
+            }
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length <= MAX_SHORT_STRING) {
+                put((byte) (0x40 + utf8.length));
+            } else {
+                put((byte) 0xbf);
+                for (int i = 0; i < 8; i++) {
+                    put((byte) ((long) utf8.length >> (i * 8)));
+                }
+            }
+            put(utf8);
+        }
+
+        /**
+         * Appends a compact object with the given number of key/value pairs, already encoded into {@code members}.
+         */
+        private void putObject(final Buffer members, final int count) {
+            if (count == 0) {
+                put(EMPTY_OBJECT);
+                return;
+            }
+            final int length = compoundLength(members, count);
+            ensureCapacity(length);
+            writeCompound(bytes, size, COMPACT_OBJECT, length, members, count);
+            size += length;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private static byte[] compound(final byte head, final Buffer members, final int count) {
+            final int length = compoundLength(members, count);
+            final byte[] result = new byte[length];
+            writeCompound(result, 0, head, length, members, count);
+            return result;
+        }
+
+        private static int compoundLength(final Buffer members, final int count) {
+            final int fixed = 1 + members.size + varintLength(count);
+            int lengthLength = 1;
+            while (varintLength(fixed + lengthLength) != lengthLength) {
+                lengthLength++;
+            }
+            return fixed + lengthLength;
+        }
+
+        /**
+         * Writes a compact compound value: the head byte, the total byte length as forward varint, the members and
+         * the number of members as reversed varint.
+         */
+        private static void writeCompound(final byte[] dest, final int offset, final byte head, final int length,
+                                          final Buffer members, final int count) {
+            dest[offset] = head;
+            int pos = offset + 1;
+            for (int value = length; ; pos++) {
+                final int b = value & 0x7f;
+                value >>>= 7;
+                if (value == 0) {
+                    dest[pos++] = (byte) b;
+                    break;
+                }
+                dest[pos] = (byte) (b | 0x80);
+            }
+            System.arraycopy(members.bytes, 0, dest, pos, members.size);
+            pos = offset + length - 1;
+            for (int value = count; ; pos--) {
+                final int b = value & 0x7f;
+                value >>>= 7;
+                if (value == 0) {
+                    dest[pos] = (byte) b;
+                    break;
+                }
+                dest[pos] = (byte) (b | 0x80);
+            }
+        }
+
+        private static int varintLength(final int value) {
+            int length = 1;
+            for (int v = value >>> 7; v != 0; v >>>= 7) {
+                length++;
+            }
+            return length;
+        }
+
+        private static boolean isAscii(final String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
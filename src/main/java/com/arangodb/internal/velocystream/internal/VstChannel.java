@@ -0,0 +1,282 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.internal.ArangoDefaults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking transport of a single VST connection. All reads and writes are performed on the assigned
+ * {@link VstEventLoop}, incoming chunks are framed incrementally and handed to a {@link ChunkStore}.
+ */
+public class VstChannel implements EventLoopHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VstChannel.class);
+    private static final int MAX_READS_PER_EVENT = 16;
+
+    private final String connectionName;
+    private final SocketChannel channel;
+    private final VstEventLoop loop;
+    private final ChunkStore chunkStore;
+    private final Consumer<IOException> onError;
+    private final Runnable onRead;
+
+    private final VstWriteQueue writeQueue;
+    private final int writeBatchSize;
+    private final long writeLingerNanos;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final List<ByteBuffer> writeBatch = new ArrayList<>();
+    private ByteBuffer[] pendingWrite;
+
+    private final ByteBuffer chunkHead = ByteBuffer.allocate(ArangoDefaults.CHUNK_MAX_HEADER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private Chunk currentChunk;
+    private ByteBuffer chunkBuffer;
+    private int remainingContent;
+
+    private VstChannel(final String connectionName, final SocketChannel channel, final VstEventLoop loop,
+                       final ChunkStore chunkStore, final VstWriteQueue writeQueue, final int writeBatchSize,
+                       final long writeLingerNanos, final Consumer<IOException> onError, final Runnable onRead) {
+        super();
+        this.connectionName = connectionName;
+        this.channel = channel;
+        this.loop = loop;
+        this.chunkStore = chunkStore;
+        this.writeQueue = writeQueue;
+        this.writeBatchSize = writeBatchSize;
+        this.writeLingerNanos = writeLingerNanos;
+        this.onError = onError;
+        this.onRead = onRead;
+        chunkHead.limit(ArangoDefaults.CHUNK_MIN_HEADER_SIZE);
+    }
+
+    /**
+     * Connects a new channel in blocking mode and registers it afterwards in non-blocking mode on the given loop.
+     *
+     * @param writeQueue       outgoing messages, drained by the event loop
+     * @param writeBatchSize   maximum number of bytes collected for one gathering write
+     * @param writeLingerNanos maximum time to wait for further messages before writing
+     * @param protocolHeader   bytes sent before any chunk
+     * @param onError          invoked on the event loop when the channel fails
+     * @param onRead           invoked on the event loop after every read event
+     */
+    public static VstChannel open(final String connectionName, final InetSocketAddress address, final int timeout,
+                                  final VstEventLoop loop, final ChunkStore chunkStore, final VstWriteQueue writeQueue,
+                                  final int writeBatchSize, final long writeLingerNanos, final byte[] protocolHeader,
+                                  final Consumer<IOException> onError, final Runnable onRead) throws IOException {
+        final SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().setKeepAlive(true);
+            channel.socket().setTcpNoDelay(true);
+            channel.socket().connect(address, timeout);
+            channel.configureBlocking(false);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+        final VstChannel vstChannel = new VstChannel(connectionName, channel, loop, chunkStore, writeQueue,
+                writeBatchSize, writeLingerNanos, onError, onRead);
+        vstChannel.pendingWrite = new ByteBuffer[]{ByteBuffer.wrap(protocolHeader)};
+        loop.register(channel, vstChannel);
+        vstChannel.flushScheduled.set(true);
+        loop.execute(vstChannel::flush);
+        return vstChannel;
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen() && channel.isConnected();
+    }
+
+    public String getRemoteAddress() {
+        return String.valueOf(channel.socket().getRemoteSocketAddress());
+    }
+
+    /**
+     * Schedules a write of the messages pending in the write queue. If a linger time is configured, the write is
+     * deferred by at most that time to collect further messages into the same gathering write.
+     */
+    public void flushLater() throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("The socket is closed.");
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            if (writeLingerNanos > 0) {
+                loop.schedule(this::flush, writeLingerNanos);
+            } else {
+                loop.execute(this::flush);
+            }
+        }
+    }
+
+    public void close() throws IOException {
+        channel.close();
+        loop.wakeup();
+    }
+
+    @Override
+    public void fail(final IOException e) {
+        if (channel.isOpen()) {
+            LOGGER.error("Error on Connection " + connectionName, e);
+        }
+        onError.accept(e);
+    }
+
+    @Override
+    public void onWritable() {
+        flush();
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        try {
+            while (true) {
+                if (pendingWrite == null) {
+                    writeQueue.drain(writeBatch, writeBatchSize);
+                    if (writeBatch.isEmpty()) {
+                        break;
+                    }
+                    pendingWrite = writeBatch.toArray(new ByteBuffer[0]);
+                    writeBatch.clear();
+                }
+                channel.write(pendingWrite);
+                if (pendingWrite[pendingWrite.length - 1].hasRemaining()) {
+                    loop.interestOps(channel, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                pendingWrite = null;
+            }
+            loop.interestOps(channel, SelectionKey.OP_READ);
+        } catch (final IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onReadable() {
+        final ByteBuffer buffer = loop.readBuffer();
+        try {
+            for (int i = 0; i < MAX_READS_PER_EVENT; i++) {
+                buffer.clear();
+                final int read = channel.read(buffer);
+                if (read == -1) {
+                    throw new IOException("Reached the end of the stream.");
+                }
+                if (read == 0) {
+                    break;
+                }
+                buffer.flip();
+                decode(buffer);
+            }
+        } catch (final IOException e) {
+            fail(e);
+            return;
+        } catch (final RuntimeException e) {
+            fail(new IOException(e));
+            return;
+        }
+        onRead.run();
+    }
+
+    private void decode(final ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            if (currentChunk == null) {
+                if (!readChunkHead(buffer)) {
+                    return;
+                }
+                if (currentChunk == null) {
+                    continue;
+                }
+            }
+            final int len = Math.min(remainingContent, buffer.remaining());
+            if (chunkBuffer != null) {
+                final int limit = buffer.limit();
+                buffer.limit(buffer.position() + len);
+                chunkBuffer.put(buffer);
+                buffer.limit(limit);
+            } else {
+                buffer.position(buffer.position() + len);
+            }
+            remainingContent -= len;
+            if (remainingContent == 0) {
+                completeChunk();
+            }
+        }
+    }
+
+    private boolean readChunkHead(final ByteBuffer buffer) {
+        while (chunkHead.hasRemaining() && buffer.hasRemaining()) {
+            chunkHead.put(buffer.get());
+        }
+        if (chunkHead.hasRemaining()) {
+            return false;
+        }
+        final int chunkX = chunkHead.getInt(ArangoDefaults.INTEGER_BYTES);
+        final boolean hasMessageLength = (1 == (chunkX & 0x1)) && ((chunkX >> 1) > 1);
+        if (hasMessageLength && chunkHead.limit() < ArangoDefaults.CHUNK_MAX_HEADER_SIZE) {
+            chunkHead.limit(ArangoDefaults.CHUNK_MAX_HEADER_SIZE);
+            return readChunkHead(buffer);
+        }
+        final int length = chunkHead.getInt(0);
+        final long messageId = chunkHead.getLong(2 * ArangoDefaults.INTEGER_BYTES);
+        final long messageLength;
+        final int contentLength;
+        if (hasMessageLength) {
+            messageLength = chunkHead.getLong(ArangoDefaults.CHUNK_MIN_HEADER_SIZE);
+            contentLength = length - ArangoDefaults.CHUNK_MAX_HEADER_SIZE;
+        } else {
+            messageLength = -1L;
+            contentLength = length - ArangoDefaults.CHUNK_MIN_HEADER_SIZE;
+        }
+        chunkHead.clear().limit(ArangoDefaults.CHUNK_MIN_HEADER_SIZE);
+        currentChunk = new Chunk(messageId, chunkX, messageLength, 0, contentLength);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(String.format("[%s]: Received chunk %s:%s from message %s", connectionName,
+                    currentChunk.getChunk(), currentChunk.isFirstChunk() ? 1 : 0, messageId));
+        }
+        chunkBuffer = chunkStore.storeChunk(currentChunk);
+        remainingContent = contentLength;
+        if (remainingContent == 0) {
+            completeChunk();
+        }
+        return true;
+    }
+
+    private void completeChunk() {
+        if (chunkBuffer != null) {
+            chunkStore.checkCompleteness(currentChunk.getMessageId());
+        }
+        currentChunk = null;
+        chunkBuffer = null;
+    }
+
+}
@@ -22,8 +22,11 @@ package com.arangodb.internal.velocystream.internal;
 
 import com.arangodb.ArangoDBException;
 import com.arangodb.internal.ArangoDefaults;
+import com.arangodb.internal.net.ConnectGate;
 import com.arangodb.internal.net.Connection;
 import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.util.ByteArrayPool;
+import com.arangodb.internal.util.HashedWheelTimer;
 import com.arangodb.velocypack.VPackBuilder;
 import com.arangodb.velocypack.VPackSlice;
 import com.arangodb.velocypack.ValueType;
@@ -42,17 +45,24 @@ import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * @author Mark Vollmary
@@ -60,11 +70,17 @@ import java.util.concurrent.atomic.AtomicLong;
 public abstract class VstConnection<T> implements Connection {
     private static final Logger LOGGER = LoggerFactory.getLogger(VstConnection.class);
     private static final byte[] PROTOCOL_HEADER = "VST/1.0\r\n\r\n".getBytes();
+    private static final int KEEP_ALIVE_THREADS = 4;
+    // writes the probes and closes unresponsive connections, off the timer thread
+    private static final ExecutorService KEEP_ALIVE_EXECUTOR = createKeepAliveExecutor();
 
     private ExecutorService executor;
 
-    private ScheduledExecutorService keepAliveScheduler;
     private final AtomicLong keepAliveId = new AtomicLong();
+    private volatile HashedWheelTimer.Timeout keepAliveTimeout;
+    private volatile CompletableFuture<Message> keepAliveProbe;
+    private volatile long keepAliveLatency = -1L;
+    private volatile long lastActivity;
 
     protected final MessageStore messageStore;
 
@@ -72,19 +88,38 @@ public abstract class VstConnection<T> implements Connection {
     private final Long ttl;
 
     private final Integer keepAliveInterval;
-    private int keepAliveFailCounter = 0;
+    private volatile int keepAliveFailCounter = 0;
+    protected final HashedWheelTimer timer;
 
     private final Boolean useSsl;
     private final SSLContext sslContext;
 
-    private Socket socket;
-    private OutputStream outputStream;
+    private volatile Socket socket;
+    private volatile OutputStream outputStream;
     private InputStream inputStream;
 
+    private final VstEventLoopGroup eventLoopGroup;
+    private volatile VstChannel channel;
+    private final ConnectGate connectGate;
+    private volatile boolean ready;
+
+    private final int writeBatchSize;
+    private final long writeLingerNanos;
+    private volatile VstWriteQueue writeQueue = new VstWriteQueue();
+    private final AtomicBoolean writing = new AtomicBoolean(false);
+    private final List<ByteBuffer> writeBatch = new ArrayList<>();
+
     private final HostDescription host;
 
+    // pool response buffers are taken from, null unless pooling is enabled
+    private final ByteArrayPool bufferPool;
+
     private final Map<Long, Long> sendTimestamps = new ConcurrentHashMap<>();
 
+    // reused by the reader thread for every chunk header
+    private final byte[] chunkHead = new byte[ArangoDefaults.CHUNK_MAX_HEADER_SIZE];
+    private final ByteBuffer chunkHeadBuffer = ByteBuffer.wrap(chunkHead).order(ByteOrder.LITTLE_ENDIAN);
+
     private final String connectionName;
 
     private final VPackSlice keepAliveRequest = new VPackBuilder()
@@ -107,7 +142,14 @@ public abstract class VstConnection<T> implements Connection {
                             final Integer keepAliveInterval,
                             final Boolean useSsl,
                             final SSLContext sslContext,
-                            final MessageStore messageStore) {
+                            final MessageStore messageStore,
+                            final VstEventLoopGroup eventLoopGroup,
+                            final Integer writeBatchSize,
+                            final Integer writeLingerMicros,
+                            final HashedWheelTimer timer,
+                            final Integer reconnectDelay,
+                            final Integer reconnectMaxDelay,
+                            final ByteArrayPool bufferPool) {
         super();
         this.host = host;
         this.timeout = timeout;
@@ -116,54 +158,173 @@ public abstract class VstConnection<T> implements Connection {
         this.useSsl = useSsl;
         this.sslContext = sslContext;
         this.messageStore = messageStore;
+        this.eventLoopGroup = eventLoopGroup;
+        this.writeBatchSize = writeBatchSize != null && writeBatchSize > 0 ? writeBatchSize
+                : ArangoDefaults.DEFAULT_WRITE_BATCH_SIZE;
+        this.writeLingerNanos = writeLingerMicros != null && writeLingerMicros > 0
+                ? TimeUnit.MICROSECONDS.toNanos(writeLingerMicros) : 0L;
+        this.timer = timer;
+        this.bufferPool = bufferPool;
+        connectGate = new ConnectGate(reconnectDelay, reconnectMaxDelay);
 
         connectionName = "connection_" + System.currentTimeMillis() + "_" + Math.random();
         LOGGER.debug("[" + connectionName + "]: Connection created");
     }
 
-    protected T sendKeepAlive() {
-        long id = keepAliveId.decrementAndGet();
-        Message message = new Message(id, keepAliveRequest, null);
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug(String.format("[%s]: Send keepalive probe (id=%s, head=%s, body=%s)", connectionName, message.getId(), message.getHead(),
-                    message.getBody() != null ? message.getBody() : "{}"));
-        }
-        return write(message, Collections.singleton(new Chunk(
-                id, 0, 1, -1,
-                0, keepAliveRequest.getByteSize()
-        )));
+    private static ExecutorService createKeepAliveExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(KEEP_ALIVE_THREADS, KEEP_ALIVE_THREADS, 60L,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(r, "arangodb-vst-keepalive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     public abstract T write(final Message message, final Collection<Chunk> chunks);
 
-    protected abstract void doKeepAlive();
+    @Override
+    public int getInFlight() {
+        return messageStore.size();
+    }
+
+    @Override
+    public long getKeepAliveLatency() {
+        return keepAliveLatency;
+    }
+
+    private void startKeepAlive() {
+        if (keepAliveInterval != null && timer != null) {
+            lastActivity = System.nanoTime();
+            keepAliveTimeout = timer.newTimeout(this::keepAlive, keepAliveInterval, TimeUnit.SECONDS);
+        }
+    }
 
+    /**
+     * Executed on the timer thread, which also fires request timeouts and therefore must not block. Only decides
+     * whether the previous probe is overdue or the connection has been idle for at least the keep-alive interval, and
+     * leaves writing the probe and closing the connection to a small shared executor. Otherwise checks again once the
+     * interval has passed since the last activity.
+     */
     private void keepAlive() {
-        try {
-            doKeepAlive();
-            keepAliveFailCounter = 0;
-        } catch (Exception e) {
-            LOGGER.error("Got exception while performing keepAlive request:", e);
-            keepAliveFailCounter++;
-            if (keepAliveFailCounter >= 3) {
-                LOGGER.error("KeepAlive request failed consecutively for 3 times, closing connection now...");
-                messageStore.clear(new IOException("Connection unresponsive!"));
-                close();
+        if (!isOpen()) {
+            return;
+        }
+        final CompletableFuture<Message> probe = keepAliveProbe;
+        final boolean overdue = probe != null && !probe.isDone();
+        final long interval = TimeUnit.SECONDS.toNanos(keepAliveInterval);
+        final long idle = System.nanoTime() - lastActivity;
+        long delay = interval - idle;
+        final boolean due = delay <= 0L;
+        if (due) {
+            delay = interval;
+        }
+        if (overdue || due) {
+            KEEP_ALIVE_EXECUTOR.execute(() -> probe(overdue ? probe : null, due));
+        }
+        if (isOpen()) {
+            keepAliveTimeout = timer.newTimeout(this::keepAlive, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void probe(final CompletableFuture<Message> overdue, final boolean send) {
+        if (overdue != null) {
+            overdue.completeExceptionally(new TimeoutException("No response to keepalive probe within "
+                    + keepAliveInterval + " s"));
+        }
+        if (send && isOpen()) {
+            sendKeepAlive();
+        }
+    }
+
+    private void sendKeepAlive() {
+        final long id = keepAliveId.decrementAndGet();
+        final Message message = new Message(id, keepAliveRequest, null);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(String.format("[%s]: Send keepalive probe (id=%s, head=%s, body=%s)", connectionName, message.getId(), message.getHead(),
+                    message.getBody() != null ? message.getBody() : "{}"));
+        }
+        final long start = System.nanoTime();
+        final CompletableFuture<Message> probe = messageStore.storeMessage(id);
+        keepAliveProbe = probe;
+        probe.whenComplete((m, e) -> {
+            if (e == null) {
+                keepAliveLatency = System.nanoTime() - start;
+                keepAliveFailCounter = 0;
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug(String.format("[%s]: Keepalive probe answered in %s ms", connectionName,
+                            TimeUnit.NANOSECONDS.toMillis(keepAliveLatency)));
+                }
+            } else {
+                messageStore.release(id);
+                keepAliveFailed(e);
             }
+        });
+        try {
+            writeIntern(message, Collections.singleton(new Chunk(
+                    id, 0, 1, -1,
+                    0, keepAliveRequest.getByteSize()
+            )));
+        } catch (final ArangoDBException e) {
+            probe.completeExceptionally(e);
+        }
+    }
+
+    private void keepAliveFailed(final Throwable e) {
+        LOGGER.error("Got exception while performing keepAlive request:", e);
+        keepAliveFailCounter++;
+        if (keepAliveFailCounter >= 3) {
+            LOGGER.error("KeepAlive request failed consecutively for 3 times, closing connection now...");
+            messageStore.clear(new IOException("Connection unresponsive!"));
+            close();
         }
     }
 
     public boolean isOpen() {
-        return socket != null && socket.isConnected() && !socket.isClosed();
+        final VstChannel c = channel;
+        if (c != null) {
+            return c.isOpen();
+        }
+        final Socket s = socket;
+        return s != null && s.isConnected() && !s.isClosed();
+    }
+
+    /**
+     * @return whether the connection is open and has been marked {@link #setReady() ready} since it was opened
+     */
+    public boolean isReady() {
+        return ready && isOpen();
+    }
+
+    /**
+     * Marks the connection as ready for requests, after it has been opened and authenticated.
+     */
+    public void setReady() {
+        ready = true;
+    }
+
+    /**
+     * @return gate to hold while opening and authenticating this connection, so that concurrent callers do not open
+     * it twice and do not send requests before it is ready
+     */
+    public ConnectGate getConnectGate() {
+        return connectGate;
     }
 
     public synchronized void open() throws IOException {
         if (isOpen()) {
             return;
         }
+        ready = false;
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug(String.format("[%s]: Open connection to %s", connectionName, host));
         }
+        writeQueue = new VstWriteQueue();
+        if (eventLoopGroup != null && Boolean.TRUE != useSsl) {
+            openChannel();
+            return;
+        }
         if (Boolean.TRUE == useSsl) {
             if (sslContext != null) {
                 socket = sslContext.getSocketFactory().createSocket();
@@ -197,7 +358,7 @@ public abstract class VstConnection<T> implements Connection {
 
             final long openTime = new Date().getTime();
             final Long ttlTime = ttl != null ? openTime + ttl : null;
-            final ChunkStore chunkStore = new ChunkStore(messageStore);
+            final ChunkStore chunkStore = new ChunkStore(messageStore, bufferPool);
             while (true) {
                 if (ttlTime != null && new Date().getTime() > ttlTime && messageStore.isEmpty()) {
                     close();
@@ -211,11 +372,15 @@ public abstract class VstConnection<T> implements Connection {
                 try {
                     final Chunk chunk = readChunk();
                     final ByteBuffer chunkBuffer = chunkStore.storeChunk(chunk);
+                    final int contentLength = chunk.getContentLength();
                     if (chunkBuffer != null) {
-                        final byte[] buf = new byte[chunk.getContentLength()];
-                        readBytesIntoBuffer(buf, 0, buf.length);
-                        chunkBuffer.put(buf);
+                        // read straight into the message buffer, no intermediate copy
+                        readBytesIntoBuffer(chunkBuffer.array(), chunkBuffer.position(), contentLength);
+                        chunkBuffer.position(chunkBuffer.position() + contentLength);
                         chunkStore.checkCompleteness(chunk.getMessageId());
+                        lastActivity = System.nanoTime();
+                    } else {
+                        skipBytes(contentLength);
                     }
                 } catch (final Exception e) {
                     messageStore.clear(e);
@@ -229,22 +394,53 @@ public abstract class VstConnection<T> implements Connection {
             return null;
         });
 
-        if (keepAliveInterval != null) {
-            keepAliveScheduler = Executors.newScheduledThreadPool(1);
-            keepAliveScheduler.scheduleAtFixedRate(this::keepAlive, 0, keepAliveInterval, TimeUnit.SECONDS);
-        }
+        startKeepAlive();
+    }
 
+    private void openChannel() throws IOException {
+        final Long ttlTime = ttl != null ? System.currentTimeMillis() + ttl : null;
+        channel = VstChannel.open(connectionName, new InetSocketAddress(host.getHost(), host.getPort()),
+                timeout != null ? timeout : ArangoDefaults.DEFAULT_TIMEOUT, eventLoopGroup.next(),
+                new ChunkStore(messageStore, bufferPool), writeQueue, writeBatchSize, writeLingerNanos, PROTOCOL_HEADER,
+                e -> {
+                    messageStore.clear(e);
+                    close();
+                },
+                () -> {
+                    lastActivity = System.nanoTime();
+                    if (ttlTime != null && System.currentTimeMillis() > ttlTime && messageStore.isEmpty()) {
+                        close();
+                    }
+                });
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(String.format("[%s]: Connected to %s", connectionName, channel.getRemoteAddress()));
+        }
+        startKeepAlive();
     }
 
     @Override
     public synchronized void close() {
-        if (keepAliveScheduler != null) {
-            keepAliveScheduler.shutdownNow();
+        ready = false;
+        final HashedWheelTimer.Timeout t = keepAliveTimeout;
+        if (t != null) {
+            t.cancel();
         }
         messageStore.clear();
         if (executor != null && !executor.isShutdown()) {
             executor.shutdown();
         }
+        final VstChannel c = channel;
+        if (c != null) {
+            channel = null;
+            try {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug(String.format("[%s]: Close connection %s", connectionName, c.getRemoteAddress()));
+                }
+                c.close();
+            } catch (final IOException e) {
+                throw new ArangoDBException(e);
+            }
+        }
         if (socket != null && !socket.isClosed()) {
             try {
                 if (LOGGER.isDebugEnabled()) {
@@ -265,61 +461,68 @@ public abstract class VstConnection<T> implements Connection {
         outputStream.flush();
     }
 
-    protected synchronized void writeIntern(final Message message, final Collection<Chunk> chunks)
-            throws ArangoDBException {
-        for (final Chunk chunk : chunks) {
+    protected void writeIntern(final Message message, final Collection<Chunk> chunks) throws ArangoDBException {
+        lastActivity = System.nanoTime();
+        if (LOGGER.isDebugEnabled()) {
+            for (final Chunk chunk : chunks) {
+                LOGGER.debug(String.format("[%s]: Send chunk %s:%s from message %s", connectionName, chunk.getChunk(),
+                        chunk.isFirstChunk() ? 1 : 0, chunk.getMessageId()));
+            }
+            sendTimestamps.put(message.getId(), System.currentTimeMillis());
+        }
+        final VstWriteQueue queue = writeQueue;
+        queue.add(message, chunks);
+        final VstChannel c = channel;
+        if (c != null) {
             try {
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug(String.format("[%s]: Send chunk %s:%s from message %s", connectionName, chunk.getChunk(),
-                            chunk.isFirstChunk() ? 1 : 0, chunk.getMessageId()));
-                    sendTimestamps.put(chunk.getMessageId(), System.currentTimeMillis());
-                }
-                writeChunkHead(chunk);
-                final int contentOffset = chunk.getContentOffset();
-                final int contentLength = chunk.getContentLength();
-                final VPackSlice head = message.getHead();
-                final int headLength = head.getByteSize();
-                int written = 0;
-                if (contentOffset < headLength) {
-                    written = Math.min(contentLength, headLength - contentOffset);
-                    outputStream.write(head.getBuffer(), contentOffset, written);
-                }
-                if (written < contentLength) {
-                    final VPackSlice body = message.getBody();
-                    outputStream.write(body.getBuffer(), contentOffset + written - headLength, contentLength - written);
-                }
-                outputStream.flush();
+                c.flushLater();
             } catch (final IOException e) {
                 LOGGER.error("Error on Connection " + connectionName);
                 throw new ArangoDBException(e);
             }
+        } else {
+            writeSocket(queue);
         }
     }
 
-    private synchronized void writeChunkHead(final Chunk chunk) throws IOException {
-        final long messageLength = chunk.getMessageLength();
-        final int headLength = messageLength > -1L ? ArangoDefaults.CHUNK_MAX_HEADER_SIZE
-                : ArangoDefaults.CHUNK_MIN_HEADER_SIZE;
-        final int length = chunk.getContentLength() + headLength;
-        final ByteBuffer buffer = ByteBuffer.allocate(headLength).order(ByteOrder.LITTLE_ENDIAN);
-        buffer.putInt(length);
-        buffer.putInt(chunk.getChunkX());
-        buffer.putLong(chunk.getMessageId());
-        if (messageLength > -1L) {
-            buffer.putLong(messageLength);
+    /**
+     * Writes the pending chunks of all callers. The caller winning the {@code writing} flag drains the queue on behalf
+     * of all others, flushing the socket once per batch instead of once per chunk.
+     */
+    private void writeSocket(final VstWriteQueue queue) throws ArangoDBException {
+        while (!queue.isEmpty() && writing.compareAndSet(false, true)) {
+            try {
+                int bytes = queue.drain(writeBatch, writeBatchSize);
+                if (writeLingerNanos > 0 && bytes < writeBatchSize) {
+                    LockSupport.parkNanos(writeLingerNanos);
+                    queue.drain(writeBatch, writeBatchSize - bytes);
+                }
+                for (final ByteBuffer buffer : writeBatch) {
+                    outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                }
+                outputStream.flush();
+            } catch (final IOException e) {
+                LOGGER.error("Error on Connection " + connectionName);
+                messageStore.clear(e);
+                close();
+                throw new ArangoDBException(e);
+            } finally {
+                writeBatch.clear();
+                writing.set(false);
+            }
         }
-        outputStream.write(buffer.array());
     }
 
     protected Chunk readChunk() throws IOException {
-        final ByteBuffer chunkHeadBuffer = readBytes(ArangoDefaults.CHUNK_MIN_HEADER_SIZE);
-        final int length = chunkHeadBuffer.getInt();
-        final int chunkX = chunkHeadBuffer.getInt();
-        final long messageId = chunkHeadBuffer.getLong();
+        readBytesIntoBuffer(chunkHead, 0, ArangoDefaults.CHUNK_MIN_HEADER_SIZE);
+        final int length = chunkHeadBuffer.getInt(0);
+        final int chunkX = chunkHeadBuffer.getInt(ArangoDefaults.INTEGER_BYTES);
+        final long messageId = chunkHeadBuffer.getLong(2 * ArangoDefaults.INTEGER_BYTES);
         final long messageLength;
         final int contentLength;
         if ((1 == (chunkX & 0x1)) && ((chunkX >> 1) > 1)) {
-            messageLength = readBytes(ArangoDefaults.LONG_BYTES).getLong();
+            readBytesIntoBuffer(chunkHead, ArangoDefaults.CHUNK_MIN_HEADER_SIZE, ArangoDefaults.LONG_BYTES);
+            messageLength = chunkHeadBuffer.getLong(ArangoDefaults.CHUNK_MIN_HEADER_SIZE);
             contentLength = length - ArangoDefaults.CHUNK_MAX_HEADER_SIZE;
         } else {
             messageLength = -1L;
@@ -335,10 +538,14 @@ public abstract class VstConnection<T> implements Connection {
         return chunk;
     }
 
-    private ByteBuffer readBytes(final int len) throws IOException {
-        final byte[] buf = new byte[len];
-        readBytesIntoBuffer(buf, 0, len);
-        return ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+    private void skipBytes(final int len) throws IOException {
+        for (int skipped = 0; skipped < len; ) {
+            final int read = inputStream.read(chunkHead, 0, Math.min(chunkHead.length, len - skipped));
+            if (read == -1) {
+                throw new IOException("Reached the end of the stream.");
+            }
+            skipped += read;
+        }
     }
 
     protected void readBytesIntoBuffer(final byte[] buf, final int off, final int len) throws IOException {
@@ -22,11 +22,14 @@ package com.arangodb.internal.velocystream.internal;
 
 import com.arangodb.ArangoDBException;
 import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.util.ByteArrayPool;
+import com.arangodb.internal.util.HashedWheelTimer;
 
 import javax.net.ssl.SSLContext;
 import java.util.Collection;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author Mark Vollmary
@@ -42,6 +45,13 @@ public class VstConnectionSync extends VstConnection<Message> {
         private Integer keepAliveInterval;
         private Boolean useSsl;
         private SSLContext sslContext;
+        private VstEventLoopGroup eventLoopGroup;
+        private Integer writeBatchSize;
+        private Integer writeLingerMicros;
+        private HashedWheelTimer timer;
+        private Integer reconnectDelay;
+        private Integer reconnectMaxDelay;
+        private ByteArrayPool bufferPool;
 
         public Builder host(final HostDescription host) {
             this.host = host;
@@ -78,32 +88,87 @@ public class VstConnectionSync extends VstConnection<Message> {
             return this;
         }
 
+        public Builder eventLoopGroup(final VstEventLoopGroup eventLoopGroup) {
+            this.eventLoopGroup = eventLoopGroup;
+            return this;
+        }
+
+        public Builder writeBatchSize(final Integer writeBatchSize) {
+            this.writeBatchSize = writeBatchSize;
+            return this;
+        }
+
+        public Builder writeLingerMicros(final Integer writeLingerMicros) {
+            this.writeLingerMicros = writeLingerMicros;
+            return this;
+        }
+
+        public Builder timer(final HashedWheelTimer timer) {
+            this.timer = timer;
+            return this;
+        }
+
+        public Builder reconnectDelay(final Integer reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+            return this;
+        }
+
+        public Builder reconnectMaxDelay(final Integer reconnectMaxDelay) {
+            this.reconnectMaxDelay = reconnectMaxDelay;
+            return this;
+        }
+
+        public Builder bufferPool(final ByteArrayPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
         public VstConnectionSync build() {
             return new VstConnectionSync(host, timeout, ttl, keepAliveInterval,
-                    useSsl, sslContext, messageStore);
+                    useSsl, sslContext, messageStore, eventLoopGroup, writeBatchSize, writeLingerMicros, timer, reconnectDelay,
+                    reconnectMaxDelay, bufferPool);
         }
     }
 
     private VstConnectionSync(final HostDescription host, final Integer timeout, final Long ttl, final Integer keepAliveInterval,
-                              final Boolean useSsl, final SSLContext sslContext, final MessageStore messageStore) {
-        super(host, timeout, ttl, keepAliveInterval, useSsl, sslContext, messageStore);
+                              final Boolean useSsl, final SSLContext sslContext, final MessageStore messageStore,
+                              final VstEventLoopGroup eventLoopGroup, final Integer writeBatchSize,
+                              final Integer writeLingerMicros, final HashedWheelTimer timer,
+                              final Integer reconnectDelay, final Integer reconnectMaxDelay,
+                              final ByteArrayPool bufferPool) {
+        super(host, timeout, ttl, keepAliveInterval, useSsl, sslContext, messageStore, eventLoopGroup, writeBatchSize,
+                writeLingerMicros, timer, reconnectDelay, reconnectMaxDelay, bufferPool);
     }
 
     @Override
     public Message write(final Message message, final Collection<Chunk> chunks) throws ArangoDBException {
-        final FutureTask<Message> task = new FutureTask<>(() -> messageStore.get(message.getId()));
-        messageStore.storeMessage(message.getId(), task);
-        super.writeIntern(message, chunks);
+        return write(message, chunks, timeout);
+    }
+
+    /**
+     * @param requestTimeout time in milliseconds to wait for the response, {@code null} or {@code 0} to wait forever
+     */
+    public Message write(final Message message, final Collection<Chunk> chunks, final Integer requestTimeout)
+            throws ArangoDBException {
+        final CompletableFuture<Message> future = messageStore.storeMessage(message.getId());
         try {
-            return timeout == null || timeout == 0L ? task.get() : task.get(timeout, TimeUnit.MILLISECONDS);
+            super.writeIntern(message, chunks);
+            return requestTimeout == null || requestTimeout == 0L ? future.get()
+                    : future.get(requestTimeout, TimeUnit.MILLISECONDS);
+        } catch (final ArangoDBException e) {
+            messageStore.release(message.getId());
+            throw e;
+        } catch (final TimeoutException e) {
+            messageStore.release(message.getId());
+            throw new ArangoDBException(e);
+        } catch (final InterruptedException e) {
+            messageStore.release(message.getId());
+            Thread.currentThread().interrupt();
+            throw new ArangoDBException(e);
         } catch (final Exception e) {
+            messageStore.release(message.getId());
             throw new ArangoDBException(e);
         }
     }
 
-    @Override
-    protected void doKeepAlive() {
-        sendKeepAlive();
-    }
-
 }
@@ -0,0 +1,257 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single selector thread serving the I/O of many {@link EventLoopHandler}s, such as {@link VstChannel}s.
+ * <p>
+ * The thread is started lazily on the first submitted task and terminates as soon as no channel is registered
+ * anymore, so that an unused or shut down driver does not keep any thread alive.
+ */
+public class VstEventLoop implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VstEventLoop.class);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long SELECT_TIMEOUT = 1000L;
+
+    private final String name;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final PriorityQueue<ScheduledTask> scheduledTasks = new PriorityQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean wakeupPending = new AtomicBoolean(false);
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    private volatile Selector selector;
+    private volatile Thread thread;
+
+    public VstEventLoop(final String name) {
+        super();
+        this.name = name;
+    }
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Executes the given task on the event loop thread, starting the thread if needed.
+     */
+    public void execute(final Runnable task) {
+        if (inEventLoop()) {
+            task.run();
+            return;
+        }
+        tasks.add(task);
+        if (!startIfNeeded()) {
+            wakeup();
+        }
+    }
+
+    /**
+     * Executes the given task on the event loop thread after the given delay.
+     */
+    public void schedule(final Runnable task, final long delayNanos) {
+        final ScheduledTask scheduled = new ScheduledTask(task, System.nanoTime() + delayNanos);
+        execute(() -> scheduledTasks.add(scheduled));
+    }
+
+    public void register(final SocketChannel channel, final EventLoopHandler handler) {
+        register(channel, handler, SelectionKey.OP_READ);
+    }
+
+    /**
+     * Registers the given non-blocking channel for the given interest set, on the event loop thread.
+     */
+    public void register(final SocketChannel channel, final EventLoopHandler handler, final int ops) {
+        execute(() -> {
+            try {
+                channel.register(selector, ops, handler);
+            } catch (final IOException e) {
+                handler.fail(e);
+            }
+        });
+    }
+
+    public void interestOps(final SocketChannel channel, final int ops) {
+        final SelectionKey key = channel.keyFor(selector);
+        if (key != null && key.isValid()) {
+            key.interestOps(ops);
+        }
+    }
+
+    /**
+     * @return buffer shared by all channels of this loop, to be used only on the event loop thread
+     */
+    public ByteBuffer readBuffer() {
+        return readBuffer;
+    }
+
+    void wakeup() {
+        final Selector s = selector;
+        if (s != null && wakeupPending.compareAndSet(false, true)) {
+            s.wakeup();
+        }
+    }
+
+    private synchronized boolean startIfNeeded() {
+        if (running.get()) {
+            return false;
+        }
+        try {
+            selector = Selector.open();
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not open selector", e);
+        }
+        running.set(true);
+        final Thread t = new Thread(this, name);
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+        return true;
+    }
+
+    @Override
+    public void run() {
+        LOGGER.debug("[" + name + "]: Start event loop");
+        final Selector s = selector;
+        while (true) {
+            runTasks();
+            if (s.keys().isEmpty() && scheduledTasks.isEmpty() && tryStop(s)) {
+                break;
+            }
+            try {
+                final long timeout = selectTimeout();
+                if (timeout > 0) {
+                    s.select(timeout);
+                } else {
+                    s.selectNow();
+                }
+                wakeupPending.set(false);
+                processSelectedKeys(s);
+            } catch (final IOException e) {
+                LOGGER.error("[" + name + "]: Error in event loop", e);
+            }
+        }
+        LOGGER.debug("[" + name + "]: Stop event loop");
+    }
+
+    private boolean tryStop(final Selector s) {
+        synchronized (this) {
+            if (!tasks.isEmpty()) {
+                return false;
+            }
+            running.set(false);
+            thread = null;
+        }
+        try {
+            s.close();
+        } catch (final IOException e) {
+            LOGGER.debug("[" + name + "]: Error closing selector", e);
+        }
+        return true;
+    }
+
+    private long selectTimeout() {
+        final ScheduledTask next = scheduledTasks.peek();
+        if (next == null) {
+            return SELECT_TIMEOUT;
+        }
+        final long delay = next.deadline - System.nanoTime();
+        return delay > 0 ? Math.min(SELECT_TIMEOUT, TimeUnit.NANOSECONDS.toMillis(delay) + 1) : 0L;
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            run(task);
+        }
+        final long now = System.nanoTime();
+        ScheduledTask scheduled;
+        while ((scheduled = scheduledTasks.peek()) != null && scheduled.deadline - now <= 0) {
+            scheduledTasks.poll();
+            run(scheduled.task);
+        }
+    }
+
+    private void run(final Runnable task) {
+        try {
+            task.run();
+        } catch (final Exception e) {
+            LOGGER.error("[" + name + "]: Error executing task", e);
+        }
+    }
+
+    private void processSelectedKeys(final Selector s) {
+        final Iterator<SelectionKey> it = s.selectedKeys().iterator();
+        while (it.hasNext()) {
+            final SelectionKey key = it.next();
+            it.remove();
+            final EventLoopHandler handler = (EventLoopHandler) key.attachment();
+            try {
+                if (key.isConnectable()) {
+                    handler.onConnectable();
+                }
+                if (key.isValid() && key.isReadable()) {
+                    handler.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    handler.onWritable();
+                }
+            } catch (final CancelledKeyException e) {
+                handler.fail(new IOException("The socket is closed.", e));
+            }
+        }
+    }
+
+    private static class ScheduledTask implements Comparable<ScheduledTask> {
+
+        private final Runnable task;
+        private final long deadline;
+
+        private ScheduledTask(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int compareTo(final ScheduledTask o) {
+            return Long.compare(deadline - o.deadline, 0L);
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.internal.ArangoDefaults;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed set of {@link VstEventLoop}s shared by all non-blocking connections of a driver instance. Connections are
+ * assigned to the loops in round robin order.
+ */
+public class VstEventLoopGroup {
+
+    private static final AtomicInteger GROUP_ID = new AtomicInteger();
+
+    private final VstEventLoop[] loops;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public VstEventLoopGroup(final Integer threads) {
+        this(threads, "arangodb-vst-");
+    }
+
+    /**
+     * @param namePrefix prefix of the names of the event loop threads
+     */
+    public VstEventLoopGroup(final Integer threads, final String namePrefix) {
+        super();
+        final int n = threads != null && threads > 0 ? threads : ArangoDefaults.DEFAULT_NIO_THREADS;
+        final int groupId = GROUP_ID.incrementAndGet();
+        loops = new VstEventLoop[n];
+        for (int i = 0; i < n; i++) {
+            loops[i] = new VstEventLoop(namePrefix + groupId + "-" + i);
+        }
+    }
+
+    public VstEventLoop next() {
+        return loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+    }
+
+    public int size() {
+        return loops.length;
+    }
+
+}
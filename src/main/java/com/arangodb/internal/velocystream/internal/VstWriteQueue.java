@@ -0,0 +1,188 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.internal.ArangoDefaults;
+import com.arangodb.velocypack.VPackSlice;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outgoing messages of a VST connection. Any number of threads may {@link #add(Message, Collection)} messages,
+ * whereas only one writer at a time may {@link #drain(List, int)} their chunks into buffers for a gathering write.
+ * <p>
+ * Chunks of concurrent messages are interleaved round-robin, so that a large message does not delay the messages
+ * queued after it until all of its chunks are written. Messages fitting into a single chunk are interactive and
+ * preferred over multi-chunk messages, by at most {@link #INTERACTIVE_WEIGHT} chunks per chunk of bulk traffic.
+ * <p>
+ * The chunk headers of a write are encoded into a single slab owned by the writer, which is reused by the next write.
+ */
+public class VstWriteQueue {
+
+    static final int INTERACTIVE_WEIGHT = 4;
+    private static final int HEADER_SLAB_SIZE = 64 * ArangoDefaults.CHUNK_MAX_HEADER_SIZE;
+
+    private final Queue<OutgoingMessage> queue = new ConcurrentLinkedQueue<>();
+    // messages added and not completely drained yet, the only state read by producers
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // accessed by the writer only
+    private final Deque<OutgoingMessage> interactive = new ArrayDeque<>();
+    private final Deque<OutgoingMessage> bulk = new ArrayDeque<>();
+    private int interactiveInRow;
+    private ByteBuffer headers = ByteBuffer.allocate(HEADER_SLAB_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    public void add(final Message message, final Collection<Chunk> chunks) {
+        pending.incrementAndGet();
+        queue.add(new OutgoingMessage(message, chunks));
+    }
+
+    public boolean isEmpty() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * Appends the buffers of the pending chunks to {@code buffers}, until at least {@code maxBytes} bytes have been
+     * collected or no chunk is pending anymore. A chunk is never split across two drains.
+     * <p>
+     * A drain into an empty list reuses the header slab, so the buffers of the previous write must have been written
+     * by then. Draining into a non-empty list appends to the same write.
+     *
+     * @return number of collected bytes
+     */
+    public int drain(final List<ByteBuffer> buffers, final int maxBytes) {
+        if (buffers.isEmpty()) {
+            headers.clear();
+        }
+        int bytes = 0;
+        while (bytes < maxBytes) {
+            OutgoingMessage message;
+            while ((message = queue.poll()) != null) {
+                (message.isInteractive() ? interactive : bulk).add(message);
+            }
+            message = next();
+            if (message == null) {
+                break;
+            }
+            final Chunk chunk = message.next();
+            final ByteBuffer chunkHead = chunkHead(chunk);
+            buffers.add(chunkHead);
+            bytes += chunkHead.remaining() + message.addContent(chunk, buffers);
+            if (message.hasNext()) {
+                bulk.add(message);
+            } else {
+                pending.decrementAndGet();
+            }
+        }
+        return bytes;
+    }
+
+    private OutgoingMessage next() {
+        if (!interactive.isEmpty() && (interactiveInRow < INTERACTIVE_WEIGHT || bulk.isEmpty())) {
+            interactiveInRow++;
+            return interactive.poll();
+        }
+        interactiveInRow = 0;
+        return bulk.poll();
+    }
+
+    public void clear() {
+        queue.clear();
+        interactive.clear();
+        bulk.clear();
+        pending.set(0);
+    }
+
+    private ByteBuffer chunkHead(final Chunk chunk) {
+        final long messageLength = chunk.getMessageLength();
+        final int headLength = messageLength > -1L ? ArangoDefaults.CHUNK_MAX_HEADER_SIZE
+                : ArangoDefaults.CHUNK_MIN_HEADER_SIZE;
+        if (headers.remaining() < headLength) {
+            // the full slab stays referenced by the buffers collected so far
+            headers = ByteBuffer.allocate(headers.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        final int offset = headers.position();
+        headers.putInt(chunk.getContentLength() + headLength);
+        headers.putInt(chunk.getChunkX());
+        headers.putLong(chunk.getMessageId());
+        if (messageLength > -1L) {
+            headers.putLong(messageLength);
+        }
+        return ByteBuffer.wrap(headers.array(), offset, headLength);
+    }
+
+    private static class OutgoingMessage {
+
+        private final Message message;
+        private final Iterator<Chunk> chunks;
+        private final boolean interactive;
+
+        private OutgoingMessage(final Message message, final Collection<Chunk> chunks) {
+            this.message = message;
+            this.chunks = chunks.iterator();
+            interactive = chunks.size() == 1;
+        }
+
+        private boolean isInteractive() {
+            return interactive;
+        }
+
+        private boolean hasNext() {
+            return chunks.hasNext();
+        }
+
+        private Chunk next() {
+            return chunks.next();
+        }
+
+        /**
+         * @return length of the content of the chunk
+         */
+        private int addContent(final Chunk chunk, final List<ByteBuffer> buffers) {
+            final VPackSlice head = message.getHead();
+            final int headLength = head.getByteSize();
+            final int contentOffset = chunk.getContentOffset();
+            final int contentLength = chunk.getContentLength();
+            int written = 0;
+            if (contentOffset < headLength) {
+                written = Math.min(contentLength, headLength - contentOffset);
+                buffers.add(ByteBuffer.wrap(head.getBuffer(), head.getStart() + contentOffset, written));
+            }
+            if (written < contentLength) {
+                final VPackSlice body = message.getBody();
+                buffers.add(ByteBuffer.wrap(body.getBuffer(), body.getStart() + contentOffset + written - headLength,
+                        contentLength - written));
+            }
+            return contentLength;
+        }
+
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.util;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Request;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries requests failing with a transient error, with exponential backoff and jitter.
+ * <ul>
+ * <li>A write-write conflict (error 1200) aborted the operation on the server, so any request failing with it is
+ * retried.</li>
+ * <li>Timeouts, I/O errors like a connection reset and {@code 503 Service Unavailable} leave it open whether the
+ * request was processed, so only idempotent requests are retried: reads, and inserts of documents with an explicit
+ * {@code _key} and an {@code overwrite} or {@code overwriteMode} (other than {@code conflict}) option.</li>
+ * <li>Requests within a stream transaction are never retried.</li>
+ * </ul>
+ * Retries are limited by a budget: every request adds a fraction of a retry to it, every retry takes a whole one, so
+ * that retries cannot multiply the load of a server that is overloaded already.
+ */
+public class DefaultRetryPolicy implements RetryPolicy {
+
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final long DEFAULT_DELAY = 100L;
+    public static final long DEFAULT_MAX_DELAY = 5000L;
+    public static final double DEFAULT_BUDGET = 0.1;
+
+    static final long MAX_BUDGET = 100L;
+
+    private static final long TOKENS_PER_RETRY = 1000L;
+    private static final int MAX_SHIFT = 30;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final int ERROR_CONFLICT = 1200;
+    private static final String TRANSACTION_ID = "x-arango-trx-id";
+    private static final String OVERWRITE = "overwrite";
+    private static final String OVERWRITE_MODE = "overwriteMode";
+    private static final String OVERWRITE_MODE_CONFLICT = "conflict";
+    private static final String KEY = "_key";
+
+    private final int maxRetries;
+    private final long delay;
+    private final long maxDelay;
+    private final long tokensPerRequest;
+    private final AtomicLong tokens;
+
+    public DefaultRetryPolicy() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_DELAY, DEFAULT_MAX_DELAY, DEFAULT_BUDGET);
+    }
+
+    /**
+     * @param maxRetries maximum number of retries of a request
+     * @param delay      delay before the first retry in milliseconds, doubled for every further one
+     * @param maxDelay   upper bound of the delay in milliseconds
+     * @param budget     retries per request that may be spent on average, e.g. {@code 0.1} for one retry per ten
+     *                   requests
+     */
+    public DefaultRetryPolicy(final int maxRetries, final long delay, final long maxDelay, final double budget) {
+        super();
+        if (maxRetries < 0 || delay < 0 || maxDelay < delay || budget < 0) {
+            throw new ArangoDBException(String.format(
+                    "Invalid retry policy: maxRetries=%s, delay=%s, maxDelay=%s, budget=%s",
+                    maxRetries, delay, maxDelay, budget));
+        }
+        this.maxRetries = maxRetries;
+        this.delay = delay;
+        this.maxDelay = maxDelay;
+        tokensPerRequest = Math.round(budget * TOKENS_PER_RETRY);
+        tokens = new AtomicLong(MAX_BUDGET * TOKENS_PER_RETRY);
+    }
+
+    @Override
+    public void onRequest(final Request request) {
+        if (tokensPerRequest > 0 && tokens.get() < MAX_BUDGET * TOKENS_PER_RETRY) {
+            tokens.accumulateAndGet(tokensPerRequest, (current, added) ->
+                    Math.min(MAX_BUDGET * TOKENS_PER_RETRY, current + added));
+        }
+    }
+
+    @Override
+    public long retryDelay(final Request request, final Throwable error, final int attempt) {
+        if (attempt > maxRetries || !isRetryable(request, error) || !withdraw()) {
+            return -1L;
+        }
+        return backoff(attempt);
+    }
+
+    /**
+     * @return number of retries left in the budget
+     */
+    public long getBudget() {
+        return tokens.get() / TOKENS_PER_RETRY;
+    }
+
+    protected boolean isRetryable(final Request request, final Throwable error) {
+        if (request.getHeaderParam().containsKey(TRANSACTION_ID)) {
+            return false;
+        }
+        return isConflict(error) || (isTransient(error) && isIdempotent(request));
+    }
+
+    protected boolean isIdempotent(final Request request) {
+        switch (request.getRequestType()) {
+            case GET:
+            case HEAD:
+            case OPTIONS:
+                return true;
+            case POST:
+            case PUT:
+            case PATCH:
+                return isOverwrite(request) && hasKeys(request.getBody());
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isOverwrite(final Request request) {
+        final String overwriteMode = request.getQueryParam().get(OVERWRITE_MODE);
+        if (overwriteMode != null) {
+            return !OVERWRITE_MODE_CONFLICT.equals(overwriteMode);
+        }
+        return Boolean.parseBoolean(request.getQueryParam().get(OVERWRITE));
+    }
+
+    private static boolean hasKeys(final VPackSlice body) {
+        if (body == null) {
+            return false;
+        }
+        if (body.isObject()) {
+            return body.get(KEY).isString();
+        }
+        if (body.isArray() && body.getLength() > 0) {
+            for (final Iterator<VPackSlice> iterator = body.arrayIterator(); iterator.hasNext(); ) {
+                final VPackSlice document = iterator.next();
+                if (!document.isObject() || !document.get(KEY).isString()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isConflict(final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ArangoDBException) {
+                final Integer errorNum = ((ArangoDBException) e).getErrorNum();
+                if (errorNum != null && errorNum == ERROR_CONFLICT) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransient(final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof IOException || e instanceof TimeoutException) {
+                return true;
+            }
+            if (e instanceof ArangoDBException) {
+                final Integer responseCode = ((ArangoDBException) e).getResponseCode();
+                if (responseCode != null && responseCode == SERVICE_UNAVAILABLE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKENS_PER_RETRY) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKENS_PER_RETRY));
+        return true;
+    }
+
+    /**
+     * @return delay before the retry after the given attempt, in milliseconds. Half of the delay is randomized, so
+     * that requests failing at the same time are not retried at the same time.
+     */
+    long backoff(final int attempt) {
+        final int shift = Math.min(attempt - 1, MAX_SHIFT);
+        final long d = delay > (maxDelay >> shift) ? maxDelay : delay << shift;
+        final long half = d / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+}
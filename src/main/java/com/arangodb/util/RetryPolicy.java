@@ -0,0 +1,47 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.util;
+
+import com.arangodb.velocystream.Request;
+
+/**
+ * Decides whether and when a failed request is sent again. The same policy applies to VelocyStream and HTTP
+ * requests, both of the synchronous and the asynchronous driver.
+ *
+ * @see DefaultRetryPolicy
+ */
+public interface RetryPolicy {
+
+    /**
+     * Invoked once per request, before it is sent the first time.
+     */
+    default void onRequest(final Request request) {
+    }
+
+    /**
+     * @param request the failed request
+     * @param error   the error of the failed attempt
+     * @param attempt number of the failed attempt, starting with 1
+     * @return delay before the next attempt in milliseconds, or a negative value if the request must not be retried
+     */
+    long retryDelay(Request request, Throwable error, int attempt);
+
+}
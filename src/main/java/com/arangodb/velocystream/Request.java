@@ -40,6 +40,8 @@ public class Request {
     private final Map<String, String> headerParam;
     @Expose(serialize = false)
     private VPackSlice body;
+    @Expose(serialize = false)
+    private Integer timeout;
 
     public Request(final String database, final RequestType requestType, final String path) {
         super();
@@ -112,4 +114,20 @@ public class Request {
         return this;
     }
 
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the time in milliseconds to wait for the response of this request, overriding the timeout configured on
+     * the driver. Only applied to VelocyStream connections.
+     *
+     * @param timeout timeout in milliseconds, {@code 0} to wait forever
+     * @return this request
+     */
+    public Request setTimeout(final Integer timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
 }
@@ -51,6 +51,8 @@ public abstract class BaseTest {
             new ArangoDB.Builder().useProtocol(Protocol.VST).build(),
             new ArangoDB.Builder().useProtocol(Protocol.HTTP_JSON).build(),
             new ArangoDB.Builder().useProtocol(Protocol.HTTP_VPACK).build(),
+            new ArangoDB.Builder().useProtocol(Protocol.HTTP2_JSON).build(),
+            new ArangoDB.Builder().useProtocol(Protocol.HTTP2_VPACK).build(),
             new ArangoDB.Builder().serializer(new ArangoJack()).build()
     );
 
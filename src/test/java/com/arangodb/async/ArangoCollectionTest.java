@@ -21,12 +21,15 @@
 package com.arangodb.async;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.entity.*;
 import com.arangodb.model.*;
 import com.arangodb.model.DocumentImportOptions.OnDuplicate;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -44,11 +47,13 @@ import static org.junit.Assume.assumeTrue;
  * @author Mark Vollmary
  * @author Michele Rastelli
  */
+@RunWith(Parameterized.class)
 public class ArangoCollectionTest extends BaseTest {
 
     private static final String COLLECTION_NAME = "db_collection_test";
 
-    public ArangoCollectionTest() throws ExecutionException, InterruptedException {
+    public ArangoCollectionTest(final Protocol protocol) throws ExecutionException, InterruptedException {
+        super(protocol);
         ArangoCollectionAsync collection = db.collection(COLLECTION_NAME);
         if (!collection.exists().get()) {
             collection.create().get();
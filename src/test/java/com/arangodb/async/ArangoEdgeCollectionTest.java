@@ -21,11 +21,14 @@
 package com.arangodb.async;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.entity.*;
 import com.arangodb.model.*;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -38,12 +41,17 @@ import static org.junit.Assert.fail;
 /**
  * @author Mark Vollmary
  */
+@RunWith(Parameterized.class)
 public class ArangoEdgeCollectionTest extends BaseTest {
 
     private static final String GRAPH_NAME = "db_collection_test";
     private static final String EDGE_COLLECTION_NAME = "db_edge_collection_test";
     private static final String VERTEX_COLLECTION_NAME = "db_vertex_collection_test";
 
+    public ArangoEdgeCollectionTest(final Protocol protocol) {
+        super(protocol);
+    }
+
     @BeforeClass
     public static void setup() throws InterruptedException, ExecutionException {
         if (!db.collection(VERTEX_COLLECTION_NAME).exists().get()) {
@@ -20,6 +20,7 @@
 
 package com.arangodb.async;
 
+import com.arangodb.Protocol;
 import com.arangodb.entity.CollectionPropertiesEntity;
 import com.arangodb.entity.EdgeDefinition;
 import com.arangodb.entity.GraphEntity;
@@ -28,6 +29,8 @@ import com.arangodb.model.GraphCreateOptions;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -43,6 +46,7 @@ import static org.junit.Assume.assumeTrue;
 /**
  * @author Mark Vollmary
  */
+@RunWith(Parameterized.class)
 public class ArangoGraphTest extends BaseTest {
 
     private static final String GRAPH_NAME = "db_collection_test";
@@ -56,6 +60,10 @@ public class ArangoGraphTest extends BaseTest {
     private static final Integer REPLICATION_FACTOR = 2;
     private static final Integer NUMBER_OF_SHARDS = 2;
 
+    public ArangoGraphTest(final Protocol protocol) {
+        super(protocol);
+    }
+
     @BeforeClass
     public static void setup() throws InterruptedException, ExecutionException {
         if (db.graph(GRAPH_NAME).exists().get()) {
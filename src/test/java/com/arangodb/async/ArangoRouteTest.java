@@ -21,9 +21,12 @@
 package com.arangodb.async;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.entity.BaseDocument;
 import com.arangodb.internal.ArangoRequestParam;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.concurrent.ExecutionException;
 
@@ -34,8 +37,13 @@ import static org.junit.Assert.fail;
 /**
  * @author Mark Vollmary
  */
+@RunWith(Parameterized.class)
 public class ArangoRouteTest extends BaseTest {
 
+    public ArangoRouteTest(final Protocol protocol) {
+        super(protocol);
+    }
+
   /*
 	@Test
 	public void get() throws InterruptedException, ExecutionException {
@@ -21,6 +21,7 @@
 package com.arangodb.async;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.entity.ViewEntity;
 import com.arangodb.entity.ViewType;
 import com.arangodb.entity.arangosearch.*;
@@ -30,6 +31,8 @@ import com.arangodb.model.arangosearch.ArangoSearchCreateOptions;
 import com.arangodb.model.arangosearch.ArangoSearchPropertiesOptions;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.*;
 import java.util.concurrent.ExecutionException;
@@ -43,10 +46,15 @@ import static org.junit.Assume.assumeTrue;
  * @author Mark Vollmary
  */
 
+@RunWith(Parameterized.class)
 public class ArangoSearchTest extends BaseTest {
 
     private static final String VIEW_NAME = "view_test";
 
+    public ArangoSearchTest(final Protocol protocol) {
+        super(protocol);
+    }
+
     @BeforeClass
     public static void setup() throws InterruptedException, ExecutionException {
         if (!isAtLeastVersion(arangoDB, 3, 4))
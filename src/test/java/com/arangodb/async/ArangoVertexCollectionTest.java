@@ -21,6 +21,7 @@
 package com.arangodb.async;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.entity.BaseDocument;
 import com.arangodb.entity.VertexEntity;
 import com.arangodb.entity.VertexUpdateEntity;
@@ -28,6 +29,8 @@ import com.arangodb.model.*;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.Collection;
 import java.util.concurrent.ExecutionException;
@@ -39,11 +42,16 @@ import static org.junit.Assert.fail;
 /**
  * @author Mark Vollmary
  */
+@RunWith(Parameterized.class)
 public class ArangoVertexCollectionTest extends BaseTest {
 
     private static final String GRAPH_NAME = "db_collection_test";
     private static final String COLLECTION_NAME = "db_vertex_collection_test";
 
+    public ArangoVertexCollectionTest(final Protocol protocol) {
+        super(protocol);
+    }
+
     @BeforeClass
     public static void setup() throws InterruptedException, ExecutionException {
         if (!db.collection(COLLECTION_NAME).exists().get()) {
@@ -20,10 +20,13 @@
 
 package com.arangodb.async;
 
+import com.arangodb.Protocol;
 import com.arangodb.entity.ViewEntity;
 import com.arangodb.entity.ViewType;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.concurrent.ExecutionException;
 
@@ -35,10 +38,15 @@ import static org.junit.Assume.assumeTrue;
  * @author Mark Vollmary
  */
 
+@RunWith(Parameterized.class)
 public class ArangoViewTest extends BaseTest {
 
     private static final String VIEW_NAME = "view_test";
 
+    public ArangoViewTest(final Protocol protocol) {
+        super(protocol);
+    }
+
     @BeforeClass
     public static void setup() throws InterruptedException, ExecutionException {
         if (!isAtLeastVersion(arangoDB, 3, 4))
@@ -20,6 +20,7 @@
 
 package com.arangodb.async;
 
+import com.arangodb.Protocol;
 import com.arangodb.entity.ArangoDBEngine;
 import com.arangodb.entity.License;
 import com.arangodb.entity.ServerRole;
@@ -27,7 +28,10 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.rules.TestRule;
+import org.junit.runners.Parameterized.Parameters;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 
@@ -39,12 +43,35 @@ public abstract class BaseTest {
     static final String TEST_DB = "java_driver_test_db";
     static ArangoDBAsync arangoDB;
     static ArangoDatabaseAsync db;
+    private static Protocol protocol;
+
+    @Parameters
+    public static List<Protocol> protocols() {
+        return Arrays.asList(Protocol.VST, Protocol.HTTP_JSON, Protocol.HTTP_VPACK);
+    }
+
+    protected BaseTest(final Protocol protocol) {
+        useProtocol(protocol);
+    }
+
+    /**
+     * Replaces the shared driver by one using the given protocol. The test database and its content are kept.
+     */
+    private static void useProtocol(final Protocol protocol) {
+        if (arangoDB != null && protocol == BaseTest.protocol) {
+            return;
+        }
+        if (arangoDB != null) {
+            arangoDB.shutdown();
+        }
+        arangoDB = new ArangoDBAsync.Builder().useProtocol(protocol).build();
+        db = arangoDB.db(TEST_DB);
+        BaseTest.protocol = protocol;
+    }
 
     @BeforeClass
     public static void init() throws InterruptedException, ExecutionException {
-        if (arangoDB == null) {
-            arangoDB = new ArangoDBAsync.Builder().build();
-        }
+        useProtocol(Protocol.VST);
 
         if (arangoDB.db(TEST_DB).exists().get()) {
             arangoDB.db(TEST_DB).drop().get();
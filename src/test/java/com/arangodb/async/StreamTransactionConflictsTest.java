@@ -21,6 +21,7 @@
 package com.arangodb.async;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.Protocol;
 import com.arangodb.entity.ArangoDBEngine;
 import com.arangodb.entity.BaseDocument;
 import com.arangodb.entity.StreamTransactionEntity;
@@ -29,6 +30,8 @@ import com.arangodb.model.StreamTransactionOptions;
 import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -40,11 +43,13 @@ import static org.junit.Assume.assumeTrue;
 /**
  * @author Michele Rastelli
  */
+@RunWith(Parameterized.class)
 public class StreamTransactionConflictsTest extends BaseTest {
 
     private static final String COLLECTION_NAME = "db_concurrent_stream_transactions_test";
 
-    public StreamTransactionConflictsTest() throws ExecutionException, InterruptedException {
+    public StreamTransactionConflictsTest(final Protocol protocol) throws ExecutionException, InterruptedException {
+        super(protocol);
         if (db.collection(COLLECTION_NAME).exists().get())
             db.collection(COLLECTION_NAME).drop().get();
 
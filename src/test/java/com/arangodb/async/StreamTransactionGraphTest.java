@@ -21,6 +21,7 @@
 package com.arangodb.async;
 
 
+import com.arangodb.Protocol;
 import com.arangodb.entity.ArangoDBEngine;
 import com.arangodb.entity.BaseDocument;
 import com.arangodb.entity.BaseEdgeDocument;
@@ -40,6 +41,8 @@ import com.arangodb.model.VertexReplaceOptions;
 import com.arangodb.model.VertexUpdateOptions;
 import org.junit.After;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.Collections;
 import java.util.concurrent.ExecutionException;
@@ -53,6 +56,7 @@ import static org.junit.Assume.assumeTrue;
 /**
  * @author Michele Rastelli
  */
+@RunWith(Parameterized.class)
 public class StreamTransactionGraphTest extends BaseTest {
 
     private static final String GRAPH_NAME = "graph_stream_transaction_graph_test";
@@ -65,7 +69,8 @@ public class StreamTransactionGraphTest extends BaseTest {
     private ArangoVertexCollectionAsync vertexCollection2;
     private ArangoEdgeCollectionAsync edgeCollection;
 
-    public StreamTransactionGraphTest() throws ExecutionException, InterruptedException {
+    public StreamTransactionGraphTest(final Protocol protocol) throws ExecutionException, InterruptedException {
+        super(protocol);
 
         graph = db.graph(GRAPH_NAME);
 
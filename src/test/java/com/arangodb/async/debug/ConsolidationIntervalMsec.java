@@ -20,6 +20,7 @@
 
 package com.arangodb.async.debug;
 
+import com.arangodb.Protocol;
 import com.arangodb.async.ArangoDBAsync;
 import com.arangodb.async.ArangoDatabaseAsync;
 import com.arangodb.async.BaseTest;
@@ -30,6 +31,8 @@ import com.arangodb.entity.arangosearch.CollectionLink;
 import com.arangodb.entity.arangosearch.FieldLink;
 import com.arangodb.model.arangosearch.ArangoSearchCreateOptions;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.concurrent.ExecutionException;
 
@@ -42,8 +45,13 @@ import static org.junit.Assume.assumeTrue;
  * <p>
  * https://github.com/arangodb/arangodb-java-driver-async/issues/15
  */
+@RunWith(Parameterized.class)
 public class ConsolidationIntervalMsec extends BaseTest {
 
+    public ConsolidationIntervalMsec(final Protocol protocol) {
+        super(protocol);
+    }
+
     @Test
     public void consolidationIntervalMsec() throws ExecutionException, InterruptedException {
         assumeTrue(isAtLeastVersion(3, 4));
@@ -0,0 +1,187 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.http;
+
+import com.arangodb.Protocol;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.velocystream.internal.VstEventLoopGroup;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.fail;
+
+/**
+ * Drives {@link HttpConnectionAsync} against a scripted server socket.
+ */
+public class HttpConnectionAsyncTest {
+
+    private static final String OK = "HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n";
+    private static final VstEventLoopGroup LOOPS = new VstEventLoopGroup(1, "test-http-");
+
+    private ServerSocket server;
+    private HttpConnectionAsync connection;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        server.setSoTimeout(5000);
+        connection = new HttpConnectionAsync.Builder().host(new HostDescription("127.0.0.1", server.getLocalPort()))
+                .contentType(Protocol.HTTP_VPACK).timeout(5000).eventLoopGroup(LOOPS).build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connection.close();
+        server.close();
+    }
+
+    @Test
+    public void resendsIdempotentRequestOnStaleConnection() throws Exception {
+        final CompletableFuture<Response> warmUp = connection.execute(request(RequestType.GET));
+        try (final Socket first = accept()) {
+            assertThat(readHead(first), startsWith("GET /_db/_system/_api/version"));
+            write(first, OK);
+            assertThat(warmUp.get(5, TimeUnit.SECONDS).getResponseCode(), is(200));
+
+            // the server closes the idle connection while the next request is on its way
+            final CompletableFuture<Response> response = connection.execute(request(RequestType.GET));
+            readHead(first);
+            first.close();
+            try (final Socket second = accept()) {
+                assertThat(readHead(second), startsWith("GET /_db/_system/_api/version"));
+                write(second, OK);
+                assertThat(response.get(5, TimeUnit.SECONDS).getResponseCode(), is(200));
+            }
+        }
+    }
+
+    @Test
+    public void doesNotResendWrittenPost() throws Exception {
+        final CompletableFuture<Response> warmUp = connection.execute(request(RequestType.GET));
+        try (final Socket socket = accept()) {
+            readHead(socket);
+            write(socket, OK);
+            warmUp.get(5, TimeUnit.SECONDS);
+
+            final CompletableFuture<Response> response = connection.execute(request(RequestType.POST));
+            assertThat(readHead(socket), startsWith("POST "));
+            socket.close();
+            assertFailure(response, IOException.class);
+        }
+        server.setSoTimeout(200);
+        try {
+            server.accept().close();
+            fail();
+        } catch (final SocketTimeoutException expected) {
+        }
+    }
+
+    @Test
+    public void timesOutWaitingForResponse() throws Exception {
+        final Request request = request(RequestType.GET);
+        request.setTimeout(100);
+        final CompletableFuture<Response> response = connection.execute(request);
+        // queued behind the first request, which occupies the connection
+        final Request queued = request(RequestType.GET);
+        queued.setTimeout(50);
+        final CompletableFuture<Response> waiting = connection.execute(queued);
+        try (final Socket first = accept()) {
+            readHead(first);
+            assertFailure(waiting, SocketTimeoutException.class);
+            assertFailure(response, SocketTimeoutException.class);
+            assertThat(first.getInputStream().read(), is(-1));
+        }
+        // the late response could not be told apart from the next one, so a new connection is used
+        final CompletableFuture<Response> next = connection.execute(request(RequestType.GET));
+        try (final Socket second = accept()) {
+            readHead(second);
+            write(second, OK);
+            assertThat(next.get(5, TimeUnit.SECONDS).getResponseCode(), is(200));
+        }
+        // the count is released on the event loop right after completing the future
+        for (int i = 0; i < 100 && connection.getInFlight() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(connection.getInFlight(), is(0));
+    }
+
+    private Socket accept() throws IOException {
+        final Socket socket = server.accept();
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static Request request(final RequestType requestType) {
+        return new Request("_system", requestType, "/_api/version");
+    }
+
+    private static void assertFailure(final CompletableFuture<Response> response,
+                                      final Class<? extends Exception> type) throws Exception {
+        try {
+            response.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(type)));
+        }
+    }
+
+    /**
+     * Reads a request head, the requests of the tests have no body.
+     */
+    private static String readHead(final Socket socket) throws IOException {
+        final InputStream in = socket.getInputStream();
+        final StringBuilder head = new StringBuilder();
+        while (head.length() < 4 || !head.substring(head.length() - 4).equals("\r\n\r\n")) {
+            final int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed");
+            }
+            head.append((char) b);
+        }
+        return head.toString();
+    }
+
+    private static void write(final Socket socket, final String response) throws IOException {
+        final OutputStream out = socket.getOutputStream();
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.http;
+
+import org.junit.Test;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+
+public class HttpResponseDecoderTest {
+
+    @Test
+    public void contentLengthSplitIntoFragments() throws ProtocolException {
+        final HttpResponseDecoder decoder = new HttpResponseDecoder();
+        decoder.reset(false);
+        final String response = "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 11\r\n\r\n"
+                + "{\"a\":\"bc\"}\n";
+        for (int i = 0; i < response.length() - 1; i++) {
+            assertThat(decoder.decode(buffer(response.substring(i, i + 1))), is(false));
+        }
+        assertThat(decoder.decode(buffer(response.substring(response.length() - 1))), is(true));
+        assertThat(decoder.getStatus(), is(200));
+        assertThat(decoder.getHeaders().get("Content-Type"), is("application/json"));
+        assertThat(body(decoder), is("{\"a\":\"bc\"}\n"));
+        assertThat(decoder.isKeepAlive(), is(true));
+        assertThat(decoder.getKeepAliveTimeout(), is(-1L));
+    }
+
+    @Test
+    public void chunkedWithExtensionsAndTrailers() throws ProtocolException {
+        final HttpResponseDecoder decoder = new HttpResponseDecoder();
+        decoder.reset(false);
+        final ByteBuffer buffer = buffer("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5;ext=1\r\nhello\r\nA\r\n, world!!!\r\n0\r\nX-Trailer: t\r\n\r\nHTTP/1.1");
+        assertThat(decoder.decode(buffer), is(true));
+        assertThat(body(decoder), is("hello, world!!!"));
+        assertThat(buffer.remaining(), is(8));
+    }
+
+    @Test
+    public void skipInterimResponses() throws ProtocolException {
+        final HttpResponseDecoder decoder = new HttpResponseDecoder();
+        decoder.reset(false);
+        assertThat(decoder.decode(buffer("HTTP/1.1 100 Continue\r\n\r\nHTTP/1.1 201 Created\r\n"
+                + "Content-Length: 2\r\n\r\n{}")), is(true));
+        assertThat(decoder.getStatus(), is(201));
+        assertThat(body(decoder), is("{}"));
+    }
+
+    @Test
+    public void noBody() throws ProtocolException {
+        final HttpResponseDecoder decoder = new HttpResponseDecoder();
+        decoder.reset(true);
+        assertThat(decoder.decode(buffer("HTTP/1.1 200 OK\r\nContent-Length: 42\r\n\r\n")), is(true));
+        assertThat(decoder.getBody(), is(nullValue()));
+
+        decoder.reset(false);
+        assertThat(decoder.decode(buffer("HTTP/1.1 204 No Content\n\n")), is(true));
+        assertThat(decoder.getStatus(), is(204));
+        assertThat(decoder.getBody(), is(nullValue()));
+    }
+
+    @Test
+    public void bodyUntilClose() throws ProtocolException {
+        final HttpResponseDecoder decoder = new HttpResponseDecoder();
+        decoder.reset(false);
+        assertThat(decoder.decode(buffer("HTTP/1.0 200 OK\r\n\r\n{\"a\":")), is(false));
+        assertThat(decoder.decode(buffer("1}")), is(false));
+        assertThat(decoder.endOfStream(), is(true));
+        assertThat(body(decoder), is("{\"a\":1}"));
+        assertThat(decoder.isKeepAlive(), is(false));
+    }
+
+    @Test
+    public void endOfStreamBeforeContentLength() throws ProtocolException {
+        final HttpResponseDecoder decoder = new HttpResponseDecoder();
+        decoder.reset(false);
+        assertThat(decoder.isStarted(), is(false));
+        assertThat(decoder.decode(buffer("HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nab")), is(false));
+        assertThat(decoder.isStarted(), is(true));
+        assertThat(decoder.endOfStream(), is(false));
+    }
+
+    @Test
+    public void keepAlive() throws ProtocolException {
+        final HttpResponseDecoder decoder = new HttpResponseDecoder();
+        decoder.reset(false);
+        decoder.decode(buffer("HTTP/1.1 200 OK\r\nConnection: Keep-Alive\r\nKeep-Alive: timeout=5, max=100\r\n"
+                + "Content-Length: 0\r\n\r\n"));
+        assertThat(decoder.isKeepAlive(), is(true));
+        assertThat(decoder.getKeepAliveTimeout(), is(TimeUnit.SECONDS.toNanos(5)));
+
+        decoder.reset(false);
+        decoder.decode(buffer("HTTP/1.1 200 OK\r\nConnection: close\r\nContent-Length: 0\r\n\r\n"));
+        assertThat(decoder.isKeepAlive(), is(false));
+    }
+
+    @Test
+    public void invalidResponses() {
+        for (final String response : Arrays.asList("FOO 200 OK\r\n", "HTTP/1.1 abc OK\r\n",
+                "HTTP/1.1 200 OK\r\nno-colon\r\n", "HTTP/1.1 200 OK\r\nContent-Length: -1\r\n\r\n",
+                "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nxyz\r\n",
+                "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n1\r\nab\r\n")) {
+            final HttpResponseDecoder decoder = new HttpResponseDecoder();
+            decoder.reset(false);
+            try {
+                decoder.decode(buffer(response));
+                fail(response);
+            } catch (final ProtocolException expected) {
+            }
+        }
+    }
+
+    private static ByteBuffer buffer(final String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String body(final HttpResponseDecoder decoder) {
+        return new String(decoder.getBody(), 0, decoder.getBodyLength(), StandardCharsets.UTF_8);
+    }
+
+}
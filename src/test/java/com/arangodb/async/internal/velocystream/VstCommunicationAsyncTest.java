@@ -0,0 +1,94 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.async.internal.velocystream;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.ArangoExecutorSync;
+import com.arangodb.internal.net.ConcurrencyLimitHostHandler;
+import com.arangodb.internal.net.Host;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.net.HostImpl;
+import com.arangodb.internal.net.HostResolver;
+import com.arangodb.internal.net.HostSet;
+import com.arangodb.internal.net.RoundRobinHostHandler;
+import com.arangodb.internal.velocystream.internal.MessageStore;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class VstCommunicationAsyncTest {
+
+    @Test
+    public void failedWriteReleasesConcurrencyLimit() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final HostDescription description = new HostDescription("127.0.0.1", server.getLocalPort());
+            final Host host = new HostImpl(null, description);
+            final HostResolver resolver = new HostResolver() {
+                @Override
+                public void init(final ArangoExecutorSync executorSync, final ArangoSerialization serialization) {
+                }
+
+                @Override
+                public HostSet resolve(final boolean initial, final boolean closeConnections) {
+                    return new HostSet(Collections.singletonList(host));
+                }
+            };
+            final ConcurrencyLimitHostHandler hostHandler = new ConcurrencyLimitHostHandler(
+                    new RoundRobinHostHandler(resolver), 1);
+            final VstCommunicationAsync communication = new VstCommunicationAsync.Builder(hostHandler).build(null);
+
+            final VstConnectionAsync connection = new VstConnectionAsync.Builder().host(description)
+                    .messageStore(new MessageStore()).build();
+            connection.open();
+            try (final Socket ignored = server.accept()) {
+                // writing to the closed socket fails synchronously
+                connection.close();
+                for (int i = 0; i < 3; i++) {
+                    final CompletableFuture<Response> future = communication.execute(
+                            new Request("_system", RequestType.GET, "/_api/version"), host, connection);
+                    try {
+                        future.get();
+                        fail();
+                    } catch (final ExecutionException e) {
+                        assertThat(e.getCause(), is(instanceOf(ArangoDBException.class)));
+                        assertThat(e.getCause().getCause(), is(instanceOf(IOException.class)));
+                    }
+                }
+            }
+            assertThat(hostHandler.getLimits().get(description) >= 1, is(true));
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import com.arangodb.internal.net.CommunicationProtocol;
+import com.arangodb.internal.net.HostHandle;
+import com.arangodb.internal.util.ByteArrayPool;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ArangoExecutorSyncTest {
+
+    private static final Request REQUEST = new Request("_system", RequestType.GET, "/_api/version");
+
+    private static ArangoExecutorSync executor(final ByteArrayPool pool, final byte[] buffer) {
+        final VPackSlice body = new VPackBuilder().add(ValueType.OBJECT).add("version", "3.8.0").close().slice();
+        System.arraycopy(body.getBuffer(), body.getStart(), buffer, 0, body.getByteSize());
+        final CommunicationProtocol protocol = new CommunicationProtocol() {
+            @Override
+            public Response execute(final Request request, final HostHandle hostHandle) {
+                final Response response = new Response();
+                response.setResponseCode(200);
+                response.setBody(new VPackSlice(buffer));
+                return response;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return new ArangoExecutorSync(protocol, null, new DocumentCache(), null, null, pool);
+    }
+
+    @Test
+    public void releasesBufferOfDeserializedResponse() {
+        final ByteArrayPool pool = new ByteArrayPool();
+        final byte[] buffer = pool.acquire(100);
+        final String version = executor(pool, buffer)
+                .execute(REQUEST, response -> response.getBody().get("version").getAsString());
+        assertThat(version, is("3.8.0"));
+        assertThat(pool.acquire(100), is(sameInstance(buffer)));
+    }
+
+    @Test
+    public void keepsBufferReferencedByResult() {
+        final ByteArrayPool pool = new ByteArrayPool();
+        final byte[] buffer = pool.acquire(100);
+        final ArangoExecutorSync executor = executor(pool, buffer);
+        final Response response = executor.execute(REQUEST, r -> r);
+        assertThat(pool.acquire(100), is(not(sameInstance(buffer))));
+        final VPackSlice version = executor.execute(REQUEST, r -> r.getBody().get("version"));
+        assertThat(pool.acquire(100), is(not(sameInstance(buffer))));
+        assertThat(version.getAsString(), is("3.8.0"));
+        assertThat(response.getBody().get("version").getAsString(), is("3.8.0"));
+    }
+
+}
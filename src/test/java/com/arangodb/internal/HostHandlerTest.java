@@ -25,6 +25,9 @@ import com.arangodb.internal.net.*;
 import com.arangodb.util.ArangoSerialization;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -75,11 +78,29 @@ public class HostHandlerTest {
 
     };
 
+    private static final HostResolver TWO_HOSTS = new HostResolver() {
+
+        @Override
+        public HostSet resolve(final boolean initial, final boolean closeConnections) {
+
+            HostSet set = new HostSet();
+            set.addHost(HOST_0);
+            set.addHost(HOST_1);
+            return set;
+        }
+
+        @Override
+        public void init(ArangoExecutorSync executor, ArangoSerialization arangoSerialization) {
+
+        }
+
+    };
+
     @Test
     public void fallbachHostHandlerSingleHost() {
         final HostHandler handler = new FallbackHostHandler(SINGLE_HOST);
         assertThat(handler.get(null, null), is(HOST_0));
-        handler.fail();
+        handler.fail(null, null);
         assertThat(handler.get(null, null), is(HOST_0));
     }
 
@@ -88,15 +109,15 @@ public class HostHandlerTest {
         final HostHandler handler = new FallbackHostHandler(MULTIPLE_HOSTS);
         for (int i = 0; i < 3; i++) {
             assertThat(handler.get(null, null), is(HOST_0));
-            handler.fail();
+            handler.fail(null, null);
             assertThat(handler.get(null, null), is(HOST_1));
-            handler.fail();
+            handler.fail(null, null);
             assertThat(handler.get(null, null), is(HOST_2));
             if (i < 2) {
-                handler.fail();
+                handler.fail(null, null);
                 assertThat(handler.get(null, null), is(HOST_0));
             } else {
-                handler.fail();
+                handler.fail(null, null);
                 try {
                     handler.get(null, null);
                     fail();
@@ -106,11 +127,31 @@ public class HostHandlerTest {
         }
     }
 
+    @Test
+    public void fallbackHostHandlerIgnoresStaleFailure() {
+        final HostHandler handler = new FallbackHostHandler(MULTIPLE_HOSTS);
+        final Host host = handler.get(null, null);
+        assertThat(host, is(HOST_0));
+        handler.fail(host, null);
+        assertThat(handler.get(null, null), is(HOST_1));
+        handler.fail(host, null);
+        assertThat(handler.get(null, null), is(HOST_1));
+    }
+
+    @Test
+    public void dirtyReadHostHandlerRoutesByAccessType() {
+        final HostHandler handler = new DirtyReadHostHandler(new FallbackHostHandler(MULTIPLE_HOSTS),
+                new FallbackHostHandler(MULTIPLE_HOSTS));
+        handler.fail(null, AccessType.DIRTY_READ);
+        assertThat(handler.get(null, AccessType.DIRTY_READ), is(HOST_1));
+        assertThat(handler.get(null, AccessType.WRITE), is(HOST_0));
+    }
+
     @Test
     public void randomHostHandlerSingleHost() {
         final HostHandler handler = new RandomHostHandler(SINGLE_HOST, new FallbackHostHandler(SINGLE_HOST));
         assertThat(handler.get(null, null), is(HOST_0));
-        handler.fail();
+        handler.fail(null, null);
         assertThat(handler.get(null, null), is(HOST_0));
     }
 
@@ -119,9 +160,9 @@ public class HostHandlerTest {
         final HostHandler handler = new RandomHostHandler(MULTIPLE_HOSTS, new FallbackHostHandler(MULTIPLE_HOSTS));
         final Host pick0 = handler.get(null, null);
         assertThat(pick0, anyOf(is(HOST_0), is(HOST_1), is(HOST_2)));
-        handler.fail();
+        handler.fail(null, null);
         assertThat(handler.get(null, null), anyOf(is(HOST_0), is(HOST_1), is(HOST_2)));
-        handler.success();
+        handler.success(null, null);
         assertThat(handler.get(null, null), is(pick0));
     }
 
@@ -129,7 +170,7 @@ public class HostHandlerTest {
     public void roundRobinHostHandlerSingleHost() {
         final HostHandler handler = new RoundRobinHostHandler(SINGLE_HOST);
         assertThat(handler.get(null, null), is(HOST_0));
-        handler.fail();
+        handler.fail(null, null);
         assertThat(handler.get(null, null), is(HOST_0));
     }
 
@@ -148,4 +189,139 @@ public class HostHandlerTest {
         assertThat(pick4, is(pick0));
     }
 
+    @Test
+    public void peakEwmaHostHandlerPrefersFastHost() {
+        final HostHandler handler = new PeakEwmaHostHandler(MULTIPLE_HOSTS);
+        observe(handler, HOST_0, 100);
+        observe(handler, HOST_1, 1);
+        observe(handler, HOST_2, 100);
+        for (int i = 0; i < 100; i++) {
+            final Host host = handler.get(null, null);
+            assertThat(host, anyOf(is(HOST_0), is(HOST_1), is(HOST_2)));
+            handler.started(host, null);
+        }
+        handler.fail(HOST_1, null);
+        final Host host = handler.get(null, null);
+        assertThat(host, anyOf(is(HOST_0), is(HOST_2)));
+    }
+
+    @Test
+    public void peakEwmaHostHandlerAvoidsHostWithRequestsInFlight() {
+        final HostHandler handler = new PeakEwmaHostHandler(TWO_HOSTS);
+        observe(handler, HOST_0, 10);
+        observe(handler, HOST_1, 1);
+        assertThat(handler.get(null, null), is(HOST_1));
+        for (int i = 0; i < 20; i++) {
+            handler.started(HOST_1, null);
+        }
+        assertThat(handler.get(null, null), is(HOST_0));
+    }
+
+    @Test
+    public void peakEwmaHostHandlerSingleHost() {
+        final HostHandler handler = new PeakEwmaHostHandler(SINGLE_HOST);
+        assertThat(handler.get(null, null), is(HOST_0));
+        handler.fail(HOST_0, null);
+        assertThat(handler.get(null, null), is(HOST_0));
+    }
+
+    @Test
+    public void peakEwmaHostHandlerForgetsRemovedHost() {
+        final HostSet twoHosts = new HostSet();
+        twoHosts.addHost(HOST_0);
+        twoHosts.addHost(HOST_1);
+        final HostSet oneHost = new HostSet();
+        oneHost.addHost(HOST_0);
+        final AtomicReference<HostSet> current = new AtomicReference<>(twoHosts);
+        final HostResolver resolver = new HostResolver() {
+
+            @Override
+            public HostSet resolve(final boolean initial, final boolean closeConnections) {
+                return current.get();
+            }
+
+            @Override
+            public void init(ArangoExecutorSync executor, ArangoSerialization arangoSerialization) {
+
+            }
+
+        };
+        final HostHandler handler = new PeakEwmaHostHandler(resolver);
+        observe(handler, HOST_0, 10);
+        observe(handler, HOST_1, 100);
+        assertThat(handler.get(null, null), is(HOST_0));
+        current.set(oneHost);
+        assertThat(handler.get(null, null), is(HOST_0));
+        current.set(twoHosts);
+        assertThat(handler.get(null, null), is(HOST_1));
+    }
+
+    @Test
+    public void leaderHostHandlerRoutesToLeaderAfterRedirect() {
+        final HostHandler handler = new LeaderHostHandler(MULTIPLE_HOSTS, new FallbackHostHandler(MULTIPLE_HOSTS));
+        assertThat(handler.get(null, AccessType.WRITE), is(HOST_0));
+        handler.redirect(HOST_0, HOST_2.getDescription(), AccessType.WRITE);
+        for (int i = 0; i < 3; i++) {
+            assertThat(handler.get(null, AccessType.WRITE), is(HOST_2));
+        }
+        final HostHandle hostHandle = new HostHandle();
+        assertThat(handler.get(hostHandle, AccessType.READ), is(HOST_2));
+        assertThat(hostHandle.getHost(), is(HOST_2.getDescription()));
+        assertThat(handler.get(new HostHandle().setHost(HOST_0.getDescription()), AccessType.READ), is(HOST_0));
+    }
+
+    @Test
+    public void leaderHostHandlerForgetsFailedLeader() {
+        final HostHandler handler = new LeaderHostHandler(MULTIPLE_HOSTS, new FallbackHostHandler(MULTIPLE_HOSTS));
+        handler.redirect(HOST_0, HOST_2.getDescription(), AccessType.WRITE);
+        handler.fail(HOST_1, AccessType.WRITE);
+        assertThat(handler.get(null, AccessType.WRITE), is(HOST_2));
+        handler.fail(HOST_2, AccessType.WRITE);
+        assertThat(handler.get(null, AccessType.WRITE), is(HOST_0));
+        handler.redirect(HOST_0, HOST_1.getDescription(), AccessType.WRITE);
+        assertThat(handler.get(null, AccessType.WRITE), is(HOST_1));
+    }
+
+    @Test
+    public void leaderHostHandlerIgnoresUnknownLocation() {
+        final HostHandler handler = new LeaderHostHandler(TWO_HOSTS, new FallbackHostHandler(TWO_HOSTS));
+        handler.redirect(HOST_0, HOST_2.getDescription(), AccessType.WRITE);
+        assertThat(handler.get(null, AccessType.WRITE), is(HOST_1));
+    }
+
+    @Test
+    public void leaderHostHandlerStopsFollowingRedirectLoop() {
+        final LeaderHostHandler handler = new LeaderHostHandler(TWO_HOSTS, new FallbackHostHandler(TWO_HOSTS));
+        for (int i = 0; i < 3; i++) {
+            handler.redirect(HOST_0, HOST_1.getDescription(), AccessType.WRITE);
+            handler.redirect(HOST_1, HOST_0.getDescription(), AccessType.WRITE);
+        }
+        assertThat(handler.getLeader(), is(nullValue()));
+        handler.success(HOST_0, AccessType.WRITE);
+        handler.redirect(HOST_0, HOST_1.getDescription(), AccessType.WRITE);
+        assertThat(handler.getLeader(), is(HOST_1));
+    }
+
+    @Test
+    public void leaderHostHandlerFollowsFailoversSpacedBySuccessfulRequests() {
+        final LeaderHostHandler handler = new LeaderHostHandler(TWO_HOSTS, new FallbackHostHandler(TWO_HOSTS));
+        final Host[] hosts = {HOST_0, HOST_1};
+        for (int i = 0; i < 10; i++) {
+            final Host follower = hosts[i % 2];
+            final Host leader = hosts[(i + 1) % 2];
+            handler.redirect(follower, leader.getDescription(), AccessType.WRITE);
+            assertThat(handler.getLeader(), is(leader));
+            // a redirect answered by the leader itself does not count as success
+            handler.finished(leader, AccessType.WRITE, 0L, new ArangoDBRedirectException("moved", null));
+            handler.finished(leader, AccessType.WRITE, 0L, null);
+            handler.fail(leader, AccessType.WRITE);
+            assertThat(handler.getLeader(), is(nullValue()));
+        }
+    }
+
+    private static void observe(final HostHandler handler, final Host host, final long latencyMillis) {
+        handler.started(host, null);
+        handler.finished(host, null, TimeUnit.MILLISECONDS.toNanos(latencyMillis), null);
+    }
+
 }
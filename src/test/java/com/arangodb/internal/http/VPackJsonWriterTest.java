@@ -0,0 +1,118 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http;
+
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import org.apache.http.entity.ContentType;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class VPackJsonWriterTest {
+
+    @Test
+    public void scalars() throws IOException {
+        final VPackBuilder builder = new VPackBuilder().add(ValueType.ARRAY);
+        builder.add(ValueType.NULL);
+        builder.add(true);
+        builder.add(false);
+        builder.add(3);
+        builder.add(-5);
+        builder.add(1234567890123L);
+        builder.add(-1234567890123L);
+        builder.add(new BigInteger("18446744073709551615"));
+        builder.add(0.1);
+        builder.add(1e300);
+        builder.add(new Date(1234567890123L));
+        builder.add(new byte[]{1, 2, 3});
+        builder.close();
+        assertSameAsToString(builder.slice());
+    }
+
+    @Test
+    public void strings() throws IOException {
+        final StringBuilder control = new StringBuilder();
+        for (char c = 0; c < 0x20; c++) {
+            control.append(c);
+        }
+        final char[] longString = new char[20000];
+        Arrays.fill(longString, 'x');
+        longString[9000] = '"';
+        final VPackBuilder builder = new VPackBuilder().add(ValueType.ARRAY);
+        builder.add("");
+        builder.add("abc");
+        builder.add(control.toString());
+        builder.add("quote \" backslash \\ slash / del \u007f");
+        builder.add("ü€😀 lone \uD83D surrogate");
+        builder.add(new String(longString));
+        builder.close();
+        assertSameAsToString(builder.slice());
+    }
+
+    @Test
+    public void nested() throws IOException {
+        final VPackBuilder builder = new VPackBuilder().add(ValueType.OBJECT);
+        builder.add("_key", "käy");
+        builder.add("ä\ttab", ValueType.ARRAY);
+        builder.add(1);
+        builder.add(ValueType.OBJECT);
+        builder.add("empty", ValueType.ARRAY).close();
+        builder.add("null", ValueType.NULL);
+        builder.close();
+        builder.close();
+        builder.add("object", ValueType.OBJECT).close();
+        builder.close();
+        assertSameAsToString(builder.slice());
+    }
+
+    @Test
+    public void entity() throws IOException {
+        final VPackSlice body = new VPackBuilder().add(ValueType.OBJECT).add("a", "ü").close().slice();
+        final VPackJsonEntity entity = new VPackJsonEntity(body, ContentType.APPLICATION_JSON);
+        final byte[] expected = body.toString().getBytes(StandardCharsets.UTF_8);
+        assertThat(entity.getContentLength(), is((long) expected.length));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+        entity.writeTo(out);
+        assertThat(out.toString("UTF-8"), is(body.toString() + body.toString()));
+        assertThat(entity.isRepeatable(), is(true));
+    }
+
+    private static void assertSameAsToString(final VPackSlice slice) throws IOException {
+        final byte[] expected = slice.toString().getBytes(StandardCharsets.UTF_8);
+        assertThat(VPackJsonWriter.length(slice), is((long) expected.length));
+        assertThat(new String(VPackJsonWriter.toByteArray(slice), StandardCharsets.UTF_8), is(slice.toString()));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VPackJsonWriter.write(slice, out);
+        assertThat(out.toByteArray(), is(expected));
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import org.junit.Test;
+
+import java.net.ProtocolException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+/**
+ * Header blocks of RFC 7541, Appendix C.
+ */
+public class HpackTest {
+
+    private static final String DATE_1 = "Mon, 21 Oct 2013 20:13:21 GMT";
+    private static final String DATE_2 = "Mon, 21 Oct 2013 20:13:22 GMT";
+    private static final String LOCATION = "https://www.example.com";
+    private static final String COOKIE = "foo=ASDJKHQKBZXOQWEOPIUAXQWEOIU; max-age=3600; version=1";
+
+    @Test
+    public void decodeRequestsWithoutHuffman() throws ProtocolException {
+        final HpackDecoder decoder = new HpackDecoder(4096);
+        assertThat(decode(decoder, "828684410f7777772e6578616d706c652e636f6d"),
+                contains(":method=GET", ":scheme=http", ":path=/", ":authority=www.example.com"));
+        assertThat(decoder.getTableSize(), is(57));
+        assertThat(decode(decoder, "828684be58086e6f2d6361636865"),
+                contains(":method=GET", ":scheme=http", ":path=/", ":authority=www.example.com",
+                        "cache-control=no-cache"));
+        assertThat(decoder.getTableSize(), is(110));
+        assertThat(decode(decoder, "828785bf400a637573746f6d2d6b65790c637573746f6d2d76616c7565"),
+                contains(":method=GET", ":scheme=https", ":path=/index.html", ":authority=www.example.com",
+                        "custom-key=custom-value"));
+        assertThat(decoder.getTableSize(), is(164));
+    }
+
+    @Test
+    public void decodeRequestsWithHuffman() throws ProtocolException {
+        final HpackDecoder decoder = new HpackDecoder(4096);
+        assertThat(decode(decoder, "828684418cf1e3c2e5f23a6ba0ab90f4ff"),
+                contains(":method=GET", ":scheme=http", ":path=/", ":authority=www.example.com"));
+        assertThat(decode(decoder, "828684be5886a8eb10649cbf"),
+                contains(":method=GET", ":scheme=http", ":path=/", ":authority=www.example.com",
+                        "cache-control=no-cache"));
+        assertThat(decode(decoder, "828785bf408825a849e95ba97d7f8925a849e95bb8e8b4bf"),
+                contains(":method=GET", ":scheme=https", ":path=/index.html", ":authority=www.example.com",
+                        "custom-key=custom-value"));
+        assertThat(decoder.getTableSize(), is(164));
+    }
+
+    @Test
+    public void decodeResponsesWithEviction() throws ProtocolException {
+        final HpackDecoder decoder = new HpackDecoder(256);
+        assertThat(decode(decoder, "488264025885aec3771a4b6196d07abe941054d444a8200595040b8166e082a62d1bff"
+                        + "6e919d29ad171863c78f0b97c8e9ae82ae43d3"),
+                contains(":status=302", "cache-control=private", "date=" + DATE_1, "location=" + LOCATION));
+        assertThat(decoder.getTableSize(), is(222));
+        assertThat(decode(decoder, "4883640effc1c0bf"),
+                contains(":status=307", "cache-control=private", "date=" + DATE_1, "location=" + LOCATION));
+        assertThat(decoder.getTableSize(), is(222));
+        assertThat(decode(decoder, "88c16196d07abe941054d444a8200595040b8166e084a62d1bffc05a839bd9ab77ad94e7821dd7f2"
+                        + "e6c7b335dfdfcd5b3960d5af27087f3672c1ab270fb5291f9587316065c003ed4ee5b1063d5007"),
+                contains(":status=200", "cache-control=private", "date=" + DATE_2, "location=" + LOCATION,
+                        "content-encoding=gzip", "set-cookie=" + COOKIE));
+        assertThat(decoder.getTableSize(), is(215));
+    }
+
+    @Test
+    public void rejectsTableSizeAboveMaximum() {
+        try {
+            decode(new HpackDecoder(256), "3fe201");
+            fail();
+        } catch (final ProtocolException e) {
+            assertThat(e.getMessage().contains("exceeds"), is(true));
+        }
+    }
+
+    @Test
+    public void rejectsInvalidIndex() {
+        try {
+            decode(new HpackDecoder(4096), "be");
+            fail();
+        } catch (final ProtocolException e) {
+            assertThat(e.getMessage().contains("invalid index"), is(true));
+        }
+    }
+
+    @Test
+    public void huffmanCodes() {
+        assertThat(Huffman.code('0'), is(0x0));
+        assertThat(Huffman.code(128), is(0xfffe6));
+        assertThat(Huffman.code(153), is(0x1fffdc));
+    }
+
+    @Test
+    public void encoderRoundTrip() throws ProtocolException {
+        final HpackEncoder encoder = new HpackEncoder()
+                .header(":method", "POST")
+                .header(":scheme", "https")
+                .header(":path", "/_db/_system/_api/cursor")
+                .header("Accept", "application/x-velocypack")
+                .header("x-arango-allow-dirty-read", "true")
+                .header("x-unicode", "äöü");
+        final List<String> fields = new ArrayList<>();
+        final HpackDecoder decoder = new HpackDecoder(4096);
+        decoder.decode(encoder.getBytes(), 0, encoder.size(), (name, value) -> fields.add(name + "=" + value));
+        assertThat(fields, contains(":method=POST", ":scheme=https", ":path=/_db/_system/_api/cursor",
+                "accept=application/x-velocypack", "x-arango-allow-dirty-read=true", "x-unicode=äöü"));
+        assertThat(decoder.getTableSize(), is(0));
+    }
+
+    private static List<String> decode(final HpackDecoder decoder, final String hex) throws ProtocolException {
+        final byte[] block = new byte[hex.length() / 2];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        final List<String> fields = new ArrayList<>();
+        decoder.decode(block, 0, block.length, (name, value) -> fields.add(name + "=" + value));
+        return fields;
+    }
+
+}
@@ -0,0 +1,611 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.http.http2;
+
+import com.arangodb.Protocol;
+import com.arangodb.internal.http.Http2Connection;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.arangodb.internal.http.http2.Http2Session.CANCEL;
+import static com.arangodb.internal.http.http2.Http2Session.CONTINUATION;
+import static com.arangodb.internal.http.http2.Http2Session.DATA;
+import static com.arangodb.internal.http.http2.Http2Session.DEFAULT_MAX_FRAME_SIZE;
+import static com.arangodb.internal.http.http2.Http2Session.DEFAULT_WINDOW_SIZE;
+import static com.arangodb.internal.http.http2.Http2Session.FLAG_ACK;
+import static com.arangodb.internal.http.http2.Http2Session.FLAG_END_HEADERS;
+import static com.arangodb.internal.http.http2.Http2Session.FLAG_END_STREAM;
+import static com.arangodb.internal.http.http2.Http2Session.FLOW_CONTROL_ERROR;
+import static com.arangodb.internal.http.http2.Http2Session.GOAWAY;
+import static com.arangodb.internal.http.http2.Http2Session.HEADERS;
+import static com.arangodb.internal.http.http2.Http2Session.PING;
+import static com.arangodb.internal.http.http2.Http2Session.PROTOCOL_ERROR;
+import static com.arangodb.internal.http.http2.Http2Session.REFUSED_STREAM;
+import static com.arangodb.internal.http.http2.Http2Session.RST_STREAM;
+import static com.arangodb.internal.http.http2.Http2Session.SETTINGS;
+import static com.arangodb.internal.http.http2.Http2Session.SETTINGS_INITIAL_WINDOW_SIZE;
+import static com.arangodb.internal.http.http2.Http2Session.SETTINGS_MAX_CONCURRENT_STREAMS;
+import static com.arangodb.internal.http.http2.Http2Session.WINDOW_UPDATE;
+import static com.arangodb.internal.http.http2.Http2Session.getInt;
+import static com.arangodb.internal.http.http2.Http2Session.putInt;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+/**
+ * Drives {@link Http2Session} and {@link Http2Connection} against a scripted server peer.
+ */
+public class Http2SessionTest {
+
+    private static final byte[] REQUEST_HEADERS = block(new HpackEncoder().header(":method", "POST")
+            .header(":scheme", "http").header(":path", "/_api/test"));
+
+    private ServerSocket server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void exchangesRequestAndResponse() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            final byte[] body = "abc".getBytes(StandardCharsets.UTF_8);
+            final Http2Stream stream = session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, body, 0, body.length,
+                    0L);
+            assertThat(stream.getId(), is(1));
+
+            final Frame headers = peer.read();
+            assertThat(headers.type, is(HEADERS));
+            assertThat(headers.flags, is(FLAG_END_HEADERS));
+            assertThat(headers.streamId, is(1));
+            assertThat(decode(headers.payload).get(":path"), is("/_api/test"));
+            final Frame data = peer.read();
+            assertThat(data.type, is(DATA));
+            assertThat(data.flags, is(FLAG_END_STREAM));
+            assertThat(new String(data.payload, StandardCharsets.UTF_8), is("abc"));
+
+            peer.respond(1, "ok");
+            final Http2Stream response = stream.response().get(5, TimeUnit.SECONDS);
+            assertThat(response.getStatus(), is(200));
+            assertThat(response.getHeaders().get("content-length"), is("2"));
+            assertThat(new String(response.getBody(), 0, response.getBodyLength(), StandardCharsets.UTF_8),
+                    is("ok"));
+            assertThat(session.getActiveStreams(), is(0));
+        }
+    }
+
+    @Test
+    public void splitsLargeHeaderBlockIntoContinuationFrames() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            final char[] value = new char[DEFAULT_MAX_FRAME_SIZE + 100];
+            Arrays.fill(value, 'x');
+            final HpackEncoder encoder = new HpackEncoder().header(":method", "GET").header("x-large",
+                    new String(value));
+            session.send(encoder.getBytes(), encoder.size(), null, 0, 0, 0L);
+
+            final Frame headers = peer.read();
+            assertThat(headers.type, is(HEADERS));
+            assertThat(headers.flags, is(FLAG_END_STREAM));
+            assertThat(headers.payload.length, is(DEFAULT_MAX_FRAME_SIZE));
+            final Frame continuation = peer.read();
+            assertThat(continuation.type, is(CONTINUATION));
+            assertThat(continuation.flags, is(FLAG_END_HEADERS));
+            assertThat(continuation.streamId, is(1));
+            final byte[] block = Arrays.copyOf(headers.payload, headers.payload.length
+                    + continuation.payload.length);
+            System.arraycopy(continuation.payload, 0, block, headers.payload.length, continuation.payload.length);
+            assertThat(decode(block).get("x-large"), is(new String(value)));
+        }
+    }
+
+    @Test
+    public void acknowledgesSettingsAndPing() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            final byte[] ping = "12345678".getBytes(StandardCharsets.US_ASCII);
+            peer.write(PING, 0, 0, ping);
+            final Frame pong = peer.read();
+            assertThat(pong.type, is(PING));
+            assertThat(pong.flags, is(FLAG_ACK));
+            assertThat(pong.payload, is(ping));
+
+            peer.write(SETTINGS, 0, 0, settings(SETTINGS_MAX_CONCURRENT_STREAMS, 10));
+            final Frame ack = peer.read();
+            assertThat(ack.type, is(SETTINGS));
+            assertThat(ack.flags, is(FLAG_ACK));
+            assertThat(session.isAvailable(), is(true));
+        }
+    }
+
+    @Test
+    public void waitsForSendWindow() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake(settings(SETTINGS_INITIAL_WINDOW_SIZE, 10));
+            final byte[] body = new byte[25];
+            final CompletableFuture<Http2Stream> sent = sendAsync(session, body);
+            assertThat(peer.read().type, is(HEADERS));
+            final Frame first = peer.read();
+            assertThat(first.type, is(DATA));
+            assertThat(first.payload.length, is(10));
+            assertThat(first.flags, is(0));
+            Thread.sleep(50);
+            assertThat(sent.isDone(), is(false));
+
+            peer.write(WINDOW_UPDATE, 0, 1, increment(100));
+            final Frame last = peer.read();
+            assertThat(last.type, is(DATA));
+            assertThat(last.payload.length, is(15));
+            assertThat(last.flags, is(FLAG_END_STREAM));
+            assertThat(sent.get(5, TimeUnit.SECONDS).getId(), is(1));
+        }
+    }
+
+    @Test
+    public void replenishesReceiveWindow() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, 100)) {
+            peer.handshake();
+            final Http2Stream stream = session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().type, is(HEADERS));
+            final byte[] status = block(new HpackEncoder().header(":status", "200"));
+            peer.write(HEADERS, FLAG_END_HEADERS, 1, status);
+            peer.write(DATA, 0, 1, new byte[60]);
+            final Frame update = peer.read();
+            assertThat(update.type, is(WINDOW_UPDATE));
+            assertThat(update.streamId, is(1));
+            assertThat(getInt(update.payload, 0), is(60));
+            peer.write(DATA, FLAG_END_STREAM, 1, new byte[1]);
+            assertThat(stream.response().get(5, TimeUnit.SECONDS).getBodyLength(), is(61));
+        }
+    }
+
+    @Test
+    public void rejectsDataBeyondReceiveWindow() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, 100)) {
+            peer.handshake();
+            peer.write(SETTINGS, FLAG_ACK, 0, new byte[0]);
+            final Http2Stream stream = session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().type, is(HEADERS));
+            peer.write(HEADERS, FLAG_END_HEADERS, 1, block(new HpackEncoder().header(":status", "200")));
+            peer.write(DATA, 0, 1, new byte[101]);
+            assertGoAway(peer, FLOW_CONTROL_ERROR);
+            assertFailed(stream);
+            assertClosed(session);
+        }
+    }
+
+    @Test
+    public void rejectsZeroConnectionWindowIncrement() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            peer.write(WINDOW_UPDATE, 0, 0, increment(0));
+            assertGoAway(peer, PROTOCOL_ERROR);
+            assertClosed(session);
+        }
+    }
+
+    @Test
+    public void rejectsConnectionWindowOverflow() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            peer.write(WINDOW_UPDATE, 0, 0, increment(Integer.MAX_VALUE - DEFAULT_WINDOW_SIZE));
+            peer.write(WINDOW_UPDATE, 0, 0, increment(1));
+            assertGoAway(peer, FLOW_CONTROL_ERROR);
+            assertClosed(session);
+        }
+    }
+
+    @Test
+    public void resetsStreamOnInvalidWindowUpdate() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            final Http2Stream first = session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().type, is(HEADERS));
+            peer.write(WINDOW_UPDATE, 0, 1, increment(0));
+            assertReset(peer, 1, PROTOCOL_ERROR);
+            assertFailed(first);
+
+            final Http2Stream second = session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().type, is(HEADERS));
+            peer.write(WINDOW_UPDATE, 0, 3, increment(Integer.MAX_VALUE));
+            assertReset(peer, 3, FLOW_CONTROL_ERROR);
+            assertFailed(second);
+            assertThat(session.isAvailable(), is(true));
+            assertThat(session.getActiveStreams(), is(0));
+        }
+    }
+
+    @Test
+    public void rejectsInitialWindowSizeOverflowingStreamWindow() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().type, is(HEADERS));
+            peer.write(WINDOW_UPDATE, 0, 1, increment(Integer.MAX_VALUE - DEFAULT_WINDOW_SIZE));
+            peer.write(SETTINGS, 0, 0, settings(SETTINGS_INITIAL_WINDOW_SIZE, DEFAULT_WINDOW_SIZE + 1));
+            assertGoAway(peer, FLOW_CONTROL_ERROR);
+            assertClosed(session);
+        }
+    }
+
+    @Test
+    public void waitsForStreamLimit() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake(settings(SETTINGS_MAX_CONCURRENT_STREAMS, 1));
+            session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().streamId, is(1));
+            final CompletableFuture<Http2Stream> second = sendAsync(session, new byte[0]);
+            Thread.sleep(50);
+            assertThat(second.isDone(), is(false));
+            assertThat(session.getActiveStreams(), is(1));
+
+            peer.respond(1, "");
+            assertThat(second.get(5, TimeUnit.SECONDS).getId(), is(3));
+            assertThat(peer.read().streamId, is(3));
+        }
+    }
+
+    @Test
+    public void streamLimitWaitTimesOut() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 1, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            try {
+                session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0,
+                        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+                fail();
+            } catch (final SocketTimeoutException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void goAwayFailsUnprocessedStreams() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            final Http2Stream stream = session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().type, is(HEADERS));
+            peer.write(GOAWAY, 0, 0, new byte[8]);
+            assertNotProcessed(stream);
+            assertThat(session.isAvailable(), is(false));
+            try {
+                session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+                fail();
+            } catch (final Http2Session.NotProcessedException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void refusedStreamIsNotProcessed() throws Exception {
+        try (final Peer peer = new Peer(); final Http2Session session = open(peer, 100, DEFAULT_WINDOW_SIZE)) {
+            peer.handshake();
+            final Http2Stream stream = session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, null, 0, 0, 0L);
+            assertThat(peer.read().type, is(HEADERS));
+            peer.write(RST_STREAM, 0, 1, increment(REFUSED_STREAM));
+            assertNotProcessed(stream);
+            assertThat(session.isAvailable(), is(true));
+            assertThat(session.getActiveStreams(), is(0));
+        }
+    }
+
+    @Test
+    public void connectionResendsAfterGoAway() throws Exception {
+        final Http2Connection connection = connection();
+        final CompletableFuture<Response> response = CompletableFuture.supplyAsync(() -> {
+            try {
+                return connection.execute(new Request("_system", RequestType.GET, "/_api/version"));
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try (final Peer first = new Peer(server.accept())) {
+            first.handshake();
+            assertThat(first.read().type, is(HEADERS));
+            first.write(GOAWAY, 0, 0, new byte[8]);
+            try (final Peer second = new Peer(server.accept())) {
+                second.handshake();
+                final Frame headers = second.read();
+                assertThat(headers.type, is(HEADERS));
+                assertThat(decode(headers.payload).get(":path"), is("/_db/_system/_api/version"));
+                second.respond(1, "");
+                assertThat(response.get(5, TimeUnit.SECONDS).getResponseCode(), is(200));
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void connectionCancelsTimedOutStream() throws Exception {
+        final Http2Connection connection = connection();
+        final Request request = new Request("_system", RequestType.GET, "/_api/version");
+        request.setTimeout(100);
+        final CompletableFuture<Response> response = CompletableFuture.supplyAsync(() -> {
+            try {
+                return connection.execute(request);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try (final Peer peer = new Peer(server.accept())) {
+            peer.handshake();
+            assertThat(peer.read().type, is(HEADERS));
+            try {
+                response.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (final ExecutionException e) {
+                assertThat(e.getCause().getCause(), is(instanceOf(SocketTimeoutException.class)));
+            }
+            final Frame reset = peer.read();
+            assertThat(reset.type, is(RST_STREAM));
+            assertThat(reset.streamId, is(1));
+            assertThat(getInt(reset.payload, 0), is(CANCEL));
+        } finally {
+            connection.close();
+        }
+    }
+
+    private Http2Session open(final Peer peer, final int maxConcurrentStreams, final int initialWindowSize)
+            throws IOException {
+        final Socket client = new Socket("127.0.0.1", server.getLocalPort());
+        peer.accept(server);
+        return Http2Session.open("test", client, maxConcurrentStreams, initialWindowSize, DEFAULT_WINDOW_SIZE);
+    }
+
+    private Http2Connection connection() {
+        return new Http2Connection.Builder().host(new HostDescription("127.0.0.1", server.getLocalPort()))
+                .contentType(Protocol.HTTP2_VPACK).timeout(5000).build();
+    }
+
+    private static CompletableFuture<Http2Stream> sendAsync(final Http2Session session, final byte[] body) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return session.send(REQUEST_HEADERS, REQUEST_HEADERS.length, body, 0, body.length, 0L);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static void assertGoAway(final Peer peer, final int errorCode) throws IOException {
+        final Frame goAway = peer.read();
+        assertThat(goAway.type, is(GOAWAY));
+        assertThat(getInt(goAway.payload, 4), is(errorCode));
+    }
+
+    private static void assertClosed(final Http2Session session) throws InterruptedException {
+        // the GOAWAY frame is written before the session fails
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.isAvailable() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(session.isAvailable(), is(false));
+    }
+
+    private static void assertReset(final Peer peer, final int streamId, final int errorCode) throws IOException {
+        final Frame reset = peer.read();
+        assertThat(reset.type, is(RST_STREAM));
+        assertThat(reset.streamId, is(streamId));
+        assertThat(getInt(reset.payload, 0), is(errorCode));
+    }
+
+    private static void assertFailed(final Http2Stream stream) throws Exception {
+        try {
+            stream.response().get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(IOException.class)));
+        }
+    }
+
+    private static void assertNotProcessed(final Http2Stream stream) throws Exception {
+        try {
+            stream.response().get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(Http2Session.NotProcessedException.class)));
+        }
+    }
+
+    private static byte[] block(final HpackEncoder encoder) {
+        return Arrays.copyOf(encoder.getBytes(), encoder.size());
+    }
+
+    private static Map<String, String> decode(final byte[] block) throws ProtocolException {
+        final Map<String, String> headers = new HashMap<>();
+        new HpackDecoder(Http2Session.HEADER_TABLE_SIZE).decode(block, 0, block.length, headers::put);
+        return headers;
+    }
+
+    private static byte[] settings(final int id, final int value) {
+        final byte[] payload = new byte[6];
+        payload[0] = (byte) (id >>> 8);
+        payload[1] = (byte) id;
+        putInt(payload, 2, value);
+        return payload;
+    }
+
+    private static byte[] increment(final int value) {
+        final byte[] payload = new byte[4];
+        putInt(payload, 0, value);
+        return payload;
+    }
+
+    private static class Frame {
+
+        private final int type;
+        private final int flags;
+        private final int streamId;
+        private final byte[] payload;
+
+        private Frame(final int type, final int flags, final int streamId, final byte[] payload) {
+            this.type = type;
+            this.flags = flags;
+            this.streamId = streamId;
+            this.payload = payload;
+        }
+
+    }
+
+    /**
+     * Server side of a session, reading and writing raw frames.
+     */
+    private static class Peer implements Closeable {
+
+        private Socket socket;
+        private DataInputStream in;
+        private OutputStream out;
+        private final Queue<Frame> pending = new ArrayDeque<>();
+
+        private Peer() {
+        }
+
+        private Peer(final Socket socket) throws IOException {
+            init(socket);
+        }
+
+        private void accept(final ServerSocket server) throws IOException {
+            init(server.accept());
+        }
+
+        private void init(final Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setSoTimeout(5000);
+            in = new DataInputStream(socket.getInputStream());
+            out = socket.getOutputStream();
+        }
+
+        /**
+         * Reads the connection preface and the client settings, sends the server settings and reads their
+         * acknowledgement. A connection window update sent along with the client settings is skipped, frames of
+         * streams opened before the acknowledgement are kept for {@link #read()}.
+         */
+        private void handshake(final byte[]... settings) throws IOException {
+            final byte[] preface = new byte[24];
+            in.readFully(preface);
+            assertThat(new String(preface, StandardCharsets.US_ASCII), is("PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n"));
+            final Frame clientSettings = read();
+            assertThat(clientSettings.type, is(SETTINGS));
+            assertThat(clientSettings.flags, is(0));
+            final byte[] payload = new byte[settings.length * 6];
+            for (int i = 0; i < settings.length; i++) {
+                System.arraycopy(settings[i], 0, payload, i * 6, 6);
+            }
+            write(SETTINGS, 0, 0, payload);
+            while (true) {
+                final Frame frame = readFrame();
+                if (frame.type == SETTINGS) {
+                    assertThat(frame.flags, is(FLAG_ACK));
+                    return;
+                }
+                if (frame.streamId != 0) {
+                    pending.add(frame);
+                } else {
+                    assertThat(frame.type, is(WINDOW_UPDATE));
+                }
+            }
+        }
+
+        private Frame read() throws IOException {
+            final Frame frame = pending.poll();
+            return frame != null ? frame : readFrame();
+        }
+
+        private Frame readFrame() throws IOException {
+            final byte[] head = new byte[9];
+            in.readFully(head);
+            final int length = ((head[0] & 0xff) << 16) | ((head[1] & 0xff) << 8) | (head[2] & 0xff);
+            final byte[] payload = new byte[length];
+            in.readFully(payload);
+            return new Frame(head[3] & 0xff, head[4] & 0xff, getInt(head, 5) & 0x7fffffff, payload);
+        }
+
+        private void write(final int type, final int flags, final int streamId, final byte[] payload)
+                throws IOException {
+            final byte[] head = new byte[9];
+            head[0] = (byte) (payload.length >>> 16);
+            head[1] = (byte) (payload.length >>> 8);
+            head[2] = (byte) payload.length;
+            head[3] = (byte) type;
+            head[4] = (byte) flags;
+            putInt(head, 5, streamId);
+            out.write(head);
+            out.write(payload);
+            out.flush();
+        }
+
+        /**
+         * Answers a stream with status 200 and the given body.
+         */
+        private void respond(final int streamId, final String body) throws IOException {
+            final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            final byte[] headers = block(new HpackEncoder().header(":status", "200")
+                    .header("content-length", String.valueOf(bytes.length)));
+            if (bytes.length == 0) {
+                write(HEADERS, FLAG_END_HEADERS | FLAG_END_STREAM, streamId, headers);
+            } else {
+                write(HEADERS, FLAG_END_HEADERS, streamId, headers);
+                write(DATA, FLAG_END_STREAM, streamId, bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (socket != null) {
+                socket.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.ArangoExecutorSync;
+import com.arangodb.internal.http.HttpCommunication;
+import com.arangodb.internal.http.HttpConnection;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest {
+
+    private static final Host HOST_0 = new HostImpl(null, new HostDescription("127.0.0.1", 8529));
+    private static final Host HOST_1 = new HostImpl(null, new HostDescription("127.0.0.2", 8529));
+
+    private static final HostResolver HOSTS = new HostResolver() {
+
+        private final HostSet hosts = new HostSet(Arrays.asList(HOST_0, HOST_1));
+
+        @Override
+        public void init(final ArangoExecutorSync executorSync, final ArangoSerialization arangoSerialization) {
+        }
+
+        @Override
+        public HostSet resolve(final boolean initial, final boolean closeConnections) {
+            return hosts;
+        }
+
+    };
+
+    @Test
+    public void opensAtFailureRate() {
+        final CircuitBreaker breaker = new CircuitBreaker(HOST_0.getDescription(), 50, 10000);
+        for (int i = 0; i < CircuitBreaker.MIN_REQUESTS / 2; i++) {
+            breaker.onSuccess();
+        }
+        for (int i = 0; i < CircuitBreaker.MIN_REQUESTS / 2 - 1; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+        breaker.onFailure();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire(), is(false));
+    }
+
+    @Test
+    public void probesOnceWhenHalfOpen() throws InterruptedException {
+        final CircuitBreaker breaker = openBreaker(20);
+        Thread.sleep(40);
+        assertThat(breaker.tryAcquire(), is(true));
+        assertThat(breaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+        assertThat(breaker.tryAcquire(), is(false));
+        breaker.onSuccess();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+        breaker.onFailure();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void failedProbeOpensAgain() throws InterruptedException {
+        final CircuitBreaker breaker = openBreaker(20);
+        Thread.sleep(40);
+        assertThat(breaker.tryAcquire(), is(true));
+        breaker.onFailure();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire(), is(false));
+    }
+
+    @Test
+    public void classifiesFailures() {
+        assertThat(CircuitBreaker.isFailure(null), is(false));
+        assertThat(CircuitBreaker.isFailure(new ArangoDBException("not found", 404)), is(false));
+        assertThat(CircuitBreaker.isFailure(new ArangoDBException("unavailable", 503)), is(true));
+        assertThat(CircuitBreaker.isFailure(new ArangoDBException(new SocketTimeoutException())), is(true));
+    }
+
+    @Test
+    public void hostHandlerSkipsOpenHosts() {
+        final CircuitBreakerHostHandler handler = new CircuitBreakerHostHandler(new RoundRobinHostHandler(HOSTS), 50,
+                10000);
+        for (int i = 0; i < CircuitBreaker.MIN_REQUESTS; i++) {
+            handler.finished(HOST_0, AccessType.READ, 0L, new ArangoDBException("unavailable", 503));
+        }
+        assertThat(handler.getStates().get(HOST_0.getDescription()), is(CircuitBreaker.State.OPEN));
+        for (int i = 0; i < 4; i++) {
+            assertThat(handler.get(null, AccessType.READ), is(HOST_1));
+        }
+        for (int i = 0; i < CircuitBreaker.MIN_REQUESTS; i++) {
+            handler.finished(HOST_1, AccessType.READ, 0L, new ArangoDBException("unavailable", 503));
+        }
+        try {
+            handler.get(null, AccessType.READ);
+            fail();
+        } catch (final ArangoDBException ignored) {
+        }
+    }
+
+    @Test
+    public void countsSocketFailureOnce() throws IOException {
+        final int port;
+        try (final ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final HostDescription description = new HostDescription("127.0.0.1", port);
+        final Host host = new HostImpl(new ConnectionPoolImpl(description, 1,
+                h -> new HttpConnection.Builder().host(h).build()), description);
+        final CircuitBreakerHostHandler handler = new CircuitBreakerHostHandler(new RoundRobinHostHandler(
+                new HostResolver() {
+                    @Override
+                    public void init(final ArangoExecutorSync executorSync, final ArangoSerialization serialization) {
+                    }
+
+                    @Override
+                    public HostSet resolve(final boolean initial, final boolean closeConnections) {
+                        return new HostSet(Collections.singletonList(host));
+                    }
+                }), 50, 10000);
+        final HttpCommunication communication = new HttpCommunication.Builder(handler).build(null);
+        try {
+            communication.execute(new Request("_system", RequestType.GET, "/_api/version"), null);
+            fail();
+        } catch (final ArangoDBException ignored) {
+        }
+        // the round robin handler tries the single host twice before giving up
+        final int[] counts = handler.breaker(host).countWindow(System.nanoTime());
+        assertThat(counts[0], is(0));
+        assertThat(counts[1], is(2));
+        host.close();
+    }
+
+    private static CircuitBreaker openBreaker(final int openDuration) {
+        final CircuitBreaker breaker = new CircuitBreaker(HOST_0.getDescription(), 50, openDuration);
+        for (int i = 0; i < CircuitBreaker.MIN_REQUESTS; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState(), is(CircuitBreaker.State.OPEN));
+        return breaker;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.ArangoExecutorSync;
+import com.arangodb.util.ArangoSerialization;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.fail;
+
+public class ConcurrencyLimiterTest {
+
+    private static final Host HOST_0 = new HostImpl(null, new HostDescription("127.0.0.1", 8529));
+    private static final Host HOST_1 = new HostImpl(null, new HostDescription("127.0.0.2", 8529));
+
+    private static final HostResolver HOSTS = new HostResolver() {
+
+        private final HostSet hosts = new HostSet(Arrays.asList(HOST_0, HOST_1));
+
+        @Override
+        public void init(final ArangoExecutorSync executorSync, final ArangoSerialization arangoSerialization) {
+        }
+
+        @Override
+        public HostSet resolve(final boolean initial, final boolean closeConnections) {
+            return hosts;
+        }
+
+    };
+
+    @Test
+    public void rejectsRequestsBeyondLimit() {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(HOST_0.getDescription(), 100);
+        for (int i = 0; i < ConcurrencyLimiter.INITIAL_LIMIT; i++) {
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+        assertThat(limiter.tryAcquire(), is(false));
+        limiter.release(1L, false);
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.getInFlight(), is(ConcurrencyLimiter.INITIAL_LIMIT));
+    }
+
+    @Test
+    public void growsWhileLatencyIsStable() {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(HOST_0.getDescription(), 1000);
+        for (int i = 0; i < 5; i++) {
+            final int limit = limiter.getLimit();
+            window(limiter, 1, false);
+            assertThat(limiter.getLimit(), is(greaterThan(limit)));
+        }
+    }
+
+    @Test
+    public void doesNotGrowIfUnused() {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(HOST_0.getDescription(), 1000);
+        for (int i = 0; i < 5 * ConcurrencyLimiter.INITIAL_LIMIT; i++) {
+            assertThat(limiter.tryAcquire(), is(true));
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+        assertThat(limiter.getLimit(), is(ConcurrencyLimiter.INITIAL_LIMIT));
+    }
+
+    @Test
+    public void shrinksWhenLatencyRises() {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(HOST_0.getDescription(), 1000);
+        window(limiter, 1, false);
+        window(limiter, 1, false);
+        for (int i = 0; i < 3; i++) {
+            final int limit = limiter.getLimit();
+            window(limiter, 10, false);
+            assertThat(limiter.getLimit(), is(lessThan(limit)));
+        }
+    }
+
+    @Test
+    public void shrinksOnDrops() {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(HOST_0.getDescription(), 1000);
+        window(limiter, 1, true);
+        assertThat(limiter.getLimit(), is(ConcurrencyLimiter.INITIAL_LIMIT * 9 / 10));
+    }
+
+    @Test
+    public void respectsMaxLimit() {
+        final ConcurrencyLimiter small = new ConcurrencyLimiter(HOST_0.getDescription(), 5);
+        assertThat(small.getLimit(), is(5));
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(HOST_0.getDescription(), 25);
+        for (int i = 0; i < 5; i++) {
+            window(limiter, 1, false);
+        }
+        assertThat(limiter.getLimit(), is(25));
+    }
+
+    @Test
+    public void hostHandlerRejectsRequestsBeyondLimit() {
+        final ConcurrencyLimitHostHandler handler = new ConcurrencyLimitHostHandler(
+                new RoundRobinHostHandler(HOSTS), 2);
+        handler.started(HOST_0, AccessType.READ);
+        handler.started(HOST_0, AccessType.READ);
+        handler.started(HOST_1, AccessType.READ);
+        try {
+            handler.started(HOST_0, AccessType.READ);
+            fail();
+        } catch (final ArangoDBException e) {
+            assertThat(e.getMessage(), is("Concurrency limit of 2 reached for host[addr=127.0.0.1,port=8529]"));
+        }
+        handler.finished(HOST_0, AccessType.READ, 1L, null);
+        handler.started(HOST_0, AccessType.READ);
+        assertThat(handler.getLimits().get(HOST_0.getDescription()), is(2));
+    }
+
+    /**
+     * Sends as many requests as the current limit allows and completes all of them with the given round-trip time.
+     */
+    private static void window(final ConcurrencyLimiter limiter, final long rttMillis, final boolean dropped) {
+        final int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+        for (int i = 0; i < limit; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis), dropped);
+        }
+    }
+
+}
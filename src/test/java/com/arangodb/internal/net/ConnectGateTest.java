@@ -0,0 +1,87 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.fail;
+
+public class ConnectGateTest {
+
+    @Test
+    public void exponentialBackoffWithJitter() {
+        final ConnectGate gate = new ConnectGate(100, 1000);
+        assertThat(gate.backoff(1), is(0L));
+        final long[] expected = {100, 200, 400, 800, 1000, 1000};
+        for (int i = 0; i < expected.length; i++) {
+            final long delay = TimeUnit.MILLISECONDS.toNanos(expected[i]);
+            final long backoff = gate.backoff(i + 2);
+            assertThat(backoff, is(greaterThanOrEqualTo(delay / 2)));
+            assertThat(backoff, is(lessThanOrEqualTo(delay)));
+        }
+        assertThat(gate.backoff(Integer.MAX_VALUE), is(lessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    @Test
+    public void retryImmediatelyAfterFirstFailure() throws ConnectException {
+        final ConnectGate gate = new ConnectGate(10000, 10000);
+        gate.failure();
+        assertThat(gate.isFailing(), is(true));
+        gate.checkAttempt(gate.getFailedAttempts());
+    }
+
+    @Test
+    public void backOffAfterRepeatedFailures() throws ConnectException {
+        final ConnectGate gate = new ConnectGate(10000, 10000);
+        gate.failure();
+        gate.failure();
+        try {
+            gate.checkAttempt(gate.getFailedAttempts());
+            fail();
+        } catch (final ConnectException e) {
+            assertThat(e.getMessage().startsWith("Reconnect is backing off"), is(true));
+        }
+        gate.success();
+        assertThat(gate.isFailing(), is(false));
+        gate.checkAttempt(gate.getFailedAttempts());
+    }
+
+    @Test
+    public void failOverAfterConcurrentFailure() {
+        final ConnectGate gate = new ConnectGate(0, 0);
+        final long failedAttempts = gate.getFailedAttempts();
+        gate.failure();
+        try {
+            gate.checkAttempt(failedAttempts);
+            fail();
+        } catch (final ConnectException e) {
+            assertThat(e.getMessage(), is("Concurrent connection attempt failed"));
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ConnectionPoolImplTest {
+
+    private static final HostDescription HOST = new HostDescription("127.0.0.1", 8529);
+
+    private static class TestConnection implements Connection {
+        private int inFlight;
+        private boolean closed;
+
+        @Override
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private final List<TestConnection> created = new ArrayList<>();
+
+    private ConnectionPool pool(final int maxConnections) {
+        return new ConnectionPoolImpl(HOST, maxConnections, host -> {
+            final TestConnection connection = new TestConnection();
+            created.add(connection);
+            return connection;
+        });
+    }
+
+    @Test
+    public void reuseIdleConnection() {
+        final ConnectionPool pool = pool(3);
+        final Connection connection = pool.connection();
+        for (int i = 0; i < 10; i++) {
+            assertThat(pool.connection() == connection, is(true));
+        }
+        assertThat(created.size(), is(1));
+    }
+
+    @Test
+    public void growOnlyIfBusy() {
+        final ConnectionPool pool = pool(3);
+        for (int i = 0; i < 10; i++) {
+            ((TestConnection) pool.connection()).inFlight++;
+        }
+        assertThat(created.size(), is(3));
+        assertThat(pool.getOccupancy().length, is(3));
+    }
+
+    @Test
+    public void preferLeastLoaded() {
+        final ConnectionPool pool = pool(2);
+        final TestConnection first = (TestConnection) pool.connection();
+        first.inFlight = 1;
+        final TestConnection second = (TestConnection) pool.connection();
+        first.inFlight = 100;
+        for (int i = 0; i < 10; i++) {
+            assertThat(pool.connection() == second, is(true));
+        }
+        assertThat(pool.getOccupancy(), is(new int[]{100, 0}));
+    }
+
+    @Test
+    public void close() throws Exception {
+        final ConnectionPool pool = pool(2);
+        ((TestConnection) pool.connection()).inFlight = 1;
+        pool.connection();
+        pool.close();
+        assertThat(created.stream().allMatch(c -> c.closed), is(true));
+        assertThat(pool.getOccupancy().length, is(0));
+        pool.connection();
+        assertThat(created.size(), is(3));
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class HostSetTest {
+
+    @Test
+    public void updateKeepsKnownHostsAndClosesRemovedOnes() {
+        final TestHost host0 = new TestHost(8529);
+        final TestHost host1 = new TestHost(8530);
+        final HostSet set = new HostSet(Arrays.asList(host0, host1));
+        final List<Host> snapshot = set.getHostsList();
+
+        final TestHost host0Again = new TestHost(8529);
+        final TestHost host2 = new TestHost(8531);
+        set.update(Arrays.asList(host0Again, host2));
+
+        assertThat(set.getHostsList(), contains(host0, host2));
+        assertThat(set.getHostsList().get(0), is(sameInstance(host0)));
+        assertThat(host0.closed, is(false));
+        assertThat(host1.closed, is(true));
+        assertThat(snapshot, contains(host0, host1));
+    }
+
+    @Test
+    public void addHostPublishesNewList() {
+        final TestHost host0 = new TestHost(8529);
+        final HostSet set = new HostSet(Collections.singletonList(host0));
+        final List<Host> snapshot = set.getHostsList();
+        set.addHost(new TestHost(8530));
+        assertThat(snapshot.size(), is(1));
+        assertThat(set.getHostsList().size(), is(2));
+    }
+
+    private static class TestHost extends HostImpl {
+
+        private boolean closed;
+
+        private TestHost(final int port) {
+            super(null, new HostDescription("127.0.0.1", port));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.internal.ArangoRequestParam;
+import com.arangodb.internal.util.HashedWheelTimer;
+import com.arangodb.internal.util.RequestUtils;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class RequestHedgingTest {
+
+    private static final HostDescription HOST_0 = new HostDescription("127.0.0.1", 8529);
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 64);
+
+    @Test
+    public void delayIsPercentileOfRecentResponseTimes() {
+        final RequestHedging hedging = new RequestHedging(0.9, timer);
+        for (int i = 1; i < RequestHedging.MIN_SAMPLES; i++) {
+            hedging.record(i);
+        }
+        assertThat(hedging.getDelay(), is(-1L));
+        hedging.record(RequestHedging.MIN_SAMPLES);
+        assertThat(hedging.getDelay(), is(91L));
+    }
+
+    @Test
+    public void onlyReadsAreHedgeable() {
+        final RequestHedging hedging = new RequestHedging(0.9, timer);
+        assertThat(hedging.isHedgeable(request(RequestType.GET), null), is(true));
+        assertThat(hedging.isHedgeable(RequestUtils.allowDirtyRead(request(RequestType.PUT)), null), is(true));
+        assertThat(hedging.isHedgeable(request(RequestType.POST), null), is(false));
+        assertThat(hedging.isHedgeable(request(RequestType.GET), new HostHandle()), is(false));
+        assertThat(hedging.isHedgeable(request(RequestType.GET).putHeaderParam("x-arango-trx-id", "1"), null),
+                is(false));
+    }
+
+    @Test
+    public void hedgeWinsOverSlowPrimary() throws Exception {
+        final RequestHedging hedging = hedgingWithDelay();
+        final List<HostHandle> handles = new CopyOnWriteArrayList<>();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+        final CompletableFuture<String> result = hedging.execute(handle -> {
+            handles.add(handle);
+            if (handles.size() == 1) {
+                handle.setHost(HOST_0);
+                return primary;
+            }
+            return CompletableFuture.completedFuture("hedge");
+        });
+        assertThat(result.get(5, TimeUnit.SECONDS), is("hedge"));
+        assertThat(primary.isCancelled(), is(true));
+        assertThat(handles.get(1).getExcluded(), is(HOST_0));
+    }
+
+    @Test
+    public void failedPrimaryWaitsForHedge() throws Exception {
+        final RequestHedging hedging = hedgingWithDelay();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+        final CompletableFuture<String> hedge = new CompletableFuture<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch hedged = new CountDownLatch(1);
+        final CompletableFuture<String> result = hedging.execute(handle -> {
+            if (attempts.incrementAndGet() == 1) {
+                return primary;
+            }
+            hedged.countDown();
+            return hedge;
+        });
+        assertThat(hedged.await(5, TimeUnit.SECONDS), is(true));
+        primary.completeExceptionally(new RuntimeException());
+        assertThat(result.isDone(), is(false));
+        hedge.complete("hedge");
+        assertThat(result.get(5, TimeUnit.SECONDS), is("hedge"));
+    }
+
+    @Test
+    public void rejectedHedgeLeavesPrimary() throws Exception {
+        final RequestHedging hedging = hedgingWithDelay();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch hedged = new CountDownLatch(1);
+        final CompletableFuture<String> result = hedging.execute(handle -> {
+            if (attempts.incrementAndGet() == 1) {
+                return primary;
+            }
+            hedged.countDown();
+            throw new RejectedExecutionException();
+        });
+        assertThat(hedged.await(5, TimeUnit.SECONDS), is(true));
+        final RuntimeException failure = new RuntimeException();
+        primary.completeExceptionally(failure);
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(failure));
+        }
+    }
+
+    @Test
+    public void fastPrimaryIsNotHedged() throws Exception {
+        final RequestHedging hedging = hedgingWithDelay();
+        final List<HostHandle> handles = new CopyOnWriteArrayList<>();
+        final CompletableFuture<String> result = hedging.execute(handle -> {
+            handles.add(handle);
+            return CompletableFuture.completedFuture("primary");
+        });
+        assertThat(result.get(5, TimeUnit.SECONDS), is("primary"));
+        Thread.sleep(50);
+        assertThat(handles.size(), is(1));
+    }
+
+    private RequestHedging hedgingWithDelay() {
+        final RequestHedging hedging = new RequestHedging(0.5, timer);
+        for (int i = 0; i < RequestHedging.MIN_SAMPLES; i++) {
+            hedging.record(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        return hedging;
+    }
+
+    private static Request request(final RequestType requestType) {
+        return new Request(ArangoRequestParam.SYSTEM, requestType, "/_api/version");
+    }
+
+}
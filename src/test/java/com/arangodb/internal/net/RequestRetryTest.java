@@ -0,0 +1,115 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.net;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.util.HashedWheelTimer;
+import com.arangodb.util.RetryPolicy;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class RequestRetryTest {
+
+    private static final Request REQUEST = new Request("_system", RequestType.GET, "/_api/version");
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 64);
+
+    /**
+     * Retries up to the given number of attempts without delay.
+     */
+    private static RetryPolicy retries(final int maxRetries) {
+        return (request, error, attempt) -> attempt <= maxRetries ? 0L : -1L;
+    }
+
+    @Test
+    public void retriesUntilSuccess() {
+        final RequestRetry retry = new RequestRetry(retries(3), timer);
+        final AtomicInteger attempts = new AtomicInteger();
+        final String result = retry.execute(REQUEST, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ArangoDBException("unavailable", 503);
+            }
+            return "ok";
+        });
+        assertThat(result, is("ok"));
+        assertThat(attempts.get(), is(3));
+    }
+
+    @Test
+    public void rethrowsLastErrorIfNotRetried() {
+        final RequestRetry retry = new RequestRetry(retries(2), timer);
+        final AtomicInteger attempts = new AtomicInteger();
+        try {
+            retry.execute(REQUEST, () -> {
+                throw new ArangoDBException("attempt " + attempts.incrementAndGet());
+            });
+            fail();
+        } catch (final ArangoDBException e) {
+            assertThat(e.getMessage(), is("attempt 3"));
+        }
+    }
+
+    @Test
+    public void retriesAsyncUntilSuccess() throws Exception {
+        final RequestRetry retry = new RequestRetry(retries(3), timer);
+        final AtomicInteger attempts = new AtomicInteger();
+        final CompletableFuture<String> result = retry.executeAsync(REQUEST, () -> {
+            final CompletableFuture<String> future = new CompletableFuture<>();
+            if (attempts.incrementAndGet() < 3) {
+                future.completeExceptionally(new ArangoDBException("unavailable", 503));
+            } else {
+                future.complete("ok");
+            }
+            return future;
+        });
+        assertThat(result.get(5, TimeUnit.SECONDS), is("ok"));
+        assertThat(attempts.get(), is(3));
+    }
+
+    @Test
+    public void completesAsyncWithLastErrorIfNotRetried() throws Exception {
+        final RequestRetry retry = new RequestRetry(retries(1), timer);
+        final AtomicInteger attempts = new AtomicInteger();
+        final CompletableFuture<String> result = retry.executeAsync(REQUEST, () -> CompletableFuture
+                .supplyAsync(() -> {
+                    throw new ArangoDBException("attempt " + attempts.incrementAndGet());
+                }));
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(ArangoDBException.class));
+            assertThat(e.getCause().getMessage(), is("attempt 2"));
+        }
+    }
+
+}
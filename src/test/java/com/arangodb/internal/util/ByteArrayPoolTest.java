@@ -0,0 +1,103 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.util;
+
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ByteArrayPoolTest {
+
+    private static final VPackSlice SLICE = new VPackBuilder().add(ValueType.ARRAY).add(1).close().slice();
+
+    @Test
+    public void acquireRoundsUpToSizeClass() {
+        final ByteArrayPool pool = new ByteArrayPool();
+        assertThat(pool.acquire(0).length, is(1024));
+        assertThat(pool.acquire(1024).length, is(1024));
+        assertThat(pool.acquire(1025).length, is(2048));
+        assertThat(pool.acquire(1 << 20).length, is(1 << 20));
+        assertThat(pool.acquire((1 << 20) + 1).length, is((1 << 20) + 1));
+    }
+
+    @Test
+    public void releasedArrayIsReused() {
+        final ByteArrayPool pool = new ByteArrayPool();
+        final byte[] array = pool.acquire(3000);
+        pool.release(array);
+        assertThat(pool.acquire(4096), is(sameInstance(array)));
+        assertThat(pool.acquire(4096), is(not(sameInstance(array))));
+    }
+
+    @Test
+    public void foreignArraysAreNotPooled() {
+        final ByteArrayPool pool = new ByteArrayPool();
+        final byte[] odd = new byte[3000];
+        pool.release(odd);
+        assertThat(pool.acquire(3000), is(not(sameInstance(odd))));
+        final byte[] large = new byte[1 << 21];
+        pool.release(large);
+        assertThat(pool.acquire(1 << 21), is(not(sameInstance(large))));
+    }
+
+    @Test
+    public void sizeClassIsBounded() {
+        final ByteArrayPool pool = new ByteArrayPool();
+        final byte[] first = pool.acquire(1 << 20);
+        final byte[] second = pool.acquire(1 << 20);
+        pool.release(first);
+        pool.release(second);
+        assertThat(pool.acquire(1 << 20), is(sameInstance(first)));
+        assertThat(pool.acquire(1 << 20), is(not(sameInstance(second))));
+    }
+
+    @Test
+    public void sliceReferences() {
+        assertThat(VPackSliceReferences.mayReference(null), is(false));
+        assertThat(VPackSliceReferences.mayReference("value"), is(false));
+        assertThat(VPackSliceReferences.mayReference(new byte[]{1}), is(false));
+        assertThat(VPackSliceReferences.mayReference(Arrays.asList(1L, "a", true)), is(false));
+        final BaseDocument document = new BaseDocument("key");
+        document.addAttribute("nested", Collections.singletonMap("a", Collections.singletonList(1)));
+        assertThat(VPackSliceReferences.mayReference(document), is(false));
+
+        assertThat(VPackSliceReferences.mayReference(SLICE), is(true));
+        assertThat(VPackSliceReferences.mayReference(new Object[]{"a", SLICE}), is(true));
+        document.addAttribute("slice", Collections.singletonMap("a", SLICE));
+        assertThat(VPackSliceReferences.mayReference(document), is(true));
+        // not walked
+        assertThat(VPackSliceReferences.mayReference(Optional.of("value")), is(true));
+        assertThat(VPackSliceReferences.mayReference(Collections.nCopies(2000, "value")), is(false));
+        assertThat(VPackSliceReferences.mayReference(Collections.nCopies(2000, new BaseDocument())), is(true));
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    public void expire() throws InterruptedException {
+        final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 8);
+        final CountDownLatch latch = new CountDownLatch(2);
+        final long start = System.nanoTime();
+        // delay of more than one round of the wheel
+        final HashedWheelTimer.Timeout timeout = timer.newTimeout(latch::countDown, 20, TimeUnit.MILLISECONDS);
+        timer.newTimeout(latch::countDown, 0, TimeUnit.MILLISECONDS);
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(System.nanoTime() - start, is(greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20))));
+        assertThat(timeout.isExpired(), is(true));
+        assertThat(timeout.cancel(), is(false));
+    }
+
+    @Test
+    public void cancel() throws InterruptedException {
+        final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 8);
+        final AtomicInteger expired = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        int notCancelled = 0;
+        for (int i = 0; i < 1000; i++) {
+            // on a slow machine a timeout may already have expired when it is cancelled
+            if (!timer.newTimeout(expired::incrementAndGet, 10, TimeUnit.MILLISECONDS).cancel()) {
+                notCancelled++;
+            }
+        }
+        timer.newTimeout(latch::countDown, 30, TimeUnit.MILLISECONDS);
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(expired.get(), is(notCancelled));
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class IOUtilsTest {
+
+    @Test
+    public void readFullyPresized() throws IOException {
+        final byte[] content = content(20000);
+        final ByteBuffer buffer = IOUtils.readFully(new ByteArrayInputStream(content), content.length);
+        assertThat(buffer.array().length, is(content.length));
+        assertThat(toArray(buffer), is(content));
+    }
+
+    @Test
+    public void readFullyWithWrongOrUnknownLength() throws IOException {
+        final byte[] content = content(20000);
+        for (final long expectedLength : new long[]{-1L, 0L, 100L, 19999L, 30000L}) {
+            final ByteBuffer buffer = IOUtils.readFully(slow(content), expectedLength);
+            assertThat(toArray(buffer), is(content));
+        }
+        assertThat(IOUtils.readFully(new ByteArrayInputStream(new byte[0]), -1L).hasRemaining(), is(false));
+    }
+
+    @Test
+    public void toUtf8String() throws IOException {
+        final String large = new String(content(100000), StandardCharsets.UTF_8) + "äöü€😀";
+        final byte[] bytes = large.getBytes(StandardCharsets.UTF_8);
+        assertThat(IOUtils.toUtf8String(slow(bytes), -1L), is(large));
+        assertThat(IOUtils.toUtf8String(new ByteArrayInputStream(bytes), bytes.length), is(large));
+        // the pooled buffer of the previous read must not leak into a shorter content
+        assertThat(IOUtils.toUtf8String(new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)), 2L),
+                is("{}"));
+        assertThat(IOUtils.toUtf8String(new ByteArrayInputStream(new byte[0]), -1L), is(""));
+    }
+
+    @Test
+    public void toUtf8StringConcurrently() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final String expected = new String(content(i * 500), StandardCharsets.UTF_8);
+                results.add(executor.submit(() -> expected.equals(IOUtils.toUtf8String(
+                        slow(expected.getBytes(StandardCharsets.UTF_8)), -1L))));
+            }
+            for (final Future<Boolean> result : results) {
+                assertThat(result.get(), is(true));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] content(final int length) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        return content;
+    }
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        return Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit());
+    }
+
+    /**
+     * @return stream returning at most 1000 bytes per read
+     */
+    private static InputStream slow(final byte[] content) {
+        return new FilterInputStream(new ByteArrayInputStream(content)) {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+    }
+
+}
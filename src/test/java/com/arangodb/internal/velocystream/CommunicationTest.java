@@ -111,4 +111,39 @@ public class CommunicationTest {
         final ArangoDBVersion version = arangoDB.getVersion();
         assertThat(version, is(notNullValue()));
     }
+
+    @Test
+    public void chunkSizeSmallNio() {
+        final ArangoDB arangoDB = new ArangoDB.Builder().useNio(true).chunksize(20).build();
+        final ArangoDBVersion version = arangoDB.getVersion();
+        assertThat(version, is(notNullValue()));
+        arangoDB.shutdown();
+    }
+
+    @Test
+    public void multiThreadNio() throws Exception {
+        final ArangoDB arangoDB = new ArangoDB.Builder().useNio(true).nioThreads(1).maxConnections(2).build();
+        arangoDB.getUsers(); // authentication and active-failover connection redirect to master
+
+        final Collection<String> result = new ConcurrentLinkedQueue<>();
+        final Thread fast = new Thread(() -> {
+            arangoDB.db().query("return sleep(0.1)", null, null, null);
+            result.add(FAST);
+        });
+        final Thread slow = new Thread(() -> {
+            arangoDB.db().query("return sleep(0.5)", null, null, null);
+            result.add(SLOW);
+        });
+        slow.start();
+        fast.start();
+
+        slow.join();
+        fast.join();
+
+        assertThat(result.size(), is(2));
+        final Iterator<String> iterator = result.iterator();
+        assertThat(iterator.next(), is(FAST));
+        assertThat(iterator.next(), is(SLOW));
+        arangoDB.shutdown();
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.internal.util.ByteArrayPool;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ChunkStoreTest {
+
+    private static final VPackSlice HEAD = new VPackBuilder().add(ValueType.ARRAY).add(1).add(2).add(200).close()
+            .slice();
+
+    private static CompletableFuture<Message> expect(final MessageStore messageStore, final long messageId) {
+        return messageStore.storeMessage(messageId);
+    }
+
+    @Test
+    public void singleChunk() throws Exception {
+        final MessageStore messageStore = new MessageStore();
+        final ChunkStore chunkStore = new ChunkStore(messageStore);
+        final CompletableFuture<Message> task = expect(messageStore, 1L);
+        final int size = HEAD.getByteSize();
+        final ByteBuffer buffer = chunkStore.storeChunk(new Chunk(1L, 0, 1, -1L, 0, size));
+        buffer.put(HEAD.getBuffer(), HEAD.getStart(), size);
+        chunkStore.checkCompleteness(1L);
+        assertThat(task.isDone(), is(true));
+        assertThat(task.get().getHead().get(2).getAsInt(), is(200));
+        assertThat(task.get().getBody(), is(nullValue()));
+    }
+
+    @Test
+    public void multipleChunks() throws Exception {
+        final MessageStore messageStore = new MessageStore();
+        final ChunkStore chunkStore = new ChunkStore(messageStore);
+        final CompletableFuture<Message> task = expect(messageStore, 2L);
+        final int size = HEAD.getByteSize();
+        final int first = size / 2;
+        final ByteBuffer buffer = chunkStore.storeChunk(new Chunk(2L, 0, 2, size, 0, first));
+        buffer.put(HEAD.getBuffer(), HEAD.getStart(), first);
+        chunkStore.checkCompleteness(2L);
+        assertThat(task.isDone(), is(false));
+
+        // interleaved single chunk message of another request
+        final CompletableFuture<Message> other = expect(messageStore, 3L);
+        chunkStore.storeChunk(new Chunk(3L, 0, 1, -1L, 0, size)).put(HEAD.getBuffer(), HEAD.getStart(), size);
+        chunkStore.checkCompleteness(3L);
+        assertThat(other.isDone(), is(true));
+
+        chunkStore.storeChunk(new Chunk(2L, 1, 2, -1L, first, size - first))
+                .put(HEAD.getBuffer(), HEAD.getStart() + first, size - first);
+        chunkStore.checkCompleteness(2L);
+        assertThat(task.isDone(), is(true));
+        assertThat(task.get().getHead().get(2).getAsInt(), is(200));
+    }
+
+    @Test
+    public void pooledBuffers() throws Exception {
+        final ByteArrayPool pool = new ByteArrayPool();
+        final byte[] dirty = new byte[1024];
+        Arrays.fill(dirty, (byte) 0x1b);
+        pool.release(dirty);
+        final MessageStore messageStore = new MessageStore();
+        final ChunkStore chunkStore = new ChunkStore(messageStore, pool);
+
+        // the pooled buffer is longer than the message, so the body ends with the message
+        final CompletableFuture<Message> task = expect(messageStore, 5L);
+        final int size = HEAD.getByteSize();
+        final ByteBuffer buffer = chunkStore.storeChunk(new Chunk(5L, 0, 1, -1L, 0, size));
+        assertThat(buffer.array(), is(sameInstance(dirty)));
+        buffer.put(HEAD.getBuffer(), HEAD.getStart(), size);
+        chunkStore.checkCompleteness(5L);
+        assertThat(task.get().getHead().get(2).getAsInt(), is(200));
+        assertThat(task.get().getBody(), is(nullValue()));
+
+        final VPackSlice body = new VPackBuilder().add(ValueType.OBJECT).add("a", 1).close().slice();
+        final CompletableFuture<Message> other = expect(messageStore, 6L);
+        final int length = size + body.getByteSize();
+        chunkStore.storeChunk(new Chunk(6L, 0, 2, length, 0, size)).put(HEAD.getBuffer(), HEAD.getStart(), size);
+        chunkStore.checkCompleteness(6L);
+        chunkStore.storeChunk(new Chunk(6L, 1, 2, -1L, size, body.getByteSize()))
+                .put(body.getBuffer(), body.getStart(), body.getByteSize());
+        chunkStore.checkCompleteness(6L);
+        assertThat(other.get().getBody().get("a").getAsInt(), is(1));
+        assertThat(other.get().getBody().getBuffer().length, is(1024));
+    }
+
+    @Test
+    public void unexpectedChunk() {
+        final MessageStore messageStore = new MessageStore();
+        final ChunkStore chunkStore = new ChunkStore(messageStore);
+        final CompletableFuture<Message> task = expect(messageStore, 4L);
+        assertThat(chunkStore.storeChunk(new Chunk(4L, 1, 2, -1L, 10, 10)), is(nullValue()));
+        assertThat(task.isCancelled(), is(true));
+    }
+
+}
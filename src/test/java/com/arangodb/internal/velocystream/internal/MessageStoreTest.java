@@ -0,0 +1,103 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.ArangoDBException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+public class MessageStoreTest {
+
+    @Test
+    public void consume() throws Exception {
+        final MessageStore store = new MessageStore();
+        final Random random = new Random(0L);
+        final Map<Long, CompletableFuture<Message>> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            final long id = random.nextInt(512) - 64L;
+            if (expected.containsKey(id)) {
+                final Message message = new Message(id, null, null);
+                store.consume(message);
+                assertThat(expected.remove(id).get(), is(sameInstance(message)));
+            } else {
+                expected.put(id, store.storeMessage(id));
+            }
+        }
+        for (final Map.Entry<Long, CompletableFuture<Message>> entry : expected.entrySet()) {
+            assertThat(entry.getValue().isDone(), is(false));
+            store.consume(new Message(entry.getKey(), null, null));
+            assertThat(entry.getValue().isDone(), is(true));
+        }
+        assertThat(store.isEmpty(), is(true));
+    }
+
+    @Test
+    public void release() {
+        final MessageStore store = new MessageStore();
+        final CompletableFuture<Message> future = store.storeMessage(1L);
+        store.release(1L);
+        assertThat(store.isEmpty(), is(true));
+        store.consume(new Message(1L, null, null));
+        assertThat(future.isDone(), is(false));
+    }
+
+    @Test
+    public void clearWithException() throws Exception {
+        final MessageStore store = new MessageStore();
+        final CompletableFuture<Message> first = store.storeMessage(1L);
+        final CompletableFuture<Message> second = store.storeMessage(2L);
+        final IOException error = new IOException("The socket is closed.");
+        store.clear(error);
+        assertThat(store.isEmpty(), is(true));
+        for (final CompletableFuture<Message> future : new CompletableFuture[]{first, second}) {
+            try {
+                future.get();
+                fail();
+            } catch (final ExecutionException e) {
+                assertThat(e.getCause(), is(instanceOf(ArangoDBException.class)));
+                assertThat(e.getCause().getCause(), is(sameInstance(error)));
+            }
+        }
+    }
+
+    @Test
+    public void clear() {
+        final MessageStore store = new MessageStore();
+        final CompletableFuture<Message> future = store.storeMessage(1L);
+        store.clear();
+        assertThat(future.isCancelled(), is(true));
+        assertThat(store.isEmpty(), is(true));
+    }
+
+}
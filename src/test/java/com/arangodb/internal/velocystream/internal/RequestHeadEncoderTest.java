@@ -0,0 +1,117 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.ArangoDB;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class RequestHeadEncoderTest {
+
+    private static ArangoSerialization util;
+
+    @BeforeClass
+    public static void setup() {
+        util = new ArangoDB.Builder().build().util();
+    }
+
+    private static Map<String, String> toMap(final VPackSlice object) {
+        final Map<String, String> map = new HashMap<>();
+        final Iterator<Entry<String, VPackSlice>> it = object.objectIterator();
+        while (it.hasNext()) {
+            final Entry<String, VPackSlice> entry = it.next();
+            map.put(entry.getKey(), entry.getValue().getAsString());
+        }
+        return map;
+    }
+
+    private static void assertSameHead(final VPackSlice actual, final VPackSlice expected) {
+        assertThat(actual.isArray(), is(true));
+        assertThat(actual.getLength(), is(expected.getLength()));
+        assertThat(actual.get(0).getAsInt(), is(expected.get(0).getAsInt()));
+        assertThat(actual.get(1).getAsInt(), is(expected.get(1).getAsInt()));
+        assertThat(actual.get(2).getAsString(), is(expected.get(2).getAsString()));
+        assertThat(actual.get(3).getAsInt(), is(expected.get(3).getAsInt()));
+        assertThat(actual.get(4).getAsString(), is(expected.get(4).getAsString()));
+        assertThat(toMap(actual.get(5)), is(toMap(expected.get(5))));
+        assertThat(toMap(actual.get(6)), is(toMap(expected.get(6))));
+    }
+
+    private static VPackSlice serialize(final Request request) {
+        request.putHeaderParam("accept", "application/x-velocypack");
+        request.putHeaderParam("content-type", "application/x-velocypack");
+        return util.serialize(request);
+    }
+
+    @Test
+    public void encodeWithoutParams() {
+        final RequestHeadEncoder encoder = new RequestHeadEncoder();
+        final Request request = new Request("_system", RequestType.GET, "/_api/version");
+        final VPackSlice head = encoder.encode(request);
+        assertSameHead(head, serialize(request));
+        assertThat(head.get(5).getLength(), is(0));
+        assertThat(head.get(6).getLength(), is(2));
+    }
+
+    @Test
+    public void encodeWithParams() {
+        final RequestHeadEncoder encoder = new RequestHeadEncoder();
+        for (final RequestType requestType : RequestType.values()) {
+            final Request request = new Request("db", requestType, "/_api/document/coll/käy")
+                    .putQueryParam("waitForSync", true)
+                    .putQueryParam("returnNew", false)
+                    .putHeaderParam("x-arango-trx-id", "12345")
+                    .putHeaderParam("accept", "text/plain");
+            final VPackSlice head = encoder.encode(request);
+            assertSameHead(head, serialize(request));
+            assertThat(head.get(6).get("accept").getAsString(), is("application/x-velocypack"));
+        }
+    }
+
+    @Test
+    public void encodeLargeValues() {
+        final StringBuilder path = new StringBuilder("/_api/document/coll/");
+        for (int i = 0; i < 200; i++) {
+            path.append('k');
+        }
+        final Request request = new Request("db", RequestType.PUT, path.toString());
+        for (int i = 0; i < 100; i++) {
+            request.putQueryParam("param" + i, path.toString());
+        }
+        request.setVersion(42);
+        final VPackSlice head = new RequestHeadEncoder().encode(request);
+        assertSameHead(head, serialize(request));
+        assertThat(head.getByteSize() > 16 * 1024, is(true));
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.ArangoDefaults;
+import com.arangodb.internal.net.HostDescription;
+import com.arangodb.internal.util.HashedWheelTimer;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class VstConnectionSyncTest {
+
+    @Test
+    public void interruptedWriteReleasesMessage() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final MessageStore messageStore = new MessageStore();
+            final VstConnectionSync connection = new VstConnectionSync.Builder()
+                    .host(new HostDescription("127.0.0.1", server.getLocalPort())).messageStore(messageStore).build();
+            connection.open();
+            try (final Socket ignored = server.accept()) {
+                final VPackSlice head = new VPackBuilder().add(ValueType.ARRAY).add(1).add(1).close().slice();
+                final Message message = new Message(1L, head, null);
+                Thread.currentThread().interrupt();
+                try {
+                    connection.write(message, Collections.singleton(new Chunk(1L, 0, 1, -1, 0, head.getByteSize())),
+                            null);
+                    fail();
+                } catch (final ArangoDBException e) {
+                    assertThat(e.getCause(), is(instanceOf(InterruptedException.class)));
+                }
+                assertThat(Thread.interrupted(), is(true));
+                assertThat(messageStore.size(), is(0));
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void keepAliveProbeLatency() throws Exception {
+        final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 64);
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final VstConnectionSync connection = new VstConnectionSync.Builder()
+                    .host(new HostDescription("127.0.0.1", server.getLocalPort())).messageStore(new MessageStore())
+                    .keepAliveInterval(1).timer(timer).build();
+            connection.open();
+            try (final Socket peer = server.accept()) {
+                assertThat(connection.getKeepAliveLatency(), is(-1L));
+                final DataInputStream in = new DataInputStream(peer.getInputStream());
+                in.readFully(new byte[11]);
+                final ByteBuffer chunkHead = ByteBuffer.allocate(ArangoDefaults.CHUNK_MIN_HEADER_SIZE)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                in.readFully(chunkHead.array());
+                in.readFully(new byte[chunkHead.getInt(0) - ArangoDefaults.CHUNK_MIN_HEADER_SIZE]);
+                final long id = chunkHead.getLong(8);
+
+                final VPackSlice head = new VPackBuilder().add(ValueType.ARRAY).add(1).add(2).add(200)
+                        .add(ValueType.OBJECT).close().close().slice();
+                final int length = ArangoDefaults.CHUNK_MIN_HEADER_SIZE + head.getByteSize();
+                final ByteBuffer response = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+                response.putInt(length).putInt(3).putLong(id);
+                response.put(head.getBuffer(), head.getStart(), head.getByteSize());
+                peer.getOutputStream().write(response.array());
+
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (connection.getKeepAliveLatency() < 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertThat(connection.getKeepAliveLatency() >= 0, is(true));
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+
+package com.arangodb.internal.velocystream.internal;
+
+import com.arangodb.internal.ArangoDefaults;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class VstWriteQueueTest {
+
+    private static final VPackSlice HEAD = new VPackBuilder().add(ValueType.ARRAY).add(1).add(1).add("_system")
+            .close().slice();
+    private static final VPackSlice BODY = new VPackBuilder().add(ValueType.OBJECT).add("a", "b").close().slice();
+
+    private static ByteBuffer concat(final List<ByteBuffer> buffers) {
+        final ByteBuffer result = ByteBuffer.allocate(buffers.stream().mapToInt(ByteBuffer::remaining).sum())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffers.forEach(result::put);
+        result.flip();
+        return result;
+    }
+
+    @Test
+    public void singleChunk() {
+        final VstWriteQueue queue = new VstWriteQueue();
+        final int size = HEAD.getByteSize() + BODY.getByteSize();
+        queue.add(new Message(1L, HEAD, BODY), Arrays.asList(new Chunk(1L, 0, 1, -1L, 0, size)));
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        assertThat(queue.drain(buffers, Integer.MAX_VALUE), is(ArangoDefaults.CHUNK_MIN_HEADER_SIZE + size));
+        assertThat(queue.isEmpty(), is(true));
+        final ByteBuffer bytes = concat(buffers);
+        assertThat(bytes.getInt(), is(ArangoDefaults.CHUNK_MIN_HEADER_SIZE + size));
+        assertThat(bytes.getInt(), is(3));
+        assertThat(bytes.getLong(), is(1L));
+        assertThat(new VPackSlice(bytes.array(), bytes.position()).get(2).getAsString(), is("_system"));
+        assertThat(new VPackSlice(bytes.array(), bytes.position() + HEAD.getByteSize()).get("a").getAsString(),
+                is("b"));
+    }
+
+    @Test
+    public void coalesceMessages() {
+        final VstWriteQueue queue = new VstWriteQueue();
+        final int size = HEAD.getByteSize();
+        for (long id = 1L; id <= 3L; id++) {
+            queue.add(new Message(id, HEAD, null), Arrays.asList(new Chunk(id, 0, 1, -1L, 0, size)));
+        }
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        queue.drain(buffers, 2 * (ArangoDefaults.CHUNK_MIN_HEADER_SIZE + size));
+        assertThat(concat(buffers).remaining(), is(2 * (ArangoDefaults.CHUNK_MIN_HEADER_SIZE + size)));
+        assertThat(queue.isEmpty(), is(false));
+        buffers.clear();
+        queue.drain(buffers, Integer.MAX_VALUE);
+        assertThat(concat(buffers).getLong(2 * ArangoDefaults.INTEGER_BYTES), is(3L));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void splitAcrossChunks() {
+        final VstWriteQueue queue = new VstWriteQueue();
+        final int headSize = HEAD.getByteSize();
+        final int size = headSize + BODY.getByteSize();
+        final int first = headSize - 1;
+        queue.add(new Message(1L, HEAD, BODY), Arrays.asList(
+                new Chunk(1L, 0, 2, size, 0, first),
+                new Chunk(1L, 1, 2, -1L, first, size - first)));
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        queue.drain(buffers, 1);
+        final ByteBuffer firstChunk = concat(buffers);
+        assertThat(firstChunk.getInt(), is(ArangoDefaults.CHUNK_MAX_HEADER_SIZE + first));
+        assertThat(firstChunk.getInt(ArangoDefaults.CHUNK_MIN_HEADER_SIZE), is(size));
+        buffers.clear();
+        queue.drain(buffers, 1);
+        final ByteBuffer secondChunk = concat(buffers);
+        assertThat(secondChunk.getInt(), is(ArangoDefaults.CHUNK_MIN_HEADER_SIZE + size - first));
+        final byte[] message = new byte[size];
+        System.arraycopy(firstChunk.array(), ArangoDefaults.CHUNK_MAX_HEADER_SIZE, message, 0, first);
+        System.arraycopy(secondChunk.array(), ArangoDefaults.CHUNK_MIN_HEADER_SIZE, message, first, size - first);
+        final Message result = new Message(1L, message);
+        assertThat(result.getHead().get(2).getAsString(), is("_system"));
+        assertThat(result.getBody().get("a").getAsString(), is("b"));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void headersOfManyChunks() {
+        final VstWriteQueue queue = new VstWriteQueue();
+        final int size = HEAD.getByteSize();
+        final int count = 200;
+        for (long id = 1L; id <= count; id++) {
+            queue.add(new Message(id, HEAD, null), Arrays.asList(new Chunk(id, 0, 1, -1L, 0, size)));
+        }
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        queue.drain(buffers, (count / 2) * (ArangoDefaults.CHUNK_MIN_HEADER_SIZE + size));
+        assertThat(queue.isEmpty(), is(false));
+        // appending to the same write must not overwrite the headers collected so far
+        queue.drain(buffers, Integer.MAX_VALUE);
+        assertThat(queue.isEmpty(), is(true));
+        final ByteBuffer bytes = concat(buffers);
+        for (long id = 1L; id <= count; id++) {
+            assertThat(bytes.getInt(), is(ArangoDefaults.CHUNK_MIN_HEADER_SIZE + size));
+            assertThat(bytes.getInt(), is(3));
+            assertThat(bytes.getLong(), is(id));
+            bytes.position(bytes.position() + size);
+        }
+    }
+
+    private static List<Chunk> chunks(final long id, final int n) {
+        final List<Chunk> chunks = new ArrayList<>();
+        final int size = HEAD.getByteSize();
+        for (int i = 0; i < n; i++) {
+            chunks.add(new Chunk(id, i, n, -1L, 0, size));
+        }
+        return chunks;
+    }
+
+    private static long nextMessageId(final VstWriteQueue queue) {
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        queue.drain(buffers, 1);
+        return concat(buffers).getLong(2 * ArangoDefaults.INTEGER_BYTES);
+    }
+
+    @Test
+    public void interleaveChunks() {
+        final VstWriteQueue queue = new VstWriteQueue();
+        queue.add(new Message(1L, HEAD, null), chunks(1L, 3));
+        queue.add(new Message(2L, HEAD, null), chunks(2L, 2));
+        assertThat(nextMessageId(queue), is(1L));
+        queue.add(new Message(3L, HEAD, null), chunks(3L, 1));
+        assertThat(nextMessageId(queue), is(3L));
+        assertThat(nextMessageId(queue), is(2L));
+        assertThat(nextMessageId(queue), is(1L));
+        assertThat(nextMessageId(queue), is(2L));
+        assertThat(nextMessageId(queue), is(1L));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void bulkNotStarved() {
+        final VstWriteQueue queue = new VstWriteQueue();
+        queue.add(new Message(1L, HEAD, null), chunks(1L, 2));
+        for (long id = 2L; id < 2L + 2 * VstWriteQueue.INTERACTIVE_WEIGHT; id++) {
+            queue.add(new Message(id, HEAD, null), chunks(id, 1));
+        }
+        for (int i = 0; i < VstWriteQueue.INTERACTIVE_WEIGHT; i++) {
+            assertThat(nextMessageId(queue), is(2L + i));
+        }
+        assertThat(nextMessageId(queue), is(1L));
+    }
+
+}
@@ -22,10 +22,14 @@ package com.arangodb.util;
 
 import com.arangodb.ArangoDB;
 import com.arangodb.entity.BaseDocument;
+import com.arangodb.entity.CursorEntity;
+import com.arangodb.entity.DocumentUpdateEntity;
+import com.arangodb.entity.ErrorEntity;
 import com.arangodb.velocypack.Type;
 import com.arangodb.velocypack.VPackBuilder;
 import com.arangodb.velocypack.VPackSlice;
 import com.arangodb.velocypack.ValueType;
+import com.arangodb.velocystream.Response;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -57,6 +61,51 @@ public class ArangoSerializationTest {
         assertThat(doc.getAttribute("foo").toString(), is("bar"));
     }
 
+    @Test
+    public void deserializeResponse() {
+        final VPackSlice head = new VPackBuilder().add(ValueType.ARRAY).add(1).add(2).add(404)
+                .add(ValueType.OBJECT).add("X-Arango-Endpoint", "tcp://foo:8529").close().close().slice();
+        final Response response = util.deserialize(head, Response.class);
+        assertThat(response.getResponseCode(), is(404));
+        assertThat(response.getMeta().get("X-Arango-Endpoint"), is("tcp://foo:8529"));
+    }
+
+    @Test
+    public void deserializeErrorEntity() {
+        final VPackSlice vpack = new VPackBuilder().add(ValueType.OBJECT).add("error", true)
+                .add("errorMessage", "document not found").add("code", 404).add("errorNum", 1202).close().slice();
+        final ErrorEntity error = util.deserialize(vpack, ErrorEntity.class);
+        assertThat(error.getErrorMessage(), is("document not found"));
+        assertThat(error.getCode(), is(404));
+        assertThat(error.getErrorNum(), is(1202));
+    }
+
+    @Test
+    public void deserializeDocumentUpdateEntity() {
+        final VPackSlice vpack = new VPackBuilder().add(ValueType.OBJECT).add("_id", "c/1").add("_key", "1")
+                .add("_rev", "_b").add("_oldRev", "_a").close().slice();
+        final DocumentUpdateEntity<?> doc = util.deserialize(vpack, DocumentUpdateEntity.class);
+        assertThat(doc.getId(), is("c/1"));
+        assertThat(doc.getKey(), is("1"));
+        assertThat(doc.getRev(), is("_b"));
+        assertThat(doc.getOldRev(), is("_a"));
+    }
+
+    @Test
+    public void deserializeCursorEntity() {
+        final VPackSlice vpack = new VPackBuilder().add(ValueType.OBJECT).add("id", "123").add("hasMore", true)
+                .add("cached", false).add("count", 3).add("result", ValueType.ARRAY).add(1).add(2).close()
+                .add("extra", ValueType.OBJECT).add("stats", ValueType.OBJECT).add("fullCount", 3L).close().close()
+                .close().slice();
+        final CursorEntity cursor = util.deserialize(vpack, CursorEntity.class);
+        assertThat(cursor.getId(), is("123"));
+        assertThat(cursor.getHasMore(), is(true));
+        assertThat(cursor.getCached(), is(false));
+        assertThat(cursor.getCount(), is(3));
+        assertThat(cursor.getResult().size(), is(2));
+        assertThat(cursor.getExtra().getStats().getFullCount(), is(3L));
+    }
+
     @Test
     public void serialize() {
         final BaseDocument entity = new BaseDocument();
@@ -0,0 +1,144 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2021 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.util;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.entity.ErrorEntity;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import org.hamcrest.Matcher;
+import org.junit.Test;
+
+import java.net.SocketException;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class DefaultRetryPolicyTest {
+
+    private static final ArangoDBException UNAVAILABLE = new ArangoDBException("unavailable", 503);
+    private static final ArangoDBException RESET = new ArangoDBException(new SocketException("Connection reset"));
+    private static final ArangoDBException TIMEOUT = new ArangoDBException(new TimeoutException());
+    private static final ArangoDBException CONFLICT = error(409, 1200);
+    private static final ArangoDBException NOT_FOUND = error(404, 1202);
+
+    @Test
+    public void readsAreRetriedOnTransientErrors() {
+        final DefaultRetryPolicy policy = new DefaultRetryPolicy();
+        assertThat(policy.retryDelay(request(RequestType.GET), UNAVAILABLE, 1) >= 0, is(true));
+        assertThat(policy.retryDelay(request(RequestType.HEAD), RESET, 1) >= 0, is(true));
+        assertThat(policy.retryDelay(request(RequestType.GET), TIMEOUT, 1) >= 0, is(true));
+        assertThat(policy.retryDelay(request(RequestType.GET), NOT_FOUND, 1), is(-1L));
+        assertThat(policy.retryDelay(request(RequestType.GET), new ArangoDBException("other"), 1), is(-1L));
+    }
+
+    @Test
+    public void writesAreOnlyRetriedIfIdempotent() {
+        final DefaultRetryPolicy policy = new DefaultRetryPolicy();
+        final Request insert = request(RequestType.POST).setBody(document(true));
+        assertThat(policy.retryDelay(insert, UNAVAILABLE, 1), is(-1L));
+        assertThat(policy.retryDelay(insert.putQueryParam("overwriteMode", "conflict"), UNAVAILABLE, 1), is(-1L));
+        assertThat(policy.retryDelay(insert.putQueryParam("overwriteMode", "replace"), UNAVAILABLE, 1) >= 0,
+                is(true));
+
+        final Request withoutKey = request(RequestType.POST).putQueryParam("overwrite", true).setBody(document(false));
+        assertThat(policy.retryDelay(withoutKey, UNAVAILABLE, 1), is(-1L));
+
+        final Request batch = request(RequestType.POST).putQueryParam("overwrite", true).setBody(
+                new VPackBuilder().add(ValueType.ARRAY).add(document(true)).add(document(true)).close().slice());
+        assertThat(policy.retryDelay(batch, TIMEOUT, 1) >= 0, is(true));
+
+        assertThat(policy.retryDelay(request(RequestType.DELETE), RESET, 1), is(-1L));
+    }
+
+    @Test
+    public void conflictsAreAlwaysRetried() {
+        final DefaultRetryPolicy policy = new DefaultRetryPolicy();
+        assertThat(policy.retryDelay(request(RequestType.POST), CONFLICT, 1) >= 0, is(true));
+        assertThat(policy.retryDelay(request(RequestType.POST).putHeaderParam("x-arango-trx-id", "1"), CONFLICT, 1),
+                is(-1L));
+    }
+
+    @Test
+    public void retriesAreLimited() {
+        final DefaultRetryPolicy policy = new DefaultRetryPolicy(2, 0L, 0L, 0.1);
+        assertThat(policy.retryDelay(request(RequestType.GET), UNAVAILABLE, 2), is(0L));
+        assertThat(policy.retryDelay(request(RequestType.GET), UNAVAILABLE, 3), is(-1L));
+    }
+
+    @Test
+    public void retriesAreLimitedByBudget() {
+        final DefaultRetryPolicy policy = new DefaultRetryPolicy(3, 0L, 0L, 0.5);
+        for (long i = 0; i < DefaultRetryPolicy.MAX_BUDGET; i++) {
+            assertThat(policy.retryDelay(request(RequestType.GET), UNAVAILABLE, 1), is(0L));
+        }
+        assertThat(policy.getBudget(), is(0L));
+        assertThat(policy.retryDelay(request(RequestType.GET), UNAVAILABLE, 1), is(-1L));
+
+        policy.onRequest(request(RequestType.GET));
+        assertThat(policy.retryDelay(request(RequestType.GET), UNAVAILABLE, 1), is(-1L));
+        policy.onRequest(request(RequestType.GET));
+        assertThat(policy.retryDelay(request(RequestType.GET), UNAVAILABLE, 1), is(0L));
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyWithJitter() {
+        final DefaultRetryPolicy policy = new DefaultRetryPolicy(10, 100L, 1000L, 0.1);
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.backoff(1), is(between(50L, 100L)));
+            assertThat(policy.backoff(2), is(between(100L, 200L)));
+            assertThat(policy.backoff(4), is(between(400L, 800L)));
+            assertThat(policy.backoff(5), is(between(500L, 1000L)));
+            assertThat(policy.backoff(40), is(between(500L, 1000L)));
+        }
+    }
+
+    private static Matcher<Long> between(final long min, final long max) {
+        return both(greaterThanOrEqualTo(min)).and(lessThanOrEqualTo(max));
+    }
+
+    private static Request request(final RequestType requestType) {
+        return new Request("_system", requestType, "/_api/document/test");
+    }
+
+    private static VPackSlice document(final boolean withKey) {
+        final VPackBuilder builder = new VPackBuilder().add(ValueType.OBJECT);
+        if (withKey) {
+            builder.add("_key", "1");
+        }
+        return builder.add("foo", "bar").close().slice();
+    }
+
+    private static ArangoDBException error(final int code, final int errorNum) {
+        final ErrorEntity entity = new ErrorEntity();
+        entity.setCode(code);
+        entity.setErrorNum(errorNum);
+        return new ArangoDBException(entity);
+    }
+
+}